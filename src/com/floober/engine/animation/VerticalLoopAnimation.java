@@ -2,6 +2,7 @@ package com.floober.engine.animation;
 
 import com.floober.engine.display.DisplayManager;
 import com.floober.engine.renderEngine.Render;
+import com.floober.engine.renderEngine.elements.ElementPools;
 import com.floober.engine.renderEngine.elements.TextureElement;
 import com.floober.engine.renderEngine.textures.TextureSet;
 
@@ -33,14 +34,21 @@ public class VerticalLoopAnimation extends Animation {
 
 	public void render(float x, float y, int layer, float w, float h, float alpha) {
 		updateTextureElement(x, y + yOffset, layer, w, h, alpha);
-		Render.drawImage(new TextureElement(textureElement));
+		drawCopy();
 		if (moveSpeed > 0) { // moving down, loop above
 			updateTextureElement(x, y + yOffset - loopHeight, layer, w, h, alpha);
 		}
 		else { // moving up, loop below
 			updateTextureElement(x, y + yOffset + loopHeight, layer, w, h, alpha);
 		}
-		Render.drawImage(new TextureElement(textureElement));
+		drawCopy();
+	}
+
+	// each copy is drawn separately, so each needs its own element
+	private void drawCopy() {
+		TextureElement copy = ElementPools.textures.obtain();
+		copy.copyFrom(textureElement);
+		Render.drawImage(copy);
 	}
 
 	private void updateTextureElement(float x, float y, int layer, float width, float height, float alpha) {
@@ -1,5 +1,6 @@
 package com.floober.engine.assets;
 
+import com.floober.engine.renderEngine.textures.AtlasRegion;
 import com.floober.engine.renderEngine.textures.Texture;
 import com.floober.engine.renderEngine.textures.TextureAtlas;
 import com.floober.engine.renderEngine.textures.TextureComponent;
@@ -17,10 +18,17 @@ public class Textures {
 	private final Map<String, Texture[]> textureArrays = new HashMap<>();
 	private final Map<String, TextureAtlas> textureAtlases = new HashMap<>();
 
+	// where packed textures live in the atlas pages
+	private final Map<String, AtlasRegion> atlasRegions = new HashMap<>();
+
 	// LOADING TEXTURES
 	public void addTexture(String key, Texture texture) {
 		textures.put(key, texture);
 	}
+	public void addTexture(String key, AtlasRegion region) {
+		textures.put(key, region.texture());
+		atlasRegions.put(key, region);
+	}
 	public void addTextureSet(String key, TextureSet textureSet) { textureSets.put(key, textureSet); }
 	public void addTextureArray(String key, Texture[] textureArray) {
 		textureArrays.put(key, textureArray);
@@ -31,6 +39,8 @@ public class Textures {
 
 	// RETRIEVING TEXTURES
 	public TextureComponent getTexture(String key) {
+		AtlasRegion region = atlasRegions.get(key);
+		if (region != null) return new TextureComponent(region);
 		Texture texture = textures.get(key);
 		if (texture == null) Logger.logError("Texture with key " + key + " does not exist");
 		return new TextureComponent(texture);
@@ -1,6 +1,7 @@
 package com.floober.engine.audio;
 
 import com.floober.engine.audio.util.WaveData;
+import com.floober.engine.display.GameWindow;
 import com.floober.engine.util.Logger;
 import org.joml.Vector3f;
 import org.lwjgl.openal.AL;
@@ -28,7 +29,9 @@ public class AudioMaster {
 	 * Initialize OpenAL for the current context.
 	 */
 	public static void init() {
-		device = alcOpenDevice((ByteBuffer) null);
+		// headless machines usually have no sound card; OpenAL Soft's null backend plays to nowhere
+		if (GameWindow.HEADLESS) device = alcOpenDevice("No Output");
+		if (device == 0) device = alcOpenDevice((ByteBuffer) null);
 		ALCCapabilities deviceCapabilities = ALC.createCapabilities(device);
 		context = alcCreateContext(device, (IntBuffer) null);
 		alcMakeContextCurrent(context);
@@ -66,6 +66,16 @@ public class Display {
 	 * @return A Vector3f representing the given pixel coordinates in screen coordinates.
 	 */
 	public static Vector3f convertToDisplayPosition(float x, float y, float z, float width, float height, boolean centered) {
+		return convertToDisplayPosition(x, y, z, width, height, centered, new Vector3f());
+	}
+
+	/**
+	 * Convert the given pixel coordinates to screen coordinates, storing the result in {@code dest}.
+	 * @see #convertToDisplayPosition(float, float, float, float, float, boolean)
+	 * @param dest The vector to store the result in.
+	 * @return {@code dest}
+	 */
+	public static Vector3f convertToDisplayPosition(float x, float y, float z, float width, float height, boolean centered, Vector3f dest) {
 		// translate to top left
 		if (!centered) {
 			x += width / 2;
@@ -79,7 +89,7 @@ public class Display {
 		// convert Z position to [0 ... 1]
 		float displayZ = MathUtil.interpolateBounded(0, MasterRenderer.TOP_LAYER, z);
 		// return the result
-		return new Vector3f(displayX, displayY, displayZ);
+		return dest.set(displayX, displayY, displayZ);
 	}
 
 	public static Vector2f convertToDisplayPosition2D(Vector2f position) {
@@ -110,9 +120,18 @@ public class Display {
 	 * @return A Vector2f representing the dimensions of the element on the screen.
 	 */
 	public static Vector2f convertToDisplayScale(float width, float height) {
+		return convertToDisplayScale(width, height, new Vector2f());
+	}
+
+	/**
+	 * Convert the dimensions given from pixel units to screen units, storing the result in {@code dest}.
+	 * @param dest The vector to store the result in.
+	 * @return {@code dest}
+	 */
+	public static Vector2f convertToDisplayScale(float width, float height, Vector2f dest) {
 		float displayWidth = width / WIDTH;
 		float displayHeight = height / HEIGHT;
-		return new Vector2f(displayWidth, displayHeight);
+		return dest.set(displayWidth, displayHeight);
 	}
 
 	public static float convertToScreenSize(float pixels) {
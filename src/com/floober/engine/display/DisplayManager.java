@@ -1,5 +1,7 @@
 package com.floober.engine.display;
 
+import com.floober.engine.renderEngine.DynamicResolution;
+import com.floober.engine.renderEngine.Screenshot;
 import com.floober.engine.util.Logger;
 import com.floober.engine.util.configuration.Config;
 import com.floober.engine.util.input.KeyInput;
@@ -23,8 +25,9 @@ public class DisplayManager {
 	}
 
 	public static void updateDisplay() {
-		glfwSwapBuffers(windowID);
-		glfwPollEvents();
+		DynamicResolution.endFrame();
+		Screenshot.endFrame();
+		GameWindow.swapBuffers();
 		// update time values
 		long currentFrameTime = getCurrentTime();
 		currentFrameDelta = currentFrameTime - lastFrameTime;
@@ -33,6 +36,7 @@ public class DisplayManager {
 	}
 
 	public static void checkToggleFullscreen() {
+		if (GameWindow.HEADLESS) return;
 		if (KeyInput.isPressed(KeyInput.F11)) {
 			Display.fullscreen = !Display.fullscreen;
 			Logger.log("Attempting to toggle full screen");
@@ -47,6 +51,7 @@ public class DisplayManager {
 	}
 
 	public static void centerWindow() {
+		if (GameWindow.HEADLESS) return;
 		GLFWVidMode vidMode = glfwGetVideoMode(glfwGetPrimaryMonitor());
 		if (vidMode != null)
 			glfwSetWindowPos(windowID, (vidMode.width() - Config.DEFAULT_WIDTH) / 2, (vidMode.height() - Config.DEFAULT_HEIGHT) / 2);
@@ -79,15 +84,18 @@ public class DisplayManager {
 	}
 
 	public static float getGameTime() {
+		if (GameWindow.HEADLESS) return (float) GameWindow.getFrameCount() / GameWindow.HEADLESS_FRAME_RATE;
 		return (System.nanoTime() - gameStartTime) / 1_000_000f / 1000f;
 	}
 
 	public static long getGameTimeMS() {
+		if (GameWindow.HEADLESS) return getCurrentTime();
 		return (System.nanoTime() - gameStartTime) / 1_000_000;
 	}
 
-	// used as timer
+	// used as timer; a headless run's time moves on a fixed step each frame
 	public static long getCurrentTime() {
+		if (GameWindow.HEADLESS) return GameWindow.getFrameCount() * 1000L / GameWindow.HEADLESS_FRAME_RATE;
 		return (long) (glfwGetTime() * 1000);
 	}
 
@@ -1,10 +1,15 @@
 package com.floober.engine.display;
 
 import com.floober.engine.loaders.ImageLoader;
+import com.floober.engine.renderEngine.RenderStats;
+import com.floober.engine.renderEngine.Screenshot;
+import com.floober.engine.renderEngine.renderers.MasterRenderer;
 import com.floober.engine.renderEngine.textures.RawTextureData;
+import com.floober.engine.util.FrameProfiler;
 import com.floober.engine.util.Logger;
 import com.floober.engine.util.configuration.Config;
 import com.floober.engine.util.input.MouseInput;
+import org.lwjgl.glfw.Callbacks;
 import org.lwjgl.glfw.GLFWErrorCallback;
 import org.lwjgl.glfw.GLFWImage;
 import org.lwjgl.glfw.GLFWVidMode;
@@ -14,6 +19,7 @@ import org.lwjgl.opengl.GLUtil;
 import org.lwjgl.system.MemoryStack;
 
 import java.nio.IntBuffer;
+import java.util.Objects;
 
 import static org.lwjgl.glfw.GLFW.*;
 import static org.lwjgl.opengl.GL11.*;
@@ -23,11 +29,25 @@ import static org.lwjgl.system.MemoryUtil.NULL;
 
 public class GameWindow {
 
+	// Run with -Dfloober.headless=true to render offscreen with no window,
+	// for benchmarks and render tests; see HeadlessContext. A headless run
+	// stops after -Dfloober.frames frames, and its clock advances a fixed
+	// step each frame so that runs are repeatable.
+	public static final boolean HEADLESS = Boolean.getBoolean("floober.headless");
+	public static final int HEADLESS_FRAMES = Integer.getInteger("floober.frames", 600);
+	public static final int HEADLESS_FRAME_RATE = 60;
+
 	public static long windowID;
+	private static int frameCount;
 
 	public static GLFWWindowSizeCallback windowResizeCallback;
 
 	public static void initGame() {
+		if (HEADLESS) {
+			initHeadless();
+			return;
+		}
+
 		// Pre-startup: Set up error printing.
 		GLFWErrorCallback.createPrint(System.err).set();
 
@@ -94,31 +114,7 @@ public class GameWindow {
 		windowResizeCallback = new GLFWWindowSizeCallback() {
 			@Override
 			public void invoke(long window, int width, int height) {
-//				// log it
-				float scaleToFitWidth = (float) width / Config.INTERNAL_WIDTH;
-				float scaleToFitHeight = (float) height / Config.INTERNAL_HEIGHT;
-				Display.WINDOW_WIDTH = width;
-				Display.WINDOW_HEIGHT = height;
-				if (scaleToFitWidth < scaleToFitHeight) {
-					// scale to fit width
-					float ratio16x9 = 9.0f / 16.0f;
-					int topY = (int) ((height - width * ratio16x9) / 2);
-					Display.setViewport(0, topY, width, (int) (width * ratio16x9));
-//					glViewport(0, topY, width, (int) (width * ratio16x9));
-					MouseInput.updateRatio(width, width * ratio16x9);
-					MouseInput.setOffset(0, -topY);
-					Logger.log("Window resized to [" + width + " x " + height + "]; Viewport is now [" + width + " x " + (int) (width * ratio16x9) + "], Mouse Offset is now (0, " + (-topY / 2) + "); Scale used was width: " + scaleToFitWidth);
-				}
-				else {
-					// scale to fit height
-					float ratio16x9 = 16.0f / 9.0f;
-					int leftX = (int) ((width - height * ratio16x9) / 2);
-					Display.setViewport(leftX, 0, (int) (height * ratio16x9), height);
-//					glViewport(leftX, 0, (int) (height * ratio16x9), height);
-					MouseInput.updateRatio(height * ratio16x9, height);
-					MouseInput.setOffset(-leftX, 0);
-					Logger.log("Window resized to [" + width + " x " + height + "]; Viewport is now [" + (int) (height * ratio16x9) + " x " + height + "], Mouse Offset is now (" + -leftX + ", 0); Scale used was height: " + scaleToFitHeight);
-				}
+				resize(width, height);
 			}
 		};
 
@@ -126,15 +122,7 @@ public class GameWindow {
 
 		// Step 8: Init OpenGL.
 		GL.createCapabilities();
-
-		glDepthFunc(GL_LEQUAL);
-		glDepthRange(0, 1000000);
-
-		glClearColor(0, 0, 0, 1);
-		glClearDepth(1);
-
-		GLUtil.setupDebugMessageCallback();
-		glDebugMessageControl(GL_DONT_CARE, GL_DONT_CARE, GL_DEBUG_SEVERITY_NOTIFICATION, (IntBuffer) null, false);
+		initGL();
 
 		// Step 9: Manually resize to size specified in Config.
 		glfwSetWindowSize(windowID, Config.DEFAULT_WIDTH, Config.DEFAULT_HEIGHT);
@@ -154,4 +142,118 @@ public class GameWindow {
 		// Done!
 	}
 
+	/**
+	 * Set up an offscreen context in place of the window, the size the window would start at.
+	 */
+	private static void initHeadless() {
+		Logger.log("Running headless for " + HEADLESS_FRAMES + " frames");
+		HeadlessContext.create(Config.DEFAULT_WIDTH, Config.DEFAULT_HEIGHT);
+		GL.createCapabilities();
+		initGL();
+		resize(Config.DEFAULT_WIDTH, Config.DEFAULT_HEIGHT);
+		DisplayManager.start();
+	}
+
+	private static void initGL() {
+		glDepthFunc(GL_LEQUAL);
+		glDepthRange(0, 1000000);
+
+		glClearColor(0, 0, 0, 1);
+		glClearDepth(1);
+
+		GLUtil.setupDebugMessageCallback();
+		glDebugMessageControl(GL_DONT_CARE, GL_DONT_CARE, GL_DEBUG_SEVERITY_NOTIFICATION, (IntBuffer) null, false);
+	}
+
+	/**
+	 * Fit the viewport to a new window size, letterboxing it to 16:9.
+	 */
+	private static void resize(int width, int height) {
+//		// log it
+		float scaleToFitWidth = (float) width / Config.INTERNAL_WIDTH;
+		float scaleToFitHeight = (float) height / Config.INTERNAL_HEIGHT;
+		Display.WINDOW_WIDTH = width;
+		Display.WINDOW_HEIGHT = height;
+		if (scaleToFitWidth < scaleToFitHeight) {
+			// scale to fit width
+			float ratio16x9 = 9.0f / 16.0f;
+			int topY = (int) ((height - width * ratio16x9) / 2);
+			Display.setViewport(0, topY, width, (int) (width * ratio16x9));
+//			glViewport(0, topY, width, (int) (width * ratio16x9));
+			MouseInput.updateRatio(width, width * ratio16x9);
+			MouseInput.setOffset(0, -topY);
+			Logger.log("Window resized to [" + width + " x " + height + "]; Viewport is now [" + width + " x " + (int) (width * ratio16x9) + "], Mouse Offset is now (0, " + (-topY / 2) + "); Scale used was width: " + scaleToFitWidth);
+		}
+		else {
+			// scale to fit height
+			float ratio16x9 = 16.0f / 9.0f;
+			int leftX = (int) ((width - height * ratio16x9) / 2);
+			Display.setViewport(leftX, 0, (int) (height * ratio16x9), height);
+//			glViewport(leftX, 0, (int) (height * ratio16x9), height);
+			MouseInput.updateRatio(height * ratio16x9, height);
+			MouseInput.setOffset(-leftX, 0);
+			Logger.log("Window resized to [" + width + " x " + height + "]; Viewport is now [" + (int) (height * ratio16x9) + " x " + height + "], Mouse Offset is now (" + -leftX + ", 0); Scale used was height: " + scaleToFitHeight);
+		}
+	}
+
+	/**
+	 * @return {@code true} once the window has been closed or, when headless, the last frame has been drawn.
+	 */
+	public static boolean shouldClose() {
+		if (HEADLESS) return frameCount >= HEADLESS_FRAMES;
+		return glfwWindowShouldClose(windowID);
+	}
+
+	/**
+	 * Show the finished frame and poll for events.
+	 */
+	public static void swapBuffers() {
+		frameCount++;
+		if (HEADLESS) {
+			HeadlessContext.swapBuffers();
+			return;
+		}
+		glfwSwapBuffers(windowID);
+		glfwPollEvents();
+	}
+
+	/**
+	 * @return The number of frames shown so far.
+	 */
+	public static int getFrameCount() {
+		return frameCount;
+	}
+
+	/**
+	 * Report on a headless run: log how long its frames took and what they cost,
+	 * save the final scene to {@code -Dfloober.capture} if given, and the frame
+	 * profile to {@code -Dfloober.stats} if given.
+	 * @param runNanos How long the game loop ran for.
+	 */
+	public static void finishHeadlessRun(long runNanos) {
+		int frames = frameCount;
+		Logger.log("Headless run finished: " + frames + " frames, " +
+				String.format("%.3f", runNanos / 1_000_000.0 / Math.max(1, frames)) + " ms per frame on average" +
+				"\n" + FrameProfiler.getReport() +
+				"\nLast frame: " + RenderStats.getLastFrame());
+		String capturePath = System.getProperty("floober.capture");
+		if (capturePath != null) Screenshot.saveFrameBuffer(MasterRenderer.getSceneBuffer(), capturePath);
+		String statsPath = System.getProperty("floober.stats");
+		if (statsPath != null) FrameProfiler.exportCSV(statsPath);
+	}
+
+	/**
+	 * Close the window (or the offscreen context) and shut down GLFW.
+	 */
+	public static void destroy() {
+		if (HEADLESS) {
+			HeadlessContext.destroy();
+			return;
+		}
+		Callbacks.glfwFreeCallbacks(windowID);
+		glfwDestroyWindow(windowID);
+		glfwTerminate();
+		Objects.requireNonNull(glfwSetErrorCallback(null)).free(); // shut up, compiler
+	}
+
 }
\ No newline at end of file
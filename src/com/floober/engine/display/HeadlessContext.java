@@ -0,0 +1,115 @@
+package com.floober.engine.display;
+
+import com.floober.engine.util.Logger;
+import org.lwjgl.PointerBuffer;
+import org.lwjgl.egl.EGL;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.system.Configuration;
+import org.lwjgl.system.MemoryStack;
+
+import java.nio.IntBuffer;
+
+import static org.lwjgl.egl.EGL10.*;
+import static org.lwjgl.egl.EGL12.*;
+import static org.lwjgl.egl.EGL14.*;
+import static org.lwjgl.egl.EXTPlatformBase.eglGetPlatformDisplayEXT;
+
+/**
+ * An OpenGL context with no window, for running the game on machines with no
+ * display, such as build servers. The context is created through EGL, on
+ * Mesa's surfaceless platform where it's available (which needs no display
+ * server or GPU; llvmpipe renders in software), or EGL's default display
+ * otherwise. It draws to an offscreen pbuffer the size of the window it
+ * stands in for, so the default framebuffer still exists and can be read back.
+ */
+public class HeadlessContext {
+
+	// from EGL_MESA_platform_surfaceless, which LWJGL doesn't have a binding for
+	private static final int EGL_PLATFORM_SURFACELESS_MESA = 0x31DD;
+
+	private static long display = EGL_NO_DISPLAY;
+	private static long surface = EGL_NO_SURFACE;
+	private static long context = EGL_NO_CONTEXT;
+
+	/**
+	 * Create the context and make it current.
+	 * @param width The width of the offscreen surface.
+	 * @param height The height of the offscreen surface.
+	 */
+	public static void create(int width, int height) {
+
+		// OpenGL's functions have to come from EGL, not the windowing system's library
+		Configuration.OPENGL_EXPLICIT_INIT.set(true);
+
+		display = getDisplay();
+		if (display == EGL_NO_DISPLAY) throw new IllegalStateException("No EGL display available");
+
+		try (MemoryStack stack = MemoryStack.stackPush()) {
+
+			IntBuffer major = stack.mallocInt(1), minor = stack.mallocInt(1);
+			if (!eglInitialize(display, major, minor))
+				throw new IllegalStateException("Unable to initialize EGL: error " + eglGetError());
+			EGL.createDisplayCapabilities(display, major.get(0), minor.get(0));
+			Logger.log("Headless: EGL " + major.get(0) + "." + minor.get(0) + ", " + eglQueryString(display, EGL_VENDOR));
+
+			if (!eglBindAPI(EGL_OPENGL_API)) throw new IllegalStateException("EGL has no desktop OpenGL");
+
+			// an RGBA config with depth that can draw to a pbuffer
+			IntBuffer configAttributes = stack.ints(
+					EGL_SURFACE_TYPE, EGL_PBUFFER_BIT,
+					EGL_RENDERABLE_TYPE, EGL_OPENGL_BIT,
+					EGL_RED_SIZE, 8, EGL_GREEN_SIZE, 8, EGL_BLUE_SIZE, 8, EGL_ALPHA_SIZE, 8,
+					EGL_DEPTH_SIZE, 24,
+					EGL_NONE);
+			PointerBuffer configs = stack.mallocPointer(1);
+			IntBuffer configCount = stack.mallocInt(1);
+			if (!eglChooseConfig(display, configAttributes, configs, configCount) || configCount.get(0) == 0)
+				throw new IllegalStateException("No suitable EGL config");
+			long config = configs.get(0);
+
+			surface = eglCreatePbufferSurface(display, config, stack.ints(EGL_WIDTH, width, EGL_HEIGHT, height, EGL_NONE));
+			if (surface == EGL_NO_SURFACE) throw new IllegalStateException("Unable to create EGL surface: error " + eglGetError());
+
+			// like the window's context, no particular version or profile is asked for
+			context = eglCreateContext(display, config, EGL_NO_CONTEXT, stack.ints(EGL_NONE));
+			if (context == EGL_NO_CONTEXT) throw new IllegalStateException("Unable to create EGL context: error " + eglGetError());
+
+			if (!eglMakeCurrent(display, surface, surface, context))
+				throw new IllegalStateException("Unable to make EGL context current: error " + eglGetError());
+
+		}
+
+		GL.create(EGL.getFunctionProvider());
+
+	}
+
+	private static long getDisplay() {
+		String clientExtensions = eglQueryString(EGL_NO_DISPLAY, EGL_EXTENSIONS);
+		if (clientExtensions != null && clientExtensions.contains("EGL_EXT_platform_base") &&
+				clientExtensions.contains("EGL_MESA_platform_surfaceless")) {
+			long surfaceless = eglGetPlatformDisplayEXT(EGL_PLATFORM_SURFACELESS_MESA, EGL_DEFAULT_DISPLAY, (IntBuffer) null);
+			if (surfaceless != EGL_NO_DISPLAY) return surfaceless;
+		}
+		return eglGetDisplay(EGL_DEFAULT_DISPLAY);
+	}
+
+	/**
+	 * Finish the frame. There's nothing to show it on, so this only flushes it.
+	 */
+	public static void swapBuffers() {
+		eglSwapBuffers(display, surface);
+	}
+
+	public static void destroy() {
+		if (display == EGL_NO_DISPLAY) return;
+		eglMakeCurrent(display, EGL_NO_SURFACE, EGL_NO_SURFACE, EGL_NO_CONTEXT);
+		if (context != EGL_NO_CONTEXT) eglDestroyContext(display, context);
+		if (surface != EGL_NO_SURFACE) eglDestroySurface(display, surface);
+		eglTerminate(display);
+		GL.destroy();
+		display = EGL_NO_DISPLAY;
+		surface = EGL_NO_SURFACE;
+		context = EGL_NO_CONTEXT;
+	}
+
+}
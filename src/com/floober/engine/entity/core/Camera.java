@@ -7,6 +7,7 @@ import com.floober.engine.util.interpolators.FadeInFloat;
 import com.floober.engine.util.math.MathUtil;
 import com.floober.engine.util.time.Timer;
 import org.joml.Vector2f;
+import org.joml.Vector4f;
 
 public class Camera extends Entity {
 
@@ -50,6 +51,21 @@ public class Camera extends Entity {
 	public Vector2f getPositionVec() { return getFinalPosition(); }
 	public Vector2f getRawPos() { return new Vector2f(x, y); }
 	public int getCurrentMode() { return currentMode; }
+
+	/**
+	 * Get the area of the world this camera can see, for deciding what's
+	 * worth updating or submitting for rendering at all.
+	 * @param dest The vector to store the view's (left, top, width, height) in, in world pixels.
+	 * @return {@code dest}
+	 */
+	public Vector4f getViewBounds(Vector4f dest) {
+		float left = x - Display.centerX(), top = y - Display.centerY();
+		if (shake) {
+			left -= shakeEffect.getOffsetX();
+			top -= shakeEffect.getOffsetY();
+		}
+		return dest.set(left, top, Display.WIDTH, Display.HEIGHT);
+	}
 	public boolean wasPositionCorrected() { return wasPositionCorrected; }
 
 	// conditions
@@ -36,6 +36,9 @@ public class CameraShake extends EntityEffect {
 			return new Vector2f(xShake.getOffset(), yShake.getOffset());
 	}
 
+	public int getOffsetX() { return xShake.getOffset(); }
+	public int getOffsetY() { return yShake.getOffset(); }
+
 	@Override
 	public void update() {
 		xShake.update();
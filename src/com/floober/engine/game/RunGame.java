@@ -4,14 +4,22 @@ import com.floober.engine.audio.AudioMaster;
 import com.floober.engine.display.DisplayManager;
 import com.floober.engine.display.GameWindow;
 import com.floober.engine.loaders.Loader;
+import com.floober.engine.renderEngine.DynamicResolution;
+import com.floober.engine.renderEngine.GLStateManager;
+import com.floober.engine.renderEngine.RenderStats;
 import com.floober.engine.renderEngine.Screenshot;
+import com.floober.engine.renderEngine.ViewCuller;
 import com.floober.engine.renderEngine.fonts.fontMeshCreator.GUIText;
 import com.floober.engine.renderEngine.fonts.fontRendering.TextMaster;
+import com.floober.engine.renderEngine.framebuffers.FrameBuffer;
+import com.floober.engine.renderEngine.framebuffers.RenderTargetPool;
 import com.floober.engine.renderEngine.particles.ParticleMaster;
 import com.floober.engine.renderEngine.ppfx.PostProcessing;
 import com.floober.engine.renderEngine.renderers.LoadRenderer;
 import com.floober.engine.renderEngine.renderers.MasterRenderer;
 import com.floober.engine.renderEngine.textures.TextureOutliner;
+import com.floober.engine.util.AllocationCounter;
+import com.floober.engine.util.FrameProfiler;
 import com.floober.engine.util.Logger;
 import com.floober.engine.util.color.Colors;
 import com.floober.engine.util.configuration.Settings;
@@ -19,13 +27,8 @@ import com.floober.engine.util.input.KeyInput;
 import com.floober.engine.util.input.MouseInput;
 import com.floober.engine.util.time.TimeScale;
 import org.joml.Vector3f;
-import org.lwjgl.glfw.Callbacks;
 
 import java.time.ZonedDateTime;
-import java.util.Objects;
-
-import static com.floober.engine.display.GameWindow.windowID;
-import static org.lwjgl.glfw.GLFW.*;
 
 public class RunGame {
 
@@ -75,32 +78,57 @@ public class RunGame {
 		fpsDisplay.setEdge(0.2f);
 		fpsDisplay.show();
 
+		// a headless run is for measuring and comparing, so keep the debug text out of the picture
+		if (GameWindow.HEADLESS) {
+			Settings.showFps = false;
+			Settings.debugMode = false;
+			fpsDisplay.hide();
+			FrameProfiler.setAlwaysOn(true);
+		}
+		long runStart = System.nanoTime();
+
 		// Run the game loop!
-		while (!(glfwWindowShouldClose(windowID) || Game.closeRequested())) {
+		while (!(GameWindow.shouldClose() || Game.closeRequested())) {
 
 			// poll input
+			FrameProfiler.begin(FrameProfiler.INPUT);
 			KeyInput.update();
 			MouseInput.update();
+			FrameProfiler.end(FrameProfiler.INPUT);
 
 			// time
 			TimeScale.update();
 
 			// run game logic
+			FrameProfiler.begin(FrameProfiler.UPDATE);
 			Game.update();
+			FrameProfiler.end(FrameProfiler.UPDATE);
 
 			// update components
+			FrameProfiler.begin(FrameProfiler.PARTICLE_UPDATE);
 			ParticleMaster.update();
+			FrameProfiler.end(FrameProfiler.PARTICLE_UPDATE);
 
 			// clear window
 			MasterRenderer.prepare();
 
 			// render game internally
+			FrameProfiler.begin(FrameProfiler.SUBMIT);
 			Game.render();
+			FrameProfiler.end(FrameProfiler.SUBMIT);
 
 			// Debug!
 			float fps = 1.0f / DisplayManager.getFrameTimeRaw();
 			if (Settings.debugMode)
-				fpsDisplay.replaceText("[DEBUG MODE]\nFPS: " + fps + ", Particles: " + ParticleMaster.numParticles + ", Time = " + TimeScale.getTimeScale());
+				fpsDisplay.replaceText("[DEBUG MODE]\nFPS: " + fps + ", Particles: " + ParticleMaster.numParticles + ", Time = " + TimeScale.getTimeScale() +
+						"\nGL state changes: " + GLStateManager.getIssuedCount() + " issued, " + GLStateManager.getSkippedCount() + " skipped" +
+						"\nCulled: " + ViewCuller.getCulledElementCount() + " elements, " + ViewCuller.getCulledParticleCount() + " particles" +
+						"\nRender allocations: " + AllocationCounter.getLastFrameBytes() + " bytes, across the render, recorder and fill threads" +
+						"\nRender targets: " + RenderTargetPool.getTargetCount() + " pooled, " + (RenderTargetPool.getPooledBytes() >> 20) + " MB" +
+						"\nFrame buffers: " + (FrameBuffer.getAllocatedBytes() >> 20) + " MB in all" +
+						"\nScene scale: " + Math.round(DynamicResolution.getScale() * 100) + "%, GPU " + DynamicResolution.getGPUMillis() + " ms" +
+						"\n" + RenderStats.getLastFrame() +
+						"\n" + FrameProfiler.getReport());
 			else if (Settings.showFps)
 				fpsDisplay.replaceText("FPS: " + fps);
 
@@ -121,13 +149,18 @@ public class RunGame {
 			PostProcessing.doPostProcessing(MasterRenderer.getSceneBuffer().getColorTexture());
 
 			// update display and poll events
+			FrameProfiler.begin(FrameProfiler.SWAP);
 			DisplayManager.updateDisplay();
+			FrameProfiler.end(FrameProfiler.SWAP);
+			FrameProfiler.endFrame();
 
 			// sync time
 //			sync.sync(Display.FPS_CAP);
 // 			TODO decide if this is worth it; for me, it's smoother without (but rare hitching occurs for like 0.1s)
 		}
 
+		if (GameWindow.HEADLESS) GameWindow.finishHeadlessRun(System.nanoTime() - runStart);
+
 		// Clean up when done.
 		Loader.cleanUp();
 		MasterRenderer.cleanUp();
@@ -136,17 +169,18 @@ public class RunGame {
 		AudioMaster.cleanUp();
 		TextureOutliner.cleanUp();
 		PostProcessing.cleanUp();
+		FrameProfiler.cleanUp();
+		Screenshot.cleanUp();
+		RenderTargetPool.cleanUp();
 
 		// Clean up GLFW
-		Callbacks.glfwFreeCallbacks(windowID);
-		glfwDestroyWindow(windowID);
-
-		glfwTerminate();
-		Objects.requireNonNull(glfwSetErrorCallback(null)).free(); // shut up, compiler
+		GameWindow.destroy();
 
-		// save user settings/preferences and game flags
-		Settings.save();
-		GameFlags.save();
+		// save user settings/preferences and game flags; a headless run changed them for itself, so it doesn't
+		if (!GameWindow.HEADLESS) {
+			Settings.save();
+			GameFlags.save();
+		}
 
 	}
 
@@ -161,12 +195,22 @@ public class RunGame {
 		if (KeyInput.isShift() && KeyInput.isCtrl() && KeyInput.isPressed(KeyInput.D)) {
 			Settings.debugMode = !Settings.debugMode;
 		}
-		// Screenshots
+		// Save the frame profile: Ctrl + Shift + P, in debug mode
+		if (Settings.debugMode && KeyInput.isShift() && KeyInput.isCtrl() && KeyInput.isPressed(KeyInput.P)) {
+			String dir = System.getProperty("user.dir");
+			String path = dir + "/profiles/profile-" +
+					ZonedDateTime.now().toLocalTime().toString().substring(0,8).replace(":", ".") + ".csv";
+			FrameProfiler.exportCSV(path);
+		}
+		// Screenshots: F2, or Shift + F2 to start/stop recording every frame
 		if (KeyInput.isPressed(KeyInput.F2)) {
 			String dir = System.getProperty("user.dir");
-			String path = dir + "/screenshots/screenshot-" +
-					ZonedDateTime.now().toLocalTime().toString().substring(0,8).replace(":", ".") + ".png";
-			Screenshot.takeScreenshot(path);
+			String time = ZonedDateTime.now().toLocalTime().toString().substring(0,8).replace(":", ".");
+			if (KeyInput.isShift()) {
+				if (Screenshot.isRecordingSequence()) Screenshot.stopSequence();
+				else Screenshot.startSequence(dir + "/screenshots/sequence-" + time);
+			}
+			else Screenshot.takeScreenshot(dir + "/screenshots/screenshot-" + time + ".png");
 		}
 		// TEST: Toggling post-processing effects
 		if (KeyInput.isShift()) {
@@ -14,14 +14,13 @@ import com.floober.engine.gui.component.GUILayer;
 import com.floober.engine.gui.component.TabbedPanel;
 import com.floober.engine.gui.event.*;
 import com.floober.engine.loaders.Loader;
+import com.floober.engine.renderEngine.RenderStats;
 import com.floober.engine.renderEngine.fonts.fontMeshCreator.GUIText;
-import com.floober.engine.renderEngine.fonts.fontRendering.FontRenderer;
 import com.floober.engine.renderEngine.fonts.fontRendering.TextMaster;
 import com.floober.engine.renderEngine.particles.ParticleMaster;
 import com.floober.engine.renderEngine.ppfx.PostProcessing;
-import com.floober.engine.renderEngine.renderers.GeometryRenderer;
 import com.floober.engine.renderEngine.renderers.MasterRenderer;
-import com.floober.engine.renderEngine.renderers.TextureRenderer;
+import com.floober.engine.util.FrameProfiler;
 import com.floober.engine.util.Logger;
 import com.floober.engine.util.color.Colors;
 import com.floober.engine.util.configuration.Settings;
@@ -32,12 +31,6 @@ import com.floober.engine.util.time.Sync;
 import org.joml.Vector2f;
 import org.joml.Vector3f;
 import org.joml.Vector4f;
-import org.lwjgl.glfw.Callbacks;
-
-import java.util.Objects;
-
-import static com.floober.engine.display.GameWindow.windowID;
-import static org.lwjgl.glfw.GLFW.*;
 
 public class GUITest {
 
@@ -201,7 +194,11 @@ public class GUITest {
 
 		// END_TEST
 
-		while (!(glfwWindowShouldClose(windowID) || Game.closeRequested())) {
+		// a headless run reports its frame times when it's done
+		if (GameWindow.HEADLESS) FrameProfiler.setAlwaysOn(true);
+		long runStart = System.nanoTime();
+
+		while (!(GameWindow.shouldClose() || Game.closeRequested())) {
 			// clear window
 			MasterRenderer.prepare();
 
@@ -224,10 +221,11 @@ public class GUITest {
 
 			// Debug!
 			float fps = 1.0f / DisplayManager.getFrameTimeRaw();
+			RenderStats stats = RenderStats.getLastFrame();
 			fpsDisplay.replaceText("FPS: " + fps +
-					"\nGeom: " + GeometryRenderer.ELEMENT_COUNT +
-					"\nTxtr: " + TextureRenderer.ELEMENT_COUNT +
-					"\nText: " + FontRenderer.ELEMENT_COUNT);
+					"\nGeom: " + stats.getByRenderer(RenderStats.GEOMETRY, RenderStats.INSTANCES) +
+					"\nTxtr: " + stats.getByRenderer(RenderStats.TEXTURES, RenderStats.INSTANCES) +
+					"\nText: " + stats.getByRenderer(RenderStats.TEXT, RenderStats.DRAW_CALLS));
 
 			// render to the screen
 			MasterRenderer.render();
@@ -237,12 +235,15 @@ public class GUITest {
 
 			// update display and poll events
 			DisplayManager.updateDisplay();
+			FrameProfiler.endFrame();
 
 			// sync time
 //			if (Settings.capFramerate) sync.sync(Settings.fpsOptions[Settings.maxFramerateIndex]);
 
 		}
 
+		if (GameWindow.HEADLESS) GameWindow.finishHeadlessRun(System.nanoTime() - runStart);
+
 		// Clean up when done.
 
 		// game.cleanUp();
@@ -254,11 +255,7 @@ public class GUITest {
 		Settings.save();
 
 		// Clean up GLFW
-		Callbacks.glfwFreeCallbacks(windowID);
-		glfwDestroyWindow(windowID);
-
-		glfwTerminate();
-		Objects.requireNonNull(glfwSetErrorCallback(null)).free(); // shut up, compiler
+		GameWindow.destroy();
 
 	}
 
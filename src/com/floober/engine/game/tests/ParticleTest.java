@@ -24,6 +24,7 @@ import com.floober.engine.renderEngine.particles.types.LightParticle;
 import com.floober.engine.renderEngine.ppfx.PostProcessing;
 import com.floober.engine.renderEngine.renderers.MasterRenderer;
 import com.floober.engine.renderEngine.textures.Texture;
+import com.floober.engine.util.FrameProfiler;
 import com.floober.engine.util.Logger;
 import com.floober.engine.util.color.Colors;
 import com.floober.engine.util.configuration.Config;
@@ -32,13 +33,8 @@ import com.floober.engine.util.input.MouseInput;
 import com.floober.engine.util.time.Sync;
 import org.joml.Vector3f;
 import org.joml.Vector4f;
-import org.lwjgl.glfw.Callbacks;
 
-import java.util.Objects;
-
-import static com.floober.engine.display.GameWindow.windowID;
 import static com.floober.engine.util.input.KeyInput.S;
-import static org.lwjgl.glfw.GLFW.*;
 
 public class ParticleTest {
 
@@ -196,8 +192,12 @@ public class ParticleTest {
 
 		GameLoader.LOAD_COMPLETE = true;
 
+		// a headless run reports its frame times when it's done
+		if (GameWindow.HEADLESS) FrameProfiler.setAlwaysOn(true);
+		long runStart = System.nanoTime();
+
 		// Run the game loop!
-		while (!glfwWindowShouldClose(windowID)) {
+		while (!GameWindow.shouldClose()) {
 			// clear window
 			MasterRenderer.prepare();
 
@@ -222,11 +222,14 @@ public class ParticleTest {
 
 			// update display and poll events
 			DisplayManager.updateDisplay();
+			FrameProfiler.endFrame();
 
 			// sync time
 			sync.sync(Display.FPS_CAP);
 		}
 
+		if (GameWindow.HEADLESS) GameWindow.finishHeadlessRun(System.nanoTime() - runStart);
+
 		// Clean up when done.
 
 		// game.cleanUp();
@@ -236,11 +239,7 @@ public class ParticleTest {
 		ParticleMaster.cleanUp();
 
 		// Clean up GLFW
-		Callbacks.glfwFreeCallbacks(windowID);
-		glfwDestroyWindow(windowID);
-
-		glfwTerminate();
-		Objects.requireNonNull(glfwSetErrorCallback(null)).free(); // why?
+		GameWindow.destroy();
 
 	}
 
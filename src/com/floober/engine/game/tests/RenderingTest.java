@@ -12,17 +12,12 @@ import com.floober.engine.renderEngine.particles.ParticleMaster;
 import com.floober.engine.renderEngine.ppfx.PostProcessing;
 import com.floober.engine.renderEngine.renderers.MasterRenderer;
 import com.floober.engine.renderEngine.textures.TextureComponent;
+import com.floober.engine.util.FrameProfiler;
 import com.floober.engine.util.Logger;
 import com.floober.engine.util.input.KeyInput;
 import com.floober.engine.util.input.MouseInput;
 import com.floober.engine.util.time.Sync;
 import org.joml.Vector4f;
-import org.lwjgl.glfw.Callbacks;
-
-import java.util.Objects;
-
-import static com.floober.engine.display.GameWindow.windowID;
-import static org.lwjgl.glfw.GLFW.*;
 
 public class RenderingTest {
 
@@ -60,8 +55,12 @@ public class RenderingTest {
 
 		// END_TEST
 
+		// a headless run reports its frame times when it's done
+		if (GameWindow.HEADLESS) FrameProfiler.setAlwaysOn(true);
+		long runStart = System.nanoTime();
+
 		// Run the game loop!
-		while (!glfwWindowShouldClose(windowID)) {
+		while (!GameWindow.shouldClose()) {
 			// clear window
 			MasterRenderer.prepare();
 
@@ -92,11 +91,14 @@ public class RenderingTest {
 
 			// update display and poll events
 			DisplayManager.updateDisplay();
+			FrameProfiler.endFrame();
 
 			// sync time
 			sync.sync(Display.FPS_CAP);
 		}
 
+		if (GameWindow.HEADLESS) GameWindow.finishHeadlessRun(System.nanoTime() - runStart);
+
 		// Clean up when done.
 
 		// game.cleanUp();
@@ -106,11 +108,7 @@ public class RenderingTest {
 		ParticleMaster.cleanUp();
 
 		// Clean up GLFW
-		Callbacks.glfwFreeCallbacks(windowID);
-		glfwDestroyWindow(windowID);
-
-		glfwTerminate();
-		Objects.requireNonNull(glfwSetErrorCallback(null)).free(); // shut up, compiler
+		GameWindow.destroy();
 
 	}
 
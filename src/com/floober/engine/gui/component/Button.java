@@ -61,7 +61,7 @@ public class Button extends GUIComponent {
 		baseElement.transform();
 		baseElement.setColor(getPrimaryColor().mul(getOpacity()));
 		label.setPosition(new Vector3f(Display.convertToScreenPos(new Vector2f(getPosition().x(), getPosition().y())),
-				MasterRenderer.getScreenZ((int) getPosition().z())));
+				MasterRenderer.getScreenZ(getPosition().z())));
 		label.center();
 		label.setFontSize(defaultTextSize * getScale());
 		label.setColor(getSecondaryColor().mul(getOpacity()));
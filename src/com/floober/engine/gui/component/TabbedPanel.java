@@ -346,7 +346,7 @@ public class TabbedPanel extends GUIPanel {
 			iconTexture.setSize(getSize().mul(getScale()));
 			iconTexture.transform();
 			label.setPosition(new Vector3f(Display.convertToScreenPos(new Vector2f(getPosition().x(), getPosition().y() + getSize().y() / 2)),
-					MasterRenderer.getScreenZ((int) getPosition().z())));
+					MasterRenderer.getScreenZ(getPosition().z())));
 			label.center();
 			label.setFontSize(defaultTextSize * getScale());
 			label.setColor(getSecondaryColor().mul(getOpacity()));
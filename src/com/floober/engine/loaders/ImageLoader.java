@@ -1,5 +1,6 @@
 package com.floober.engine.loaders;
 
+import com.floober.engine.renderEngine.GLStateManager;
 import com.floober.engine.renderEngine.textures.RawTextureData;
 import com.floober.engine.renderEngine.textures.Texture;
 import com.floober.engine.util.Logger;
@@ -36,7 +37,7 @@ public class ImageLoader {
 		Logger.logLoad("Loading texture: " + path);
 		// init OpenGL texture
 		int textureID = glGenTextures();
-		glBindTexture(GL_TEXTURE_2D, textureID);
+		GLStateManager.bindTexture(textureID);
 		// load from file
 		MemoryStack stack = MemoryStack.stackPush();
 		IntBuffer w = stack.mallocInt(1);
@@ -53,7 +54,7 @@ public class ImageLoader {
 		// load the texture for OpenGL
 		glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA8, width, height, 0, GL_RGBA, GL_UNSIGNED_BYTE, buffer);
 		// unbind the texture
-		glBindTexture(GL_TEXTURE_2D, 0);
+		GLStateManager.bindTexture(0);
 		// add to list to clean up
 		textures.add(textureID);
 		// create the Texture object and return it
@@ -65,7 +66,7 @@ public class ImageLoader {
 //		Logger.logLoad("Loading texture from ByteBuffer...");
 		// init OpenGL texture
 		int textureID = glGenTextures();
-		glBindTexture(GL_TEXTURE_2D, textureID);
+		GLStateManager.bindTexture(textureID);
 		// get image parameters
 		MemoryStack stack = MemoryStack.stackPush();
 		IntBuffer w = stack.mallocInt(1);
@@ -84,13 +85,37 @@ public class ImageLoader {
 		// load the texture for OpenGL
 		glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA8, width, height, 0, GL_RGBA, GL_UNSIGNED_BYTE, buffer);
 		// unbind the texture
-		glBindTexture(GL_TEXTURE_2D, 0);
+		GLStateManager.bindTexture(0);
 		// add to list to clean up
 		textures.add(textureID);
 		// create the Texture object and return it
 		return new Texture(textureID, width, height);
 	}
 
+	/**
+	 * Send an already-decoded image to the GPU.
+	 * @param data The image data, in RGBA8 format.
+	 * @return A Texture to reference the uploaded image.
+	 */
+	public static Texture loadTexture(RawTextureData data) {
+		// init OpenGL texture
+		int textureID = glGenTextures();
+		GLStateManager.bindTexture(textureID);
+		// set OpenGL texture settings for this texture
+		glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_NEAREST);
+		glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
+		glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
+		glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
+		// load the texture for OpenGL
+		glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA8, data.width, data.height, 0, GL_RGBA, GL_UNSIGNED_BYTE, data.buffer);
+		// unbind the texture
+		GLStateManager.bindTexture(0);
+		// add to list to clean up
+		textures.add(textureID);
+		// create the Texture object and return it
+		return new Texture(textureID, data.width, data.height);
+	}
+
 	/**
 	 * Load a texture, and send it to the GPU. Set the wrapping mode.
 	 * @param path The path to the texture file.
@@ -101,7 +126,7 @@ public class ImageLoader {
 		Logger.logLoad("Loading texture: " + path);
 		// init OpenGL texture
 		int textureID = glGenTextures();
-		glBindTexture(GL_TEXTURE_2D, textureID);
+		GLStateManager.bindTexture(textureID);
 		// load from file
 		MemoryStack stack = MemoryStack.stackPush();
 		IntBuffer w = stack.mallocInt(1);
@@ -119,7 +144,7 @@ public class ImageLoader {
 		// load the texture for OpenGL
 		glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA8, width, height, 0, GL_RGBA, GL_UNSIGNED_BYTE, buffer);
 		// unbind the texture
-		glBindTexture(GL_TEXTURE_2D, 0);
+		GLStateManager.bindTexture(0);
 		// add to list to clean up
 		textures.add(textureID);
 		// create the Texture object and return it
@@ -254,7 +279,7 @@ public class ImageLoader {
 	public static void cleanUp() {
 		Logger.log("Cleaning up " + textures.size() + " textures");
 		for (int texture : textures) {
-			glDeleteTextures(texture);
+			GLStateManager.deleteTexture(texture);
 		}
 	}
 
@@ -3,8 +3,12 @@ package com.floober.engine.loaders;
 import com.floober.engine.audio.AudioMaster;
 import com.floober.engine.audio.Sound;
 import com.floober.engine.renderEngine.fonts.fontMeshCreator.FontType;
+import com.floober.engine.renderEngine.textures.AtlasRegion;
+import com.floober.engine.renderEngine.textures.RawTextureData;
 import com.floober.engine.renderEngine.textures.Texture;
+import com.floober.engine.renderEngine.textures.TextureAtlasPacker;
 import com.floober.engine.util.Logger;
+import com.floober.engine.util.configuration.Config;
 import com.floober.engine.util.conversion.ImageConverter;
 import com.floober.engine.util.conversion.StringConverter;
 import com.floober.engine.util.file.FileUtil;
@@ -18,6 +22,8 @@ import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.lwjgl.stb.STBImage.stbi_image_free;
+
 public class Loader {
 
 	// LOAD METHODS
@@ -51,6 +57,30 @@ public class Loader {
 		return ImageLoader.loadTexture(path);
 	}
 
+	/**
+	 * Load a texture and pack it into an atlas page, so it can be batched with
+	 * other packed textures. If packing is turned off in the Config, or the
+	 * image is too big to share a page, it is loaded as its own texture instead.
+	 * @param path The path of the texture, relative to the textures folder.
+	 * @return The region of the texture the image can be found in.
+	 */
+	public static AtlasRegion loadPackedTexture(String path) {
+		path = "textures/" + path;
+		return loadPackedImage(path);
+	}
+
+	/**
+	 * Same as loadPackedTexture(), but with the full path to the image.
+	 */
+	public static AtlasRegion loadPackedImage(String path) {
+		if (!Config.PACK_TEXTURES) return AtlasRegion.whole(ImageLoader.loadTexture(path));
+		RawTextureData data = ImageLoader.loadImageRaw(path);
+		AtlasRegion region = TextureAtlasPacker.pack(data);
+		if (region == null) region = AtlasRegion.whole(ImageLoader.loadTexture(data));
+		stbi_image_free(data.buffer);
+		return region;
+	}
+
 	public static Texture[] loadTextureArray(String path, int width) {
 		path = "textures/" + path;
 		BufferedImage bufferedImage = ImageLoader.loadBufferedImage(path);
@@ -75,8 +105,9 @@ public class Loader {
 
 	public static FontType loadFont(String font) {
 		String path = "fonts/" + font + "/" + font;
-		int fontAtlas = loadFontAtlas(path + ".png");
 		String fontFile = loadFontFile("/" + path + ".fnt");
+		if (Config.PACK_TEXTURES) return new FontType(loadPackedImage(path + ".png"), fontFile);
+		int fontAtlas = loadFontAtlas(path + ".png");
 		return new FontType(fontAtlas, fontFile);
 	}
 
@@ -91,6 +122,7 @@ public class Loader {
 	// SHUTDOWN
 	public static void cleanUp() {
 		ImageLoader.cleanUp();
+		TextureAtlasPacker.cleanUp();
 	}
 
 }
\ No newline at end of file
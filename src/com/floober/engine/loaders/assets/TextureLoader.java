@@ -1,9 +1,9 @@
 package com.floober.engine.loaders.assets;
 
 import com.floober.engine.game.Game;
-import com.floober.engine.loaders.ImageLoader;
 import com.floober.engine.loaders.Loader;
 import com.floober.engine.renderEngine.renderers.LoadRenderer;
+import com.floober.engine.renderEngine.textures.AtlasRegion;
 import com.floober.engine.renderEngine.textures.Texture;
 import com.floober.engine.renderEngine.textures.TextureAtlas;
 import com.floober.engine.renderEngine.textures.TextureSet;
@@ -36,8 +36,7 @@ public class TextureLoader extends AssetLoader {
 			}
 			else if (file.getName().toLowerCase().endsWith(".png")) {
 				String key = file.getName().substring(0, file.getName().lastIndexOf('.'));
-				Texture texture = ImageLoader.loadTexture(file.getPath());
-				Game.getTextures().addTexture(key, texture);
+				Game.getTextures().addTexture(key, Loader.loadPackedImage(file.getPath()));
 			}
 		}
 	}
@@ -66,10 +65,10 @@ public class TextureLoader extends AssetLoader {
 			String path = textureDirectory.getString(key);
 			// log the load attempt
 			Logger.logLoad("Loading texture: " + path);
-			// load the file at that location
-			Texture texture = Loader.loadTexture(path);
+			// load the file at that location, packing it into an atlas page
+			AtlasRegion region = Loader.loadPackedTexture(path);
 			// add it to the game
-			Game.getTextures().addTexture(key, texture);
+			Game.getTextures().addTexture(key, region);
 			// report the load count
 			Globals.texCount++;
 			// render the load screen
@@ -93,7 +92,7 @@ public class TextureLoader extends AssetLoader {
 			int width = setObject.getInt("tex_width");
 			int height = setObject.getInt("tex_height");
 			// build the object and add it
-			TextureSet textureSet = new TextureSet(Loader.loadTexture(path), width, height);
+			TextureSet textureSet = new TextureSet(Loader.loadPackedTexture(path), width, height);
 			Game.getTextures().addTextureSet(key, textureSet);
 			// report the load count
 			Globals.texCount++;
@@ -1,11 +1,10 @@
 package com.floober.engine.loaders.object;
 
-import com.floober.engine.assets.Textures;
 import com.floober.engine.game.Game;
 import com.floober.engine.gui.dialogue.*;
 import com.floober.engine.loaders.Loader;
 import com.floober.engine.renderEngine.fonts.fontMeshCreator.FontType;
-import com.floober.engine.renderEngine.textures.Texture;
+import com.floober.engine.renderEngine.textures.TextureComponent;
 import com.floober.engine.util.Logger;
 import com.floober.engine.util.color.ColorConverter;
 import com.floober.engine.util.color.Colors;
@@ -50,7 +49,7 @@ public class DialogueLoader {
 	private static DialogueLine parseLine(String rawLine) {
 //		Logger.log("Parsing line: " + rawLine);
 		// all variables that need to be initialized before construction, with some default values
-		Texture face;
+		TextureComponent face;
 		String name, line;
 		FontType textFont = null, nameFont = null;
 		Vector4f textColor = new Vector4f(Colors.WHITE), nameColor = new Vector4f(Colors.WHITE), backgroundColor = new Vector4f(0.05f, 0.05f, 0.05f, 0.5f);
@@ -129,11 +128,11 @@ public class DialogueLoader {
 		// get identity
 		String faceId = faceMap.getString(identity);
 		name = nameMap.getString(identity);
-		// retrieve face tex
-		face = Game.getTexture(faceId).texture();
+		// retrieve face tex, keeping its region of the atlas page it's packed into
+		face = Game.getTexture(faceId);
 		// TODO add more code to parse extra tokens (can be affected by settings values from first line)
 		// create and return line
-		DialogueLine result = new DialogueLine(Textures.wrapTexture(face), name, line);
+		DialogueLine result = new DialogueLine(face, name, line);
 		// charDelay, auto, jumpLabel
 		result.setNameFont(nameFont);
 		result.setTextFont(textFont);
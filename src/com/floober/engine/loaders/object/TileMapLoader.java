@@ -0,0 +1,69 @@
+package com.floober.engine.loaders.object;
+
+import com.floober.engine.game.Game;
+import com.floober.engine.loaders.Loader;
+import com.floober.engine.renderEngine.textures.TextureAtlas;
+import com.floober.engine.tilemap.TileMap;
+import com.floober.engine.util.Logger;
+
+/**
+ * Loads tile maps from the .map format: a header of {@code key=value} lines
+ * giving the tileset (the key of a texture atlas), the first blocked tile
+ * index, and the number of rows and columns, followed by the tiles as one
+ * line of comma-separated indices per row.
+ */
+public class TileMapLoader {
+
+	/**
+	 * Load a tile map.
+	 * @param path The path of the map file, relative to the resources folder (e.g. {@code level_data/maps/sample.map}).
+	 * @return The tile map, or {@code null} if it couldn't be loaded.
+	 */
+	public TileMap load(String path) {
+		// get file
+		String[] lines = Loader.getFileRaw(path);
+		if (lines == null) return null;
+		try {
+			// parse header
+			String tilesetKey = null;
+			int blocked = -1, rows = -1, cols = -1;
+			int line = 0;
+			while (line < lines.length && lines[line].contains("=")) {
+				String[] entry = lines[line++].split("=", 2);
+				String value = entry[1].trim();
+				switch (entry[0].trim()) {
+					case "tileset" -> tilesetKey = value;
+					case "blocked" -> blocked = Integer.parseInt(value);
+					case "rows" -> rows = Integer.parseInt(value);
+					case "cols" -> cols = Integer.parseInt(value);
+					default -> Logger.logError("Unknown tile map key \"" + entry[0] + "\" in " + path);
+				}
+			}
+			if (tilesetKey == null || blocked < 0 || rows < 0 || cols < 0) {
+				Logger.logError("Tile map " + path + " is missing its tileset, blocked, rows or cols");
+				return null;
+			}
+			TextureAtlas tileset = Game.getTextureAtlas(tilesetKey);
+			if (tileset == null) {
+				Logger.logError("Tile map " + path + " uses a tileset that isn't loaded: " + tilesetKey);
+				return null;
+			}
+			// parse tiles
+			int[] tiles = new int[rows * cols];
+			for (int row = 0; row < rows; ++row) {
+				if (line + row >= lines.length) throw new IllegalArgumentException("expected " + rows + " rows, found " + row);
+				String[] values = lines[line + row].split(",");
+				if (values.length < cols) throw new IllegalArgumentException("row " + row + " has " + values.length + " tiles, expected " + cols);
+				for (int col = 0; col < cols; ++col) {
+					tiles[row * cols + col] = Integer.parseInt(values[col].trim());
+				}
+			}
+			// create the map
+			return new TileMap(tileset, blocked, rows, cols, tiles);
+		} catch (IllegalArgumentException e) {
+			Logger.logError("Failed to load tile map " + path + ": " + e.getMessage());
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,145 @@
+package com.floober.engine.renderEngine;
+
+import com.floober.engine.renderEngine.renderers.MasterRenderer;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A sparse, depth-ordered collection of buckets. Depth is continuous, from
+ * 0 (the back) to {@link MasterRenderer#TOP_LAYER} (the front), and is
+ * quantized to one of 65536 steps; each step that has anything in it gets
+ * a bucket, and steps with nothing in them take no space and are never
+ * visited. Buckets are kept sorted back to front.
+ * @param <T> The type of bucket.
+ */
+public class DepthBuckets<T> {
+
+	public static final int DEPTH_BITS = 16;
+	public static final int MAX_DEPTH = (1 << DEPTH_BITS) - 1;
+
+	private final Supplier<T> factory;
+	private int[] depths = new int[8];
+	private Object[] buckets = new Object[8];
+	private int size;
+
+	/**
+	 * Create an empty set of buckets.
+	 * @param factory Creates a new bucket when something is added at an empty depth.
+	 */
+	public DepthBuckets(Supplier<T> factory) {
+		this.factory = factory;
+	}
+
+	/**
+	 * Convert a depth to the step it falls in. Depths outside the
+	 * range are clamped to the nearest end of it.
+	 * @param depth The depth, in layers.
+	 * @return The depth step, from 0 to {@code MAX_DEPTH}.
+	 */
+	public static int quantize(float depth) {
+		float t = depth / MasterRenderer.TOP_LAYER;
+		if (!(t > 0)) return 0; // also catches NaN
+		if (t >= 1) return MAX_DEPTH;
+		return (int) (t * MAX_DEPTH + 0.5f);
+	}
+
+	/**
+	 * Convert a depth step back to a depth. The inverse of {@link #quantize(float)},
+	 * give or take the rounding it does.
+	 * @param step The depth step, from 0 to {@code MAX_DEPTH}.
+	 * @return The depth, in layers.
+	 */
+	public static float toDepth(int step) {
+		return (float) step / MAX_DEPTH * MasterRenderer.TOP_LAYER;
+	}
+
+	/**
+	 * Get the bucket for the given depth, creating it if it doesn't exist yet.
+	 */
+	public T getOrCreate(float depth) {
+		int step = quantize(depth);
+		int index = Arrays.binarySearch(depths, 0, size, step);
+		if (index >= 0) return bucketAt(index);
+		// insert a new bucket, keeping the arrays sorted
+		index = -index - 1;
+		if (size == depths.length) {
+			depths = Arrays.copyOf(depths, size * 2);
+			buckets = Arrays.copyOf(buckets, size * 2);
+		}
+		System.arraycopy(depths, index, depths, index + 1, size - index);
+		System.arraycopy(buckets, index, buckets, index + 1, size - index);
+		T bucket = factory.get();
+		depths[index] = step;
+		buckets[index] = bucket;
+		size++;
+		return bucket;
+	}
+
+	/**
+	 * Get the bucket for the given depth.
+	 * @return The bucket, or {@code null} if nothing is at that depth.
+	 */
+	public T get(float depth) {
+		int index = Arrays.binarySearch(depths, 0, size, quantize(depth));
+		return index >= 0 ? bucketAt(index) : null;
+	}
+
+	/**
+	 * Remove the bucket at the given depth, if there is one.
+	 */
+	public void remove(float depth) {
+		int index = Arrays.binarySearch(depths, 0, size, quantize(depth));
+		if (index >= 0) removeAt(index);
+	}
+
+	/**
+	 * Remove every bucket matching the given condition, such as being empty.
+	 */
+	public void removeIf(Predicate<T> condition) {
+		int kept = 0;
+		for (int i = 0; i < size; ++i) {
+			if (condition.test(bucketAt(i))) continue;
+			depths[kept] = depths[i];
+			buckets[kept] = buckets[i];
+			kept++;
+		}
+		Arrays.fill(buckets, kept, size, null);
+		size = kept;
+	}
+
+	private void removeAt(int index) {
+		System.arraycopy(depths, index + 1, depths, index, size - index - 1);
+		System.arraycopy(buckets, index + 1, buckets, index, size - index - 1);
+		buckets[--size] = null;
+	}
+
+	public void clear() {
+		Arrays.fill(buckets, 0, size, null);
+		size = 0;
+	}
+
+	/**
+	 * @return The number of occupied depths.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return The depth step of the {@code i}th bucket, counting from the back.
+	 */
+	public int depthAt(int i) {
+		return depths[i];
+	}
+
+	/**
+	 * @return The {@code i}th bucket, counting from the back.
+	 */
+	@SuppressWarnings("unchecked")
+	public T bucketAt(int i) {
+		return (T) buckets[i];
+	}
+
+}
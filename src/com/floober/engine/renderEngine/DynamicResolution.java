@@ -0,0 +1,101 @@
+package com.floober.engine.renderEngine;
+
+import com.floober.engine.util.configuration.Config;
+
+/**
+ * Scales the resolution the scene is rendered at to keep the GPU inside its
+ * frame budget. The GPU time of each frame is measured with a {@link GPUTimer};
+ * when it stays over budget the scene shrinks a step, and when it stays
+ * comfortably under budget it grows a step, between the bounds set in Config.
+ * Each direction has to hold for a while before anything changes, and every
+ * change is followed by a cooldown, so the scale doesn't flicker back and
+ * forth around the budget. Post-processing stretches the scene back over the
+ * whole screen.
+ */
+public class DynamicResolution {
+
+	private static final float STEP = 0.05f;
+	private static final float HEADROOM = 0.75f; // grow only when this far under budget
+	private static final int FRAMES_TO_SHRINK = 10;
+	private static final int FRAMES_TO_GROW = 60;
+	private static final int COOLDOWN_FRAMES = 30;
+
+	private static GPUTimer timer;
+	private static float scale = Config.DYNAMIC_RESOLUTION_MAX_SCALE;
+	private static float smoothedMillis = -1;
+	private static int overBudgetFrames, underBudgetFrames, cooldown;
+
+	public static boolean isEnabled() {
+		return Config.DYNAMIC_RESOLUTION;
+	}
+
+	/**
+	 * Read back the latest GPU frame time, adjust the scale if need be, and
+	 * start timing this frame. Called once at the start of each frame.
+	 */
+	public static void beginFrame() {
+		if (!Config.DYNAMIC_RESOLUTION) return;
+		if (timer == null) timer = new GPUTimer(3);
+		if (timer.poll()) update(timer.getLastMillis());
+		timer.begin();
+	}
+
+	/**
+	 * Stop timing this frame. Called once the frame is on the screen.
+	 */
+	public static void endFrame() {
+		if (timer != null) timer.end();
+	}
+
+	private static void update(float millis) {
+		smoothedMillis = smoothedMillis < 0 ? millis : smoothedMillis * 0.9f + millis * 0.1f;
+		// frames timed just after a change were still drawn at the old size
+		if (cooldown > 0) {
+			cooldown--;
+			return;
+		}
+		float budget = Config.DYNAMIC_RESOLUTION_TARGET_MS;
+		overBudgetFrames = smoothedMillis > budget ? overBudgetFrames + 1 : 0;
+		underBudgetFrames = smoothedMillis < budget * HEADROOM ? underBudgetFrames + 1 : 0;
+		if (overBudgetFrames >= FRAMES_TO_SHRINK) setScale(scale - STEP);
+		else if (underBudgetFrames >= FRAMES_TO_GROW) setScale(scale + STEP);
+	}
+
+	private static void setScale(float newScale) {
+		newScale = Math.max(Config.DYNAMIC_RESOLUTION_MIN_SCALE, Math.min(Config.DYNAMIC_RESOLUTION_MAX_SCALE, newScale));
+		if (newScale != scale) {
+			scale = newScale;
+			smoothedMillis = -1;
+			cooldown = COOLDOWN_FRAMES;
+		}
+		overBudgetFrames = underBudgetFrames = 0;
+	}
+
+	/**
+	 * @return The fraction of the internal resolution the scene is rendered at.
+	 */
+	public static float getScale() {
+		return Config.DYNAMIC_RESOLUTION ? scale : 1;
+	}
+
+	public static int getSceneWidth() {
+		return Math.round(Config.INTERNAL_WIDTH * getScale());
+	}
+
+	public static int getSceneHeight() {
+		return Math.round(Config.INTERNAL_HEIGHT * getScale());
+	}
+
+	/**
+	 * @return The GPU time of a recent frame, smoothed, in milliseconds, or -1 if not measured.
+	 */
+	public static float getGPUMillis() {
+		return smoothedMillis;
+	}
+
+	public static void cleanUp() {
+		if (timer != null) timer.cleanUp();
+		timer = null;
+	}
+
+}
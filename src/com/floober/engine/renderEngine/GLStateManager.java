@@ -0,0 +1,209 @@
+package com.floober.engine.renderEngine;
+
+import static org.lwjgl.opengl.GL30.*;
+import static org.lwjgl.opengl.GL31.GL_TEXTURE_BUFFER;
+
+/**
+ * Central tracker for the OpenGL state the renderers touch.
+ * Every renderer changes program, VAO, blend, depth and texture
+ * bindings through here, and any call that would not change the
+ * current state is skipped before it reaches the driver.
+ * <br><br>
+ * Renderers should set the full state they need before drawing
+ * rather than resetting it afterward; the tracker makes the
+ * redundant sets free, and the resets would only cause real
+ * state changes for the next renderer to undo.
+ */
+public class GLStateManager {
+
+	private static final int MAX_TEXTURE_UNITS = 16;
+
+	// tracked state; -1 means unknown, forcing the next call through
+	private static int currentProgram = -1;
+	private static int currentVertexArray = -1;
+	private static int blendEnabled = -1;
+	private static int depthTestEnabled = -1;
+	private static int depthMask = -1;
+	private static int blendSrc = -1, blendDst = -1;
+	private static int activeTextureUnit = -1;
+	private static final int[] boundTextures = new int[MAX_TEXTURE_UNITS];
+	private static final int[] boundBufferTextures = new int[MAX_TEXTURE_UNITS];
+
+	// per-frame counts
+	private static int issued, skipped;
+	private static int lastFrameIssued, lastFrameSkipped;
+
+	static {
+		invalidate();
+	}
+
+	// *** PROGRAMS AND VAOS ***
+	public static void useProgram(int program) {
+		if (currentProgram == program) { skipped++; return; }
+		glUseProgram(program);
+		currentProgram = program;
+		issued++;
+		RenderStats.countShaderSwitch();
+	}
+
+	public static void bindVertexArray(int vao) {
+		if (currentVertexArray == vao) { skipped++; return; }
+		glBindVertexArray(vao);
+		currentVertexArray = vao;
+		issued++;
+	}
+
+	public static void deleteProgram(int program) {
+		if (currentProgram == program) useProgram(0);
+		glDeleteProgram(program);
+	}
+
+	public static void deleteVertexArray(int vao) {
+		if (currentVertexArray == vao) currentVertexArray = -1;
+		glDeleteVertexArrays(vao);
+	}
+
+	// *** CAPABILITIES ***
+	public static void enable(int capability) {
+		setCapability(capability, true);
+	}
+
+	public static void disable(int capability) {
+		setCapability(capability, false);
+	}
+
+	private static void setCapability(int capability, boolean enabled) {
+		int value = enabled ? 1 : 0;
+		int current = switch (capability) {
+			case GL_BLEND -> blendEnabled;
+			case GL_DEPTH_TEST -> depthTestEnabled;
+			default -> -1;
+		};
+		if (current == value) { skipped++; return; }
+		if (enabled) glEnable(capability);
+		else glDisable(capability);
+		switch (capability) {
+			case GL_BLEND -> blendEnabled = value;
+			case GL_DEPTH_TEST -> depthTestEnabled = value;
+		}
+		issued++;
+	}
+
+	public static void depthMask(boolean flag) {
+		int value = flag ? 1 : 0;
+		if (depthMask == value) { skipped++; return; }
+		glDepthMask(flag);
+		depthMask = value;
+		issued++;
+	}
+
+	public static void blendFunc(int src, int dst) {
+		if (blendSrc == src && blendDst == dst) { skipped++; return; }
+		glBlendFunc(src, dst);
+		blendSrc = src;
+		blendDst = dst;
+		issued++;
+	}
+
+	// *** TEXTURES ***
+	/**
+	 * Make the given texture unit active.
+	 * @param unit the texture unit, as an offset from GL_TEXTURE0
+	 */
+	public static void activeTexture(int unit) {
+		if (activeTextureUnit == unit) { skipped++; return; }
+		glActiveTexture(GL_TEXTURE0 + unit);
+		activeTextureUnit = unit;
+		issued++;
+	}
+
+	/**
+	 * Bind a 2D texture to the given texture unit, activating
+	 * that unit first if necessary.
+	 * @param unit the texture unit, as an offset from GL_TEXTURE0
+	 * @param texture the texture ID
+	 */
+	public static void bindTexture(int unit, int texture) {
+		if (boundTextures[unit] == texture) { skipped++; return; }
+		activeTexture(unit);
+		glBindTexture(GL_TEXTURE_2D, texture);
+		boundTextures[unit] = texture;
+		issued++;
+		RenderStats.countTextureBind();
+	}
+
+	/**
+	 * Bind a 2D texture to whichever texture unit is currently active.
+	 * Used by the loaders, which don't care about the unit.
+	 * @param texture the texture ID
+	 */
+	public static void bindTexture(int texture) {
+		if (activeTextureUnit == -1) activeTexture(0);
+		bindTexture(activeTextureUnit, texture);
+	}
+
+	/**
+	 * Bind a buffer texture to the given texture unit, activating
+	 * that unit first if necessary. Buffer textures have their own
+	 * binding on each unit, separate from the 2D texture's.
+	 * @param unit the texture unit, as an offset from GL_TEXTURE0
+	 * @param texture the texture ID
+	 */
+	public static void bindBufferTexture(int unit, int texture) {
+		if (boundBufferTextures[unit] == texture) { skipped++; return; }
+		activeTexture(unit);
+		glBindTexture(GL_TEXTURE_BUFFER, texture);
+		boundBufferTextures[unit] = texture;
+		issued++;
+		RenderStats.countTextureBind();
+	}
+
+	public static void deleteTexture(int texture) {
+		for (int i = 0; i < MAX_TEXTURE_UNITS; ++i) {
+			if (boundTextures[i] == texture) boundTextures[i] = -1;
+			if (boundBufferTextures[i] == texture) boundBufferTextures[i] = -1;
+		}
+		glDeleteTextures(texture);
+	}
+
+	// *** BOOKKEEPING ***
+	/**
+	 * Forget all tracked state, so the next call of every kind
+	 * goes through to the driver. Call this after any code that
+	 * changes GL state without going through this class.
+	 */
+	public static void invalidate() {
+		currentProgram = -1;
+		currentVertexArray = -1;
+		blendEnabled = -1;
+		depthTestEnabled = -1;
+		depthMask = -1;
+		blendSrc = blendDst = -1;
+		activeTextureUnit = -1;
+		for (int i = 0; i < MAX_TEXTURE_UNITS; ++i) boundTextures[i] = boundBufferTextures[i] = -1;
+	}
+
+	/**
+	 * Roll the per-frame counters over. Called once at the start of each frame.
+	 */
+	public static void endFrame() {
+		lastFrameIssued = issued;
+		lastFrameSkipped = skipped;
+		issued = skipped = 0;
+	}
+
+	/**
+	 * @return the number of state changes sent to the driver last frame
+	 */
+	public static int getIssuedCount() {
+		return lastFrameIssued;
+	}
+
+	/**
+	 * @return the number of redundant state changes skipped last frame
+	 */
+	public static int getSkippedCount() {
+		return lastFrameSkipped;
+	}
+
+}
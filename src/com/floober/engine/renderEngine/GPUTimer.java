@@ -0,0 +1,122 @@
+package com.floober.engine.renderEngine;
+
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL33.*;
+
+/**
+ * Measures how long the GPU takes to get through a span of commands, using
+ * a pair of timestamp queries around it. Results come back a few frames
+ * late, so each timer keeps a ring of query pairs and only ever reads the
+ * oldest one once it's available; reading a result never waits on the GPU.
+ * Each span can be tagged (with the frame it was in, say) so that a late
+ * result can be matched back up with where it came from.
+ * <br><br>
+ * Timestamps (rather than elapsed-time queries) are used so that spans can
+ * overlap and nest, since only one elapsed-time query can run at once.
+ */
+public class GPUTimer {
+
+	private final int[] startQueries, endQueries;
+	private final long[] tags;
+	private int next; // the pair the next span will use
+	private int pending; // spans ended but not read back yet
+	private boolean running;
+
+	private long lastNanos = -1;
+	private long lastTag = -1;
+
+	/**
+	 * Create a timer.
+	 * @param latency The number of spans that can be waiting on the GPU at once.
+	 *                Three is enough for anything timed once per frame.
+	 */
+	public GPUTimer(int latency) {
+		startQueries = new int[latency];
+		endQueries = new int[latency];
+		tags = new long[latency];
+		glGenQueries(startQueries);
+		glGenQueries(endQueries);
+	}
+
+	/**
+	 * Start a span. If every pair is still waiting on the GPU, the oldest span is dropped.
+	 */
+	public void begin() {
+		begin(-1);
+	}
+
+	/**
+	 * Start a span with a tag, which is given back with its result by {@link #getLastTag()}.
+	 * @param tag Anything identifying the span, like the number of the frame it's in.
+	 */
+	public void begin(long tag) {
+		if (pending == startQueries.length) pending--;
+		glQueryCounter(startQueries[next], GL_TIMESTAMP);
+		tags[next] = tag;
+		running = true;
+	}
+
+	/**
+	 * End the current span.
+	 */
+	public void end() {
+		if (!running) return;
+		glQueryCounter(endQueries[next], GL_TIMESTAMP);
+		next = (next + 1) % startQueries.length;
+		pending++;
+		running = false;
+	}
+
+	/**
+	 * Read back every span the GPU has finished.
+	 * @return {@code true} if there's a new result.
+	 */
+	public boolean poll() {
+		boolean updated = false;
+		while (pollNext()) updated = true;
+		return updated;
+	}
+
+	/**
+	 * Read back the oldest span, if the GPU has finished it. Call this until it
+	 * returns {@code false} to see every result, rather than just the latest.
+	 * @return {@code true} if there's a new result.
+	 */
+	public boolean pollNext() {
+		if (pending == 0) return false;
+		int oldest = Math.floorMod(next - pending, startQueries.length);
+		if (glGetQueryObjecti(endQueries[oldest], GL_QUERY_RESULT_AVAILABLE) == GL_FALSE) return false;
+		lastNanos = glGetQueryObjecti64(endQueries[oldest], GL_QUERY_RESULT) -
+				glGetQueryObjecti64(startQueries[oldest], GL_QUERY_RESULT);
+		lastTag = tags[oldest];
+		pending--;
+		return true;
+	}
+
+	/**
+	 * @return The length of the most recent span read back, in nanoseconds, or -1 if there isn't one yet.
+	 */
+	public long getLastNanos() {
+		return lastNanos;
+	}
+
+	/**
+	 * @return The length of the most recent span read back, in milliseconds, or -1 if there isn't one yet.
+	 */
+	public float getLastMillis() {
+		return lastNanos < 0 ? -1 : lastNanos / 1_000_000f;
+	}
+
+	/**
+	 * @return The tag of the most recent span read back, or -1 if it had none.
+	 */
+	public long getLastTag() {
+		return lastTag;
+	}
+
+	public void cleanUp() {
+		glDeleteQueries(startQueries);
+		glDeleteQueries(endQueries);
+	}
+
+}
@@ -1,6 +1,8 @@
 package com.floober.engine.renderEngine;
 
 import com.floober.engine.display.Display;
+import com.floober.engine.renderEngine.elements.ElementPools;
+import com.floober.engine.renderEngine.elements.RenderElement;
 import com.floober.engine.renderEngine.elements.TextureElement;
 import com.floober.engine.renderEngine.elements.geometry.*;
 import com.floober.engine.renderEngine.fonts.fontMeshCreator.GUIText;
@@ -41,14 +43,28 @@ public class Render {
 		MasterRenderer.addOutlineElement(outlineElement);
 	}
 
+	// RETAINED ELEMENTS
+
+	/**
+	 * Keep drawing an element every frame, without it being submitted again,
+	 * until it's released. Best for elements that rarely move or change.
+	 * @param element The element to draw.
+	 * @return A handle to pass to {@link #release(int)}.
+	 */
+	public static int retain(RenderElement element) { return MasterRenderer.retain(element); }
+
+	/**
+	 * Stop drawing an element that was retained.
+	 * @param handle The handle returned by {@link #retain(RenderElement)}.
+	 */
+	public static void release(int handle) { MasterRenderer.release(handle); }
+
 
 	/*
 	 * The following section contains utility functions for generating
 	 * elements to render on the fly and passing them to the MasterRenderer
-	 * to be rendered. These should only be used for testing, or for
-	 * convenience, but only sparingly; these objects will be held in collections
-	 * by the MasterRenderer until the frame is complete, so they will (probably)
-	 * not enjoy the benefits of short-lived object performance.
+	 * to be rendered. The elements come from the frame-scoped ElementPools,
+	 * so these don't allocate once the pools have grown to fit a frame.
 	 */
 
 	// RECTANGLES
@@ -64,7 +80,9 @@ public class Render {
 	 * @param centered Whether to center the rectangle on (x,y). If false, (x,y) will be treated as the top-left corner.
 	 */
 	public static void drawRect(Vector4f color, float x, float y, int layer, float width, float height, boolean centered) {
-		MasterRenderer.addRectElement(new RectElement(color, x, y, layer, width, height, centered));
+		RectElement rect = ElementPools.rects.obtain();
+		rect.set(color, x, y, layer, width, height, 0, centered);
+		MasterRenderer.addRectElement(rect);
 	}
 
 	/**
@@ -72,7 +90,7 @@ public class Render {
 	 * @param color The color to fill.
 	 */
 	public static void fillScreen(Vector4f color) {
-		MasterRenderer.addRectElement(new RectElement(color, 0, 0, MasterRenderer.TOP_LAYER, Display.WIDTH, Display.HEIGHT, false));
+		fillScreen(color, MasterRenderer.TOP_LAYER);
 	}
 
 	/**
@@ -80,7 +98,7 @@ public class Render {
 	 * @param color The color to fill.
 	 */
 	public static void fillScreen(Vector4f color, int layer) {
-		MasterRenderer.addRectElement(new RectElement(color, 0, 0, layer, Display.WIDTH, Display.HEIGHT, false));
+		drawRect(color, 0, 0, layer, Display.WIDTH, Display.HEIGHT, false);
 	}
 
 	// CIRCLES
@@ -94,7 +112,7 @@ public class Render {
 	 * @param radius The radius of the circle.
 	 */
 	public static void drawCircle(Vector4f color, float x, float y, int layer, float radius) {
-		MasterRenderer.addCircleElement(new CircleElement(color, x, y, layer, radius));
+		drawCircle(color, x, y, layer, 0, radius, 1, 0);
 	}
 
 	/**
@@ -107,7 +125,7 @@ public class Render {
 	 * @param outerRadius The outer radius of the circle.
 	 */
 	public static void drawCircle(Vector4f color, float x, float y, int layer, float innerRadius, float outerRadius) {
-		MasterRenderer.addCircleElement(new CircleElement(color, x, y, layer, innerRadius, outerRadius));
+		drawCircle(color, x, y, layer, innerRadius, outerRadius, 1, 0);
 	}
 
 	/**
@@ -122,7 +140,9 @@ public class Render {
 	 * @param offset The offset from which to begin drawing. An offset of 0 indicates drawing starting from the top; a positive offset moves the starting position clockwise, in degrees.
 	 */
 	public static void drawCircle(Vector4f color, float x, float y, int layer, float innerRadius, float outerRadius, float portion, float offset) {
-		MasterRenderer.addCircleElement(new CircleElement(color, x, y, layer, innerRadius, outerRadius, portion, offset));
+		CircleElement circle = ElementPools.circles.obtain();
+		circle.set(color, x, y, layer, innerRadius, outerRadius, portion, offset);
+		MasterRenderer.addCircleElement(circle);
 	}
 
 	/**
@@ -135,7 +155,7 @@ public class Render {
 	 * @param layer The z coordinate of the line.
 	 */
 	public static void drawLine(Vector4f color, float x1, float y1, float x2, float y2, int layer) {
-		MasterRenderer.addLineElement(new LineElement(color, x1, y1, x2, y2, layer, 1));
+		drawLine(color, x1, y1, x2, y2, layer, 1);
 	}
 
 	/**
@@ -149,7 +169,9 @@ public class Render {
 	 * @param lineWidth The width of the line.
 	 */
 	public static void drawLine(Vector4f color, float x1, float y1, float x2, float y2, int layer, float lineWidth) {
-		MasterRenderer.addLineElement(new LineElement(color, x1, y1, x2, y2, layer, lineWidth));
+		LineElement line = ElementPools.lines.obtain();
+		line.set(color, x1, y1, x2, y2, layer, lineWidth);
+		MasterRenderer.addLineElement(line);
 	}
 
 	/**
@@ -163,7 +185,7 @@ public class Render {
 	 * @param centered Whether the (x, y) position should be treated as the center of the outline. If false, it will be treated as the top-left corner.
 	 */
 	public static void drawOutline(Vector4f color, float x, float y, int layer, float width, float height, boolean centered) {
-		MasterRenderer.addOutlineElement(new OutlineElement(color, x, y, layer, width, height, 1, centered));
+		drawOutline(color, x, y, layer, width, height, 1, centered);
 	}
 
 	/**
@@ -178,7 +200,9 @@ public class Render {
 	 * @param centered Whether the (x, y) position should be treated as the center of the outline. If false, it will be treated as the top-left corner.
 	 */
 	public static void drawOutline(Vector4f color, float x, float y, int layer, float width, float height, float lineWidth, boolean centered) {
-		MasterRenderer.addOutlineElement(new OutlineElement(color, x, y, layer, width, height, lineWidth, centered));
+		OutlineElement outline = ElementPools.outlines.obtain();
+		outline.set(color, x, y, layer, width, height, lineWidth, centered);
+		MasterRenderer.addOutlineElement(outline);
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,171 @@
+package com.floober.engine.renderEngine;
+
+import java.util.Arrays;
+
+/**
+ * One frame's element draws, recorded ahead of time: each command holds
+ * everything needed to issue one draw (or one short series of draws), with
+ * its instance data already written into this buffer's data array. The GL
+ * thread then only has to bind, upload and draw.
+ * <br><br>
+ * Commands can be recorded on one thread while another consumes them.
+ * The recording thread makes commands visible in batches with {@link #publish()},
+ * and signals the end of the frame with {@link #finish()}; the consuming thread
+ * waits for each command with {@link #waitFor(int)} before reading it.
+ * Published commands and their data are never changed until the buffer is cleared.
+ * <br><br>
+ * The recording thread writes instance data into {@link #getRecordingData()};
+ * the consuming thread reads it from {@link #getData()}.
+ */
+public class RenderCommandBuffer {
+
+	// command types
+	public static final int DRAW_TEXTURES = 0; // instanced textures sharing a texture; arg = texture ID
+	public static final int DRAW_TEXTURE = 1; // one texture element drawn on its own; arg = queue position
+	public static final int DRAW_RECTS = 2; // instanced rectangles, lines and outlines
+	public static final int DRAW_CIRCLES = 3; // instanced circles
+	public static final int DRAW_RECT_LIGHTS = 4; // light rectangles drawn one by one; arg = first queue position
+
+	// command fields
+	private static final int TYPE = 0;
+	private static final int DEPTH = 1; // depth step, or -1 for opaque commands
+	private static final int DEPTH_WRITE = 2;
+	private static final int ARG = 3;
+	private static final int DATA_OFFSET = 4;
+	private static final int COUNT = 5;
+	private static final int FIELDS = 6;
+
+	// the recording thread replaces these arrays when growing them, so the consuming
+	// thread never reads them directly: publishing hands it the current arrays through
+	// the volatile snapshots below, written before the published count. Once a consumer
+	// has seen a command counted, any snapshot it reads holds that command and its data.
+	private int[] commands = new int[FIELDS * 256];
+	private float[] data = new float[1024 * 64];
+	private int size, dataSize;
+
+	private volatile int[] publishedCommands = commands;
+	private volatile float[] publishedData = data;
+	private volatile int published;
+	private volatile boolean finished;
+	private volatile Throwable failure;
+
+	// *** RECORDING ***
+
+	/**
+	 * Reserve room for some instance data. Write the data into {@link #getRecordingData()}
+	 * (fetched after this call) starting at the returned offset.
+	 * @param floats The number of floats to reserve.
+	 * @return The offset of the reserved floats in the data array.
+	 */
+	public int reserve(int floats) {
+		if (dataSize + floats > data.length) {
+			data = Arrays.copyOf(data, Math.max(dataSize + floats, data.length * 2));
+		}
+		int offset = dataSize;
+		dataSize += floats;
+		return offset;
+	}
+
+	/**
+	 * Record a command.
+	 * @param type One of the {@code DRAW_} constants.
+	 * @param depth The depth step the command draws at, or -1 if it's opaque.
+	 * @param depthWrite Whether the command writes to the depth buffer.
+	 * @param arg The command's argument; see the {@code DRAW_} constants.
+	 * @param dataOffset The offset of the command's instance data, if it has any.
+	 * @param count The number of instances or elements drawn.
+	 */
+	public void add(int type, int depth, boolean depthWrite, int arg, int dataOffset, int count) {
+		if ((size + 1) * FIELDS > commands.length) commands = Arrays.copyOf(commands, commands.length * 2);
+		int i = size * FIELDS;
+		commands[i + TYPE] = type;
+		commands[i + DEPTH] = depth;
+		commands[i + DEPTH_WRITE] = depthWrite ? 1 : 0;
+		commands[i + ARG] = arg;
+		commands[i + DATA_OFFSET] = dataOffset;
+		commands[i + COUNT] = count;
+		size++;
+	}
+
+	/**
+	 * Make every command recorded so far visible to the consuming thread.
+	 */
+	public void publish() {
+		publishedCommands = commands;
+		publishedData = data;
+		published = size;
+	}
+
+	/**
+	 * @return The instance data array to write reserved data into, on the recording
+	 * thread. Only valid until the next {@link #reserve(int)}.
+	 */
+	public float[] getRecordingData() {
+		return data;
+	}
+
+	/**
+	 * Mark the frame as completely recorded.
+	 */
+	public void finish() {
+		publish();
+		finished = true;
+	}
+
+	/**
+	 * Stop recording because something went wrong. The error is
+	 * thrown on the consuming thread when it next waits.
+	 */
+	public void fail(Throwable error) {
+		failure = error;
+		finished = true;
+	}
+
+	// *** CONSUMING ***
+
+	/**
+	 * Wait until the given command has been published, or the frame has finished without it.
+	 * @param command The command's index.
+	 * @return {@code true} if the command exists and can be read, {@code false} if the frame has no more commands.
+	 */
+	public boolean waitFor(int command) {
+		while (true) {
+			if (command < published) return true;
+			if (finished) {
+				if (failure != null) throw new IllegalStateException("Render command recording failed", failure);
+				// the last publish happens before finished is set, so check again
+				return command < published;
+			}
+			Thread.onSpinWait();
+		}
+	}
+
+	public int getType(int command) { return publishedCommands[command * FIELDS + TYPE]; }
+	public int getDepth(int command) { return publishedCommands[command * FIELDS + DEPTH]; }
+	public boolean isTransparent(int command) { return getDepth(command) >= 0; }
+	public boolean isDepthWrite(int command) { return publishedCommands[command * FIELDS + DEPTH_WRITE] != 0; }
+	public int getArg(int command) { return publishedCommands[command * FIELDS + ARG]; }
+	public int getDataOffset(int command) { return publishedCommands[command * FIELDS + DATA_OFFSET]; }
+	public int getCount(int command) { return publishedCommands[command * FIELDS + COUNT]; }
+
+	/**
+	 * @return The instance data of every command published so far, on the consuming thread.
+	 */
+	public float[] getData() {
+		return publishedData;
+	}
+
+	/**
+	 * Empty the buffer for the next frame. Only call this once
+	 * recording has finished and nothing is consuming.
+	 */
+	public void clear() {
+		size = dataSize = 0;
+		publishedCommands = commands;
+		publishedData = data;
+		published = 0;
+		finished = false;
+		failure = null;
+	}
+
+}
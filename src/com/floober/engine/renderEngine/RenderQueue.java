@@ -0,0 +1,168 @@
+package com.floober.engine.renderEngine;
+
+import com.floober.engine.renderEngine.elements.RenderElement;
+import com.floober.engine.util.Sorting;
+
+import java.util.Arrays;
+
+/**
+ * Every element submitted for rendering in a frame, each tagged with a
+ * 64-bit sort key. The queue is radix sorted once, after everything has
+ * been submitted, and then walked in order by the MasterRenderer,
+ * which draws each run of entries that share a shader in one go.
+ * <br><br>
+ * Keys are laid out so that sorting them gives the order the frame has
+ * to be drawn in. From the top bit down:
+ * <pre>
+ * opaque:      [0][pass 1][shader 4][texture 20][depth 16][index 22]
+ * transparent: [0][pass 1][depth 16][shader 4][unused 20][index 22]
+ * </pre>
+ * Depth is continuous, quantized the same way as {@link DepthBuckets}.
+ * Opaque entries are drawn with depth writes on, so their order doesn't
+ * matter; they're grouped by shader and texture across all depths to keep
+ * state changes down, front first within each group. Transparent entries
+ * have to be drawn back to front, so they're grouped by depth first, and
+ * only by shader at each depth. The index is the order the entry was
+ * submitted in, which keeps entries that tie in submission order.
+ */
+public class RenderQueue {
+
+	// shaders
+	public static final int SHADER_TEXTURE = 0;
+	public static final int SHADER_RECT = 1; // rectangles, lines and outlines
+	public static final int SHADER_CIRCLE = 2;
+	public static final int SHADER_RECT_LIGHT = 3;
+
+	// key layout
+	private static final int INDEX_BITS = 22;
+	private static final int DEPTH_BITS = DepthBuckets.DEPTH_BITS;
+	private static final int SHADER_BITS = 4;
+	private static final int TEXTURE_BITS = 20;
+	private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+	private static final long DEPTH_MASK = (1L << DEPTH_BITS) - 1;
+	private static final long SHADER_MASK = (1L << SHADER_BITS) - 1;
+	private static final long TEXTURE_MASK = (1L << TEXTURE_BITS) - 1;
+	private static final int PASS_SHIFT = 62;
+
+	// opaque fields
+	private static final int OPAQUE_DEPTH_SHIFT = INDEX_BITS;
+	private static final int OPAQUE_TEXTURE_SHIFT = OPAQUE_DEPTH_SHIFT + DEPTH_BITS;
+	private static final int OPAQUE_SHADER_SHIFT = OPAQUE_TEXTURE_SHIFT + TEXTURE_BITS;
+
+	// transparent fields
+	private static final int TRANSPARENT_SHADER_SHIFT = INDEX_BITS + TEXTURE_BITS;
+	private static final int TRANSPARENT_DEPTH_SHIFT = TRANSPARENT_SHADER_SHIFT + SHADER_BITS;
+
+	private RenderElement[] elements = new RenderElement[1024];
+	private long[] keys = new long[1024];
+	private long[] scratch = new long[1024];
+	private final int[] histogram = new int[256];
+	private int size;
+
+	/**
+	 * Add an element that's drawn without transparency.
+	 * @param element The element.
+	 * @param depth The depth it's drawn at.
+	 * @param shader The shader that draws it; one of the {@code SHADER_} constants.
+	 * @param texture The ID of the texture it's drawn with, or 0 for none.
+	 */
+	public void addOpaque(RenderElement element, float depth, int shader, int texture) {
+		long key = ((shader & SHADER_MASK) << OPAQUE_SHADER_SHIFT) |
+				((texture & TEXTURE_MASK) << OPAQUE_TEXTURE_SHIFT) |
+				((DEPTH_MASK - DepthBuckets.quantize(depth)) << OPAQUE_DEPTH_SHIFT);
+		add(element, key);
+	}
+
+	/**
+	 * Add an element that's drawn with transparency.
+	 * @param element The element.
+	 * @param depth The depth it's drawn at.
+	 * @param shader The shader that draws it; one of the {@code SHADER_} constants.
+	 */
+	public void addTransparent(RenderElement element, float depth, int shader) {
+		long key = (1L << PASS_SHIFT) |
+				((long) DepthBuckets.quantize(depth) << TRANSPARENT_DEPTH_SHIFT) |
+				((shader & SHADER_MASK) << TRANSPARENT_SHADER_SHIFT);
+		add(element, key);
+	}
+
+	private void add(RenderElement element, long key) {
+		if (size == elements.length) grow();
+		elements[size] = element;
+		keys[size] = key | size;
+		size++;
+	}
+
+	private void grow() {
+		if (size > INDEX_MASK) throw new IllegalStateException("Render queue is full");
+		int capacity = (int) Math.min(elements.length * 2L, INDEX_MASK + 1);
+		elements = Arrays.copyOf(elements, capacity);
+		keys = Arrays.copyOf(keys, capacity);
+		scratch = new long[capacity];
+	}
+
+	/**
+	 * Put the queue in draw order. Called once, after everything
+	 * for the frame has been submitted.
+	 */
+	public void sort() {
+		Sorting.radixSort(keys, scratch, histogram, size, INDEX_BITS);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return The element at the given position in the (sorted) queue.
+	 */
+	public RenderElement get(int i) {
+		return elements[(int) (keys[i] & INDEX_MASK)];
+	}
+
+	public boolean isTransparent(int i) {
+		return (keys[i] >>> PASS_SHIFT) != 0;
+	}
+
+	/**
+	 * @return The depth step of the entry at the given position.
+	 */
+	public int getDepth(int i) {
+		long key = keys[i];
+		if (isTransparent(i)) return (int) ((key >>> TRANSPARENT_DEPTH_SHIFT) & DEPTH_MASK);
+		else return (int) (DEPTH_MASK - ((key >>> OPAQUE_DEPTH_SHIFT) & DEPTH_MASK));
+	}
+
+	/**
+	 * @return The shader of the entry at the given position.
+	 */
+	public int getShader(int i) {
+		long key = keys[i];
+		if (isTransparent(i)) return (int) ((key >>> TRANSPARENT_SHADER_SHIFT) & SHADER_MASK);
+		else return (int) ((key >>> OPAQUE_SHADER_SHIFT) & SHADER_MASK);
+	}
+
+	/**
+	 * Find the end of the run of entries that starts at {@code start} and can be
+	 * drawn together: opaque entries that share a shader, or transparent entries
+	 * that share a shader and a depth.
+	 * @param start The first entry of the run.
+	 * @return The position just past the last entry of the run.
+	 */
+	public int runEnd(int start) {
+		int shift = isTransparent(start) ? TRANSPARENT_SHADER_SHIFT : OPAQUE_SHADER_SHIFT;
+		long group = keys[start] >>> shift;
+		int end = start + 1;
+		while (end < size && (keys[end] >>> shift) == group) end++;
+		return end;
+	}
+
+	/**
+	 * Empty the queue for the next frame.
+	 */
+	public void clear() {
+		Arrays.fill(elements, 0, size, null);
+		size = 0;
+	}
+
+}
@@ -0,0 +1,215 @@
+package com.floober.engine.renderEngine;
+
+import com.floober.engine.renderEngine.renderers.MasterRenderer;
+
+import java.util.Arrays;
+
+import static org.lwjgl.opengl.GL11.*;
+
+/**
+ * What it cost to draw a frame: draw calls, instances, triangles, texture
+ * binds, shader switches, uniform uploads, bytes streamed to the GPU and
+ * elements culled. Each count is kept as a total, and broken down by the
+ * renderer that caused it and the layer being drawn at the time.
+ * <br><br>
+ * Counting happens where the work is issued (GLStateManager, ShaderProgram,
+ * StreamingBuffer and the draw calls in each renderer), against whichever
+ * renderer and layer were last set as the source, and always on the render
+ * thread. The frame being counted is kept separate from the last finished
+ * one, which is what {@link #getLastFrame()} returns; it's overwritten when
+ * the next frame finishes, so {@link #copy()} it to keep it longer.
+ */
+public class RenderStats {
+
+	// stats
+	public static final int DRAW_CALLS = 0;
+	public static final int INSTANCES = 1;
+	public static final int TRIANGLES = 2;
+	public static final int TEXTURE_BINDS = 3;
+	public static final int SHADER_SWITCHES = 4;
+	public static final int UNIFORM_UPLOADS = 5;
+	public static final int BYTES_UPLOADED = 6;
+	public static final int CULLED_ELEMENTS = 7;
+	public static final int CULLED_PARTICLES = 8;
+	public static final int STAT_COUNT = 9;
+
+	// renderers
+	public static final int OTHER = 0; // anything drawn outside the scene passes, like the outliner
+	public static final int TEXTURES = 1;
+	public static final int GEOMETRY = 2;
+	public static final int PARTICLES = 3;
+	public static final int TEXT = 4;
+	public static final int POST_PROCESSING = 5;
+	public static final int LIGHTS = 6;
+	public static final int TILES = 7;
+	public static final int RENDERER_COUNT = 8;
+
+	// layers: one for each render layer, one for opaque elements, which are
+	// drawn in batches across every layer at once, and one for everything
+	// that isn't part of the scene
+	public static final int OPAQUE = MasterRenderer.NUM_LAYERS;
+	public static final int NO_LAYER = MasterRenderer.NUM_LAYERS + 1;
+	public static final int LAYER_COUNT = MasterRenderer.NUM_LAYERS + 2;
+
+	private static final String[] STAT_NAMES = {
+			"draw calls", "instances", "triangles", "texture binds", "shader switches",
+			"uniform uploads", "bytes uploaded", "culled elements", "culled particles"
+	};
+	private static final String[] RENDERER_NAMES = {"Other", "Textures", "Geometry", "Particles", "Text", "Post-processing", "Lights", "Tiles"};
+
+	private static RenderStats current = new RenderStats();
+	private static RenderStats last = new RenderStats();
+	private static int renderer = OTHER, layer = NO_LAYER;
+
+	private final long[] totals = new long[STAT_COUNT];
+	private final long[][] byRenderer = new long[RENDERER_COUNT][STAT_COUNT];
+	private final long[][] byLayer = new long[LAYER_COUNT][STAT_COUNT];
+
+	// *** COUNTING ***
+
+	/**
+	 * Set the renderer and layer that what's counted next is charged to.
+	 * @param renderer One of the renderer constants.
+	 * @param layer A layer, {@code OPAQUE} or {@code NO_LAYER}.
+	 */
+	public static void setSource(int renderer, int layer) {
+		RenderStats.renderer = renderer;
+		RenderStats.layer = layer;
+	}
+
+	/**
+	 * Set the renderer and layer that what's counted next is charged to,
+	 * by a depth step from the render queue.
+	 * @param renderer One of the renderer constants.
+	 * @param depth A depth step, or -1 for opaque elements.
+	 */
+	public static void setSourceByDepth(int renderer, int depth) {
+		setSource(renderer, depth < 0 ? OPAQUE : Math.min(MasterRenderer.TOP_LAYER, (int) (DepthBuckets.toDepth(depth) + 0.001f)));
+	}
+
+	private static void add(int stat, long amount) {
+		current.totals[stat] += amount;
+		current.byRenderer[renderer][stat] += amount;
+		current.byLayer[layer][stat] += amount;
+	}
+
+	/**
+	 * Count a draw call.
+	 * @param mode The primitive type drawn, like {@code GL_TRIANGLE_STRIP}.
+	 * @param vertices The number of vertices per instance.
+	 * @param instances The number of instances; 1 for a plain draw.
+	 */
+	public static void countDraw(int mode, int vertices, int instances) {
+		add(DRAW_CALLS, 1);
+		add(INSTANCES, instances);
+		int triangles = switch (mode) {
+			case GL_TRIANGLE_STRIP, GL_TRIANGLE_FAN -> Math.max(0, vertices - 2);
+			case GL_TRIANGLES -> vertices / 3;
+			default -> 0;
+		};
+		add(TRIANGLES, (long) triangles * instances);
+	}
+
+	public static void countTextureBind() {
+		add(TEXTURE_BINDS, 1);
+	}
+
+	public static void countShaderSwitch() {
+		add(SHADER_SWITCHES, 1);
+	}
+
+	public static void countUniformUpload() {
+		add(UNIFORM_UPLOADS, 1);
+	}
+
+	public static void countUpload(long bytes) {
+		add(BYTES_UPLOADED, bytes);
+	}
+
+	/**
+	 * Finish counting a frame, making it the last frame, and start the next.
+	 * Called once at the start of each frame, after the ViewCuller has rolled over.
+	 */
+	public static void endFrame() {
+		current.totals[CULLED_ELEMENTS] = ViewCuller.getCulledElementCount();
+		current.totals[CULLED_PARTICLES] = ViewCuller.getCulledParticleCount();
+		RenderStats finished = current;
+		current = last;
+		last = finished;
+		current.clear();
+		setSource(OTHER, NO_LAYER);
+	}
+
+	private void clear() {
+		Arrays.fill(totals, 0);
+		for (long[] counts : byRenderer) Arrays.fill(counts, 0);
+		for (long[] counts : byLayer) Arrays.fill(counts, 0);
+	}
+
+	// *** QUERYING ***
+
+	/**
+	 * @return The counts for the last finished frame. Only valid until the next frame finishes.
+	 */
+	public static RenderStats getLastFrame() {
+		return last;
+	}
+
+	/**
+	 * @return A copy of these counts that won't change.
+	 */
+	public RenderStats copy() {
+		RenderStats copy = new RenderStats();
+		System.arraycopy(totals, 0, copy.totals, 0, STAT_COUNT);
+		for (int i = 0; i < RENDERER_COUNT; ++i) System.arraycopy(byRenderer[i], 0, copy.byRenderer[i], 0, STAT_COUNT);
+		for (int i = 0; i < LAYER_COUNT; ++i) System.arraycopy(byLayer[i], 0, copy.byLayer[i], 0, STAT_COUNT);
+		return copy;
+	}
+
+	/**
+	 * @param stat One of the stat constants.
+	 * @return The frame's total for that stat.
+	 */
+	public long get(int stat) {
+		return totals[stat];
+	}
+
+	/**
+	 * @param renderer One of the renderer constants.
+	 * @param stat One of the stat constants. Culled counts aren't broken down.
+	 * @return The count for that stat caused by that renderer.
+	 */
+	public long getByRenderer(int renderer, int stat) {
+		return byRenderer[renderer][stat];
+	}
+
+	/**
+	 * @param layer A layer, {@code OPAQUE} or {@code NO_LAYER}.
+	 * @param stat One of the stat constants. Culled counts aren't broken down.
+	 * @return The count for that stat while drawing that layer.
+	 */
+	public long getByLayer(int layer, int stat) {
+		return byLayer[layer][stat];
+	}
+
+	/**
+	 * @return The frame's totals and its per-renderer draw calls, for the debug overlay.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder report = new StringBuilder();
+		for (int stat = 0; stat < STAT_COUNT; ++stat) {
+			if (stat > 0) report.append(stat % 3 == 0 ? "\n" : ", ");
+			report.append(STAT_NAMES[stat]).append(": ").append(totals[stat]);
+		}
+		report.append("\nDraw calls by renderer:");
+		for (int r = 0; r < RENDERER_COUNT; ++r) {
+			report.append(' ').append(RENDERER_NAMES[r]).append(' ').append(byRenderer[r][DRAW_CALLS]);
+		}
+		report.append("\nDraw calls by layer: opaque ").append(byLayer[OPAQUE][DRAW_CALLS]);
+		for (int l = 0; l < MasterRenderer.NUM_LAYERS; ++l) report.append(", ").append(l).append(": ").append(byLayer[l][DRAW_CALLS]);
+		report.append(", none ").append(byLayer[NO_LAYER][DRAW_CALLS]);
+		return report.toString();
+	}
+
+}
@@ -1,94 +1,329 @@
 package com.floober.engine.renderEngine;
 
 import com.floober.engine.display.Display;
+import com.floober.engine.renderEngine.framebuffers.FrameBuffer;
 import com.floober.engine.util.Logger;
-import org.lwjgl.BufferUtils;
 import org.lwjgl.opengl.GL11;
+import org.lwjgl.system.MemoryUtil;
 
+import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
 
 import static org.lwjgl.opengl.GL15.*;
 import static org.lwjgl.opengl.GL21.GL_PIXEL_PACK_BUFFER;
+import static org.lwjgl.opengl.GL30.*;
+import static org.lwjgl.opengl.GL32.*;
 
+/**
+ * Captures the window to PNG files, one at a time or as a sequence of every
+ * frame, without stalling the game loop.
+ * <br><br>
+ * Each captured frame is read into one of a small ring of pixel buffers
+ * just before the buffers are swapped, with a fence behind it. The pixels
+ * are only mapped once the fence has passed, a frame or two later, so the
+ * GPU never has to finish early for the CPU. Once mapped, they're copied
+ * out and handed to a small pool of threads, which flip and convert them
+ * into an image a row at a time (rows in parallel) and encode the PNG.
+ * <br><br>
+ * Everything is bounded: if the encoders fall too far behind during a
+ * sequence, frames are dropped (and counted) rather than piling up.
+ */
 public class Screenshot {
 
-	static ByteBuffer buffer;
+	// pixel buffers in flight
+	private static final int RING_SIZE = 3;
+	// encoders, and the frames that can wait for them
+	private static final int ENCODE_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+	private static final int MAX_PENDING_FRAMES = ENCODE_THREADS * 2;
+	// sequences favor speed over size
+	private static final float SEQUENCE_COMPRESSION_QUALITY = 0.9f;
 
-	static {
-		// get maximum display size: 4K
-		buffer = BufferUtils.createByteBuffer(3840 * 2160 * 4);
-	}
+	// the ring of pixel buffers, and the capture waiting in each
+	private static final int[] pixelBuffers = new int[RING_SIZE];
+	private static final long[] fences = new long[RING_SIZE];
+	private static final int[] widths = new int[RING_SIZE], heights = new int[RING_SIZE];
+	private static final String[] targetPaths = new String[RING_SIZE];
+	private static final boolean[] fromSequence = new boolean[RING_SIZE];
+	private static final int[] capacities = new int[RING_SIZE];
+	private static int next, inFlight;
+
+	// frames copied out of the ring, and reusable arrays to copy them into
+	private static final BlockingQueue<byte[]> freeFrames = new ArrayBlockingQueue<>(MAX_PENDING_FRAMES);
+	private static final Semaphore pendingFrames = new Semaphore(MAX_PENDING_FRAMES);
+	private static ThreadPoolExecutor encoders;
 
+	// requests
+	private static String requestedPath;
+	private static String sequenceDirectory;
+	private static int sequenceFrame, droppedFrames;
+
+	/**
+	 * Save the next frame to a PNG file.
+	 * @param targetPath The file to save to.
+	 */
 	public static void takeScreenshot(String targetPath) {
-		Logger.log("Attempting to take screenshot...");
-		// Get pixel data
-		// PBO for download
-		int PBOHandle = glGenBuffers();
-		// Set to front buffer
-		GL11.glReadBuffer(GL11.GL_FRONT);
-		// Bind the PBO
-		glBindBuffer(GL_PIXEL_PACK_BUFFER, PBOHandle);
-		// Create the PBO
-		glBufferData(GL_PIXEL_PACK_BUFFER, buffer.capacity() * 4, GL_STREAM_READ);
-		// Read to the PBO
-		GL11.glReadPixels(0, 0, Display.WINDOW_WIDTH, Display.WINDOW_HEIGHT, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, 0);
-		// Get the data
-		buffer = glMapBuffer(GL_PIXEL_PACK_BUFFER, GL_READ_WRITE, null);
-		// Unmap the buffer and go back to normal
-		glUnmapBuffer(GL_PIXEL_PACK_BUFFER);
+		requestedPath = targetPath;
+	}
+
+	/**
+	 * Start saving every frame, as numbered PNG files in the given folder.
+	 * @param directory The folder to save the frames in.
+	 */
+	public static void startSequence(String directory) {
+		sequenceDirectory = directory;
+		sequenceFrame = 0;
+		droppedFrames = 0;
+		Logger.log("Recording frames to " + directory);
+	}
+
+	public static void stopSequence() {
+		if (sequenceDirectory == null) return;
+		Logger.log("Stopped recording: " + sequenceFrame + " frames saved, " + droppedFrames + " dropped.");
+		sequenceDirectory = null;
+	}
+
+	public static boolean isRecordingSequence() {
+		return sequenceDirectory != null;
+	}
+
+	/**
+	 * Hand off any captures the GPU has finished, and capture this frame if asked to.
+	 * Called once a frame, with the finished frame in the back buffer, just before the swap.
+	 */
+	public static void endFrame() {
+
+		// map whatever's ready
+		while (inFlight > 0 && collect(false)) {
+			inFlight--;
+		}
+
+		if (requestedPath == null && sequenceDirectory == null) return;
+
+		// every buffer is still waiting on the GPU; a sequence drops this frame, a single capture waits a frame
+		if (inFlight == RING_SIZE) {
+			if (sequenceDirectory != null) droppedFrames++;
+			return;
+		}
+
+		int width = Display.WINDOW_WIDTH, height = Display.WINDOW_HEIGHT;
+		if (width <= 0 || height <= 0) return;
+
+		if (requestedPath != null) {
+			capture(requestedPath, false, width, height);
+			requestedPath = null;
+		}
+		else {
+			capture(String.format("%s/frame-%06d.png", sequenceDirectory, sequenceFrame++), true, width, height);
+		}
+
+	}
+
+	/**
+	 * Read the back buffer into the next pixel buffer in the ring.
+	 */
+	private static void capture(String targetPath, boolean sequence, int width, int height) {
+		int slot = next;
+		int size = width * height * 4;
+		if (pixelBuffers[slot] == 0) pixelBuffers[slot] = glGenBuffers();
+		glBindBuffer(GL_PIXEL_PACK_BUFFER, pixelBuffers[slot]);
+		if (capacities[slot] < size) {
+			glBufferData(GL_PIXEL_PACK_BUFFER, size, GL_STREAM_READ);
+			capacities[slot] = size;
+		}
+		glBindFramebuffer(GL_READ_FRAMEBUFFER, 0);
+		GL11.glReadBuffer(GL11.GL_BACK);
+		GL11.glReadPixels(0, 0, width, height, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, 0);
 		glBindBuffer(GL_PIXEL_PACK_BUFFER, 0);
-		// done
-		// Format it and write it to the file, but do that in another, separate thread
-		ScreenshotSaveProcess saveProcess = new ScreenshotSaveProcess(buffer, targetPath);
-		saveProcess.start();
+		fences[slot] = glFenceSync(GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+		widths[slot] = width;
+		heights[slot] = height;
+		targetPaths[slot] = targetPath;
+		fromSequence[slot] = sequence;
+		next = (next + 1) % RING_SIZE;
+		inFlight++;
 	}
 
-	static class ScreenshotSaveProcess extends Thread {
-
-		private final ByteBuffer pixelData;
-		private final String targetPath;
-
-		public ScreenshotSaveProcess(ByteBuffer pixelData, String targetPath) {
-			this.pixelData = pixelData;
-			this.targetPath = targetPath;
-		}
-
-		@Override
-		public void run() {
-			// dimensions and bytes
-			int width = Display.WINDOW_WIDTH;
-			int height = Display.WINDOW_HEIGHT;
-			int bpp = 4; // Assuming a 32-bit display with a byte each for red, green, blue, and alpha.
-			// location to save
-			File file = new File(targetPath); // The file to save to.
-			if (!file.exists()) { // If the file doesn't exist (99.999% of the time this is the case)
-				if (!file.mkdirs()) { // Then if there's an error creating the directory structure for the screenshot file,
-					Logger.log("Failed to create screenshot directory!"); // Complain about it
-					return; // and then die
-				}
-			}
-			// perform the save
-			String format = "PNG"; // Example: "PNG" or "JPG"
-			BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-			for(int x = 0; x < width; x++) {
-				for(int y = 0; y < height; y++) {
-					int i = (x + (width * y)) * bpp;
-					int r = pixelData.get(i) & 0xFF;
-					int g = pixelData.get(i + 1) & 0xFF;
-					int b = pixelData.get(i + 2) & 0xFF;
-					image.setRGB(x, height - (y + 1), (0xFF << 24) | (r << 16) | (g << 8) | b);
-				}
+	/**
+	 * Copy the oldest capture out of the ring and send it to be encoded.
+	 * @param wait Whether to wait for the GPU to finish it and for room to encode it, rather than giving up if either isn't ready.
+	 * @return {@code true} if the capture was taken out of the ring.
+	 */
+	private static boolean collect(boolean wait) {
+
+		int slot = Math.floorMod(next - inFlight, RING_SIZE);
+		// no fence means the GPU finished this capture on an earlier call that couldn't hand it off
+		if (fences[slot] != 0) {
+			if (wait) glClientWaitSync(fences[slot], GL_SYNC_FLUSH_COMMANDS_BIT, Long.MAX_VALUE);
+			else if (glGetSynci(fences[slot], GL_SYNC_STATUS, null) != GL_SIGNALED) return false;
+			glDeleteSync(fences[slot]);
+			fences[slot] = 0;
+		}
+
+		// sequences drop frames the encoders can't keep up with; single captures
+		// stay in their pixel buffer and try again next frame
+		boolean sequence = fromSequence[slot];
+		if (!pendingFrames.tryAcquire()) {
+			if (sequence) {
+				targetPaths[slot] = null;
+				droppedFrames++;
+				return true;
 			}
+			else if (!wait) return false;
+			else pendingFrames.acquireUninterruptibly();
+		}
+
+		int width = widths[slot], height = heights[slot];
+		String targetPath = targetPaths[slot];
+		targetPaths[slot] = null;
+
+		byte[] pixels = obtainFrame(width * height * 4);
+		glBindBuffer(GL_PIXEL_PACK_BUFFER, pixelBuffers[slot]);
+		ByteBuffer mapped = glMapBufferRange(GL_PIXEL_PACK_BUFFER, 0, pixels.length, GL_MAP_READ_BIT);
+		if (mapped != null) {
+			mapped.get(pixels);
+			glUnmapBuffer(GL_PIXEL_PACK_BUFFER);
+		}
+		glBindBuffer(GL_PIXEL_PACK_BUFFER, 0);
+
+		if (mapped == null) {
+			Logger.logError("Failed to read back screenshot pixels");
+			releaseFrame(pixels);
+			return true;
+		}
+
+		getEncoders().execute(() -> {
 			try {
-				ImageIO.write(image, format, file);
-			} catch (IOException e) { e.printStackTrace(); }
-			Logger.log("Screenshot saved. Location: " + file.getAbsolutePath());
+				save(pixels, width, height, targetPath, sequence);
+			} finally {
+				releaseFrame(pixels);
+			}
+		});
+		return true;
+
+	}
+
+	private static byte[] obtainFrame(int size) {
+		byte[] frame = freeFrames.poll();
+		return frame != null && frame.length == size ? frame : new byte[size];
+	}
+
+	private static void releaseFrame(byte[] frame) {
+		freeFrames.offer(frame);
+		pendingFrames.release();
+	}
+
+	private static ThreadPoolExecutor getEncoders() {
+		if (encoders == null) {
+			encoders = new ThreadPoolExecutor(ENCODE_THREADS, ENCODE_THREADS, 0, TimeUnit.MILLISECONDS,
+					new ArrayBlockingQueue<>(MAX_PENDING_FRAMES), task -> {
+				Thread thread = new Thread(task, "Screenshot Encoder");
+				thread.setDaemon(true);
+				return thread;
+			});
 		}
+		return encoders;
+	}
+
+	/**
+	 * Convert a captured frame to an image and write it to a file. Runs on an encoder thread.
+	 */
+	private static void save(byte[] pixels, int width, int height, String targetPath, boolean sequence) {
 
+		// OpenGL's rows go bottom to top; read them as big-endian RGBA ints, flip them, and drop the alpha
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		int[] imagePixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+		IntStream.range(0, height).parallel().forEach(row -> {
+			IntBuffer source = ByteBuffer.wrap(pixels, row * width * 4, width * 4).order(ByteOrder.BIG_ENDIAN).asIntBuffer();
+			int start = (height - 1 - row) * width;
+			source.get(imagePixels, start, width);
+			for (int i = start; i < start + width; ++i) imagePixels[i] >>>= 8;
+		});
+
+		File file = new File(targetPath);
+		File directory = file.getAbsoluteFile().getParentFile();
+		if (directory != null && !directory.exists() && !directory.mkdirs() && !directory.exists()) {
+			Logger.logError("Failed to create screenshot directory: " + directory);
+			return;
+		}
+
+		ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+		try (ImageOutputStream out = ImageIO.createImageOutputStream(file)) {
+			ImageWriteParam param = writer.getDefaultWriteParam();
+			if (sequence && param.canWriteCompressed()) {
+				param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+				param.setCompressionQuality(SEQUENCE_COMPRESSION_QUALITY);
+			}
+			writer.setOutput(out);
+			writer.write(null, new IIOImage(image, null, null), param);
+		} catch (IOException e) {
+			Logger.logError("Failed to save screenshot: " + e.getMessage());
+			return;
+		} finally {
+			writer.dispose();
+		}
+
+		if (!sequence) Logger.log("Screenshot saved. Location: " + file.getAbsolutePath());
+
+	}
+
+	/**
+	 * Save a frame buffer's color to a PNG file right away, waiting for the GPU.
+	 * Meant for the end of a headless run, not for use while the game is running.
+	 * @param frameBuffer The frame buffer to save.
+	 * @param targetPath The file to save to.
+	 */
+	public static void saveFrameBuffer(FrameBuffer frameBuffer, String targetPath) {
+		int width = frameBuffer.getWidth(), height = frameBuffer.getHeight();
+		ByteBuffer pixels = MemoryUtil.memAlloc(width * height * 4);
+		try {
+			glBindFramebuffer(GL_READ_FRAMEBUFFER, frameBuffer.getBufferID());
+			GL11.glReadBuffer(GL_COLOR_ATTACHMENT0);
+			GL11.glReadPixels(0, 0, width, height, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, pixels);
+			glBindFramebuffer(GL_READ_FRAMEBUFFER, 0);
+			byte[] data = new byte[width * height * 4];
+			pixels.get(data);
+			save(data, width, height, targetPath, false);
+		} finally {
+			MemoryUtil.memFree(pixels);
+		}
+	}
+
+	/**
+	 * Finish every capture still in flight, wait for them to be saved, and delete the pixel buffers.
+	 */
+	public static void cleanUp() {
+		stopSequence();
+		while (inFlight > 0) {
+			collect(true);
+			inFlight--;
+		}
+		if (encoders != null) {
+			encoders.shutdown();
+			try {
+				if (!encoders.awaitTermination(30, TimeUnit.SECONDS)) Logger.logError("Timed out saving screenshots");
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			encoders = null;
+		}
+		for (int i = 0; i < RING_SIZE; ++i) {
+			if (pixelBuffers[i] != 0) glDeleteBuffers(pixelBuffers[i]);
+			pixelBuffers[i] = 0;
+			capacities[i] = 0;
+		}
+		freeFrames.clear();
 	}
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,107 @@
+package com.floober.engine.renderEngine;
+
+import com.floober.engine.display.Display;
+import com.floober.engine.renderEngine.elements.RenderElement;
+import com.floober.engine.renderEngine.particles.types.Particle;
+import com.floober.engine.util.configuration.Config;
+
+/**
+ * Rejects elements and particles that fall entirely outside the view before
+ * they're batched, so nothing off-screen gets transformed, uploaded or drawn.
+ * Everything submitted to the MasterRenderer is already in screen pixels
+ * (the game applies the Camera's offset before it gets here), so the view
+ * is simply the screen.
+ * <br><br>
+ * The number of elements and particles culled each frame is counted, and
+ * can be read back for the frame before.
+ */
+public class ViewCuller {
+
+	// extra room around the screen, in pixels, so that anything drawn a little
+	// outside its own bounds (texture outlines, line caps) isn't cut off early
+	private static final float MARGIN = 16;
+
+	// per-frame counts
+	private static int culledElements, culledParticles;
+	private static int lastFrameCulledElements, lastFrameCulledParticles;
+
+	/**
+	 * Check whether an element could appear on screen, counting it as culled if not.
+	 * @param element The element to check.
+	 * @return {@code true} if the element should be drawn.
+	 */
+	public static boolean isVisible(RenderElement element) {
+		if (!Config.VIEW_CULLING) return true;
+		boolean visible = intersectsView(element.getX(), element.getY(), element.getWidth(), element.getHeight(),
+				element.isCentered(), element.getRotation());
+		if (!visible) culledElements++;
+		return visible;
+	}
+
+	/**
+	 * Check whether a particle could appear on screen, counting it as culled if not.
+	 * @param particle The particle to check.
+	 * @return {@code true} if the particle should be drawn.
+	 */
+	public static boolean isVisible(Particle particle) {
+		if (!Config.VIEW_CULLING) return true;
+		// particles are always positioned by their center
+		boolean visible = intersectsView(particle.getX(), particle.getY(), particle.getWidth(), particle.getHeight(),
+				true, particle.getRotation());
+		if (!visible) culledParticles++;
+		return visible;
+	}
+
+	/**
+	 * Check whether a box, in screen pixels, overlaps the view.
+	 * @param x The box's x position.
+	 * @param y The box's y position.
+	 * @param width The box's width; may be negative, as with lines drawn right to left.
+	 * @param height The box's height; may be negative.
+	 * @param centered Whether {@code (x, y)} is the center of the box, rather than its top left.
+	 * @param rotation The box's rotation; rotated boxes are checked by their bounding square.
+	 * @return {@code true} if any part of the box could be on screen.
+	 */
+	public static boolean intersectsView(float x, float y, float width, float height, boolean centered, float rotation) {
+
+		float halfWidth = Math.abs(width) / 2;
+		float halfHeight = Math.abs(height) / 2;
+
+		// find the center
+		float centerX = centered ? x : x + width / 2;
+		float centerY = centered ? y : y + height / 2;
+
+		// a rotated box fits inside a square as wide as its diagonal
+		if (rotation != 0) {
+			halfWidth = halfHeight = (float) Math.sqrt(halfWidth * halfWidth + halfHeight * halfHeight);
+		}
+
+		return centerX + halfWidth >= -MARGIN && centerX - halfWidth <= Display.WIDTH + MARGIN &&
+				centerY + halfHeight >= -MARGIN && centerY - halfHeight <= Display.HEIGHT + MARGIN;
+
+	}
+
+	/**
+	 * Roll the per-frame counters over. Called once at the start of each frame.
+	 */
+	public static void endFrame() {
+		lastFrameCulledElements = culledElements;
+		lastFrameCulledParticles = culledParticles;
+		culledElements = culledParticles = 0;
+	}
+
+	/**
+	 * @return The number of elements culled last frame.
+	 */
+	public static int getCulledElementCount() {
+		return lastFrameCulledElements;
+	}
+
+	/**
+	 * @return The number of particles culled last frame.
+	 */
+	public static int getCulledParticleCount() {
+		return lastFrameCulledParticles;
+	}
+
+}
@@ -1,15 +0,0 @@
-package com.floober.engine.renderEngine.batches;
-
-public abstract class OpaqueBatch extends RenderBatch implements Comparable<OpaqueBatch> {
-
-	public OpaqueBatch(int layer) {
-		super(layer);
-	}
-
-	@Override
-	public int compareTo(OpaqueBatch other) {
-		return this.layer - other.layer;
-	}
-
-
-}
\ No newline at end of file
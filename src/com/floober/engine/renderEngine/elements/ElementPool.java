@@ -0,0 +1,46 @@
+package com.floober.engine.renderEngine.elements;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A frame-scoped arena of reusable elements. Elements handed out by
+ * {@code obtain()} stay valid until the pool is reset at the end of
+ * the frame, after which they're handed out again; the pool only ever
+ * grows to the most elements used in a single frame.
+ * @param <T> The type of element.
+ */
+public class ElementPool<T extends RenderElement> {
+
+	private final Supplier<T> factory;
+	private final List<T> elements = new ArrayList<>();
+	private int used;
+
+	/**
+	 * Create an empty pool.
+	 * @param factory Creates a new element when every pooled one is in use.
+	 */
+	public ElementPool(Supplier<T> factory) {
+		this.factory = factory;
+	}
+
+	/**
+	 * Get an element for this frame. It will hold whatever it was last
+	 * set to, so the caller must set every field it cares about.
+	 * @return An element that's free until the end of the frame.
+	 */
+	public T obtain() {
+		if (used == elements.size()) elements.add(factory.get());
+		return elements.get(used++);
+	}
+
+	/**
+	 * Make every element available again. Anything obtained
+	 * before this must no longer be used.
+	 */
+	public void reset() {
+		used = 0;
+	}
+
+}
@@ -0,0 +1,33 @@
+package com.floober.engine.renderEngine.elements;
+
+import com.floober.engine.renderEngine.elements.geometry.CircleElement;
+import com.floober.engine.renderEngine.elements.geometry.LineElement;
+import com.floober.engine.renderEngine.elements.geometry.OutlineElement;
+import com.floober.engine.renderEngine.elements.geometry.RectElement;
+import com.floober.engine.util.color.Colors;
+
+/**
+ * The pools that immediate-mode drawing (the {@code Render.draw*} helpers
+ * and other one-frame elements) takes its elements from. They're all reset
+ * by the MasterRenderer once the frame has been drawn.
+ */
+public class ElementPools {
+
+	public static final ElementPool<RectElement> rects = new ElementPool<>(() -> new RectElement(Colors.WHITE, 0, 0, 0, 0, 0, false));
+	public static final ElementPool<CircleElement> circles = new ElementPool<>(() -> new CircleElement(Colors.WHITE, 0, 0, 0, 1));
+	public static final ElementPool<LineElement> lines = new ElementPool<>(() -> new LineElement(Colors.WHITE, 0, 0, 0, 0, 0, 1));
+	public static final ElementPool<OutlineElement> outlines = new ElementPool<>(() -> new OutlineElement(Colors.WHITE, 0, 0, 0, 0, 0, 1, false));
+	public static final ElementPool<TextureElement> textures = new ElementPool<>(TextureElement::new);
+
+	/**
+	 * Free every pooled element for the next frame.
+	 */
+	public static void reset() {
+		rects.reset();
+		circles.reset();
+		lines.reset();
+		outlines.reset();
+		textures.reset();
+	}
+
+}
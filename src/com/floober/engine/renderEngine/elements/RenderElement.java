@@ -7,17 +7,30 @@ import com.floober.engine.renderEngine.renderers.MasterRenderer;
 import org.joml.Vector2f;
 import org.joml.Vector3f;
 
+/**
+ * Something that can be drawn to the screen, positioned in pixels.
+ * <br><br>
+ * An element keeps its screen-space transform cached, and only recomputes
+ * it in {@code transform()} when its position, size, rotation or layer has
+ * changed since the last time. Elements that don't move can be registered
+ * once with {@link MasterRenderer#retain(RenderElement)} and are then
+ * drawn every frame until released, without being submitted again.
+ */
 public abstract class RenderElement implements Comparable<RenderElement> {
 
 	protected float x, y;
-	protected int layer;
+	protected float layer;
 	protected float width, height;
 	protected float rotation;
-	protected Vector3f position;
-	protected Vector2f scale;
+	protected final Vector3f position = new Vector3f();
+	protected final Vector3f renderPosition = new Vector3f();
+	protected final Vector2f scale = new Vector2f();
 	protected boolean centered;
 
-	public RenderElement(float x, float y, int layer, boolean centered) {
+	// whether the cached transform is out of date
+	protected boolean dirty = true;
+
+	public RenderElement(float x, float y, float layer, boolean centered) {
 		this.x = x;
 		this.y = y;
 		this.layer = layer;
@@ -27,11 +40,28 @@ public abstract class RenderElement implements Comparable<RenderElement> {
 	/**
 	 * Apply any changes to this element's position or size
 	 * to its appearance on screen, by converting their current
-	 * values from pixel units to screen units.
+	 * values from pixel units to screen units. Does nothing if
+	 * nothing has changed since the last transform.
 	 */
 	public void transform() {
-		position = Display.convertToDisplayPosition(x, y, layer, width, height, centered);
-		scale = Display.convertToDisplayScale(width, height);
+		if (!dirty) return;
+		Display.convertToDisplayPosition(x, y, layer, width, height, centered, position);
+		Display.convertToDisplayScale(width, height, scale);
+		renderPosition.set(position.x, position.y, MasterRenderer.getScreenZ(layer));
+		dirty = false;
+	}
+
+	/**
+	 * Mark this element's cached transform as out of date, so the
+	 * next call to {@code transform()} recomputes it. Subclasses that
+	 * change the position or size fields directly must call this.
+	 */
+	protected void markDirty() {
+		dirty = true;
+	}
+
+	public boolean isDirty() {
+		return dirty;
 	}
 
 	/**
@@ -41,8 +71,11 @@ public abstract class RenderElement implements Comparable<RenderElement> {
 	 * @param buffer The FrameBuffer to use for reference.
 	 */
 	public void transform(FrameBuffer buffer) {
-		position = FrameBuffers.convertToFramebufferPosition(x, y, layer, width, height, centered, buffer);
-		scale = FrameBuffers.convertToFramebufferScale(width, height, buffer);
+		FrameBuffers.convertToFramebufferPosition(x, y, layer, width, height, centered, buffer, position);
+		FrameBuffers.convertToFramebufferScale(width, height, buffer, scale);
+		renderPosition.set(position.x, position.y, MasterRenderer.getScreenZ(layer));
+		// the cache no longer holds the screen transform
+		dirty = true;
 	}
 
 	// GETTERS
@@ -52,7 +85,7 @@ public abstract class RenderElement implements Comparable<RenderElement> {
 	public float getY() {
 		return y;
 	}
-	public int getLayer() {
+	public float getLayer() {
 		return layer;
 	}
 	public float getWidth() {
@@ -72,56 +105,67 @@ public abstract class RenderElement implements Comparable<RenderElement> {
 		return scale;
 	}
 
+	/**
+	 * @return The element's screen position, with its depth taken from its layer.
+	 */
 	public Vector3f getRenderPosition() {
-		return new Vector3f(position).setComponent(2, MasterRenderer.getScreenZ(layer));
+		return renderPosition;
 	}
 
 	// SETTERS
 	public void setX(float x) {
 		this.x = x;
+		dirty = true;
 	}
 	public void setY(float y) {
 		this.y = y;
+		dirty = true;
 	}
-	public void setLayer(int layer) {
+	public void setLayer(float layer) {
 		this.layer = layer;
+		dirty = true;
 	}
 	public void setWidth(float width) {
 		this.width = width;
+		dirty = true;
 	}
 	public void setHeight(float height) {
 		this.height = height;
+		dirty = true;
+	}
+	public void setRotation(float rotation) {
+		this.rotation = rotation;
+		dirty = true;
 	}
-	public void setRotation(float rotation) { this.rotation = rotation; }
 	public void setCentered(boolean centered) {
 		this.centered = centered;
+		dirty = true;
 	}
 
-	public void setPosition(float x, float y, int layer) {
+	public void setPosition(float x, float y, float layer) {
 		this.x = x;
 		this.y = y;
 		this.layer = layer;
+		dirty = true;
 	}
 
 	public void setPosition(Vector3f position) {
-		this.x = position.x;
-		this.y = position.y;
-		this.layer = (int) position.z;
+		setPosition(position.x, position.y, position.z);
 	}
 
 	public void setSize(float width, float height) {
 		this.width = width;
 		this.height = height;
+		dirty = true;
 	}
 
 	public void setSize(Vector2f size) {
-		this.width = size.x;
-		this.height = size.y;
+		setSize(size.x, size.y);
 	}
 
 	@Override
 	public int compareTo(RenderElement other) {
-		return Integer.compare(other.layer, layer);
+		return Float.compare(other.layer, layer);
 	}
 
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.floober.engine.renderEngine.elements;
 
 import com.floober.engine.display.Display;
+import com.floober.engine.renderEngine.textures.AtlasRegion;
 import com.floober.engine.renderEngine.textures.Texture;
 import com.floober.engine.renderEngine.textures.TextureComponent;
 import org.joml.Vector2f;
@@ -45,6 +46,8 @@ public class TextureElement extends RenderElement {
 	private float fadeStart = 0, fadeEnd = 1;
 	private int fadeDirection = 0;
 
+	private static final Vector4f FULL_TEXTURE_OFFSET = new Vector4f(0, 0, 1, 1);
+
 	public static final int FADE_LEFT_TO_RIGHT = 0;
 	public static final int FADE_RIGHT_TO_LEFT = 1;
 	public static final int FADE_TOP_TO_BOTTOM = 2;
@@ -59,7 +62,6 @@ public class TextureElement extends RenderElement {
 		this.textureComponent = null;
 		this.width = 0;
 		this.height = 0;
-		setTextureOffset(new Vector4f(0, 0, 1, 1));
 	}
 
 	public TextureElement(TextureComponent texture, float x, float y, int layer, float width, float height, boolean centered) {
@@ -80,13 +82,29 @@ public class TextureElement extends RenderElement {
 		setTextureOffset(new Vector4f(0, 0, 1, 1));
 	}
 
-	// COPY CONSTRUCTOR
+	// COPY CONSTRUCTOR; the copy doesn't own the outline texture (see copyFrom)
 	public TextureElement(TextureElement other) {
 		super(other.x, other.y, other.layer, other.centered);
+		copyFrom(other);
+	}
+
+	/**
+	 * Make this element a copy of another, as the copy constructor does.
+	 * Used to reuse pooled elements.
+	 * <br><br>
+	 * The copy shares the other element's outline texture without taking a
+	 * reference to it, so it must never be passed to
+	 * {@code TextureOutliner.releaseOutlineTexture}; only the original owns it.
+	 * @param other The element to copy.
+	 */
+	public void copyFrom(TextureElement other) {
+		// position
+		setPosition(other.x, other.y, other.layer);
+		setCentered(other.centered);
+		setRotation(other.rotation);
 		// texture and size
 		this.textureComponent = other.textureComponent;
-		this.width = other.width;
-		this.height = other.height;
+		setSize(other.width, other.height);
 		// effect toggle
 		this.doColorSwap = other.doColorSwap;
 		this.doColor = other.doColor;
@@ -118,7 +136,7 @@ public class TextureElement extends RenderElement {
 		this.fadeDirection = other.fadeDirection;
 		// finalize
 		transform();
-		setTextureOffset(new Vector4f(0, 0, 1, 1));
+		setTextureOffset(FULL_TEXTURE_OFFSET);
 	}
 
 	// GETTERS
@@ -129,6 +147,8 @@ public class TextureElement extends RenderElement {
 	// shortcuts
 	public Texture getRawTexture() { return textureComponent.texture(); }
 	public Vector4f getTextureComponentOffset() { return textureComponent.getTextureOffset(); }
+	public Vector4f getTextureUVs() { return textureComponent.getTextureUVs(); }
+	public int storeTextureUVs(float[] dest, int pointer) { return textureComponent.storeTextureUVs(dest, pointer); }
 	public float getTextureComponentAlpha() { return textureComponent.getAlpha(); }
 	public boolean textureComponentHasTransparency() { return textureComponent.hasTransparency(); }
 
@@ -166,21 +186,30 @@ public class TextureElement extends RenderElement {
 		return glitchSpeed;
 	}
 
-	public Vector2f stepSize() {
-		return new Vector2f(outlineWidth / width, outlineWidth / height);
+	public Vector2f stepSize(Vector2f dest) {
+		dest.set(outlineWidth / width, outlineWidth / height);
+		// packed textures only take up part of their atlas page
+		AtlasRegion region = textureComponent.getAtlasRegion();
+		if (region != null) dest.mul(region.uWidth(), region.vHeight());
+		return dest;
 	}
 
-	public Vector2f stepUnit() {
-		return new Vector2f(1 / width, 1 / height);
+	public Vector2f stepUnit(Vector2f dest) {
+		return dest.set(1 / width, 1 / height);
 	}
 
 	public Vector4f outlineColor() { return outlineColor; }
+	public float getOutlineWidth() { return outlineWidth; }
 
 	public Texture getOutlineTexture() { return outlineTexture; }
 	public Vector2f getOutlineScale() { return outlineScale; }
 
-	public Vector2f getFadeValues() { return new Vector2f(fadeMin, fadeMax); }
-	public Vector2f getFadeOffsets() { return new Vector2f(fadeStart, fadeEnd); }
+	public Vector2f getFadeValues(Vector2f dest) { return dest.set(fadeMin, fadeMax); }
+	public Vector2f getFadeOffsets(Vector2f dest) { return dest.set(fadeStart, fadeEnd); }
+	public float getFadeMin() { return fadeMin; }
+	public float getFadeMax() { return fadeMax; }
+	public float getFadeStart() { return fadeStart; }
+	public float getFadeEnd() { return fadeEnd; }
 	public int getFadeDirection() { return fadeDirection; }
 
 	// SETTERS
@@ -188,12 +217,14 @@ public class TextureElement extends RenderElement {
 		this.textureComponent = texture;
 		this.width = texture.width();
 		this.height = texture.height();
+		markDirty();
 	}
 
 	public void setTexture(TextureComponent texture, int width, int height) {
 		this.textureComponent = texture;
 		this.width = width;
 		this.height = height;
+		markDirty();
 	}
 
 	public void setTextureOffset(Vector4f textureOffset) {
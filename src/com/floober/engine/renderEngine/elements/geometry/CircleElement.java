@@ -5,8 +5,8 @@ import org.joml.Vector4f;
 
 public class CircleElement extends GeometryElement {
 
-	private final float innerRadius;
-	private final float outerRadius;
+	private float innerRadius;
+	private float outerRadius;
 	private final Vector2f center;
 	private final Vector2f portion;
 	private float smoothness;
@@ -41,6 +41,23 @@ public class CircleElement extends GeometryElement {
 		this.portion = new Vector2f(portion, offset);
 	}
 
+	/**
+	 * Reset this circle to the given values, as if it had just been
+	 * created with them. Used to reuse pooled elements.
+	 */
+	public void set(Vector4f color, float x, float y, float layer, float innerRadius, float outerRadius, float portion, float offset) {
+		setColor(color);
+		setPosition(x, y, layer);
+		setSize(outerRadius * 2, outerRadius * 2); // quad size = diameter
+		setRotation(0);
+		this.innerRadius = innerRadius / outerRadius;
+		this.outerRadius = 0.97f;
+		this.smoothness = 0;
+		transform();
+		center.set(position.x(), position.y());
+		this.portion.set(portion, offset);
+	}
+
 	// GETTERS
 	public Vector2f getCenter() {
 		return center;
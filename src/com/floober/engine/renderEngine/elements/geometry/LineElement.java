@@ -14,11 +14,23 @@ public class LineElement extends GeometryElement {
 		transform();
 	}
 
+	/**
+	 * Reset this line to the given values, as if it had just been
+	 * created with them. Used to reuse pooled elements.
+	 */
+	public void set(Vector4f color, float x1, float y1, float x2, float y2, float layer, float lineWidth) {
+		setColor(color);
+		setLayer(layer);
+		setPosition(x1, y1, x2, y2, lineWidth);
+		transform();
+	}
+
 	public void setPosition(float x1, float y1, float x2, float y2, float lineWidth) {
 		this.x = x1 - lineWidth / 2;
 		this.y = y1 - lineWidth / 2;
 		this.width = x2 - x1 + lineWidth;
 		this.height = y2 - y1 + lineWidth;
+		markDirty();
 	}
 
 }
@@ -5,7 +5,7 @@ import org.joml.Vector4f;
 public class OutlineElement extends GeometryElement {
 
 	private final LineElement[] lines;
-	private final float lineWidth;
+	private float lineWidth;
 
 	public OutlineElement(Vector4f color, float x, float y, int layer, float width, float height, float lineWidth, boolean centered) {
 		super(color, x, y, layer, centered);
@@ -41,6 +41,30 @@ public class OutlineElement extends GeometryElement {
 		// (for some reason I need to add lineWidth to the bottom of the left-side line when lineWidth is > 1, or else the bottom-left corner will be missing
 	}
 
+	/**
+	 * Reset this outline to the given values, as if it had just been
+	 * created with them. Used to reuse pooled elements.
+	 */
+	public void set(Vector4f color, float x, float y, float layer, float width, float height, float lineWidth, boolean centered) {
+		this.color.set(color);
+		this.x = x;
+		this.y = y;
+		this.layer = layer;
+		this.width = width;
+		this.height = height;
+		this.lineWidth = lineWidth;
+		this.centered = centered;
+		markDirty();
+		if (centered) {
+			x -= width / 2;
+			y -= height / 2;
+		}
+		lines[0].set(color, x, y, x + width, y, layer, lineWidth); // top
+		lines[1].set(color, x + width, y, x + width, y + height, layer, lineWidth); // right
+		lines[2].set(color, x + width, y + height, x, y + height, layer, lineWidth); // bottom
+		lines[3].set(color, x, y + height + lineWidth, x, y, layer, lineWidth); // left
+	}
+
 	public LineElement[] getLines() {
 		return lines;
 	}
@@ -54,10 +78,11 @@ public class OutlineElement extends GeometryElement {
 	}
 
 	@Override
-	public void setPosition(float x, float y, int layer) {
+	public void setPosition(float x, float y, float layer) {
 		this.x = x;
 		this.y = y;
 		this.layer = layer;
+		markDirty();
 		if (centered) {
 			this.x -= width / 2;
 			this.y -= height / 2;
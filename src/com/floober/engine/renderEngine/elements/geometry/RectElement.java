@@ -23,6 +23,20 @@ public class RectElement extends GeometryElement {
 		transform();
 	}
 
+	/**
+	 * Reset this rectangle to the given values, as if it had just been
+	 * created with them. Used to reuse pooled elements.
+	 */
+	public void set(Vector4f color, float x, float y, float layer, float width, float height, float r, boolean centered) {
+		setColor(color);
+		setPosition(x, y, layer);
+		setSize(width, height);
+		setCentered(centered);
+		setRotation(0);
+		this.r = r;
+		transform();
+	}
+
 	public void setRoundRadius(float r) {
 		this.r = r;
 	}
@@ -1,5 +1,7 @@
 package com.floober.engine.renderEngine.fonts.fontMeshCreator;
 
+import com.floober.engine.renderEngine.textures.AtlasRegion;
+
 /**
  * Represents a font. It holds the font's texture atlas as well as having the
  * ability to create the quad vertices for any text using this font.
@@ -27,6 +29,22 @@ public class FontType {
 		this.loader = new TextMeshCreator(fontFile);
 	}
 
+	/**
+	 * Creates a new font whose texture has been packed into a shared atlas
+	 * page. Text meshes created with this font will have their texture
+	 * coordinates mapped into the font's region of that page.
+	 *
+	 * @param atlasRegion
+	 *            - the region of the atlas page holding the font texture.
+	 * @param fontFile
+	 *            - the font file containing information about each character in
+	 *            the texture atlas.
+	 */
+	public FontType(AtlasRegion atlasRegion, String fontFile) {
+		this.textureAtlas = atlasRegion.texture().id();
+		this.loader = new TextMeshCreator(fontFile, atlasRegion);
+	}
+
 	/**
 	 * @return The font texture atlas.
 	 */
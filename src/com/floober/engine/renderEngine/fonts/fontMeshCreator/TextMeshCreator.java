@@ -1,5 +1,6 @@
 package com.floober.engine.renderEngine.fonts.fontMeshCreator;
 
+import com.floober.engine.renderEngine.textures.AtlasRegion;
 import com.floober.engine.util.data.Pair;
 
 import java.util.ArrayList;
@@ -12,9 +13,19 @@ public class TextMeshCreator {
 	protected final static int NEWLINE_ASCII = 10;
 
 	private final MetaFile metaData;
+	private final AtlasRegion atlasRegion;
 
 	protected TextMeshCreator(String metaFile) {
+		this(metaFile, null);
+	}
+
+	/**
+	 * @param atlasRegion The region of an atlas page the font's texture was
+	 *                    packed into, or null if it has a texture of its own.
+	 */
+	protected TextMeshCreator(String metaFile, AtlasRegion atlasRegion) {
 		metaData = new MetaFile(metaFile);
+		this.atlasRegion = atlasRegion;
 	}
 
 	protected TextMeshData createTextMesh(GUIText text) {
@@ -93,8 +104,8 @@ public class TextMeshCreator {
 			for (Word word : line.getWords()) {
 				for (Character letter : word.getCharacters()) {
 					addVerticesForCharacter(cursorX, cursorY, text.getPosition().z, letter, text.getFontSize(), vertices);
-					addTexCoords(textureCoords, letter.xTextureCoord(), letter.yTextureCoord(),
-							letter.xMaxTextureCoord(), letter.yMaxTextureCoord());
+					addTexCoords(textureCoords, mapU(letter.xTextureCoord()), mapV(letter.yTextureCoord()),
+							mapU(letter.xMaxTextureCoord()), mapV(letter.yMaxTextureCoord()));
 					cursorX += letter.xAdvance() * text.getFontSize();
 				}
 				cursorX += metaData.getSpaceWidth() * text.getFontSize();
@@ -139,6 +150,15 @@ public class TextMeshCreator {
 		vertices.add(z);
 	}
 
+	// map font texture coordinates into the atlas page, if the font was packed
+	private double mapU(double u) {
+		return atlasRegion == null ? u : atlasRegion.u() + u * atlasRegion.uWidth();
+	}
+
+	private double mapV(double v) {
+		return atlasRegion == null ? v : atlasRegion.v() + v * atlasRegion.vHeight();
+	}
+
 	private static void addTexCoords(List<Float> texCoords, double x, double y, double maxX, double maxY) {
 		texCoords.add((float) x);
 		texCoords.add((float) y);
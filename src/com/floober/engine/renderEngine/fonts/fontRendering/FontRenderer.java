@@ -1,5 +1,7 @@
 package com.floober.engine.renderEngine.fonts.fontRendering;
 
+import com.floober.engine.renderEngine.GLStateManager;
+import com.floober.engine.renderEngine.RenderStats;
 import com.floober.engine.renderEngine.fonts.fontMeshCreator.FontType;
 import com.floober.engine.renderEngine.fonts.fontMeshCreator.GUIText;
 import com.floober.engine.renderEngine.shaders.FontShader;
@@ -10,18 +12,11 @@ import java.util.List;
 import java.util.Map;
 
 import static org.lwjgl.opengl.GL11.*;
-import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
-import static org.lwjgl.opengl.GL13.glActiveTexture;
-import static org.lwjgl.opengl.GL20.glDisableVertexAttribArray;
-import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
-import static org.lwjgl.opengl.GL30.glBindVertexArray;
 
 public class FontRenderer {
 
 	private final FontShader shader;
 
-	public static int ELEMENT_COUNT = 0;
-
 	public FontRenderer() {
 		shader = new FontShader();
 	}
@@ -32,10 +27,7 @@ public class FontRenderer {
 
 		for (FontType fontType : texts.keySet()) {
 
-			ELEMENT_COUNT += texts.get(fontType).size();
-
-			glActiveTexture(GL_TEXTURE0);
-			glBindTexture(GL_TEXTURE_2D, fontType.getTextureAtlas());
+			GLStateManager.bindTexture(0, fontType.getTextureAtlas());
 
 			for (GUIText text : texts.get(fontType)) {
 				if (KeyInput.isPressed(KeyInput.P)) Logger.log("Text at z = " + text.getPosition().z());
@@ -43,8 +35,6 @@ public class FontRenderer {
 			}
 		}
 
-		endRendering();
-
 	}
 
 	public void cleanUp(){
@@ -53,16 +43,14 @@ public class FontRenderer {
 	
 	private void prepare() {
 		shader.start();
-		glEnable(GL_BLEND);
-		glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
-		glEnable(GL_DEPTH_TEST);
-		glDepthMask(false);
+		GLStateManager.enable(GL_BLEND);
+		GLStateManager.blendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+		GLStateManager.enable(GL_DEPTH_TEST);
+		GLStateManager.depthMask(false);
 	}
 	
 	private void renderText(GUIText text) {
-		glBindVertexArray(text.getMesh());
-		glEnableVertexAttribArray(0);
-		glEnableVertexAttribArray(1);
+		GLStateManager.bindVertexArray(text.getMesh());
 		shader.loadColor(text.getColor());
 		shader.loadTranslation(text.getPosition());
 		shader.loadWidth(text.getWidth());
@@ -72,16 +60,7 @@ public class FontRenderer {
 		shader.loadShadowOffset(text.getShadowOffset());
 		shader.loadOutlineColor(text.getOutlineColor());
 		glDrawArrays(GL_TRIANGLES, text.getFirstCharVisible() * 6, text.getNumVisibleChars() * 6);
-		glDisableVertexAttribArray(0);
-		glDisableVertexAttribArray(1);
-		glBindVertexArray(0);
-	}
-	
-	private void endRendering() {
-		shader.stop();
-		glDisable(GL_BLEND);
-		glDisable(GL_DEPTH_TEST);
-		glDepthMask(true);
+		RenderStats.countDraw(GL_TRIANGLES, text.getNumVisibleChars() * 6, 1);
 	}
 
 }
\ No newline at end of file
@@ -1,40 +1,53 @@
 package com.floober.engine.renderEngine.fonts.fontRendering;
 
+import com.floober.engine.renderEngine.DepthBuckets;
 import com.floober.engine.renderEngine.fonts.fontMeshCreator.FontType;
 import com.floober.engine.renderEngine.fonts.fontMeshCreator.GUIText;
 import com.floober.engine.renderEngine.fonts.fontMeshCreator.TextMeshData;
 import com.floober.engine.renderEngine.models.ModelLoader;
-import com.floober.engine.renderEngine.renderers.MasterRenderer;
-import com.floober.engine.util.Logger;
 
 import java.util.*;
 
 public class TextMaster {
 
-	private static Map<FontType, List<GUIText>>[] texts;
+	// texts by depth, then by font; only depths with text in them get a bucket
+	private static final DepthBuckets<Map<FontType, List<GUIText>>> texts = new DepthBuckets<>(HashMap::new);
 	private static FontRenderer renderer;
 
 	public static final List<Integer> textVAOs = new ArrayList<>();
 
-	@SuppressWarnings("unchecked") // suck it, compiler; this is valid
+	// reused each frame by updateTexts()
+	private static final List<GUIText> updateSnapshot = new ArrayList<>();
+
 	public static void init() {
 		renderer = new FontRenderer();
-		texts = new HashMap[MasterRenderer.NUM_LAYERS];
-		for (int i = 0; i < MasterRenderer.NUM_LAYERS; i++) {
-			texts[i] = new HashMap<>();
-		}
 	}
 
-	public static void render(int layer) {
-		updateTexts(layer);
-		renderer.render(texts[layer]);
+	/**
+	 * @return The number of depths that currently hold text.
+	 */
+	public static int getBucketCount() {
+		return texts.size();
+	}
+
+	/**
+	 * @return The depth step of the {@code i}th occupied depth, counting from the back.
+	 */
+	public static int getBucketDepth(int i) {
+		return texts.depthAt(i);
+	}
+
+	/**
+	 * Render all text at the {@code i}th occupied depth, counting from the back.
+	 */
+	public static void renderBucket(int i) {
+		renderer.render(texts.bucketAt(i));
 	}
 
 	public static void loadText(GUIText text) {
 		if (!text.isProcessed()) processText(text);
-		int layer = (int) text.getPosition().z();
 		FontType fontType = text.getFont();
-		List<GUIText> textBatch = texts[layer].computeIfAbsent(fontType, k -> new ArrayList<>());
+		List<GUIText> textBatch = texts.getOrCreate(text.getPosition().z()).computeIfAbsent(fontType, k -> new ArrayList<>());
 		textBatch.add(text);
 	}
 
@@ -48,58 +61,65 @@ public class TextMaster {
 	}
 
 	public static void removeText(GUIText text) {
-		int layer = (int) text.getPosition().z();
-		List<GUIText> textBatch = texts[layer].get(text.getFont());
+		Map<FontType, List<GUIText>> bucket = texts.get(text.getPosition().z());
+		if (bucket == null) return;
+		List<GUIText> textBatch = bucket.get(text.getFont());
 		if (textBatch != null) {
 			textBatch.remove(text);
 			if (textBatch.isEmpty()) {
-				texts[layer].remove(text.getFont());
+				bucket.remove(text.getFont());
+				if (bucket.isEmpty()) texts.remove(text.getPosition().z());
 			}
 		}
 		text.setProcessed(false);
 	}
 
 	public static void removeText(GUIText text, FontType oldFont) {
-		int layer = (int) text.getPosition().z();
-		List<GUIText> textBatch = texts[layer].get(oldFont);
+		Map<FontType, List<GUIText>> bucket = texts.get(text.getPosition().z());
+		if (bucket == null) return;
+		List<GUIText> textBatch = bucket.get(oldFont);
 		if (textBatch != null) {
 			textBatch.remove(text);
 			if (textBatch.isEmpty()) {
-				texts[layer].remove(oldFont);
+				bucket.remove(oldFont);
+				if (bucket.isEmpty()) texts.remove(text.getPosition().z());
 			}
 		}
 	}
 
-	public static void updateTexts(int layer) {
-		Set<FontType> keySet = texts[layer].keySet();
-		FontType[] fonts = keySet.toArray(new FontType[] {});
-		int setSize = keySet.size();
-		for (int j = 0; j < setSize; j++) {
-			if (keySet.size() != setSize) Logger.log("Key set was size " + setSize + ", but on iteration " + j + " of the loop it is now " + keySet.size());
-			FontType fontType = fonts[j];
-			List<GUIText> textList = texts[layer].get(fontType);
-			int size = textList.size();
-			//noinspection ForLoopReplaceableByForEach
-			for (int k = 0; k < size; ++k) {
-				textList.get(k).update();
+	/**
+	 * Update every loaded GUIText. Texts may load or remove other texts while
+	 * updating, so this works from a snapshot of what's loaded.
+	 */
+	public static void updateTexts() {
+		List<GUIText> snapshot = updateSnapshot;
+		snapshot.clear();
+		for (int i = 0; i < texts.size(); ++i) {
+			for (List<GUIText> textList : texts.bucketAt(i).values()) {
+				snapshot.addAll(textList);
 			}
 		}
+		//noinspection ForLoopReplaceableByForEach
+		for (int i = 0; i < snapshot.size(); ++i) {
+			snapshot.get(i).update();
+		}
+		snapshot.clear();
 	}
 
 	/**
 	 * Clear all GUIText objects from the screen.
 	 */
 	public static void clear() {
-		for (Map<FontType, List<GUIText>> map : texts) {
+		for (int i = 0; i < texts.size(); ++i) {
 			// delete every GUIText's data
-			for (FontType fontType : map.keySet()) {
-				for (GUIText guiText : map.get(fontType)) {
+			for (List<GUIText> textList : texts.bucketAt(i).values()) {
+				for (GUIText guiText : textList) {
 					guiText.delete();
 				}
 			}
-			// clear the map, let GC handle all the GUITexts
-			map.clear();
 		}
+		// drop every bucket, let GC handle all the GUITexts
+		texts.clear();
 	}
 
 	public static void cleanUp() {
@@ -1,6 +1,7 @@
 package com.floober.engine.renderEngine.framebuffers;
 
 import com.floober.engine.display.Display;
+import com.floober.engine.renderEngine.GLStateManager;
 import com.floober.engine.renderEngine.textures.Texture;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL30;
@@ -19,6 +20,8 @@ public class FrameBuffer {
 
 	private final int width;
 	private final int height;
+	private final int format;
+	private final int depthBufferType;
 	private int bufferID;
 
 	private int colorTexture;
@@ -30,10 +33,33 @@ public class FrameBuffer {
 	// flag if the buffer has been deleted
 	private boolean deleted = false;
 
+	// memory held by every live frame buffer's attachments
+	private static long allocatedBytes;
+
+	/**
+	 * Create a frame buffer with an 8-bit RGBA color attachment.
+	 * @param width The width of the buffer.
+	 * @param height The height of the buffer.
+	 * @param depthBufferType The type of depth attachment: {@code NONE}, {@code DEPTH_TEXTURE} or {@code DEPTH_RENDER_BUFFER}.
+	 */
 	public FrameBuffer(int width, int height, int depthBufferType) {
+		this(width, height, GL_RGBA8, depthBufferType);
+	}
+
+	/**
+	 * Create a frame buffer.
+	 * @param width The width of the buffer.
+	 * @param height The height of the buffer.
+	 * @param format The internal format of the color attachment, such as {@code GL_RGBA8} or {@code GL_RGBA16F}.
+	 * @param depthBufferType The type of depth attachment: {@code NONE}, {@code DEPTH_TEXTURE} or {@code DEPTH_RENDER_BUFFER}.
+	 */
+	public FrameBuffer(int width, int height, int format, int depthBufferType) {
 		this.width = width;
 		this.height = height;
+		this.format = format;
+		this.depthBufferType = depthBufferType;
 		initializeFrameBuffer(depthBufferType);
+		allocatedBytes += getByteSize();
 	}
 
 	// GETTERS
@@ -44,8 +70,38 @@ public class FrameBuffer {
 	public int getHeight() {
 		return height;
 	}
+	public int getFormat() { return format; }
+	public int getDepthBufferType() { return depthBufferType; }
 	public boolean isDeleted() { return deleted; }
 
+	/**
+	 * @return An estimate of the video memory this buffer's attachments take up, in bytes.
+	 */
+	public long getByteSize() {
+		long pixels = (long) width * height;
+		long depthBytes = depthBufferType == NONE ? 0 : 4; // 24-bit depth, padded
+		return pixels * (bytesPerPixel(format) + depthBytes);
+	}
+
+	private static int bytesPerPixel(int format) {
+		return switch (format) {
+			case GL_R8 -> 1;
+			case GL_RG8, GL_R16F -> 2;
+			case GL_RGBA16F, GL_RGB16F, GL_RG32F -> 8;
+			case GL_RGBA32F, GL_RGB32F -> 16;
+			default -> 4; // GL_RGBA8, GL_RGB8 (padded), GL_R11F_G11F_B10F, ...
+		};
+	}
+
+	/**
+	 * @return An estimate of the video memory taken up by every frame buffer
+	 * that hasn't been deleted, in bytes. Textures kept after their buffer
+	 * was deleted aren't counted.
+	 */
+	public static long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+
 	/**
 	 * @return The ID of the texture containing the colour buffer of the FBO.
 	 */
@@ -89,7 +145,7 @@ public class FrameBuffer {
 	 * Binds the current FBO to be read from (not used in tutorial 43).
 	 */
 	public void bindToRead() {
-		GL11.glBindTexture(GL11.GL_TEXTURE_2D, 0);
+		GLStateManager.bindTexture(0);
 		GL30.glBindFramebuffer(GL30.GL_READ_FRAMEBUFFER, bufferID);
 		GL11.glReadBuffer(GL30.GL_COLOR_ATTACHMENT0);
 	}
@@ -132,8 +188,8 @@ public class FrameBuffer {
 	 */
 	private void createTextureAttachment() {
 		colorTexture = glGenTextures();
-		glBindTexture(GL_TEXTURE_2D, colorTexture);
-		glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA8, width, height, 0, GL_RGBA, GL_UNSIGNED_BYTE, (ByteBuffer) null);
+		GLStateManager.bindTexture(colorTexture);
+		glTexImage2D(GL_TEXTURE_2D, 0, format, width, height, 0, GL_RGBA, GL_UNSIGNED_BYTE, (ByteBuffer) null);
 		glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
 		glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
 		glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
@@ -147,7 +203,7 @@ public class FrameBuffer {
 	 */
 	private void createDepthTextureAttachment() {
 		depthTexture = glGenTextures();
-		glBindTexture(GL_TEXTURE_2D, depthTexture);
+		GLStateManager.bindTexture(depthTexture);
 		glTexImage2D(GL_TEXTURE_2D, 0, GL_DEPTH_COMPONENT24, width, height, 0, GL_DEPTH_COMPONENT,
 				GL_FLOAT, (ByteBuffer) null);
 		glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
@@ -172,9 +228,12 @@ public class FrameBuffer {
 	 * Deletes the frame buffer and its attachments when the game closes.
 	 */
 	public void cleanUp() {
-		if (!deleted) glDeleteFramebuffers(bufferID);
-		glDeleteTextures(colorTexture);
-		glDeleteTextures(depthTexture);
+		if (!deleted) {
+			glDeleteFramebuffers(bufferID);
+			allocatedBytes -= getByteSize();
+		}
+		GLStateManager.deleteTexture(colorTexture);
+		GLStateManager.deleteTexture(depthTexture);
 		glDeleteRenderbuffers(depthBuffer);
 		glDeleteRenderbuffers(colorBuffer);
 	}
@@ -194,6 +253,7 @@ public class FrameBuffer {
 	public void deleteButPreserveTextures() {
 		// only delete buffer
 		glDeleteFramebuffers(bufferID);
+		allocatedBytes -= getByteSize();
 		deleted = true;
 	}
 
@@ -202,8 +262,8 @@ public class FrameBuffer {
 	 * during the clean-up phase.
 	 */
 	public void deletePreservedTextures() {
-		glDeleteTextures(colorTexture);
-		glDeleteTextures(depthTexture);
+		GLStateManager.deleteTexture(colorTexture);
+		GLStateManager.deleteTexture(depthTexture);
 		glDeleteRenderbuffers(depthBuffer);
 		glDeleteRenderbuffers(colorBuffer);
 	}
@@ -28,6 +28,10 @@ public class FrameBuffers {
 	}
 
 	public static Vector3f convertToFramebufferPosition(float x, float y, float z, float width, float height, boolean centered, FrameBuffer buffer) {
+		return convertToFramebufferPosition(x, y, z, width, height, centered, buffer, new Vector3f());
+	}
+
+	public static Vector3f convertToFramebufferPosition(float x, float y, float z, float width, float height, boolean centered, FrameBuffer buffer, Vector3f dest) {
 		// translate to top left
 		if (!centered) {
 			x += width / 2;
@@ -41,13 +45,17 @@ public class FrameBuffers {
 		// convert Z position to [0 ... 1]
 		float displayZ = MathUtil.interpolateBounded(0, MasterRenderer.TOP_LAYER, z);
 		// return the result
-		return new Vector3f(displayX, displayY, displayZ);
+		return dest.set(displayX, displayY, displayZ);
 	}
 
 	public static Vector2f convertToFramebufferScale(float width, float height, FrameBuffer buffer) {
+		return convertToFramebufferScale(width, height, buffer, new Vector2f());
+	}
+
+	public static Vector2f convertToFramebufferScale(float width, float height, FrameBuffer buffer, Vector2f dest) {
 		float displayWidth = width / buffer.getWidth();
 		float displayHeight = -height / buffer.getHeight();
-		return new Vector2f(displayWidth, displayHeight);
+		return dest.set(displayWidth, displayHeight);
 	}
 
 	public static void cleanUp() {
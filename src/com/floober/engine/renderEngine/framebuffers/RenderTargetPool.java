@@ -0,0 +1,140 @@
+package com.floober.engine.renderEngine.framebuffers;
+
+import com.floober.engine.util.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.lwjgl.opengl.GL11.GL_RGBA8;
+
+/**
+ * Hands out transient frame buffers (render targets) by size, color format
+ * and depth type, and takes them back when they're done with, instead of
+ * every pass creating and deleting its own.
+ * <br><br>
+ * A target that's released goes straight back into the pool, so a later pass
+ * in the same frame that asks for the same kind of target gets the same one:
+ * passes whose lifetimes don't overlap share memory. Anything still acquired
+ * at the end of the frame is released then, and targets that go unused for
+ * a while are deleted.
+ */
+public class RenderTargetPool {
+
+	// targets left unused for this many frames are deleted
+	private static final int MAX_IDLE_FRAMES = 120;
+
+	private record Key(int width, int height, int format, int depthBufferType) {}
+
+	private static class Target {
+		final Key key;
+		final FrameBuffer buffer;
+		int lastUsedFrame;
+		Target(Key key, FrameBuffer buffer) {
+			this.key = key;
+			this.buffer = buffer;
+		}
+	}
+
+	private static final Map<Key, ArrayDeque<Target>> free = new HashMap<>();
+	private static final List<Target> acquired = new ArrayList<>();
+	private static int frame;
+	private static int targetCount;
+	private static long pooledBytes;
+
+	/**
+	 * Get an 8-bit RGBA render target with no depth attachment.
+	 * @see #acquire(int, int, int, int)
+	 */
+	public static FrameBuffer acquire(int width, int height) {
+		return acquire(width, height, GL_RGBA8, FrameBuffer.NONE);
+	}
+
+	/**
+	 * Get a render target, creating one only if none of this kind is free.
+	 * Its contents are whatever was last drawn to it, so clear it if that matters.
+	 * @param width The width of the target.
+	 * @param height The height of the target.
+	 * @param format The internal format of its color attachment.
+	 * @param depthBufferType The type of its depth attachment.
+	 * @return A target that's yours until you release it, or until the end of the frame.
+	 */
+	public static FrameBuffer acquire(int width, int height, int format, int depthBufferType) {
+		Key key = new Key(width, height, format, depthBufferType);
+		ArrayDeque<Target> targets = free.get(key);
+		Target target = targets != null ? targets.poll() : null;
+		if (target == null) {
+			target = new Target(key, new FrameBuffer(width, height, format, depthBufferType));
+			targetCount++;
+			pooledBytes += target.buffer.getByteSize();
+		}
+		target.lastUsedFrame = frame;
+		acquired.add(target);
+		return target.buffer;
+	}
+
+	/**
+	 * Give a render target back to the pool. It can be handed out again
+	 * straight away, so don't use it (or its texture) after this.
+	 * @param buffer A target returned by {@code acquire()}.
+	 */
+	public static void release(FrameBuffer buffer) {
+		for (int i = acquired.size() - 1; i >= 0; --i) {
+			Target target = acquired.get(i);
+			if (target.buffer == buffer) {
+				acquired.remove(i);
+				free.computeIfAbsent(target.key, key -> new ArrayDeque<>()).push(target);
+				return;
+			}
+		}
+		Logger.logError("Tried to release a render target that isn't acquired");
+	}
+
+	/**
+	 * Release everything still acquired, and delete targets that haven't
+	 * been used in a while. Called once at the start of each frame.
+	 */
+	public static void endFrame() {
+		while (!acquired.isEmpty()) release(acquired.get(acquired.size() - 1).buffer);
+		frame++;
+		for (ArrayDeque<Target> targets : free.values()) {
+			targets.removeIf(target -> {
+				if (frame - target.lastUsedFrame < MAX_IDLE_FRAMES) return false;
+				delete(target);
+				return true;
+			});
+		}
+	}
+
+	private static void delete(Target target) {
+		targetCount--;
+		pooledBytes -= target.buffer.getByteSize();
+		target.buffer.delete();
+	}
+
+	/**
+	 * @return The number of render targets in the pool, acquired or not.
+	 */
+	public static int getTargetCount() {
+		return targetCount;
+	}
+
+	/**
+	 * @return An estimate of the video memory taken up by the pool's render targets, in bytes.
+	 */
+	public static long getPooledBytes() {
+		return pooledBytes;
+	}
+
+	public static void cleanUp() {
+		for (Target target : acquired) delete(target);
+		acquired.clear();
+		for (ArrayDeque<Target> targets : free.values()) {
+			for (Target target : targets) delete(target);
+		}
+		free.clear();
+	}
+
+}
@@ -0,0 +1,210 @@
+package com.floober.engine.renderEngine.lights;
+
+import com.floober.engine.renderEngine.GLStateManager;
+import com.floober.engine.renderEngine.RenderStats;
+import com.floober.engine.util.configuration.Config;
+import org.joml.Vector4f;
+import org.lwjgl.BufferUtils;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL30.GL_R32I;
+import static org.lwjgl.opengl.GL30.GL_RGBA32F;
+import static org.lwjgl.opengl.GL31.GL_TEXTURE_BUFFER;
+import static org.lwjgl.opengl.GL31.glTexBuffer;
+
+/**
+ * Sorts the scene's lights into a grid of screen tiles once a frame, for
+ * forward lighting (when deferred lighting is off). Each tile lists only the
+ * lights that reach it, so a lit fragment adds up the lights of the tile it's
+ * in rather than every light in the scene, and there's no limit on the number
+ * of lights a scene can have.
+ * <br><br>
+ * The grid is built on the CPU and handed to shaders as two buffer textures:
+ * <pre>
+ * lightData (RGBA32F): 3 texels per light: position (xy), color, and
+ *                      intensity, inner radius, outer radius, max radius
+ * lightTiles (R32I):   2 ints per tile, row by row from the top left: where the
+ *                      tile's list starts and how many lights it holds; then
+ *                      every tile's list of indices into lightData
+ * </pre>
+ * Tiles are {@code Config.LIGHT_TILE_SIZE} pixels square, at the internal
+ * resolution, and lights entirely off screen are left out.
+ */
+public class LightGrid {
+
+	// the texture units shaders read the grid from
+	public static final int LIGHT_DATA_UNIT = 3;
+	public static final int LIGHT_TILES_UNIT = 4;
+
+	// grid layout
+	private static final int TILE_SIZE = Config.LIGHT_TILE_SIZE;
+	private static final int COLUMNS = (Config.INTERNAL_WIDTH + TILE_SIZE - 1) / TILE_SIZE;
+	private static final int ROWS = (Config.INTERNAL_HEIGHT + TILE_SIZE - 1) / TILE_SIZE;
+	private static final int TILE_COUNT = COLUMNS * ROWS;
+	private static final int HEADER_SIZE = TILE_COUNT * 2;
+	private static final int LIGHT_DATA_LENGTH = 12; // 3 texels
+
+	// the lights on screen this frame, and the tiles each one's reach overlaps
+	private static Light[] visible = new Light[64];
+	private static int[] tileBounds = new int[64 * 4]; // first column, first row, last column, last row
+	private static int visibleCount;
+
+	// how many lights each tile holds, and where the next one goes
+	private static final int[] tileCounts = new int[TILE_COUNT];
+	private static final int[] tileCursors = new int[TILE_COUNT];
+
+	private static FloatBuffer lightData = BufferUtils.createFloatBuffer(64 * LIGHT_DATA_LENGTH);
+	private static IntBuffer tileData = BufferUtils.createIntBuffer(HEADER_SIZE + 256);
+
+	private static int lightDataBuffer, lightDataTexture;
+	private static int tileDataBuffer, tileDataTexture;
+
+	/**
+	 * Create the buffer textures and build the first grid.
+	 */
+	public static void init() {
+		lightDataBuffer = glGenBuffers();
+		lightDataTexture = createBufferTexture(LIGHT_DATA_UNIT, lightDataBuffer, GL_RGBA32F);
+		tileDataBuffer = glGenBuffers();
+		tileDataTexture = createBufferTexture(LIGHT_TILES_UNIT, tileDataBuffer, GL_R32I);
+		update();
+	}
+
+	private static int createBufferTexture(int unit, int buffer, int format) {
+		glBindBuffer(GL_TEXTURE_BUFFER, buffer);
+		glBufferData(GL_TEXTURE_BUFFER, 16, GL_STREAM_DRAW);
+		glBindBuffer(GL_TEXTURE_BUFFER, 0);
+		int texture = glGenTextures();
+		GLStateManager.bindBufferTexture(unit, texture);
+		glTexBuffer(GL_TEXTURE_BUFFER, format, buffer);
+		return texture;
+	}
+
+	/**
+	 * Sort this frame's lights into the grid and upload it. Called once at the start of every frame.
+	 */
+	public static void update() {
+
+		List<Light> lights = LightMaster.getSceneLights();
+
+		// find the tiles each light reaches, and count the lights in each tile
+		Arrays.fill(tileCounts, 0);
+		visibleCount = 0;
+		int entries = 0;
+		for (int i = 0; i < lights.size(); ++i) {
+			Light light = lights.get(i);
+			float x = light.position().x, y = light.position().y;
+			float reach = getReach(light);
+			int firstColumn = Math.max(0, (int) Math.floor((x - reach) / TILE_SIZE));
+			int lastColumn = Math.min(COLUMNS - 1, (int) Math.floor((x + reach) / TILE_SIZE));
+			int firstRow = Math.max(0, (int) Math.floor((y - reach) / TILE_SIZE));
+			int lastRow = Math.min(ROWS - 1, (int) Math.floor((y + reach) / TILE_SIZE));
+			if (firstColumn > lastColumn || firstRow > lastRow) continue; // off screen
+			for (int row = firstRow; row <= lastRow; ++row) {
+				for (int column = firstColumn; column <= lastColumn; ++column) {
+					if (!reachesTile(x, y, reach, column, row)) continue;
+					tileCounts[row * COLUMNS + column]++;
+					entries++;
+				}
+			}
+			addVisible(light, firstColumn, firstRow, lastColumn, lastRow);
+		}
+
+		// headers first, with each tile's list following the last
+		if (tileData.capacity() < HEADER_SIZE + entries) tileData = BufferUtils.createIntBuffer(Math.max(HEADER_SIZE + entries, tileData.capacity() * 2));
+		tileData.clear();
+		int start = HEADER_SIZE;
+		for (int tile = 0; tile < TILE_COUNT; ++tile) {
+			tileData.put(start).put(tileCounts[tile]);
+			tileCursors[tile] = start;
+			start += tileCounts[tile];
+		}
+
+		// then the lists themselves, and the lights they point to
+		if (lightData.capacity() < visibleCount * LIGHT_DATA_LENGTH) lightData = BufferUtils.createFloatBuffer(visible.length * LIGHT_DATA_LENGTH);
+		lightData.clear();
+		for (int i = 0; i < visibleCount; ++i) {
+			Light light = visible[i];
+			float x = light.position().x, y = light.position().y;
+			float reach = getReach(light);
+			int bounds = i * 4;
+			for (int row = tileBounds[bounds + 1]; row <= tileBounds[bounds + 3]; ++row) {
+				for (int column = tileBounds[bounds]; column <= tileBounds[bounds + 2]; ++column) {
+					if (!reachesTile(x, y, reach, column, row)) continue;
+					tileData.put(tileCursors[row * COLUMNS + column]++, i);
+				}
+			}
+			storeLightData(light);
+			visible[i] = null;
+		}
+		tileData.limit(HEADER_SIZE + entries).position(0);
+		lightData.flip();
+
+		// upload, orphaning last frame's data
+		glBindBuffer(GL_TEXTURE_BUFFER, lightDataBuffer);
+		glBufferData(GL_TEXTURE_BUFFER, lightData, GL_STREAM_DRAW);
+		glBindBuffer(GL_TEXTURE_BUFFER, tileDataBuffer);
+		glBufferData(GL_TEXTURE_BUFFER, tileData, GL_STREAM_DRAW);
+		glBindBuffer(GL_TEXTURE_BUFFER, 0);
+		RenderStats.countUpload((lightData.limit() + tileData.limit()) * 4L);
+
+	}
+
+	/**
+	 * @return How far from its position a light can reach; inside its inner radius, it reaches regardless of its max radius.
+	 */
+	private static float getReach(Light light) {
+		return Math.max(light.innerRadius(), light.maxRadius());
+	}
+
+	/**
+	 * @return Whether a circle around the given center overlaps the given tile.
+	 */
+	private static boolean reachesTile(float x, float y, float reach, int column, int row) {
+		float left = column * TILE_SIZE, top = row * TILE_SIZE;
+		float dx = Math.max(0, Math.max(left - x, x - (left + TILE_SIZE)));
+		float dy = Math.max(0, Math.max(top - y, y - (top + TILE_SIZE)));
+		return dx * dx + dy * dy <= reach * reach;
+	}
+
+	private static void addVisible(Light light, int firstColumn, int firstRow, int lastColumn, int lastRow) {
+		if (visibleCount == visible.length) {
+			visible = Arrays.copyOf(visible, visible.length * 2);
+			tileBounds = Arrays.copyOf(tileBounds, tileBounds.length * 2);
+		}
+		int bounds = visibleCount * 4;
+		tileBounds[bounds] = firstColumn;
+		tileBounds[bounds + 1] = firstRow;
+		tileBounds[bounds + 2] = lastColumn;
+		tileBounds[bounds + 3] = lastRow;
+		visible[visibleCount++] = light;
+	}
+
+	private static void storeLightData(Light light) {
+		Vector4f color = light.color();
+		lightData.put(light.position().x).put(light.position().y).put(0).put(0);
+		lightData.put(color.x).put(color.y).put(color.z).put(color.w);
+		lightData.put(light.intensity()).put(light.innerRadius()).put(light.outerRadius()).put(light.maxRadius());
+	}
+
+	/**
+	 * Bind the grid's buffer textures to their texture units, for lit elements to read.
+	 */
+	public static void bind() {
+		GLStateManager.bindBufferTexture(LIGHT_DATA_UNIT, lightDataTexture);
+		GLStateManager.bindBufferTexture(LIGHT_TILES_UNIT, tileDataTexture);
+	}
+
+	public static void cleanUp() {
+		GLStateManager.deleteTexture(lightDataTexture);
+		GLStateManager.deleteTexture(tileDataTexture);
+		glDeleteBuffers(lightDataBuffer);
+		glDeleteBuffers(tileDataBuffer);
+	}
+
+}
@@ -5,9 +5,7 @@ import java.util.List;
 
 public class LightMaster {
 
-	public static final int MAX_LIGHTS = 8;
-
-	private static final List<Light> sceneLights = new ArrayList<>(MAX_LIGHTS);
+	private static final List<Light> sceneLights = new ArrayList<>();
 	private static float ambientLight = 1.0f;
 
 	// GETTERS
@@ -26,8 +24,7 @@ public class LightMaster {
 
 	// ADDING/REMOVING LIGHT SOURCES
 	public static void addLight(Light light) {
-		if (sceneLights.size() < MAX_LIGHTS)
-			sceneLights.add(light);
+		sceneLights.add(light);
 	}
 
 	public void removeLight(Light light) {
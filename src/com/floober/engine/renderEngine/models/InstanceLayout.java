@@ -0,0 +1,113 @@
+package com.floober.engine.renderEngine.models;
+
+import com.floober.engine.renderEngine.GLStateManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
+import static org.lwjgl.opengl.GL20.glVertexAttribPointer;
+import static org.lwjgl.opengl.GL33.glVertexAttribDivisor;
+
+/**
+ * The per-instance attributes of an instanced VAO. Since instance data
+ * is streamed to a different place in the {@link StreamingBuffer} for
+ * every draw, the attribute pointers have to be moved to that place
+ * before drawing; this holds what's needed to do that.
+ */
+public class InstanceLayout {
+
+	private record Attribute(int index, int size, int offset) {}
+
+	private final int vao;
+	private final int instanceDataLength;
+	private final List<Attribute> attributes = new ArrayList<>();
+	private float[] scratch = new float[0];
+
+	/**
+	 * Create a layout for the given VAO.
+	 * @param vao the VAO the attributes belong to
+	 * @param instanceDataLength the number of floats of data per instance
+	 */
+	public InstanceLayout(int vao, int instanceDataLength) {
+		this.vao = vao;
+		this.instanceDataLength = instanceDataLength;
+	}
+
+	/**
+	 * Add a per-instance attribute to this layout, and enable it in the VAO.
+	 * @param index the attribute index
+	 * @param size the number of floats in the attribute
+	 * @param offset the attribute's offset into each instance's data, in floats
+	 * @return this layout
+	 */
+	public InstanceLayout add(int index, int size, int offset) {
+		attributes.add(new Attribute(index, size, offset));
+		GLStateManager.bindVertexArray(vao);
+		glVertexAttribDivisor(index, 1);
+		glEnableVertexAttribArray(index);
+		GLStateManager.bindVertexArray(0);
+		return this;
+	}
+
+	/**
+	 * Point every attribute at instance data that starts at the given offset in a buffer.
+	 * The VAO must already be bound.
+	 * @param vbo the buffer holding the data
+	 * @param baseOffset the byte offset of the first instance's data
+	 */
+	public void point(int vbo, long baseOffset) {
+		glBindBuffer(GL_ARRAY_BUFFER, vbo);
+		int stride = instanceDataLength * 4;
+		for (Attribute attribute : attributes) {
+			glVertexAttribPointer(attribute.index(), attribute.size(), GL_FLOAT, false, stride, baseOffset + attribute.offset() * 4L);
+		}
+		glBindBuffer(GL_ARRAY_BUFFER, 0);
+	}
+
+	/**
+	 * Get an array big enough to hold the data for the given number of instances.
+	 * The same array is handed out every time (grown when necessary), since the
+	 * data is copied out as soon as it's streamed; it's only valid until the next call.
+	 * @param instanceCount the number of instances the array must hold
+	 * @return a scratch array of at least {@code instanceCount * instanceDataLength} floats
+	 */
+	public float[] scratch(int instanceCount) {
+		int length = instanceCount * instanceDataLength;
+		if (scratch.length < length) scratch = new float[Math.max(length, scratch.length * 2)];
+		return scratch;
+	}
+
+	/**
+	 * Upload instance data to the shared streaming buffer and point this layout at it.
+	 * The VAO must already be bound.
+	 * @param data the instance data
+	 * @param instanceCount the number of instances in {@code data}
+	 */
+	public void stream(float[] data, int instanceCount) {
+		stream(data, 0, instanceCount);
+	}
+
+	/**
+	 * Upload instance data that starts partway into an array, such as a
+	 * recorded command's data, and point this layout at it.
+	 * The VAO must already be bound.
+	 * @param data the array holding the instance data
+	 * @param dataOffset the index in {@code data} of the first instance's data
+	 * @param instanceCount the number of instances to upload
+	 */
+	public void stream(float[] data, int dataOffset, int instanceCount) {
+		StreamingBuffer buffer = StreamingBuffer.getShared();
+		long offset = buffer.upload(data, dataOffset, instanceCount * instanceDataLength);
+		point(buffer.getVboID(), offset);
+	}
+
+	/**
+	 * @return the number of floats of data per instance
+	 */
+	public int getInstanceDataLength() {
+		return instanceDataLength;
+	}
+
+}
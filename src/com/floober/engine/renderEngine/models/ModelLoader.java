@@ -1,5 +1,6 @@
 package com.floober.engine.renderEngine.models;
 
+import com.floober.engine.renderEngine.GLStateManager;
 import com.floober.engine.renderEngine.fonts.fontMeshCreator.GUIText;
 import org.lwjgl.BufferUtils;
 
@@ -9,6 +10,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
 import static org.lwjgl.opengl.GL20.glVertexAttribPointer;
 import static org.lwjgl.opengl.GL30.*;
 import static org.lwjgl.opengl.GL33.glVertexAttribDivisor;
@@ -62,7 +64,7 @@ public class ModelLoader {
 	public static int createVAO() {
 		int vaoID = glGenVertexArrays();
 		vaos.add(vaoID);
-		glBindVertexArray(vaoID);
+		GLStateManager.bindVertexArray(vaoID);
 		return vaoID;
 	}
 
@@ -96,11 +98,12 @@ public class ModelLoader {
 
 	public static void addInstancedAttribute(int vao, int vbo, int attribute, int dataSize, int instancedDataLength, int offset) {
 		glBindBuffer(GL_ARRAY_BUFFER, vbo);
-		glBindVertexArray(vao);
+		GLStateManager.bindVertexArray(vao);
 		glVertexAttribPointer(attribute, dataSize, GL_FLOAT, false, instancedDataLength * 4, offset * 4);
 		glVertexAttribDivisor(attribute, 1);
+		glEnableVertexAttribArray(attribute);
 		glBindBuffer(GL_ARRAY_BUFFER, 0);
-		glBindVertexArray(0);
+		GLStateManager.bindVertexArray(0);
 	}
 
 	private static int storeDataInAttributeList(int attributeNumber, int coordinateSize, float[] data) {
@@ -110,12 +113,15 @@ public class ModelLoader {
 		FloatBuffer buffer = storeDataInFloatBuffer(data);
 		glBufferData(GL_ARRAY_BUFFER, buffer, GL_STATIC_DRAW);
 		glVertexAttribPointer(attributeNumber, coordinateSize, GL_FLOAT, false, 0, 0);
+		// attribute arrays are enabled once here, as part of the VAO's state,
+		// so renderers never need to toggle them per draw
+		glEnableVertexAttribArray(attributeNumber);
 		glBindBuffer(GL_ARRAY_BUFFER, 0);
 		return vboID;
 	}
 
 	private static void unbindVAO() {
-		glBindVertexArray(0);
+		GLStateManager.bindVertexArray(0);
 	}
 
 	private static void bindIndicesBuffer(int[] indices) {
@@ -145,7 +151,7 @@ public class ModelLoader {
 	// END_TEST
 
 	public static void deleteVAO(int vao) {
-		glDeleteVertexArrays(vao);
+		GLStateManager.deleteVertexArray(vao);
 		vaos.remove(Integer.valueOf(vao));
 		deletedPerFrame++;
 	}
@@ -0,0 +1,114 @@
+package com.floober.engine.renderEngine.models;
+
+import com.floober.engine.util.AllocationCounter;
+import com.floober.engine.util.configuration.Config;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fills instance data arrays, splitting big batches into slices that are
+ * written at the same time on a shared ForkJoinPool. Every instance has the
+ * same amount of data, so each slice knows exactly where its part of the
+ * array starts and no two slices ever write the same floats. The caller
+ * waits for every slice to finish before using the data.
+ * <br><br>
+ * Batches smaller than {@code Config.PARALLEL_FILL_MIN_INSTANCES}, or any
+ * batch when {@code Config.PARALLEL_FILL_THREADS} is 1 or less, are filled
+ * on the calling thread.
+ */
+public class ParallelFill {
+
+	/**
+	 * Writes the data of one instance. Must be safe to call from several
+	 * threads at once, for different instances.
+	 */
+	@FunctionalInterface
+	public interface InstanceWriter {
+		/**
+		 * @param instance The index of the instance to write.
+		 * @param data The array to write into.
+		 * @param pointer The index in {@code data} to start writing at.
+		 * @return The index just past the written data.
+		 */
+		int write(int instance, float[] data, int pointer);
+	}
+
+	private static final ForkJoinPool pool = createPool();
+
+	// the workers count towards the render loop's allocations
+	private static ForkJoinPool createPool() {
+		if (Config.PARALLEL_FILL_THREADS <= 1) return null;
+		return new ForkJoinPool(Config.PARALLEL_FILL_THREADS, pool -> new ForkJoinWorkerThread(pool) {
+			@Override
+			protected void onStart() {
+				super.onStart();
+				AllocationCounter.registerThread(this);
+			}
+
+			@Override
+			protected void onTermination(Throwable exception) {
+				AllocationCounter.unregisterThread(this);
+				super.onTermination(exception);
+			}
+		}, null, false);
+	}
+
+	/**
+	 * Write the data of instances {@code [0, count)} into an array, in order.
+	 * @param count The number of instances.
+	 * @param instanceDataLength The number of floats each instance writes.
+	 * @param data The array to fill, starting at index {@code dataOffset}.
+	 * @param dataOffset The index in {@code data} of the first instance's data.
+	 * @param writer Writes each instance.
+	 */
+	public static void fill(int count, int instanceDataLength, float[] data, int dataOffset, InstanceWriter writer) {
+		if (pool == null || count < Config.PARALLEL_FILL_MIN_INSTANCES) {
+			fillSlice(0, count, instanceDataLength, data, dataOffset, writer);
+			return;
+		}
+		// split into about as many slices as there are threads, but no smaller than the minimum
+		int sliceSize = Math.max(Config.PARALLEL_FILL_MIN_INSTANCES, (count + pool.getParallelism() - 1) / pool.getParallelism());
+		pool.invoke(new Slice(0, count, sliceSize, instanceDataLength, data, dataOffset, writer));
+	}
+
+	private static void fillSlice(int start, int end, int instanceDataLength, float[] data, int dataOffset, InstanceWriter writer) {
+		int pointer = dataOffset + start * instanceDataLength;
+		for (int i = start; i < end; ++i) {
+			pointer = writer.write(i, data, pointer);
+		}
+	}
+
+	private static class Slice extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int start, end, sliceSize, instanceDataLength, dataOffset;
+		private final float[] data;
+		private final InstanceWriter writer;
+
+		Slice(int start, int end, int sliceSize, int instanceDataLength, float[] data, int dataOffset, InstanceWriter writer) {
+			this.start = start;
+			this.end = end;
+			this.sliceSize = sliceSize;
+			this.instanceDataLength = instanceDataLength;
+			this.data = data;
+			this.dataOffset = dataOffset;
+			this.writer = writer;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start <= sliceSize) {
+				fillSlice(start, end, instanceDataLength, data, dataOffset, writer);
+				return;
+			}
+			int middle = (start + end) >>> 1;
+			invokeAll(new Slice(start, middle, sliceSize, instanceDataLength, data, dataOffset, writer),
+					new Slice(middle, end, sliceSize, instanceDataLength, data, dataOffset, writer));
+		}
+
+	}
+
+}
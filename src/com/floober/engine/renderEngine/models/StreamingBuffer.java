@@ -0,0 +1,203 @@
+package com.floober.engine.renderEngine.models;
+
+import com.floober.engine.renderEngine.RenderStats;
+import com.floober.engine.util.Logger;
+import com.floober.engine.util.configuration.Config;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GLCapabilities;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL30.*;
+import static org.lwjgl.opengl.GL32.*;
+import static org.lwjgl.opengl.GL44.*;
+
+/**
+ * A ring buffer for per-instance data that changes every draw.
+ * <br><br>
+ * The buffer is split into sections. Uploads are written one after
+ * another into the current section, and when a section fills up (or
+ * a new frame starts) a fence is placed behind it and writing moves on to
+ * the next. Before a section is written again, its fence is waited on,
+ * so the CPU never overwrites data the GPU hasn't drawn yet, and the
+ * buffer never has to be orphaned or re-specified.
+ * <br><br>
+ * Where ARB_buffer_storage is available the whole buffer is mapped once,
+ * persistently and coherently, and uploads are plain memory copies.
+ * Otherwise each upload maps just the range it writes, unsynchronized
+ * (the fences do the synchronizing) and with the range invalidated.
+ * Either way, only the bytes actually written are sent.
+ */
+public class StreamingBuffer {
+
+	private static final int ALIGNMENT = 16;
+	private static final long FENCE_TIMEOUT = 1_000_000; // ns
+
+	private static StreamingBuffer shared;
+
+	private final int vbo;
+	private final int sectionSize;
+	private final int numSections;
+	private final boolean persistent;
+
+	// persistent mapping
+	private FloatBuffer mappedFloats;
+
+	// per-upload mapping
+	private ByteBuffer mapped;
+
+	private final long[] fences;
+	private int section;
+	private int sectionOffset;
+
+	/**
+	 * Get the streaming buffer shared by all instanced renderers,
+	 * creating it the first time it's needed.
+	 */
+	public static StreamingBuffer getShared() {
+		if (shared == null) shared = new StreamingBuffer(Config.STREAM_BUFFER_SECTION_SIZE, Config.STREAM_BUFFER_SECTIONS);
+		return shared;
+	}
+
+	/**
+	 * Fence off everything the shared buffer received last frame, and move on
+	 * to a fresh section. Called once at the start of each frame, before any of
+	 * its draws; every draw that read last frame's data has been issued by then.
+	 */
+	public static void endFrame() {
+		if (shared != null) shared.finishSection();
+	}
+
+	public static void cleanUpShared() {
+		if (shared != null) shared.cleanUp();
+	}
+
+	/**
+	 * Create a streaming buffer.
+	 * @param sectionSize the size of each section, in bytes
+	 * @param numSections the number of sections
+	 */
+	public StreamingBuffer(int sectionSize, int numSections) {
+		this.sectionSize = sectionSize;
+		this.numSections = numSections;
+		this.fences = new long[numSections];
+		long totalSize = (long) sectionSize * numSections;
+		GLCapabilities caps = GL.getCapabilities();
+		persistent = caps.OpenGL44 || caps.GL_ARB_buffer_storage;
+		vbo = glGenBuffers();
+		glBindBuffer(GL_ARRAY_BUFFER, vbo);
+		if (persistent) {
+			int flags = GL_MAP_WRITE_BIT | GL_MAP_PERSISTENT_BIT | GL_MAP_COHERENT_BIT;
+			glBufferStorage(GL_ARRAY_BUFFER, totalSize, flags);
+			ByteBuffer mapping = glMapBufferRange(GL_ARRAY_BUFFER, 0, totalSize, flags);
+			if (mapping == null) throw new IllegalStateException("Could not map the streaming buffer");
+			mappedFloats = mapping.asFloatBuffer();
+		}
+		else {
+			glBufferData(GL_ARRAY_BUFFER, totalSize, GL_STREAM_DRAW);
+		}
+		glBindBuffer(GL_ARRAY_BUFFER, 0);
+		Logger.log("Created " + (persistent ? "persistent" : "unsynchronized") + " streaming buffer: " +
+				numSections + " x " + (sectionSize / 1024) + " KB");
+	}
+
+	public int getVboID() {
+		return vbo;
+	}
+
+	/**
+	 * Write data into the buffer.
+	 * @param data the data to upload
+	 * @param floatCount how many floats from the start of {@code data} to upload
+	 * @return the byte offset in the buffer that the data was written at
+	 */
+	public long upload(float[] data, int floatCount) {
+		return upload(data, 0, floatCount);
+	}
+
+	/**
+	 * Write part of an array into the buffer.
+	 * @param data the data to upload
+	 * @param dataOffset the index in {@code data} of the first float to upload
+	 * @param floatCount how many floats to upload
+	 * @return the byte offset in the buffer that the data was written at
+	 */
+	public long upload(float[] data, int dataOffset, int floatCount) {
+
+		int bytes = floatCount * 4;
+		if (bytes > sectionSize)
+			throw new IllegalArgumentException("Upload of " + bytes + " bytes won't fit in a " + sectionSize + " byte section");
+
+		// move on to the next section if this one can't hold the data
+		int start = align(sectionOffset);
+		if (start + bytes > sectionSize) {
+			finishSection();
+			start = 0;
+		}
+
+		long offset = (long) section * sectionSize + start;
+
+		if (persistent) {
+			mappedFloats.put((int) (offset / 4), data, dataOffset, floatCount);
+		}
+		else {
+			glBindBuffer(GL_ARRAY_BUFFER, vbo);
+			int access = GL_MAP_WRITE_BIT | GL_MAP_UNSYNCHRONIZED_BIT | GL_MAP_INVALIDATE_RANGE_BIT;
+			mapped = glMapBufferRange(GL_ARRAY_BUFFER, offset, bytes, access, mapped);
+			if (mapped != null) {
+				mapped.asFloatBuffer().put(data, dataOffset, floatCount);
+				glUnmapBuffer(GL_ARRAY_BUFFER);
+			}
+			glBindBuffer(GL_ARRAY_BUFFER, 0);
+		}
+
+		sectionOffset = start + bytes;
+		RenderStats.countUpload(bytes);
+		return offset;
+
+	}
+
+	/**
+	 * Fence the current section and move to the next one, waiting
+	 * until the GPU is done with whatever was last drawn from it.
+	 */
+	private void finishSection() {
+		if (sectionOffset == 0) return;
+		fences[section] = glFenceSync(GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+		section = (section + 1) % numSections;
+		sectionOffset = 0;
+		waitForSection(section);
+	}
+
+	private void waitForSection(int index) {
+		long fence = fences[index];
+		if (fence == 0) return;
+		int result = glClientWaitSync(fence, GL_SYNC_FLUSH_COMMANDS_BIT, FENCE_TIMEOUT);
+		while (result == GL_TIMEOUT_EXPIRED) {
+			result = glClientWaitSync(fence, GL_SYNC_FLUSH_COMMANDS_BIT, FENCE_TIMEOUT);
+		}
+		if (result == GL_WAIT_FAILED) Logger.logError("Waiting on a streaming buffer fence failed");
+		glDeleteSync(fence);
+		fences[index] = 0;
+	}
+
+	private static int align(int offset) {
+		return (offset + ALIGNMENT - 1) & -ALIGNMENT;
+	}
+
+	public void cleanUp() {
+		for (int i = 0; i < numSections; ++i) {
+			if (fences[i] != 0) glDeleteSync(fences[i]);
+		}
+		if (persistent) {
+			glBindBuffer(GL_ARRAY_BUFFER, vbo);
+			glUnmapBuffer(GL_ARRAY_BUFFER);
+			glBindBuffer(GL_ARRAY_BUFFER, 0);
+		}
+		glDeleteBuffers(vbo);
+		if (this == shared) shared = null;
+	}
+
+}
@@ -1,9 +1,9 @@
 package com.floober.engine.renderEngine.particles;
 
+import com.floober.engine.renderEngine.DepthBuckets;
 import com.floober.engine.renderEngine.particles.types.LightParticle;
 import com.floober.engine.renderEngine.particles.types.Particle;
 import com.floober.engine.renderEngine.particles.types.TexturedParticle;
-import com.floober.engine.renderEngine.renderers.MasterRenderer;
 import com.floober.engine.renderEngine.renderers.ParticleLightRenderer;
 import com.floober.engine.renderEngine.renderers.ParticleRenderer;
 import com.floober.engine.renderEngine.renderers.ParticleTexturedRenderer;
@@ -13,35 +13,47 @@ import org.joml.Vector4f;
 
 import java.util.*;
 
+/**
+ * Holds every live particle, bucketed by depth so each occupied depth
+ * can be drawn in its place among the scene's transparent elements.
+ * Only depths that actually hold particles get a bucket.
+ */
 public class ParticleMaster {
 
-	@SuppressWarnings("unchecked") // Regular particles (Source or not)
-	private static final Map<ParticleTexture, List<Particle>>[] particles = new HashMap[MasterRenderer.NUM_LAYERS];
+	/**
+	 * All the particles at one depth.
+	 */
+	private static class ParticleBucket {
+		private final Map<ParticleTexture, List<Particle>> particles = new HashMap<>();
+		private final List<LightParticle> lightEmittingParticles = new ArrayList<>();
+		private final Map<ParticleTexture, List<TexturedParticle>> texturedParticles = new HashMap<>();
+
+		private boolean isEmpty() {
+			return particles.isEmpty() && lightEmittingParticles.isEmpty() && texturedParticles.isEmpty();
+		}
+	}
+
+	private static final DepthBuckets<ParticleBucket> buckets = new DepthBuckets<>(ParticleBucket::new);
+
+	// Regular particles (Source or not)
 	private static ParticleRenderer particleRenderer;
 
-	@SuppressWarnings("unchecked") // Light-emitting particles
-	private static final List<LightParticle>[] lightEmittingParticles = new ArrayList[MasterRenderer.NUM_LAYERS];
+	// Light-emitting particles
 	private static ParticleLightRenderer lightParticleRenderer;
 
-	@SuppressWarnings("unchecked") // Textured particles
-	private static final Map<ParticleTexture, List<TexturedParticle>>[] texturedParticles = new HashMap[MasterRenderer.NUM_LAYERS];
+	// Textured particles
 	private static ParticleTexturedRenderer texturedParticleRenderer;
 
 	// Total particle counter
 	public static int numParticles = 0;
 
 	/**
-	 * Initialize the Particle Renderers and the Particle Collections for each layer.
+	 * Initialize the Particle Renderers.
 	 */
 	public static void init() {
 		particleRenderer = new ParticleRenderer();
 		lightParticleRenderer = new ParticleLightRenderer();
 		texturedParticleRenderer = new ParticleTexturedRenderer();
-		for (int i = 0; i < MasterRenderer.NUM_LAYERS; ++i) {
-			particles[i] = new HashMap<>();
-			lightEmittingParticles[i] = new ArrayList<>();
-			texturedParticles[i] = new HashMap<>();
-		}
 	}
 
 	public static void addParticle(Particle particle) {
@@ -51,17 +63,17 @@ public class ParticleMaster {
 			return;
 		}
 		// if limit not exceeded, add the particle
-		int layer = (int) particle.getZ();
+		ParticleBucket bucket = buckets.getOrCreate(particle.getZ());
 		// add the particle to its corresponding type collection
 		if (particle instanceof LightParticle lp) {
-			lightEmittingParticles[layer].add(lp);
+			bucket.lightEmittingParticles.add(lp);
 		}
 		else if (particle instanceof TexturedParticle tp) {
-			List<TexturedParticle> particleList = texturedParticles[layer].computeIfAbsent(particle.getTexture(), k -> new ArrayList<>());
+			List<TexturedParticle> particleList = bucket.texturedParticles.computeIfAbsent(particle.getTexture(), k -> new ArrayList<>());
 			particleList.add(tp);
 		}
 		else {
-			List<Particle> particleList = particles[layer].computeIfAbsent(particle.getTexture(), k -> new ArrayList<>());
+			List<Particle> particleList = bucket.particles.computeIfAbsent(particle.getTexture(), k -> new ArrayList<>());
 			particleList.add(particle);
 		}
 		numParticles++;
@@ -69,11 +81,13 @@ public class ParticleMaster {
 
 	public static void update() {
 
-		// FOR each LAYER
-		for (int i = 0; i < MasterRenderer.NUM_LAYERS; ++i) {
+		// FOR each occupied DEPTH
+		for (int i = 0; i < buckets.size(); ++i) {
+
+			ParticleBucket bucket = buckets.bucketAt(i);
 
 			// get the key set to iterate over
-			Set<ParticleTexture> keySet = particles[i].keySet();
+			Set<ParticleTexture> keySet = bucket.particles.keySet();
 			Iterator<ParticleTexture> iterator = keySet.iterator();
 
 			// update each batch of particles
@@ -81,7 +95,7 @@ public class ParticleMaster {
 
 				// get this batch of particles
 				ParticleTexture particleTexture = iterator.next();
-				List<Particle> particleList = particles[i].get(particleTexture);
+				List<Particle> particleList = bucket.particles.get(particleTexture);
 
 				// get the size of the particle list before cleaning it up
 				int startSize = particleList.size();
@@ -107,7 +121,7 @@ public class ParticleMaster {
 
 			// repeat the above for the textured particles
 			// get the key set to iterate over
-			keySet = texturedParticles[i].keySet();
+			keySet = bucket.texturedParticles.keySet();
 			iterator = keySet.iterator();
 
 			// update each batch of textured particles
@@ -115,7 +129,7 @@ public class ParticleMaster {
 
 				// get this batch of particles
 				ParticleTexture particleTexture = iterator.next();
-				List<TexturedParticle> particleList = texturedParticles[i].get(particleTexture);
+				List<TexturedParticle> particleList = bucket.texturedParticles.get(particleTexture);
 
 				// get the size of the particle list before cleaning it up
 				int startSize = particleList.size();
@@ -139,17 +153,38 @@ public class ParticleMaster {
 			}
 
 			// Update and remove dead LMPs
-			int size = lightEmittingParticles[i].size();
-			if (lightEmittingParticles[i].removeIf(particle -> !particle.update()))
-				numParticles -= (size - lightEmittingParticles[i].size());
+			int size = bucket.lightEmittingParticles.size();
+			if (bucket.lightEmittingParticles.removeIf(particle -> !particle.update()))
+				numParticles -= (size - bucket.lightEmittingParticles.size());
 		}
 
+		// forget any depths that no longer hold particles
+		buckets.removeIf(ParticleBucket::isEmpty);
+
 	}
 
-	public static void renderParticles(int layer) {
-		particleRenderer.render(particles[layer]);
-		lightParticleRenderer.render(lightEmittingParticles[layer]);
-		texturedParticleRenderer.render(texturedParticles[layer]);
+	/**
+	 * @return The number of depths that currently hold particles.
+	 */
+	public static int getBucketCount() {
+		return buckets.size();
+	}
+
+	/**
+	 * @return The depth step of the {@code i}th occupied depth, counting from the back.
+	 */
+	public static int getBucketDepth(int i) {
+		return buckets.depthAt(i);
+	}
+
+	/**
+	 * Render all particles at the {@code i}th occupied depth, counting from the back.
+	 */
+	public static void renderBucket(int i) {
+		ParticleBucket bucket = buckets.bucketAt(i);
+		if (!bucket.particles.isEmpty()) particleRenderer.render(bucket.particles);
+		if (!bucket.lightEmittingParticles.isEmpty()) lightParticleRenderer.render(bucket.lightEmittingParticles);
+		if (!bucket.texturedParticles.isEmpty()) texturedParticleRenderer.render(bucket.texturedParticles);
 	}
 
 	public static void cleanUp() {
@@ -161,22 +196,36 @@ public class ParticleMaster {
 	// GETTERS
 	public static int getParticleCount() {
 		int total = 0;
-		for (int i = 0; i < MasterRenderer.NUM_LAYERS; ++i) {
-			for (ParticleTexture particleTexture : particles[i].keySet()) {
-				total += particles[i].get(particleTexture).size();
+		for (int i = 0; i < buckets.size(); ++i) {
+			ParticleBucket bucket = buckets.bucketAt(i);
+			for (List<Particle> particleList : bucket.particles.values()) {
+				total += particleList.size();
 			}
-			for (ParticleTexture particleTexture : texturedParticles[i].keySet()) {
-				total += texturedParticles[i].get(particleTexture).size();
+			for (List<TexturedParticle> particleList : bucket.texturedParticles.values()) {
+				total += particleList.size();
 			}
-			total += lightEmittingParticles[i].size();
+			total += bucket.lightEmittingParticles.size();
 		}
 		return total;
 	}
 
+	/**
+	 * Add every light-emitting particle, at every depth, to the given list.
+	 * Their light is drawn into the light buffer before the scene, since
+	 * it isn't blended with anything.
+	 * @param dest The list to add them to.
+	 */
+	public static void getLightEmittingParticles(List<LightParticle> dest) {
+		for (int i = 0; i < buckets.size(); ++i) {
+			dest.addAll(buckets.bucketAt(i).lightEmittingParticles);
+		}
+	}
+
 	// ACTIONS
 	public static void setColorForAllParticlesOfType(ParticleTexture key, Vector4f color) {
-		for (int i = 0; i < MasterRenderer.NUM_LAYERS; ++i) {
-			List<Particle> particleList = particles[i].get(key);
+		for (int i = 0; i < buckets.size(); ++i) {
+			List<Particle> particleList = buckets.bucketAt(i).particles.get(key);
+			if (particleList == null) continue;
 			for (Particle particle : particleList) {
 				particle.setColor(color.x(), color.y(), color.z(), particle.getColor().w());
 			}
@@ -2,9 +2,6 @@ package com.floober.engine.renderEngine.particles.systems;
 
 import com.floober.engine.display.DisplayManager;
 import com.floober.engine.renderEngine.Render;
-import com.floober.engine.renderEngine.elements.geometry.CircleElement;
-import com.floober.engine.renderEngine.elements.geometry.LineElement;
-import com.floober.engine.renderEngine.elements.geometry.OutlineElement;
 import com.floober.engine.renderEngine.particles.types.Particle;
 import com.floober.engine.util.color.Colors;
 import com.floober.engine.util.math.MathUtil;
@@ -18,6 +15,9 @@ public class ParticleInfluenceField {
 	private final Vector2f force;
 	private final Timer life;
 
+	// scratch for render()
+	private final Vector2f polar = new Vector2f();
+
 	public ParticleInfluenceField(Vector4f bounds, Vector2f force, float life) {
 		this.bounds = bounds;
 		this.force = force;
@@ -42,25 +42,18 @@ public class ParticleInfluenceField {
 
 	// Visualize
 	public void render() {
+		float centerX = bounds.x + (bounds.z - bounds.x) / 2;
+		float centerY = bounds.y + (bounds.w - bounds.y) / 2;
 		// show the bounds of this field
-		OutlineElement outline = new OutlineElement(Colors.GREEN, bounds, 0, 2, false);
-		Render.drawOutline(outline);
+		Render.drawOutline(Colors.GREEN, bounds.x, bounds.y, 0, bounds.z - bounds.x, bounds.w - bounds.y, 2, false);
 		// Crosshairs to center
-		LineElement horizCross = new LineElement(Colors.GREEN, bounds.x, bounds.y + (bounds.w - bounds.y) / 2,
-				bounds.z, bounds.y + (bounds.w - bounds.y) / 2, 0, 2);
-		LineElement vertiCross = new LineElement(Colors.GREEN, bounds.x + (bounds.z - bounds.x) / 2,
-				bounds.y, bounds.x + (bounds.z - bounds.x) / 2, bounds.w, 0, 2);
-		Render.drawLine(horizCross);
-		Render.drawLine(vertiCross);
+		Render.drawLine(Colors.GREEN, bounds.x, centerY, bounds.z, centerY, 0, 2);
+		Render.drawLine(Colors.GREEN, centerX, bounds.y, centerX, bounds.w, 0, 2);
 		// show the influence direction
-		Vector2f polar = MathUtil.getPolar(force);
-		CircleElement circle = new CircleElement(Colors.RED, bounds.x + (bounds.z - bounds.x) / 2, bounds.y + (bounds.w - bounds.y) / 2,
-				0, polar.x * 0.9f, polar.x, polar.y / -360f + 0.5f, -90);
-		Render.drawCircle(circle);
+		MathUtil.getPolar(force.x, force.y, polar);
+		Render.drawCircle(Colors.RED, centerX, centerY, 0, polar.x * 0.9f, polar.x, polar.y / -360f + 0.5f, -90);
 		// show the remaining life
-		CircleElement lifeCircle = new CircleElement(Colors.CYAN, bounds.x + (bounds.z - bounds.x) / 2, bounds.y + (bounds.w - bounds.y) / 2,
-				0, polar.x * 0.4f, polar.x * 0.5f, 1 - life.getProgress(), 0);
-		Render.drawCircle(lifeCircle);
+		Render.drawCircle(Colors.CYAN, centerX, centerY, 0, polar.x * 0.4f, polar.x * 0.5f, 1 - life.getProgress(), 0);
 	}
 
 }
\ No newline at end of file
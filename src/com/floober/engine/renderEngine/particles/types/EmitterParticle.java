@@ -79,8 +79,8 @@ public class EmitterParticle extends Particle {
 	@Override
 	public void convertScreenPosition() {
 		setMapPosition();
-		screenPosition.set(Display.convertToDisplayPosition(x, y, z, width, height, true));
-		scaleVec.set(Display.convertToDisplayScale(width, height));
+		Display.convertToDisplayPosition(x, y, z, width, height, true, screenPosition);
+		Display.convertToDisplayScale(width, height, scaleVec);
 	}
 
 	// move
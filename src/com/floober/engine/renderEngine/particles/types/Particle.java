@@ -167,8 +167,8 @@ public class Particle implements Comparable<Particle> {
 
 	// UPDATING THE PARTICLE
 	public void convertScreenPosition() {
-		screenPosition.set(Display.convertToDisplayPosition(x, y, z, width, height, true));
-		scaleVec.set(Display.convertToDisplayScale(width, height));
+		Display.convertToDisplayPosition(x, y, z, width, height, true, screenPosition);
+		Display.convertToDisplayScale(width, height, scaleVec);
 	}
 
 	@Override
@@ -0,0 +1,36 @@
+package com.floober.engine.renderEngine.ppfx;
+
+/**
+ * A Post Processing effect that works on each pixel's color alone. Rather
+ * than running as a pass of its own, it's written as a snippet of GLSL, and
+ * every color effect enabled next to it is fused into the same pass.
+ * <br><br>
+ * The snippet works on a {@code vec4} named {@code color}. Its parameters
+ * are float uniforms, referred to in the snippet as {@code $name}; the
+ * {@code $} is replaced with a prefix unique to the effect in the pass.
+ */
+public abstract class ColorEffect extends PPEffect {
+
+	private static final String[] NO_PARAMETERS = {};
+
+	/**
+	 * @return The GLSL statements that transform {@code color}.
+	 */
+	public abstract String getTransform();
+
+	/**
+	 * @return The names of this effect's float parameters.
+	 */
+	public String[] getParameterNames() {
+		return NO_PARAMETERS;
+	}
+
+	/**
+	 * @param index The parameter's index in {@link #getParameterNames()}.
+	 * @return The parameter's current value.
+	 */
+	public float getParameter(int index) {
+		return 0;
+	}
+
+}
@@ -1,34 +1,15 @@
 package com.floober.engine.renderEngine.ppfx;
 
-import com.floober.engine.renderEngine.shaders.ShaderProgram;
-import org.lwjgl.opengl.GL11;
-import org.lwjgl.opengl.GL13;
-
+/**
+ * A Post Processing effect. Effects come in two kinds: {@link ColorEffect}s,
+ * which change each pixel on its own and are fused together into as few
+ * passes as possible, and {@link PassEffect}s, which need to read several
+ * pixels (such as blurs) and so get full-screen passes of their own.
+ */
 public abstract class PPEffect {
 
-	protected ImageRenderer renderer;
-	protected ShaderProgram shader;
-
 	private boolean enabled;
 
-	/**
-	 * Create a Post Processing effect that will render
-	 * its image to the screen.
-	 */
-	public PPEffect() {
-		renderer = new ImageRenderer();
-	}
-
-	/**
-	 * Create a Post Processing effect that will render
-	 * its image to a FrameBuffer.
-	 * @param width the width of the frame buffer
-	 * @param height the height of the frame buffer
-	 */
-	public PPEffect(int width, int height) {
-		renderer = new ImageRenderer(width, height);
-	}
-
 	/**
 	 * Check if this Post Processing effect has been enabled.
 	 * @return true if enabled, false if disabled
@@ -51,33 +32,8 @@ public abstract class PPEffect {
 		this.enabled = false;
 	}
 
-	/**
-	 * The init() method should be used to load any
-	 * uniform values needed for this effect's shader.
-	 */
-	public abstract void init();
-
-	/**
-	 * Render the scene with this Post Processing effect
-	 * applied.
-	 * @param texture the texture value of the current scene
-	 */
-	public void render(int texture) {
-		shader.start();
-		init();
-		GL13.glActiveTexture(GL13.GL_TEXTURE0);
-		GL11.glBindTexture(GL11.GL_TEXTURE_2D, texture);
-		renderer.renderQuad();
-		shader.stop();
-	}
-
-	public int getResult() {
-		return renderer.getOutputTexture();
-	}
-
 	public void cleanUp() {
-		renderer.cleanUp();
-		shader.cleanUp();
+		// nothing by default
 	}
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,18 @@
+package com.floober.engine.renderEngine.ppfx;
+
+/**
+ * A Post Processing effect that needs full-screen passes of its own, such as a
+ * blur that reads neighboring pixels. Its passes draw into the two render
+ * targets shared by every pass in the post-processing chain.
+ */
+public abstract class PassEffect extends PPEffect {
+
+	/**
+	 * Apply this effect. The screen quad and full-screen state are already set up.
+	 * @param texture The texture to read.
+	 * @param targets The targets to draw into; take each one with {@link PingPongTargets#next()}.
+	 * @return The texture holding the result.
+	 */
+	public abstract int render(int texture, PingPongTargets targets);
+
+}
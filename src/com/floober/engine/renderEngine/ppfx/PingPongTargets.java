@@ -0,0 +1,46 @@
+package com.floober.engine.renderEngine.ppfx;
+
+import com.floober.engine.renderEngine.framebuffers.FrameBuffer;
+import com.floober.engine.renderEngine.framebuffers.RenderTargetPool;
+
+/**
+ * The two render targets that full-screen passes take turns drawing into:
+ * each pass reads what the one before it drew, and draws into the other
+ * target. They're taken from the RenderTargetPool the first time a frame
+ * needs them, and given back when the frame's post-processing is done.
+ */
+public class PingPongTargets {
+
+	private final int width, height;
+	private final FrameBuffer[] targets = new FrameBuffer[2];
+	private int current = 1;
+
+	PingPongTargets(int width, int height) {
+		this.width = width;
+		this.height = height;
+	}
+
+	/**
+	 * Get the target for the next pass to draw into, and bind it. This is
+	 * never the target the previous pass drew into, so that can be read.
+	 * @return The bound target.
+	 */
+	public FrameBuffer next() {
+		current ^= 1;
+		if (targets[current] == null) targets[current] = RenderTargetPool.acquire(width, height);
+		targets[current].bindFrameBuffer();
+		return targets[current];
+	}
+
+	/**
+	 * Give both targets back to the pool.
+	 */
+	void release() {
+		for (int i = 0; i < targets.length; ++i) {
+			if (targets[i] != null) RenderTargetPool.release(targets[i]);
+			targets[i] = null;
+		}
+		current = 1;
+	}
+
+}
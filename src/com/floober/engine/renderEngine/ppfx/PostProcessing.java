@@ -1,20 +1,42 @@
 package com.floober.engine.renderEngine.ppfx;
 
+import com.floober.engine.display.Display;
+import com.floober.engine.renderEngine.GLStateManager;
+import com.floober.engine.renderEngine.RenderStats;
+import com.floober.engine.renderEngine.framebuffers.FrameBuffer;
 import com.floober.engine.renderEngine.models.ModelLoader;
 import com.floober.engine.renderEngine.models.QuadModel;
+import com.floober.engine.renderEngine.ppfx.effects.Blur;
 import com.floober.engine.renderEngine.ppfx.effects.Contrast;
 import com.floober.engine.renderEngine.ppfx.effects.InvertColor;
-import com.floober.engine.renderEngine.ppfx.effects.ToScreen;
+import com.floober.engine.renderEngine.renderers.MasterRenderer;
+import com.floober.engine.renderEngine.shaders.ppfx.FusedEffectShader;
+import com.floober.engine.util.FrameProfiler;
+import com.floober.engine.util.configuration.Config;
 import org.lwjgl.opengl.GL11;
-import org.lwjgl.opengl.GL20;
-import org.lwjgl.opengl.GL30;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+
+import static org.lwjgl.opengl.GL30.GL_FRAMEBUFFER;
+import static org.lwjgl.opengl.GL30.glBindFramebuffer;
 
 /**
  * The PostProcessing class handles post-processing stages.
  * Post-processing effects should be implemented as classes
- * extending the PPEffect class.
+ * extending ColorEffect, if they only change each pixel's color,
+ * or PassEffect, if they need passes of their own.
+ * <br><br>
+ * Each run of enabled color effects is fused into one generated shader,
+ * so it costs a single pass however many effects are in it. The last run
+ * draws straight to the screen, so enabling any number of color effects
+ * costs no more than drawing the scene to the screen at all. Passes that
+ * don't draw to the screen take turns drawing into two shared targets.
+ * <br><br>
+ * The scene may be smaller than the screen (see DynamicResolution); every
+ * pass samples it with linear filtering, so it's stretched back to size
+ * on the way through.
  */
 public class PostProcessing {
 
@@ -22,34 +44,43 @@ public class PostProcessing {
 	private static final float[] POSITIONS = {-1, 1, -1, -1, 1, 1, 1, -1};
 	private static QuadModel quad;
 
-	// effects to use
+	// effects to use, in the order they're applied
 	private static final HashMap<String, PPEffect> effects = new HashMap<>();
-	private static Contrast contrast;
-	private static InvertColor invertColor;
+	private static final List<PPEffect> stages = new ArrayList<>();
+	private static final List<ColorEffect> colorEffects = new ArrayList<>();
+
+	// a shader for each combination of color effects that's been used, by which effects are in it
+	private static final HashMap<Long, FusedEffectShader> fusedShaders = new HashMap<>();
 
-	// last stage, render to screen
-	private static ToScreen toScreen;
+	private static PingPongTargets targets;
 
 	public static void init() {
 		// generate the screen quad
 		quad = ModelLoader.loadToVAO(POSITIONS, 2);
-		// create the screen render stage
-		toScreen = new ToScreen();
-		// create the contrast change effect
-		contrast = new Contrast();
-		effects.put("contrast", contrast);
-		// create the invert color effect
-		invertColor = new InvertColor();
-		effects.put("invertColor", invertColor);
+		// create the shared targets
+		targets = new PingPongTargets(Config.INTERNAL_WIDTH, Config.INTERNAL_HEIGHT);
+		// blur first, so the color effects after it can be fused into the pass to the screen
+		addStage("blur", new Blur());
+		addStage("invertColor", new InvertColor());
+		addStage("contrast", new Contrast());
 		// create other effects
 		// ...
 
 		// TEST
-//		contrast.enable();
-//		invertColor.enable();
+//		effects.get("contrast").enable();
+//		effects.get("invertColor").enable();
 		// END_TEST
 	}
 
+	private static void addStage(String stageID, PPEffect effect) {
+		effects.put(stageID, effect);
+		stages.add(effect);
+		if (effect instanceof ColorEffect colorEffect) {
+			if (colorEffects.size() == Long.SIZE) throw new IllegalStateException("Too many color effects");
+			colorEffects.add(colorEffect);
+		}
+	}
+
 	/**
 	 * Check if a Post Processing stage is enabled.
 	 * @param stageID the ID of the stage
@@ -69,39 +100,73 @@ public class PostProcessing {
 	}
 
 	public static void doPostProcessing(int colorTexture) {
+		FrameProfiler.begin(FrameProfiler.POST_PROCESSING);
+		RenderStats.setSource(RenderStats.POST_PROCESSING, RenderStats.NO_LAYER);
 		start();
 
-		if (invertColor.isEnabled()) {
-			invertColor.render(colorTexture);
-			colorTexture = invertColor.getResult();
-		}
-		if (contrast.isEnabled()) {
-			contrast.render(colorTexture);
-			colorTexture = contrast.getResult();
+		// gather runs of color effects, drawing each run when a pass effect interrupts it
+		long run = 0;
+		for (PPEffect stage : stages) {
+			if (!stage.isEnabled()) continue;
+			if (stage instanceof ColorEffect colorEffect) {
+				run |= 1L << colorEffects.indexOf(colorEffect);
+				continue;
+			}
+			if (run != 0) {
+				FrameBuffer target = targets.next();
+				drawFused(run, colorTexture);
+				colorTexture = target.getColorTexture();
+				run = 0;
+			}
+			colorTexture = ((PassEffect) stage).render(colorTexture, targets);
 		}
-		// chain the rest ...
 
-		// finally, ensure it's all rendered to the screen
-		toScreen.render(colorTexture);
+		// finally, draw the last run (or just the scene) to the screen
+		glBindFramebuffer(GL_FRAMEBUFFER, 0);
+		Display.setViewport();
+		drawFused(run, colorTexture);
+		FrameProfiler.end(FrameProfiler.POST_PROCESSING);
+		RenderStats.setSource(RenderStats.OTHER, RenderStats.NO_LAYER);
 
-		end();
+		// anything held back from the scene to be drawn at full resolution goes on top
+		MasterRenderer.renderOverlay();
+
+		targets.release();
 	}
 
-	private static void start(){
-		GL30.glBindVertexArray(quad.vaoID());
-		GL20.glEnableVertexAttribArray(0);
-		GL11.glDisable(GL11.GL_DEPTH_TEST);
+	/**
+	 * Draw a texture with a run of color effects into whatever's bound.
+	 * @param run The effects in the run, as a bit for each one's index in {@code colorEffects}.
+	 * @param texture The texture to read.
+	 */
+	private static void drawFused(long run, int texture) {
+		FusedEffectShader shader = fusedShaders.get(run);
+		if (shader == null) {
+			List<ColorEffect> chain = new ArrayList<>();
+			for (int i = 0; i < colorEffects.size(); ++i) {
+				if ((run & (1L << i)) != 0) chain.add(colorEffects.get(i));
+			}
+			shader = new FusedEffectShader(chain);
+			fusedShaders.put(run, shader);
+		}
+		shader.start();
+		shader.loadParameters();
+		GLStateManager.bindTexture(0, texture);
+		GL11.glClear(GL11.GL_COLOR_BUFFER_BIT);
+		GL11.glDrawArrays(GL11.GL_TRIANGLE_STRIP, 0, 4);
+		RenderStats.countDraw(GL11.GL_TRIANGLE_STRIP, 4, 1);
 	}
 
-	private static void end(){
-		GL11.glEnable(GL11.GL_DEPTH_TEST);
-		GL20.glDisableVertexAttribArray(0);
-		GL30.glBindVertexArray(0);
+	private static void start(){
+		// the scene renderers leave their state set, so turn off everything they might have enabled
+		GLStateManager.bindVertexArray(quad.vaoID());
+		GLStateManager.disable(GL11.GL_DEPTH_TEST);
+		GLStateManager.disable(GL11.GL_BLEND);
 	}
 
 	public static void cleanUp() {
-		contrast.cleanUp();
-		invertColor.cleanUp();
+		for (PPEffect effect : stages) effect.cleanUp();
+		for (FusedEffectShader shader : fusedShaders.values()) shader.cleanUp();
 	}
 
-}
\ No newline at end of file
+}
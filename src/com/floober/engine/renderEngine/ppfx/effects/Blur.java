@@ -0,0 +1,47 @@
+package com.floober.engine.renderEngine.ppfx.effects;
+
+import com.floober.engine.renderEngine.GLStateManager;
+import com.floober.engine.renderEngine.RenderStats;
+import com.floober.engine.renderEngine.framebuffers.FrameBuffer;
+import com.floober.engine.renderEngine.ppfx.PassEffect;
+import com.floober.engine.renderEngine.ppfx.PingPongTargets;
+import com.floober.engine.renderEngine.shaders.blur.HorizontalBlurShader;
+import com.floober.engine.renderEngine.shaders.blur.VerticalBlurShader;
+
+import static org.lwjgl.opengl.GL11.*;
+
+/**
+ * A Gaussian blur over the whole scene, done as a horizontal pass and then a vertical one.
+ */
+public class Blur extends PassEffect {
+
+	private final HorizontalBlurShader horizontalShader = new HorizontalBlurShader();
+	private final VerticalBlurShader verticalShader = new VerticalBlurShader();
+
+	@Override
+	public int render(int texture, PingPongTargets targets) {
+		// horizontal pass
+		FrameBuffer target = targets.next();
+		horizontalShader.start();
+		horizontalShader.loadTargetWidth(target.getWidth());
+		GLStateManager.bindTexture(0, texture);
+		glDrawArrays(GL_TRIANGLE_STRIP, 0, 4);
+		RenderStats.countDraw(GL_TRIANGLE_STRIP, 4, 1);
+		// vertical pass
+		int horizontal = target.getColorTexture();
+		target = targets.next();
+		verticalShader.start();
+		verticalShader.loadTargetHeight(target.getHeight());
+		GLStateManager.bindTexture(0, horizontal);
+		glDrawArrays(GL_TRIANGLE_STRIP, 0, 4);
+		RenderStats.countDraw(GL_TRIANGLE_STRIP, 4, 1);
+		return target.getColorTexture();
+	}
+
+	@Override
+	public void cleanUp() {
+		horizontalShader.cleanUp();
+		verticalShader.cleanUp();
+	}
+
+}
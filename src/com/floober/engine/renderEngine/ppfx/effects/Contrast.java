@@ -1,16 +1,14 @@
 package com.floober.engine.renderEngine.ppfx.effects;
 
-import com.floober.engine.renderEngine.ppfx.PPEffect;
-import com.floober.engine.renderEngine.shaders.ppfx.ContrastShader;
-import com.floober.engine.util.configuration.Config;
+import com.floober.engine.renderEngine.ppfx.ColorEffect;
 
-public class Contrast extends PPEffect {
+public class Contrast extends ColorEffect {
+
+	private static final String[] PARAMETERS = {"contrast"};
 
 	private float contrastChangeAmount;
 
 	public Contrast() {
-		super(Config.INTERNAL_WIDTH, Config.INTERNAL_HEIGHT);
-		shader = new ContrastShader();
 		contrastChangeAmount = 0.5f;
 	}
 
@@ -24,8 +22,18 @@ public class Contrast extends PPEffect {
 	}
 
 	@Override
-	public void init() {
-		ContrastShader shader = (ContrastShader) this.shader;
-		shader.loadContrastChangeAmount(contrastChangeAmount);
+	public String getTransform() {
+		return "color.rgb = (color.rgb - 0.5) * (1.0 + $contrast) + 0.5;";
+	}
+
+	@Override
+	public String[] getParameterNames() {
+		return PARAMETERS;
 	}
+
+	@Override
+	public float getParameter(int index) {
+		return contrastChangeAmount;
+	}
+
 }
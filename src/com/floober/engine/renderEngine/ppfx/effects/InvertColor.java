@@ -1,18 +1,12 @@
 package com.floober.engine.renderEngine.ppfx.effects;
 
-import com.floober.engine.renderEngine.ppfx.PPEffect;
-import com.floober.engine.renderEngine.shaders.ppfx.InvertColorShader;
-import com.floober.engine.util.configuration.Config;
+import com.floober.engine.renderEngine.ppfx.ColorEffect;
 
-public class InvertColor extends PPEffect {
-
-	public InvertColor() {
-		super(Config.INTERNAL_WIDTH, Config.INTERNAL_HEIGHT);
-		shader = new InvertColorShader();
-	}
+public class InvertColor extends ColorEffect {
 
 	@Override
-	public void init() {
-		// nothing
+	public String getTransform() {
+		return "color = 1.0 - color;";
 	}
+
 }
@@ -1,27 +1,35 @@
 package com.floober.engine.renderEngine.renderers;
 
+import com.floober.engine.renderEngine.GLStateManager;
+import com.floober.engine.renderEngine.RenderCommandBuffer;
+import com.floober.engine.renderEngine.RenderQueue;
+import com.floober.engine.renderEngine.RenderStats;
+import com.floober.engine.renderEngine.elements.RenderElement;
 import com.floober.engine.renderEngine.elements.geometry.*;
+import com.floober.engine.renderEngine.models.InstanceLayout;
 import com.floober.engine.renderEngine.models.ModelLoader;
+import com.floober.engine.renderEngine.models.ParallelFill;
 import com.floober.engine.renderEngine.models.QuadModel;
-import com.floober.engine.renderEngine.shaders.geometry.CircleShader;
+import com.floober.engine.renderEngine.shaders.geometry.CircleInstancedShader;
+import com.floober.engine.renderEngine.shaders.geometry.RectInstancedShader;
 import com.floober.engine.renderEngine.shaders.geometry.RectLightShader;
-import com.floober.engine.renderEngine.shaders.geometry.RectShader;
-import com.floober.engine.util.Logger;
-import com.floober.engine.util.input.KeyInput;
 import com.floober.engine.util.math.MathUtil;
+import com.floober.engine.util.math.MatrixUtils;
 import org.joml.Matrix4f;
 import org.joml.Vector2f;
-
-import java.util.List;
+import org.joml.Vector3f;
+import org.joml.Vector4f;
 
 import static org.lwjgl.opengl.GL11.*;
-import static org.lwjgl.opengl.GL20.glDisableVertexAttribArray;
-import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
-import static org.lwjgl.opengl.GL30.glBindVertexArray;
+import static org.lwjgl.opengl.GL31.glDrawArraysInstanced;
 
 /**
  * The GeometryRenderer handles rendering of geometric elements such as
- * rectangles, circles and lines.
+ * rectangles, circles and lines. Rectangles, lines and outlines all share
+ * one instanced shader, and circles have another. A run of shapes is first
+ * recorded into a {@link RenderCommandBuffer}, with its instance data written
+ * out, and then streamed into the shared instance buffer and drawn in one
+ * call, so a run of rectangles, lines and outlines costs a single draw.
  */
 public class GeometryRenderer {
 
@@ -31,55 +39,174 @@ public class GeometryRenderer {
 	private final int lineVAO;
 	private final int lineVBO;
 
+	// instanced rendering
+	public static final int MAX_INSTANCES = 10000;
+	public static final int RECT_DATA_LENGTH = 24; // TRNSFM_MTRX (16), COLOR (4), ROUND_RADIUS + DIMENSIONS (4)
+	public static final int CIRCLE_DATA_LENGTH = 26; // TRNSFM_MTRX (16), COLOR (4), RADII + SMOOTHNESS (4), PORTION (2)
+
+	private final QuadModel rectQuad;
+	private final QuadModel circleQuad;
+	private final InstanceLayout rectLayout;
+	private final InstanceLayout circleLayout;
+
+	// the circles being recorded, and the writer that fills in their instance data
+	private RenderQueue fillQueue;
+	private int fillStart;
+	private final ParallelFill.InstanceWriter circleWriter = (i, data, pointer) -> storeCircleData((CircleElement) fillQueue.get(fillStart + i), data, pointer);
+	private final Matrix4f matrix = new Matrix4f(); // scratch
+
 	// shaders
-	private final RectShader rectShader;
+	private final RectInstancedShader rectShader;
 	private final RectLightShader rectLightShader;
-	private final CircleShader circleShader;
-
-	// debug
-	public static int ELEMENT_COUNT = 0;
+	private final CircleInstancedShader circleShader;
 
 	public GeometryRenderer() {
 		quad = ModelLoader.loadToVAO(positions);
 		lineVAO = ModelLoader.createVAO();
 		lineVBO = ModelLoader.createLineVBO();
-		rectShader = new RectShader();
+		// rectangles, lines and outlines
+		rectQuad = ModelLoader.loadToVAO(positions);
+		rectLayout = new InstanceLayout(rectQuad.vaoID(), RECT_DATA_LENGTH);
+		rectLayout.add(1, 4, 0);  // Transformation col 1
+		rectLayout.add(2, 4, 4);  // Transformation col 2
+		rectLayout.add(3, 4, 8);  // Transformation col 3
+		rectLayout.add(4, 4, 12); // Transformation col 4
+		rectLayout.add(5, 4, 16); // Color
+		rectLayout.add(6, 4, 20); // Round radius, dimensions
+		// circles
+		circleQuad = ModelLoader.loadToVAO(positions);
+		circleLayout = new InstanceLayout(circleQuad.vaoID(), CIRCLE_DATA_LENGTH);
+		circleLayout.add(1, 4, 0);  // Transformation col 1
+		circleLayout.add(2, 4, 4);  // Transformation col 2
+		circleLayout.add(3, 4, 8);  // Transformation col 3
+		circleLayout.add(4, 4, 12); // Transformation col 4
+		circleLayout.add(5, 4, 16); // Color
+		circleLayout.add(6, 4, 20); // Inner radius, outer radius, smoothness
+		circleLayout.add(7, 2, 24); // Portion, offset
+		// shaders
+		rectShader = new RectInstancedShader();
 		rectLightShader = new RectLightShader();
-		circleShader = new CircleShader();
+		circleShader = new CircleInstancedShader();
 	}
 
-	// RENDER METHODS
-	public void renderRectangles(List<RectElement> rectangles, boolean depthWritingEnabled) {
+	// RECORD METHODS
+	// nothing here touches OpenGL, so these can run on a recording thread
+
+	/**
+	 * Record the draws for shapes in {@code [start, end)} of the queue that are all
+	 * drawn by the rectangle shader: any mix of rectangles, lines and outlines.
+	 * Their instance data is written together, in queue order, so they're drawn
+	 * in one call (or one per {@code MAX_INSTANCES} instances).
+	 * @param queue The sorted render queue.
+	 * @param start The first shape to record.
+	 * @param end The position just past the last shape to record.
+	 * @param depth The depth step of the shapes, or -1 if they're opaque.
+	 * @param depthWritingEnabled Whether these shapes should write to the depth buffer.
+	 * @param commands The buffer to record into.
+	 */
+	public void recordRectShapes(RenderQueue queue, int start, int end, int depth, boolean depthWritingEnabled, RenderCommandBuffer commands) {
+
+		// each outline is drawn as four line instances
+		int instances = 0;
+		for (int i = start; i < end; ++i) {
+			instances += queue.get(i) instanceof OutlineElement ? 4 : 1;
+		}
+		if (instances == 0) return;
+
+		int offset = commands.reserve(instances * RECT_DATA_LENGTH);
+		float[] vboData = commands.getRecordingData();
+		int pointer = offset;
+
+		for (int i = start; i < end; ++i) {
+			RenderElement shape = queue.get(i);
+			if (shape instanceof OutlineElement outlineElement) {
+				for (LineElement lineElement : outlineElement.getLines()) {
+					pointer = storeLineData(lineElement, vboData, pointer);
+				}
+			}
+			else if (shape instanceof LineElement lineElement) {
+				pointer = storeLineData(lineElement, vboData, pointer);
+			}
+			else if (shape instanceof RectElement rectElement) {
+				pointer = storeRectData(rectElement.getRenderPosition(), rectElement.getScale(), rectElement.getColor(),
+						rectElement.getRoundRadius(), rectElement.getHeight(), rectElement.getWidth(), vboData, pointer);
+			}
+		}
 
-		ELEMENT_COUNT += rectangles.size();
+		addInstancedCommands(RenderCommandBuffer.DRAW_RECTS, depth, depthWritingEnabled, offset, instances, RECT_DATA_LENGTH, commands);
 
-		prepareRectangles(depthWritingEnabled);
+	}
 
-		for (RectElement rectElement : rectangles) {
+	/**
+	 * Record the draws for the circles in {@code [start, end)} of the queue.
+	 * @see #recordRectShapes
+	 */
+	public void recordCircles(RenderQueue queue, int start, int end, int depth, boolean depthWritingEnabled, RenderCommandBuffer commands) {
 
-			Matrix4f transformationMatrix = MathUtil.createTransformationMatrix(rectElement.getRenderPosition(), rectElement.getScale());
-			if (KeyInput.isPressed(KeyInput.P)) Logger.log("Layer = " + rectElement.getLayer() + ", z = " + rectElement.getRenderPosition().z());
-			rectShader.loadRoundRadius(rectElement.getRoundRadius());
-			rectShader.loadDimensions(new Vector2f(rectElement.getHeight(), rectElement.getWidth()));
-			rectShader.loadColor(rectElement.getColor());
-			rectShader.loadTransformationMatrix(transformationMatrix);
-			glDrawArrays(GL_TRIANGLE_STRIP, 0, quad.vertexCount());
+		int count = end - start;
+		if (count <= 0) return;
 
-		}
+		int offset = commands.reserve(count * CIRCLE_DATA_LENGTH);
+		fillQueue = queue;
+		fillStart = start;
+		ParallelFill.fill(count, CIRCLE_DATA_LENGTH, commands.getRecordingData(), offset, circleWriter);
+		fillQueue = null;
 
-		finishRectangles();
+		addInstancedCommands(RenderCommandBuffer.DRAW_CIRCLES, depth, depthWritingEnabled, offset, count, CIRCLE_DATA_LENGTH, commands);
 
 	}
 
-	public void renderLightRectangles(List<RectElementLight> elements) {
+	/**
+	 * Record the draws for the light rectangles in {@code [start, end)} of the queue.
+	 * These are drawn one at a time, so nothing is written ahead; the command
+	 * just points back at the queue.
+	 */
+	public void recordLightRectangles(int start, int end, int depth, RenderCommandBuffer commands) {
+		commands.add(RenderCommandBuffer.DRAW_RECT_LIGHTS, depth, false, start, 0, end - start);
+	}
 
-		ELEMENT_COUNT += elements.size();
+	// split instance data that's already been written into commands of at most MAX_INSTANCES
+	private void addInstancedCommands(int type, int depth, boolean depthWritingEnabled, int offset, int instances, int dataLength, RenderCommandBuffer commands) {
+		for (int first = 0; first < instances; first += MAX_INSTANCES) {
+			int count = Math.min(MAX_INSTANCES, instances - first);
+			commands.add(type, depth, depthWritingEnabled, 0, offset + first * dataLength, count);
+		}
+	}
+
+	// EXECUTE METHODS
+
+	/**
+	 * Issue a recorded geometry command.
+	 * @param commands The buffer holding the command.
+	 * @param command The command's index.
+	 * @param queue The render queue it was recorded from.
+	 */
+	public void execute(RenderCommandBuffer commands, int command, RenderQueue queue) {
+		int count = commands.getCount(command);
+		switch (commands.getType(command)) {
+			case RenderCommandBuffer.DRAW_RECTS -> {
+				prepareRectangles(commands.isDepthWrite(command));
+				drawInstances(rectLayout, rectQuad, commands.getData(), commands.getDataOffset(command), count);
+			}
+			case RenderCommandBuffer.DRAW_CIRCLES -> {
+				prepareCircles(commands.isDepthWrite(command));
+				drawInstances(circleLayout, circleQuad, commands.getData(), commands.getDataOffset(command), count);
+			}
+			case RenderCommandBuffer.DRAW_RECT_LIGHTS -> {
+				int start = commands.getArg(command);
+				renderLightRectangles(queue, start, start + count);
+			}
+		}
+	}
+
+	private void renderLightRectangles(RenderQueue queue, int start, int end) {
 
 		prepareLightRectangles(false);
 
-		for (RectElementLight element : elements) {
+		for (int i = start; i < end; ++i) {
 
-			Matrix4f transformationMatrix = MathUtil.createTransformationMatrix(element.getPosition(), element.getScale());
+			RectElementLight element = (RectElementLight) queue.get(i);
+			Matrix4f transformationMatrix = MathUtil.createTransformationMatrix(element.getPosition(), element.getScale(), matrix);
 			rectLightShader.loadColor(element.getLightColor());
 			rectLightShader.loadTransformationMatrix(transformationMatrix);
 			rectLightShader.loadAmbientLight(element.getAmbientLight());
@@ -88,132 +215,87 @@ public class GeometryRenderer {
 			rectLightShader.loadLightInnerRadius(element.getLightInnerRadius());
 			rectLightShader.loadLightPosition(element.getLightPosition());
 			glDrawArrays(GL_TRIANGLE_STRIP, 0, quad.vertexCount());
+			RenderStats.countDraw(GL_TRIANGLE_STRIP, quad.vertexCount(), 1);
 
 		}
 
-		finishLightRectangles();
-
 	}
 
-	public void renderCircles(List<CircleElement> circles, boolean depthWritingEnabled) {
-
-		ELEMENT_COUNT += circles.size();
-
-		prepareCircles(depthWritingEnabled);
-
-		for (CircleElement circleElement : circles) {
-
-			Matrix4f transformationMatrix = MathUtil.createTransformationMatrix(circleElement.getPosition(), circleElement.getScale());
-			circleShader.loadColor(circleElement.getColor());
-			circleShader.loadTransformationMatrix(transformationMatrix);
-			circleShader.loadCenter(circleElement.getCenter());
-			circleShader.loadInnerRadius(circleElement.getInnerRadius());
-			circleShader.loadOuterRadius(circleElement.getOuterRadius());
-			circleShader.loadPortion(circleElement.getPortion());
-			circleShader.loadSmoothness(circleElement.getSmoothness());
-			glDrawArrays(GL_TRIANGLE_STRIP, 0, quad.vertexCount());
-
-		}
-
-		finishCircles();
-
+	// INSTANCE DATA METHODS
+	private static int storeRectData(Vector3f position, Vector2f scale, Vector4f color, float roundRadius, float height, float width, float[] vboData, int pointer) {
+		pointer = MatrixUtils.storeTransformation(position, scale, 0, 0, vboData, pointer);
+		vboData[pointer++] = color.x;
+		vboData[pointer++] = color.y;
+		vboData[pointer++] = color.z;
+		vboData[pointer++] = color.w;
+		vboData[pointer++] = roundRadius;
+		vboData[pointer++] = height;
+		vboData[pointer++] = width;
+		vboData[pointer++] = 0;
+		return pointer;
 	}
 
-	public void renderLines(List<LineElement> lines, boolean depthWritingEnabled) {
-
-		ELEMENT_COUNT += lines.size();
-
-		prepareRectangles(depthWritingEnabled);
-
-		for (LineElement lineElement : lines) {
-			renderLineElement(lineElement);
-		}
-
-		finishRectangles();
-
+	// lines are rectangles with no rounding
+	private static int storeLineData(LineElement lineElement, float[] vboData, int pointer) {
+		return storeRectData(lineElement.getPosition(), lineElement.getScale(), lineElement.getColor(), 0, 1, 1, vboData, pointer);
 	}
 
-	public void renderOutlines(List<OutlineElement> outlines, boolean depthWritingEnabled) {
-
-		ELEMENT_COUNT += outlines.size() * 4;
-
-		prepareRectangles(depthWritingEnabled);
-
-		for (OutlineElement outlineElement : outlines) {
-			for (LineElement lineElement : outlineElement.getLines()) {
-				renderLineElement(lineElement);
-			}
-		}
-
-		finishRectangles();
-
+	// called from the fill threads, so this mustn't touch anything shared
+	private static int storeCircleData(CircleElement circleElement, float[] vboData, int pointer) {
+		pointer = MatrixUtils.storeTransformation(circleElement.getPosition(), circleElement.getScale(), 0, 0, vboData, pointer);
+		Vector4f color = circleElement.getColor();
+		vboData[pointer++] = color.x;
+		vboData[pointer++] = color.y;
+		vboData[pointer++] = color.z;
+		vboData[pointer++] = color.w;
+		vboData[pointer++] = circleElement.getInnerRadius();
+		vboData[pointer++] = circleElement.getOuterRadius();
+		vboData[pointer++] = circleElement.getSmoothness();
+		vboData[pointer++] = 0;
+		vboData[pointer++] = circleElement.getPortion().x;
+		vboData[pointer++] = circleElement.getPortion().y;
+		return pointer;
 	}
 
-	// LINE UTILITY METHOD
-	private void renderLineElement(LineElement lineElement) {
-		Matrix4f transformationMatrix = MathUtil.createTransformationMatrix(lineElement.getPosition(), lineElement.getScale());
-		rectShader.loadTransformationMatrix(transformationMatrix);
-		rectShader.loadColor(lineElement.getColor());
-		glDrawArrays(GL_TRIANGLE_STRIP, 0, quad.vertexCount());
+	// DRAW METHODS
+	private void drawInstances(InstanceLayout layout, QuadModel model, float[] data, int dataOffset, int count) {
+		// send this batch's data to the GPU, and draw it in one go
+		layout.stream(data, dataOffset, count);
+		glDrawArraysInstanced(GL_TRIANGLE_STRIP, 0, model.vertexCount(), count);
+		RenderStats.countDraw(GL_TRIANGLE_STRIP, model.vertexCount(), count);
 	}
 
 	// PREPARE METHODS
 	private void prepareRectangles(boolean depthWritingEnabled) {
 		rectShader.start();
-		glBindVertexArray(quad.vaoID());
-		glEnableVertexAttribArray(0);
-		glEnable(GL_BLEND);
-		glDepthMask(depthWritingEnabled);
-		glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
-		glEnable(GL_DEPTH_TEST);
-	}
-
-	private void finishRectangles() {
-		glDisable(GL_BLEND);
-		glDisable(GL_DEPTH_TEST);
-		glDisableVertexAttribArray(0);
-		glBindVertexArray(0);
-		rectShader.stop();
+		GLStateManager.bindVertexArray(rectQuad.vaoID());
+		GLStateManager.enable(GL_BLEND);
+		GLStateManager.depthMask(depthWritingEnabled);
+		GLStateManager.blendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+		GLStateManager.enable(GL_DEPTH_TEST);
 	}
 
 	private void prepareLightRectangles(boolean depthWritingEnabled) {
 		rectLightShader.start();
-		glBindVertexArray(quad.vaoID());
-		glEnableVertexAttribArray(0);
-		glEnable(GL_BLEND);
-		glDepthMask(depthWritingEnabled);
-		glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
-		glEnable(GL_DEPTH_TEST);
-	}
-
-	private void finishLightRectangles() {
-		glDisable(GL_BLEND);
-		glDisable(GL_DEPTH_TEST);
-		glDisableVertexAttribArray(0);
-		glBindVertexArray(0);
-		rectLightShader.stop();
+		GLStateManager.bindVertexArray(quad.vaoID());
+		GLStateManager.enable(GL_BLEND);
+		GLStateManager.depthMask(depthWritingEnabled);
+		GLStateManager.blendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+		GLStateManager.enable(GL_DEPTH_TEST);
 	}
 
 	private void prepareCircles(boolean depthWritingEnabled) {
 		circleShader.start();
-		glBindVertexArray(quad.vaoID());
-		glEnableVertexAttribArray(0);
-		glEnable(GL_BLEND);
-		glDepthMask(depthWritingEnabled);
-		glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
-		glEnable(GL_DEPTH_TEST);
-	}
-
-	private void finishCircles() {
-		glDisable(GL_BLEND);
-		glDisable(GL_DEPTH_TEST);
-		glDisableVertexAttribArray(0);
-		glBindVertexArray(0);
-		circleShader.stop();
+		GLStateManager.bindVertexArray(circleQuad.vaoID());
+		GLStateManager.enable(GL_BLEND);
+		GLStateManager.depthMask(depthWritingEnabled);
+		GLStateManager.blendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+		GLStateManager.enable(GL_DEPTH_TEST);
 	}
 
 	public void cleanUp() {
 		rectShader.cleanUp();
+		rectLightShader.cleanUp();
 		circleShader.cleanUp();
 		ModelLoader.deleteVAO(lineVAO);
 		ModelLoader.deleteVBO(lineVBO);
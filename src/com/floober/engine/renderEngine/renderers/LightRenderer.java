@@ -0,0 +1,210 @@
+package com.floober.engine.renderEngine.renderers;
+
+import com.floober.engine.renderEngine.GLStateManager;
+import com.floober.engine.renderEngine.RenderStats;
+import com.floober.engine.renderEngine.framebuffers.FrameBuffer;
+import com.floober.engine.renderEngine.lights.Light;
+import com.floober.engine.renderEngine.lights.LightMaster;
+import com.floober.engine.renderEngine.models.InstanceLayout;
+import com.floober.engine.renderEngine.models.ModelLoader;
+import com.floober.engine.renderEngine.models.QuadModel;
+import com.floober.engine.renderEngine.particles.ParticleMaster;
+import com.floober.engine.renderEngine.particles.types.LightParticle;
+import com.floober.engine.renderEngine.shaders.lights.LightShader;
+import com.floober.engine.util.configuration.Config;
+import org.joml.Vector2f;
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL30.GL_COLOR;
+import static org.lwjgl.opengl.GL30.GL_RGBA16F;
+import static org.lwjgl.opengl.GL30.glClearBufferfv;
+import static org.lwjgl.opengl.GL31.glDrawArraysInstanced;
+
+/**
+ * Draws every light in the scene into the light buffer, for deferred lighting.
+ * Each light (scene lights from the {@link LightMaster}, and the light given
+ * off by light-emitting particles) is an instanced quad covering the area it
+ * reaches, blended additively, so the buffer ends up holding the total light
+ * at every point in the scene. Lit sprites then read their light from the
+ * buffer in one lookup, however many lights there are.
+ * <br><br>
+ * Light varies slowly across the screen, so the buffer is kept at a fraction
+ * of the scene's resolution ({@code Config.LIGHT_BUFFER_SCALE}), and stored
+ * as half floats so that overlapping lights can add up past 1.
+ */
+public class LightRenderer {
+
+	private static final float[] VERTICES = {-1, 1, -1, -1, 1, 1, 1, -1};
+	public static final int MAX_INSTANCES = 16384; // per draw; more lights are drawn in several batches
+	private static final int INSTANCE_DATA_LENGTH = 11; // CENTER (2), COLOR (4), PARAMS (4), FALLOFF (1)
+
+	// the texture unit lit sprites read the light buffer from
+	public static final int LIGHT_TEXTURE_UNIT = 2;
+
+	// falloff curves
+	private static final int FALLOFF_SCENE_LIGHT = 0;
+	private static final int FALLOFF_SMOOTH = 1;
+
+	private static final float[] CLEAR_COLOR = {0, 0, 0, 0};
+
+	private final QuadModel quad;
+	private final LightShader shader;
+	private final InstanceLayout instanceLayout;
+	private FrameBuffer lightBuffer;
+
+	// the light-emitting particles being drawn
+	private final List<LightParticle> lightParticles = new ArrayList<>();
+
+	/**
+	 * Create a LightRenderer, with a light buffer to match the given scene size.
+	 * @param sceneWidth The width of the scene buffer.
+	 * @param sceneHeight The height of the scene buffer.
+	 */
+	public LightRenderer(int sceneWidth, int sceneHeight) {
+		quad = ModelLoader.loadToVAO(VERTICES);
+		instanceLayout = new InstanceLayout(quad.vaoID(), INSTANCE_DATA_LENGTH);
+		instanceLayout.add(1, 2, 0);  // Center
+		instanceLayout.add(2, 4, 2);  // Color
+		instanceLayout.add(3, 4, 6);  // Intensity, inner radius, outer radius, max radius
+		instanceLayout.add(4, 1, 10); // Falloff
+		shader = new LightShader();
+		shader.start();
+		shader.loadInternalSize(new Vector2f(Config.INTERNAL_WIDTH, Config.INTERNAL_HEIGHT));
+		shader.stop();
+		resize(sceneWidth, sceneHeight);
+	}
+
+	public FrameBuffer getLightBuffer() {
+		return lightBuffer;
+	}
+
+	/**
+	 * Match the light buffer to the scene buffer's size.
+	 * @param sceneWidth The width of the scene buffer.
+	 * @param sceneHeight The height of the scene buffer.
+	 */
+	public void resize(int sceneWidth, int sceneHeight) {
+		int width = Math.max(1, Math.round(sceneWidth * Config.LIGHT_BUFFER_SCALE));
+		int height = Math.max(1, Math.round(sceneHeight * Config.LIGHT_BUFFER_SCALE));
+		if (lightBuffer != null) {
+			if (lightBuffer.getWidth() == width && lightBuffer.getHeight() == height) return;
+			lightBuffer.cleanUp();
+		}
+		lightBuffer = new FrameBuffer(width, height, GL_RGBA16F, FrameBuffer.NONE);
+	}
+
+	/**
+	 * Clear the light buffer and draw every scene light and light-emitting particle into it.
+	 * Leaves the default frame buffer bound.
+	 */
+	public void render() {
+
+		lightBuffer.bindFrameBuffer();
+		glClearBufferfv(GL_COLOR, 0, CLEAR_COLOR);
+
+		List<Light> lights = LightMaster.getSceneLights();
+		ParticleMaster.getLightEmittingParticles(lightParticles);
+		int total = lights.size() + lightParticles.size();
+
+		if (total > 0) {
+
+			prepare();
+
+			float[] data = instanceLayout.scratch(Math.min(total, MAX_INSTANCES));
+			int count = 0;
+
+			for (int i = 0; i < lights.size(); ++i) {
+				Light light = lights.get(i);
+				float reach = Math.max(light.innerRadius(), light.maxRadius());
+				if (!isVisible(light.position().x, light.position().y, reach)) continue;
+				storeLightData(light, data, count++ * INSTANCE_DATA_LENGTH);
+				if (count == MAX_INSTANCES) {
+					draw(data, count);
+					count = 0;
+				}
+			}
+
+			for (int i = 0; i < lightParticles.size(); ++i) {
+				LightParticle particle = lightParticles.get(i);
+				if (!isVisible(particle.getPosition().x, particle.getPosition().y, particle.getLightRadius())) continue;
+				storeParticleData(particle, data, count++ * INSTANCE_DATA_LENGTH);
+				if (count == MAX_INSTANCES) {
+					draw(data, count);
+					count = 0;
+				}
+			}
+
+			if (count > 0) draw(data, count);
+			lightParticles.clear();
+
+		}
+
+		lightBuffer.unbindFrameBuffer();
+
+	}
+
+	private void draw(float[] data, int count) {
+		instanceLayout.stream(data, count);
+		glDrawArraysInstanced(GL_TRIANGLE_STRIP, 0, quad.vertexCount(), count);
+		RenderStats.countDraw(GL_TRIANGLE_STRIP, quad.vertexCount(), count);
+	}
+
+	/**
+	 * @return Whether any of a light's reach, around the given center, is on screen.
+	 */
+	private static boolean isVisible(float x, float y, float reach) {
+		return x + reach > 0 && x - reach < Config.INTERNAL_WIDTH &&
+				y + reach > 0 && y - reach < Config.INTERNAL_HEIGHT;
+	}
+
+	private static void storeLightData(Light light, float[] data, int pointer) {
+		Vector4f color = light.color();
+		data[pointer++] = light.position().x;	// Center X
+		data[pointer++] = light.position().y;	// Center Y
+		data[pointer++] = color.x;				// Color R
+		data[pointer++] = color.y;				// Color G
+		data[pointer++] = color.z;				// Color B
+		data[pointer++] = color.w;				// Color A
+		data[pointer++] = light.intensity();	// Intensity
+		data[pointer++] = light.innerRadius();	// Inner radius
+		data[pointer++] = light.outerRadius();	// Outer radius
+		data[pointer++] = light.maxRadius();	// Max radius
+		data[pointer] = FALLOFF_SCENE_LIGHT;	// Falloff
+	}
+
+	// a particle lights the area its glow covers, fading smoothly to nothing at the edge
+	private static void storeParticleData(LightParticle particle, float[] data, int pointer) {
+		Vector3f lightColor = particle.getLightColor();
+		data[pointer++] = particle.getPosition().x;	// Center X
+		data[pointer++] = particle.getPosition().y;	// Center Y
+		data[pointer++] = lightColor.x;				// Color R
+		data[pointer++] = lightColor.y;				// Color G
+		data[pointer++] = lightColor.z;				// Color B
+		data[pointer++] = 1;						// Color A
+		data[pointer++] = particle.getLightIntensity() * particle.getColor().w(); // Intensity, faded with the particle
+		data[pointer++] = 0;						// Inner radius
+		data[pointer++] = particle.getLightRadius(); // Outer radius
+		data[pointer++] = particle.getLightRadius(); // Max radius
+		data[pointer] = FALLOFF_SMOOTH;				// Falloff
+	}
+
+	private void prepare() {
+		shader.start();
+		GLStateManager.bindVertexArray(quad.vaoID());
+		GLStateManager.enable(GL_BLEND);
+		GLStateManager.blendFunc(GL_ONE, GL_ONE);
+		GLStateManager.disable(GL_DEPTH_TEST);
+		GLStateManager.depthMask(false);
+	}
+
+	public void cleanUp() {
+		shader.cleanUp();
+		lightBuffer.cleanUp();
+	}
+
+}
@@ -1,56 +1,110 @@
 package com.floober.engine.renderEngine.renderers;
 
 import com.floober.engine.loaders.GameLoader;
-import com.floober.engine.renderEngine.RenderLayer;
-import com.floober.engine.renderEngine.batches.opaque.*;
-import com.floober.engine.renderEngine.batches.transparent.*;
+import com.floober.engine.renderEngine.DepthBuckets;
+import com.floober.engine.renderEngine.DynamicResolution;
+import com.floober.engine.renderEngine.GLStateManager;
+import com.floober.engine.renderEngine.RenderCommandBuffer;
+import com.floober.engine.renderEngine.RenderQueue;
+import com.floober.engine.renderEngine.RenderStats;
+import com.floober.engine.renderEngine.ViewCuller;
+import com.floober.engine.renderEngine.elements.ElementPools;
+import com.floober.engine.renderEngine.elements.RenderElement;
 import com.floober.engine.renderEngine.elements.TextureElement;
 import com.floober.engine.renderEngine.elements.geometry.*;
 import com.floober.engine.renderEngine.fonts.fontMeshCreator.GUIText;
-import com.floober.engine.renderEngine.fonts.fontRendering.FontRenderer;
 import com.floober.engine.renderEngine.fonts.fontRendering.TextMaster;
 import com.floober.engine.renderEngine.framebuffers.FrameBuffer;
+import com.floober.engine.renderEngine.framebuffers.RenderTargetPool;
+import com.floober.engine.renderEngine.lights.LightGrid;
+import com.floober.engine.renderEngine.models.StreamingBuffer;
 import com.floober.engine.renderEngine.particles.ParticleMaster;
+import com.floober.engine.renderEngine.shaders.SceneData;
+import com.floober.engine.tilemap.TileMap;
+import com.floober.engine.util.AllocationCounter;
+import com.floober.engine.util.FrameProfiler;
+import com.floober.engine.util.Logger;
 import com.floober.engine.util.configuration.Config;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Stack;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.lwjgl.opengl.GL11.*;
 
 /**
- * A WIP replacement for the MasterRenderer class, using the new
- * RenderLayer/RenderBatch structure for rendering.
+ * The MasterRenderer collects every element submitted during a frame into
+ * one {@link RenderQueue}, sorts it once, and walks it to draw the frame:
+ * all opaque elements first, then everything transparent back to front,
+ * with particles and text drawn in their place among the transparent
+ * elements.
+ * <br><br>
+ * Walking the queue happens in two steps. Recording sorts the queue and
+ * writes every run's instance data into a {@link RenderCommandBuffer};
+ * executing binds, uploads and draws each recorded command. With
+ * {@code Config.PIPELINED_RENDERING} on, recording runs on a separate
+ * thread, and the render thread draws each run as soon as it's recorded
+ * while the recorder moves on to the next one.
+ * <br><br>
+ * Depth is continuous: anything from 0 (the back) to {@code TOP_LAYER}
+ * (the front) is valid, and only depths that hold something are visited.
+ * <br><br>
+ * With dynamic resolution on, the scene buffer is resized to the current
+ * {@link DynamicResolution} scale at the start of each frame. If the native
+ * overlay is on as well, the transparent pass stops at {@code Config.OVERLAY_DEPTH},
+ * and the rest of it is drawn by {@link #renderOverlay()} once post-processing
+ * has stretched the scene over the screen.
+ * <br><br>
+ * With {@code Config.DEFERRED_LIGHTING} on, every light is drawn into a
+ * light buffer by the {@link LightRenderer} before the scene, and lit
+ * elements read their light from it. With it off, the scene's lights are
+ * sorted into a {@link LightGrid} at the start of each frame instead.
+ * <br><br>
+ * Tile maps are drawn by the {@link TileRenderer} at the end of the opaque
+ * pass, chunk by chunk, rather than through the queue.
  */
 public class MasterRenderer {
 
 	public static final MasterRenderer instance = new MasterRenderer();
 
-	// game scene frame buffer
-	private final FrameBuffer sceneBuffer;
+	// game scene frame buffer; its size follows the dynamic resolution scale
+	private FrameBuffer sceneBuffer;
 
 	// element renderers
 	private final TextureRenderer textureRenderer;
 	private final GeometryRenderer geometryRenderer;
+	private final TileRenderer tileRenderer;
+
+	// deferred lighting; null when it's off
+	private final LightRenderer lightRenderer;
 
 	// Render layers
-	private final RenderLayer[] layers;
 	public static final int NUM_LAYERS = 10;
 	public static final int TOP_LAYER = NUM_LAYERS - 1;
 
-	// Render batches; mapped by layer index
-	private final Map<Integer, TextureBatchOpaque> opaqueTextureBatches = new HashMap<>();
-	private final Map<Integer, TextureBatchTransparent> transparentTextureBatches = new HashMap<>();
-	private final Map<Integer, RectBatchOpaque> opaqueRectBatches = new HashMap<>();
-	private final Map<Integer, RectBatchTransparent> transparentRectBatches = new HashMap<>();
-	private final Map<Integer, CircleBatchOpaque> opaqueCircleBatches = new HashMap<>();
-	private final Map<Integer, CircleBatchTransparent> transparentCircleBatches = new HashMap<>();
-	private final Map<Integer, LineBatchOpaque> opaqueLineBatches = new HashMap<>();
-	private final Map<Integer, LineBatchTransparent> transparentLineBatches = new HashMap<>();
-	private final Map<Integer, OutlineBatchOpaque> opaqueOutlineBatches = new HashMap<>();
-	private final Map<Integer, OutlineBatchTransparent> transparentOutlineBatches = new HashMap<>();
-
-	private final Map<Integer, RectLightBatchTransparent> rectLightBatches = new HashMap<>();
+	// everything submitted this frame, and the draws recorded from it
+	private final RenderQueue queue = new RenderQueue();
+	private final RenderCommandBuffer commands = new RenderCommandBuffer();
+	private final List<TileMap> tileMaps = new ArrayList<>();
+	private final ExecutorService recorder;
+	private final Runnable recordTask = this::recordFrame;
+
+	// how far through the transparent pass drawing has got: the next command, particle
+	// bucket and text bucket; whatever is left at the end of render() is the overlay
+	private int nextCommand, nextParticleBucket, nextTextBucket;
+	private boolean overlayPending;
+
+	// retained elements, drawn every frame until released; a handle is the element's
+	// slot in the low bits and that slot's generation above them, so stale handles can be caught
+	private static final int HANDLE_SLOT_BITS = 20;
+	private static final int HANDLE_SLOT_MASK = (1 << HANDLE_SLOT_BITS) - 1;
+	private RenderElement[] retained = new RenderElement[256];
+	private int[] retainedGenerations = new int[256];
+	private final Stack<Integer> freeSlots = new Stack<>();
+	private int retainedSlots;
 
 	/**
 	 * Create a new MasterRenderer.
@@ -58,11 +112,21 @@ public class MasterRenderer {
 	public MasterRenderer() {
 		// create the scene buffer
 		sceneBuffer = new FrameBuffer(Config.INTERNAL_WIDTH, Config.INTERNAL_HEIGHT, FrameBuffer.DEPTH_RENDER_BUFFER);
+		// create the shared per-frame shader data
+		SceneData.init();
 		// create the renderers
 		textureRenderer = new TextureRenderer();
 		geometryRenderer = new GeometryRenderer();
-		layers = new RenderLayer[NUM_LAYERS];
-		initLayers();
+		tileRenderer = new TileRenderer();
+		lightRenderer = Config.DEFERRED_LIGHTING ? new LightRenderer(sceneBuffer.getWidth(), sceneBuffer.getHeight()) : null;
+		if (!Config.DEFERRED_LIGHTING) LightGrid.init();
+		// start the recording thread
+		recorder = Config.PIPELINED_RENDERING ? Executors.newSingleThreadExecutor(task -> {
+			Thread thread = new Thread(task, "Render Recorder");
+			thread.setDaemon(true);
+			AllocationCounter.registerThread(thread);
+			return thread;
+		}) : null;
 	}
 
 	/**
@@ -74,51 +138,46 @@ public class MasterRenderer {
 	}
 
 	/**
-	 * Create the render layers that will be used for rendering.
-	 * Layers are dynamic, meaning increasing NUM_LAYERS will
-	 * cause elements to automatically be sorted into the new number
-	 * of layers based on their Z positions and the NEAR and FAR clip
-	 * values defined in Config.
+	 * Get the frame buffer the scene's lights are drawn into, when deferred lighting is on.
+	 * @return the light buffer, or {@code null} if deferred lighting is off
 	 */
-	private void initLayers() {
-		for (int i = 0; i < NUM_LAYERS; ++i) {
-			// create the layer
-			layers[i] = new RenderLayer();
-			// create the batches that will be used to populate the layer
-			opaqueTextureBatches.put(i, new TextureBatchOpaque(i, textureRenderer));
-			transparentTextureBatches.put(i, new TextureBatchTransparent(i, textureRenderer));
-			opaqueRectBatches.put(i, new RectBatchOpaque(i, geometryRenderer));
-			transparentRectBatches.put(i, new RectBatchTransparent(i, geometryRenderer));
-			opaqueCircleBatches.put(i, new CircleBatchOpaque(i, geometryRenderer));
-			transparentCircleBatches.put(i, new CircleBatchTransparent(i, geometryRenderer));
-			opaqueLineBatches.put(i, new LineBatchOpaque(i, geometryRenderer));
-			transparentLineBatches.put(i, new LineBatchTransparent(i, geometryRenderer));
-			opaqueOutlineBatches.put(i, new OutlineBatchOpaque(i, geometryRenderer));
-			transparentOutlineBatches.put(i, new OutlineBatchTransparent(i, geometryRenderer));
-
-			rectLightBatches.put(i, new RectLightBatchTransparent(i, geometryRenderer));
-		}
+	public static FrameBuffer getLightBuffer() {
+		return instance.lightRenderer != null ? instance.lightRenderer.getLightBuffer() : null;
+	}
+
+	/**
+	 * Bind the scene's lights for a lit shader to read: the light buffer with
+	 * deferred lighting on, or the light grid with it off.
+	 */
+	public static void bindLights() {
+		FrameBuffer lightBuffer = getLightBuffer();
+		if (lightBuffer != null) GLStateManager.bindTexture(LightRenderer.LIGHT_TEXTURE_UNIT, lightBuffer.getColorTexture());
+		else LightGrid.bind();
 	}
 
-	public static float getScreenZ(int layer) {
-		int trueLayer = NUM_LAYERS - layer;
-		return ((float) trueLayer / NUM_LAYERS);
+	public static float getScreenZ(float depth) {
+		return (NUM_LAYERS - depth) / NUM_LAYERS;
 	}
 
-	public static int getLayerByZ(float z) {
-		return (int) (NUM_LAYERS - (z * 10));
+	public static float getDepthByZ(float z) {
+		return NUM_LAYERS - (z * NUM_LAYERS);
 	}
 
 	// *** ADDING ELEMENTS ***
-
+	// anything entirely off-screen is culled here, before it's queued
 	public static void addTextureElement(TextureElement element) {
-		// get the layer this element will be rendered in
-		int layer = element.getLayer();
-		// add this element to the appropriate batch
+		if (!ViewCuller.isVisible(element)) return;
 		if (element.textureComponentHasTransparency())
-			instance.transparentTextureBatches.get(layer).addElement(element);
+			instance.queue.addTransparent(element, element.getLayer(), RenderQueue.SHADER_TEXTURE);
 		else
-			instance.opaqueTextureBatches.get(layer).addElement(element);
+			instance.queue.addOpaque(element, element.getLayer(), RenderQueue.SHADER_TEXTURE, element.getRawTexture().id());
+	}
+
+	/**
+	 * Add a tile map to be drawn this frame, as it was last seen by the camera.
+	 */
+	public static void addTileMap(TileMap map) {
+		instance.tileMaps.add(map);
 	}
 
 	public static void addTextElement(GUIText text) {
@@ -128,138 +187,319 @@ public class MasterRenderer {
 	}
 
 	public static void addRectElement(RectElement element) {
-		// get the layer this element will be rendered in
-		int layer = element.getLayer();
-		// add this element to the appropriate batch
-		if (element.hasTransparency())
-			instance.transparentRectBatches.get(layer).addElement(element);
-		else
-			instance.opaqueRectBatches.get(layer).addElement(element);
+		addGeometryElement(element, RenderQueue.SHADER_RECT);
 	}
 
 	public static void addRectLightElement(RectElementLight element) {
-		// get the layer this element will be rendered in
-		int layer = element.getLayer();
-		// add this element to the appropriate batch
-		instance.rectLightBatches.get(layer).addElement(element);
+		if (!ViewCuller.isVisible(element)) return;
+		// light rectangles always blend with what's beneath them
+		instance.queue.addTransparent(element, element.getLayer(), RenderQueue.SHADER_RECT_LIGHT);
 	}
 
 	public static void addCircleElement(CircleElement element) {
-		// get the layer this element will be rendered in
-		int layer = element.getLayer();
-		// add this element to the appropriate batch
-		if (element.hasTransparency())
-			instance.transparentCircleBatches.get(layer).addElement(element);
-		else
-			instance.opaqueCircleBatches.get(layer).addElement(element);
+		addGeometryElement(element, RenderQueue.SHADER_CIRCLE);
 	}
 
 	public static void addLineElement(LineElement element) {
-		// get the layer this element will be rendered in
-		int layer = element.getLayer();
-		// add this element to the appropriate batch
-		if (element.hasTransparency())
-			instance.transparentLineBatches.get(layer).addElement(element);
-		else
-			instance.opaqueLineBatches.get(layer).addElement(element);
+		addGeometryElement(element, RenderQueue.SHADER_RECT);
 	}
 
 	public static void addOutlineElement(OutlineElement element) {
-		// get the layer this element will be rendered in
-		int layer = element.getLayer();
-		// add this element to the appropriate batch
+		addGeometryElement(element, RenderQueue.SHADER_RECT);
+	}
+
+	private static void addGeometryElement(GeometryElement element, int shader) {
+		if (!ViewCuller.isVisible(element)) return;
 		if (element.hasTransparency())
-			instance.transparentOutlineBatches.get(layer).addElement(element);
+			instance.queue.addTransparent(element, element.getLayer(), shader);
 		else
-			instance.opaqueOutlineBatches.get(layer).addElement(element);
+			instance.queue.addOpaque(element, element.getLayer(), shader, 0);
+	}
+
+	// *** RETAINED ELEMENTS ***
+
+	/**
+	 * Register an element to be drawn every frame, until it's released.
+	 * Retained elements don't need to be submitted again each frame; their
+	 * screen transform is only recomputed when they move or change size.
+	 * @param element The element to draw.
+	 * @return A handle to pass to {@link #release(int)} to stop drawing it.
+	 */
+	public static int retain(RenderElement element) {
+		MasterRenderer r = instance;
+		int slot;
+		if (!r.freeSlots.isEmpty()) {
+			slot = r.freeSlots.pop();
+		}
+		else {
+			if (r.retainedSlots > HANDLE_SLOT_MASK) throw new IllegalStateException("Too many retained elements");
+			if (r.retainedSlots == r.retained.length) {
+				r.retained = Arrays.copyOf(r.retained, r.retained.length * 2);
+				r.retainedGenerations = Arrays.copyOf(r.retainedGenerations, r.retainedGenerations.length * 2);
+			}
+			slot = r.retainedSlots++;
+		}
+		r.retained[slot] = element;
+		return (r.retainedGenerations[slot] << HANDLE_SLOT_BITS) | slot;
+	}
+
+	/**
+	 * Stop drawing a retained element.
+	 * @param handle The handle returned by {@link #retain(RenderElement)}.
+	 */
+	public static void release(int handle) {
+		MasterRenderer r = instance;
+		int slot = handle & HANDLE_SLOT_MASK;
+		int generation = handle >>> HANDLE_SLOT_BITS;
+		if (slot >= r.retainedSlots || r.retained[slot] == null || r.retainedGenerations[slot] != generation) {
+			Logger.logError("Tried to release a retained element that isn't retained (handle " + handle + ")");
+			return;
+		}
+		r.retained[slot] = null;
+		// bump the generation so this handle can't release whatever gets the slot next
+		r.retainedGenerations[slot] = (generation + 1) & (-1 >>> HANDLE_SLOT_BITS);
+		r.freeSlots.push(slot);
+	}
+
+	/**
+	 * Queue every retained element for this frame, updating the
+	 * transforms of any that have changed.
+	 */
+	private void submitRetained() {
+		for (int i = 0; i < retainedSlots; ++i) {
+			RenderElement element = retained[i];
+			if (element == null) continue;
+			element.transform();
+			if (element instanceof TextureElement textureElement) addTextureElement(textureElement);
+			else if (element instanceof RectElementLight rectLightElement) addRectLightElement(rectLightElement);
+			else if (element instanceof CircleElement circleElement) addCircleElement(circleElement);
+			else if (element instanceof GeometryElement geometryElement) addGeometryElement(geometryElement, RenderQueue.SHADER_RECT);
+		}
 	}
 
 	// *** RENDERING ***
 	public static void prepare() {
+		GLStateManager.endFrame();
+		ViewCuller.endFrame();
+		RenderStats.endFrame();
+		StreamingBuffer.endFrame();
+		RenderTargetPool.endFrame();
+		DynamicResolution.beginFrame();
+		instance.resizeSceneBuffer();
+		SceneData.update();
+		if (!Config.DEFERRED_LIGHTING) LightGrid.update();
 		if (GameLoader.LOAD_COMPLETE) instance.sceneBuffer.bindFrameBuffer();
-		glDepthMask(true);
+		GLStateManager.depthMask(true);
 		glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);
 		if (GameLoader.LOAD_COMPLETE) instance.sceneBuffer.unbindFrameBuffer();
 	}
 
+	/**
+	 * Match the scene buffer (and the light buffer with it) to the current dynamic resolution scale.
+	 */
+	private void resizeSceneBuffer() {
+		int width = DynamicResolution.getSceneWidth();
+		int height = DynamicResolution.getSceneHeight();
+		if (lightRenderer != null) lightRenderer.resize(width, height);
+		if (sceneBuffer.getWidth() == width && sceneBuffer.getHeight() == height) return;
+		sceneBuffer.cleanUp();
+		sceneBuffer = new FrameBuffer(width, height, FrameBuffer.DEPTH_RENDER_BUFFER);
+	}
+
 	public static void render() {
 
-		// clear element counts
-		GeometryRenderer.ELEMENT_COUNT = 0;
-		TextureRenderer.ELEMENT_COUNT = 0;
-		FontRenderer.ELEMENT_COUNT = 0;
+		AllocationCounter.beginFrame();
+
+		// draw every light into the light buffer, for lit elements to read from
+		if (instance.lightRenderer != null) {
+			FrameProfiler.begin(FrameProfiler.LIGHTS);
+			RenderStats.setSource(RenderStats.LIGHTS, RenderStats.NO_LAYER);
+			instance.lightRenderer.render();
+			RenderStats.setSource(RenderStats.OTHER, RenderStats.NO_LAYER);
+			FrameProfiler.end(FrameProfiler.LIGHTS);
+		}
 
 		// render to scene buffer
 		if (GameLoader.LOAD_COMPLETE) instance.sceneBuffer.bindFrameBuffer();
 
-		// prepare
-		instance.prepareLayers();
+		// record this frame's draws, on the recording thread if there is one,
+		// and draw them as they're recorded
+		instance.submitRetained();
+		if (instance.recorder != null) instance.recorder.execute(instance.recordTask);
+		else instance.recordFrame();
+		instance.overlayPending = GameLoader.LOAD_COMPLETE && DynamicResolution.isEnabled() && Config.NATIVE_RESOLUTION_OVERLAY;
+		instance.executeFrame(instance.overlayPending ? DepthBuckets.quantize(Config.OVERLAY_DEPTH) : Integer.MAX_VALUE);
+
+		// clear, unless the overlay still needs this frame's draws
+		if (!instance.overlayPending) instance.clearBatches();
 
-		// RENDERING
-		// render all opaque layers first, front to back
-		for (int i = NUM_LAYERS - 1; i >= 0; --i) {
-			instance.renderLayerOpaque(instance.layers[i]);
+		// unbind scene buffer
+		if (GameLoader.LOAD_COMPLETE) instance.sceneBuffer.unbindFrameBuffer();
+
+		AllocationCounter.endFrame();
+
+	}
+
+	/**
+	 * Sort the queue and record the draws for every run in it, publishing each
+	 * run as soon as it's recorded. Nothing here touches OpenGL, so this can
+	 * run on the recording thread.
+	 */
+	private void recordFrame() {
+		try {
+			queue.sort();
+			int size = queue.size();
+			int i = 0;
+			while (i < size) {
+				int end = queue.runEnd(i);
+				// opaque runs write to the depth buffer, transparent ones are drawn at their depth
+				boolean transparent = queue.isTransparent(i);
+				int depth = transparent ? queue.getDepth(i) : -1;
+				switch (queue.getShader(i)) {
+					case RenderQueue.SHADER_TEXTURE -> textureRenderer.record(queue, i, end, depth, !transparent, commands);
+					case RenderQueue.SHADER_RECT -> geometryRenderer.recordRectShapes(queue, i, end, depth, !transparent, commands);
+					case RenderQueue.SHADER_CIRCLE -> geometryRenderer.recordCircles(queue, i, end, depth, !transparent, commands);
+					case RenderQueue.SHADER_RECT_LIGHT -> geometryRenderer.recordLightRectangles(i, end, depth, commands);
+				}
+				commands.publish();
+				i = end;
+			}
+			commands.finish();
+		} catch (Throwable e) {
+			commands.fail(e);
 		}
-		// render transparent layers, back to front
-		for (int i = 0; i < NUM_LAYERS; ++i) {
-			instance.renderLayerTransparent(instance.layers[i]);
-			ParticleMaster.renderParticles(i);
-			TextMaster.render(i);
+	}
+
+	/**
+	 * Draw every recorded command, waiting for each one to be recorded if need be:
+	 * all opaque commands first, then transparent commands, particles and text
+	 * together, back to front, up to the given depth.
+	 * @param depthLimit The depth step the transparent pass stops at.
+	 */
+	private void executeFrame(int depthLimit) {
+
+		int c = 0;
+
+		// render all opaque elements first
+		FrameProfiler.begin(FrameProfiler.OPAQUE);
+		while (commands.waitFor(c) && !commands.isTransparent(c)) {
+			execute(c++);
 		}
+		renderTileMaps();
+		FrameProfiler.end(FrameProfiler.OPAQUE);
 
-		// clear
-		instance.clearBatches();
+		FrameProfiler.begin(FrameProfiler.TRANSPARENT);
+		TextMaster.updateTexts();
+		nextCommand = c;
+		nextParticleBucket = nextTextBucket = 0;
+		executeTransparent(depthLimit);
+		FrameProfiler.end(FrameProfiler.TRANSPARENT);
 
-		// unbind scene buffer
-		if (GameLoader.LOAD_COMPLETE) instance.sceneBuffer.unbindFrameBuffer();
+	}
 
+	/**
+	 * Draw every tile map submitted this frame, after the rest of the opaque pass.
+	 */
+	private void renderTileMaps() {
+		if (tileMaps.isEmpty()) return;
+		RenderStats.setSource(RenderStats.TILES, RenderStats.OPAQUE);
+		for (int i = 0; i < tileMaps.size(); ++i) {
+			tileRenderer.render(tileMaps.get(i));
+		}
+		RenderStats.setSource(RenderStats.OTHER, RenderStats.NO_LAYER);
 	}
 
-	private void renderLayerOpaque(RenderLayer layer) {
-		layer.renderOpaque();
+	/**
+	 * Render transparent elements, particles and text together, back to front, from
+	 * wherever the last call stopped; where they share a depth, elements go first,
+	 * then particles, then text.
+	 * @param depthLimit The depth step to stop at; nothing at or past it is drawn.
+	 */
+	private void executeTransparent(int depthLimit) {
+		int c = nextCommand;
+		int particleBucket = nextParticleBucket, particleBuckets = ParticleMaster.getBucketCount();
+		int textBucket = nextTextBucket, textBuckets = TextMaster.getBucketCount();
+		while (true) {
+			boolean hasCommand = commands.waitFor(c);
+			int elementDepth = hasCommand ? commands.getDepth(c) : Integer.MAX_VALUE;
+			int particleDepth = particleBucket < particleBuckets ? ParticleMaster.getBucketDepth(particleBucket) : Integer.MAX_VALUE;
+			int textDepth = textBucket < textBuckets ? TextMaster.getBucketDepth(textBucket) : Integer.MAX_VALUE;
+			int depth = Math.min(elementDepth, Math.min(particleDepth, textDepth));
+			if (depth == Integer.MAX_VALUE || depth >= depthLimit) break;
+			if (elementDepth == depth)
+				execute(c++);
+			else if (particleDepth == depth) {
+				FrameProfiler.begin(FrameProfiler.PARTICLES);
+				RenderStats.setSourceByDepth(RenderStats.PARTICLES, depth);
+				ParticleMaster.renderBucket(particleBucket++);
+				FrameProfiler.end(FrameProfiler.PARTICLES);
+			}
+			else {
+				FrameProfiler.begin(FrameProfiler.TEXT);
+				RenderStats.setSourceByDepth(RenderStats.TEXT, depth);
+				TextMaster.renderBucket(textBucket++);
+				FrameProfiler.end(FrameProfiler.TEXT);
+			}
+		}
+		nextCommand = c;
+		nextParticleBucket = particleBucket;
+		nextTextBucket = textBucket;
+		RenderStats.setSource(RenderStats.OTHER, RenderStats.NO_LAYER);
 	}
 
-	private void renderLayerTransparent(RenderLayer layer) {
-		layer.renderTransparent();
+	/**
+	 * Draw the overlay held back from the scene, straight to whatever is bound
+	 * (post-processing leaves the screen bound), and finish the frame.
+	 * Does nothing if the frame has no overlay.
+	 */
+	public static void renderOverlay() {
+		if (!instance.overlayPending) return;
+		FrameProfiler.begin(FrameProfiler.OVERLAY);
+		GLStateManager.depthMask(true);
+		glClear(GL_DEPTH_BUFFER_BIT);
+		// the overlay is drawn at full size, so gl_FragCoord isn't scaled down like it is in the scene buffer
+		SceneData.update(1);
+		instance.executeTransparent(Integer.MAX_VALUE);
+		SceneData.update();
+		FrameProfiler.end(FrameProfiler.OVERLAY);
+		instance.clearBatches();
+		instance.overlayPending = false;
 	}
 
-	private void prepareLayers() {
-		for (int i = 0; i < NUM_LAYERS; ++i) {
-			RenderLayer layer = layers[i];
-			layer.addOpaqueBatch(opaqueTextureBatches.get((i)));
-			layer.addOpaqueBatch(opaqueRectBatches.get((i)));
-			layer.addOpaqueBatch(opaqueCircleBatches.get((i)));
-			layer.addOpaqueBatch(opaqueLineBatches.get((i)));
-			layer.addOpaqueBatch(opaqueOutlineBatches.get((i)));
-			layer.addTransparentBatch(transparentTextureBatches.get(i));
-			layer.addTransparentBatch(transparentRectBatches.get(i));
-			layer.addTransparentBatch(transparentCircleBatches.get(i));
-			layer.addTransparentBatch(transparentLineBatches.get(i));
-			layer.addTransparentBatch(transparentOutlineBatches.get(i));
-			layer.addTransparentBatch(rectLightBatches.get(i));
+	/**
+	 * Draw a recorded command with the renderer it belongs to.
+	 */
+	private void execute(int command) {
+		switch (commands.getType(command)) {
+			case RenderCommandBuffer.DRAW_TEXTURES, RenderCommandBuffer.DRAW_TEXTURE -> {
+				RenderStats.setSourceByDepth(RenderStats.TEXTURES, commands.getDepth(command));
+				textureRenderer.execute(commands, command, queue);
+			}
+			default -> {
+				RenderStats.setSourceByDepth(RenderStats.GEOMETRY, commands.getDepth(command));
+				geometryRenderer.execute(commands, command, queue);
+			}
 		}
 	}
 
 	private void clearBatches() {
-		for (int i = 0; i < NUM_LAYERS; ++i) {
-			opaqueTextureBatches.get(i).clear();
-			transparentTextureBatches.get(i).clear();
-			opaqueRectBatches.get(i).clear();
-			transparentRectBatches.get(i).clear();
-			opaqueCircleBatches.get(i).clear();
-			transparentCircleBatches.get(i).clear();
-			opaqueLineBatches.get(i).clear();
-			transparentLineBatches.get(i).clear();
-			opaqueOutlineBatches.get(i).clear();
-			transparentOutlineBatches.get(i).clear();
-			rectLightBatches.get(i).clear();
-		}
+		queue.clear();
+		commands.clear();
+		tileMaps.clear();
+		ElementPools.reset();
 	}
 
 	public static void cleanUp() {
+		if (instance.recorder != null) instance.recorder.shutdownNow();
 		instance.sceneBuffer.cleanUp();
+		DynamicResolution.cleanUp();
 		instance.textureRenderer.cleanUp();
 		instance.geometryRenderer.cleanUp();
+		instance.tileRenderer.cleanUp();
+		if (instance.lightRenderer != null) instance.lightRenderer.cleanUp();
+		else LightGrid.cleanUp();
+		SceneData.cleanUp();
+		StreamingBuffer.cleanUpShared();
 	}
 
 }
\ No newline at end of file
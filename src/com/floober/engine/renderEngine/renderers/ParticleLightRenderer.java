@@ -1,21 +1,20 @@
 package com.floober.engine.renderEngine.renderers;
 
+import com.floober.engine.renderEngine.GLStateManager;
+import com.floober.engine.renderEngine.RenderStats;
+import com.floober.engine.renderEngine.ViewCuller;
+import com.floober.engine.renderEngine.models.InstanceLayout;
 import com.floober.engine.renderEngine.models.ModelLoader;
+import com.floober.engine.renderEngine.models.ParallelFill;
 import com.floober.engine.renderEngine.models.QuadModel;
 import com.floober.engine.renderEngine.particles.types.LightParticle;
 import com.floober.engine.renderEngine.shaders.particles.ParticleLightShader;
-import com.floober.engine.util.math.MathUtil;
 import com.floober.engine.util.math.MatrixUtils;
-import org.joml.Matrix4f;
-import org.lwjgl.BufferUtils;
 
-import java.nio.FloatBuffer;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.lwjgl.opengl.GL11.*;
-import static org.lwjgl.opengl.GL20.glDisableVertexAttribArray;
-import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
-import static org.lwjgl.opengl.GL30.glBindVertexArray;
 import static org.lwjgl.opengl.GL31.glDrawArraysInstanced;
 
 public class ParticleLightRenderer {
@@ -24,27 +23,28 @@ public class ParticleLightRenderer {
 	public static final int MAX_INSTANCES = 25000;
 	private static final int INSTANCE_DATA_LENGTH = 27; // TRANSFORM (16), COLOR (4), INNER RAD (1), OUTER RAD(1), LIGHT MODE (1), LIGHT COLOR (3), LIGHT INTENSITY (1)
 
-	private static final FloatBuffer buffer = BufferUtils.createFloatBuffer(INSTANCE_DATA_LENGTH * MAX_INSTANCES);
-
 	private final QuadModel quad;
 	private final ParticleLightShader shader;
-	private final int vbo;
-	private int pointer = 0;
+	private final InstanceLayout instanceLayout;
+
+	// the visible particles being drawn, and the writer that fills in their data
+	private final List<LightParticle> visible = new ArrayList<>();
+	private final ParallelFill.InstanceWriter writer = (i, data, pointer) -> storeParticleData(visible.get(i), data, pointer);
 
 	public ParticleLightRenderer() {
-		this.vbo = ModelLoader.createEmptyVBO(INSTANCE_DATA_LENGTH * MAX_INSTANCES);
 		quad = ModelLoader.loadToVAO(VERTICES);
 		int vaoID = quad.vaoID();
-		ModelLoader.addInstancedAttribute(vaoID, vbo, 1, 4, INSTANCE_DATA_LENGTH, 0);  // Transformation col 1
-		ModelLoader.addInstancedAttribute(vaoID, vbo, 2, 4, INSTANCE_DATA_LENGTH, 4);  // Transformation col 2
-		ModelLoader.addInstancedAttribute(vaoID, vbo, 3, 4, INSTANCE_DATA_LENGTH, 8);  // Transformation col 3
-		ModelLoader.addInstancedAttribute(vaoID, vbo, 4, 4, INSTANCE_DATA_LENGTH, 12); // Transformation col 4
-		ModelLoader.addInstancedAttribute(vaoID, vbo, 5, 4, INSTANCE_DATA_LENGTH, 16); // Color
-		ModelLoader.addInstancedAttribute(vaoID, vbo, 6, 1, INSTANCE_DATA_LENGTH, 20); // Inner radius
-		ModelLoader.addInstancedAttribute(vaoID, vbo, 7, 1, INSTANCE_DATA_LENGTH, 21); // Outer radius
-		ModelLoader.addInstancedAttribute(vaoID, vbo, 8, 1, INSTANCE_DATA_LENGTH, 22); // Light mode
-		ModelLoader.addInstancedAttribute(vaoID, vbo, 9, 3, INSTANCE_DATA_LENGTH, 23); // Light color
-		ModelLoader.addInstancedAttribute(vaoID, vbo, 10, 1, INSTANCE_DATA_LENGTH, 26); // Light intensity
+		instanceLayout = new InstanceLayout(vaoID, INSTANCE_DATA_LENGTH);
+		instanceLayout.add(1, 4, 0);  // Transformation col 1
+		instanceLayout.add(2, 4, 4);  // Transformation col 2
+		instanceLayout.add(3, 4, 8);  // Transformation col 3
+		instanceLayout.add(4, 4, 12); // Transformation col 4
+		instanceLayout.add(5, 4, 16); // Color
+		instanceLayout.add(6, 1, 20); // Inner radius
+		instanceLayout.add(7, 1, 21); // Outer radius
+		instanceLayout.add(8, 1, 22); // Light mode
+		instanceLayout.add(9, 3, 23); // Light color
+		instanceLayout.add(10, 1, 26); // Light intensity
 		shader = new ParticleLightShader();
 	}
 
@@ -57,16 +57,20 @@ public class ParticleLightRenderer {
 		// prepare for rendering
 		prepare();
 
-		// update all particle VBO data
-		float[] vboData = new float[particles.size() * INSTANCE_DATA_LENGTH];
-		pointer = 0;
-
+		// find the visible particles
 		for (LightParticle particle : particles) {
-			updateParticleData(particle, vboData);
+			if (ViewCuller.isVisible(particle)) visible.add(particle);
 		}
+		int count = visible.size();
+		if (count == 0) return;
+
+		// update all particle VBO data
+		float[] vboData = instanceLayout.scratch(count);
+		ParallelFill.fill(count, INSTANCE_DATA_LENGTH, vboData, 0, writer);
+		visible.clear();
 
 		// send all the vbo data to the GPU
-		ModelLoader.updateVBO(vbo, vboData, buffer);
+		instanceLayout.stream(vboData, count);
 
 //		// print out one particle's worth of data to check it
 //		if (vboData.length >= INSTANCE_DATA_LENGTH) {
@@ -77,16 +81,15 @@ public class ParticleLightRenderer {
 //		}
 
 		// render all particles in this batch in one go!
-		glDrawArraysInstanced(GL_TRIANGLE_STRIP, 0, quad.vertexCount(), particles.size());
+		glDrawArraysInstanced(GL_TRIANGLE_STRIP, 0, quad.vertexCount(), count);
+		RenderStats.countDraw(GL_TRIANGLE_STRIP, quad.vertexCount(), count);
 
-		// finish this render call
-		finishRendering();
 
 	}
 
-	private void updateParticleData(LightParticle particle, float[] vboData) {
-		Matrix4f matrix = MathUtil.createTransformationMatrix(particle.getScreenPosition(), particle.getScaleVec(), particle.getRotation());
-		pointer = MatrixUtils.storeMatrixData(matrix, vboData, pointer);
+	// called from the fill threads, so this mustn't touch anything shared
+	private static int storeParticleData(LightParticle particle, float[] vboData, int pointer) {
+		pointer = MatrixUtils.storeTransformation(particle.getScreenPosition(), particle.getScaleVec(), 1, particle.getRotation(), vboData, pointer);
 		vboData[pointer++] = particle.getColor().x();		// Color R
 		vboData[pointer++] = particle.getColor().y();		// Color G
 		vboData[pointer++] = particle.getColor().z();		// Color B
@@ -98,27 +101,16 @@ public class ParticleLightRenderer {
 		vboData[pointer++] = particle.getLightColor().y();	// Light color G
 		vboData[pointer++] = particle.getLightColor().z();	// Light color B
 		vboData[pointer++] = particle.getLightIntensity();	// Light intensity
+		return pointer;
 	}
 
 	private void prepare() {
 		shader.start();
-		glBindVertexArray(quad.vaoID());
-		for (int i = 0; i <= 10; ++i) {
-			glEnableVertexAttribArray(i);
-		}
-		glEnable(GL_BLEND);
-		glBlendFunc(GL_SRC_ALPHA, GL_ONE);
-		glDepthMask(false);
-	}
-
-	private void finishRendering() {
-		glDepthMask(true);
-		glDisable(GL_BLEND);
-		for (int i = 0; i <= 10; ++i) {
-			glDisableVertexAttribArray(i);
-		}
-		glBindVertexArray(0);
-		shader.stop();
+		GLStateManager.bindVertexArray(quad.vaoID());
+		GLStateManager.enable(GL_BLEND);
+		GLStateManager.blendFunc(GL_SRC_ALPHA, GL_ONE);
+		GLStateManager.enable(GL_DEPTH_TEST);
+		GLStateManager.depthMask(false);
 	}
 
 	public void cleanUp() {
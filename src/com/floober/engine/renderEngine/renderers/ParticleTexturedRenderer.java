@@ -1,27 +1,22 @@
 package com.floober.engine.renderEngine.renderers;
 
+import com.floober.engine.renderEngine.GLStateManager;
+import com.floober.engine.renderEngine.RenderStats;
+import com.floober.engine.renderEngine.ViewCuller;
+import com.floober.engine.renderEngine.models.InstanceLayout;
 import com.floober.engine.renderEngine.models.ModelLoader;
+import com.floober.engine.renderEngine.models.ParallelFill;
 import com.floober.engine.renderEngine.models.QuadModel;
 import com.floober.engine.renderEngine.particles.ParticleTexture;
 import com.floober.engine.renderEngine.particles.types.TexturedParticle;
 import com.floober.engine.renderEngine.shaders.particles.ParticleTexturedShader;
-import com.floober.engine.util.math.MathUtil;
 import com.floober.engine.util.math.MatrixUtils;
-import org.joml.Matrix4f;
-import org.joml.Vector2f;
-import org.joml.Vector3f;
-import org.lwjgl.BufferUtils;
 
-import java.nio.FloatBuffer;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 import static org.lwjgl.opengl.GL11.*;
-import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
-import static org.lwjgl.opengl.GL13.glActiveTexture;
-import static org.lwjgl.opengl.GL20.glDisableVertexAttribArray;
-import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
-import static org.lwjgl.opengl.GL30.glBindVertexArray;
 import static org.lwjgl.opengl.GL31.glDrawArraysInstanced;
 
 public class ParticleTexturedRenderer {
@@ -30,23 +25,24 @@ public class ParticleTexturedRenderer {
 	public static final int MAX_INSTANCES = 25000;
 	private static final int INSTANCE_DATA_LENGTH = 21; // TRNSFM_MTRX (16), TEX_OFF (4), ALPHA (1)
 
-	private static final FloatBuffer buffer = BufferUtils.createFloatBuffer(INSTANCE_DATA_LENGTH * MAX_INSTANCES);
-
 	private final QuadModel quad;
 	private final ParticleTexturedShader shader;
-	private final int vbo;
-	private int pointer = 0;
+	private final InstanceLayout instanceLayout;
+
+	// the visible particles of the batch being drawn, and the writer that fills in their data
+	private final List<TexturedParticle> visible = new ArrayList<>();
+	private final ParallelFill.InstanceWriter writer = (i, data, pointer) -> storeParticleData(visible.get(i), data, pointer);
 
 	public ParticleTexturedRenderer() {
-		this.vbo = ModelLoader.createEmptyVBO(INSTANCE_DATA_LENGTH * MAX_INSTANCES);
 		quad = ModelLoader.loadToVAO(VERTICES);
 		int vaoID = quad.vaoID();
-		ModelLoader.addInstancedAttribute(vaoID, vbo, 1, 4, INSTANCE_DATA_LENGTH, 0);  // Transformation col 1
-		ModelLoader.addInstancedAttribute(vaoID, vbo, 2, 4, INSTANCE_DATA_LENGTH, 4);  // Transformation col 2
-		ModelLoader.addInstancedAttribute(vaoID, vbo, 3, 4, INSTANCE_DATA_LENGTH, 8);  // Transformation col 3
-		ModelLoader.addInstancedAttribute(vaoID, vbo, 4, 4, INSTANCE_DATA_LENGTH, 12); // Transformation col 4
-		ModelLoader.addInstancedAttribute(vaoID, vbo, 5, 4, INSTANCE_DATA_LENGTH, 16); // Texture offsets
-		ModelLoader.addInstancedAttribute(vaoID, vbo, 6, 1, INSTANCE_DATA_LENGTH, 20); // Alpha
+		instanceLayout = new InstanceLayout(vaoID, INSTANCE_DATA_LENGTH);
+		instanceLayout.add(1, 4, 0);  // Transformation col 1
+		instanceLayout.add(2, 4, 4);  // Transformation col 2
+		instanceLayout.add(3, 4, 8);  // Transformation col 3
+		instanceLayout.add(4, 4, 12); // Transformation col 4
+		instanceLayout.add(5, 4, 16); // Texture offsets
+		instanceLayout.add(6, 1, 20); // Alpha
 		shader = new ParticleTexturedShader();
 	}
 
@@ -69,68 +65,55 @@ public class ParticleTexturedRenderer {
 
 			// sort these particles
 
-			// allocate a float array to store the vbo data, and an index pointer to use when inserting it
-			float[] vboData = new float[particleList.size() * INSTANCE_DATA_LENGTH];
-			pointer = 0;
-
-			// for each particle in this batch, add its data to the vbo array
+			// find the visible particles in this batch
 			for (TexturedParticle particle : particleList) {
-				updateParticleData(particle.getPosition(), particle.getScaleVec(), particle.getRotation(), vboData);
-				updateTexCoordInfo(particle, vboData);
+				if (ViewCuller.isVisible(particle)) visible.add(particle);
 			}
+			int count = visible.size();
+			if (count == 0) continue;
+
+			// add each one's data to the vbo array
+			float[] vboData = instanceLayout.scratch(count);
+			ParallelFill.fill(count, INSTANCE_DATA_LENGTH, vboData, 0, writer);
+			visible.clear();
 
 			// send all the vbo data to the GPU
-			ModelLoader.updateVBO(vbo, vboData, buffer);
+			instanceLayout.stream(vboData, count);
 
 			// render all particles in this batch in one go!
-			glDrawArraysInstanced(GL_TRIANGLE_STRIP, 0, quad.vertexCount(), particleList.size());
+			glDrawArraysInstanced(GL_TRIANGLE_STRIP, 0, quad.vertexCount(), count);
+			RenderStats.countDraw(GL_TRIANGLE_STRIP, quad.vertexCount(), count);
 
 		}
 
-		finishRendering();
 	}
 
 	private void bindTexture(ParticleTexture particleTexture) {
 		if (particleTexture.useAdditiveBlend())
-			glBlendFunc(GL_SRC_ALPHA, GL_ONE);
+			GLStateManager.blendFunc(GL_SRC_ALPHA, GL_ONE);
 		else
-			glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
-		glActiveTexture(GL_TEXTURE0);
-		glBindTexture(GL_TEXTURE_2D, particleTexture.id());
-	}
-
-	private void updateParticleData(Vector3f particlePosition, Vector2f particleScale, float particleRotation, float[] vboData) {
-		Matrix4f matrix = MathUtil.createTransformationMatrix(particlePosition, particleScale, particleRotation);
-		pointer = MatrixUtils.storeMatrixData(matrix, vboData, pointer);
+			GLStateManager.blendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+		GLStateManager.bindTexture(0, particleTexture.id());
 	}
 
-	private void updateTexCoordInfo(TexturedParticle particle, float[] vboData) {
+	// called from the fill threads, so this mustn't touch anything shared
+	private static int storeParticleData(TexturedParticle particle, float[] vboData, int pointer) {
+		pointer = MatrixUtils.storeTransformation(particle.getPosition(), particle.getScaleVec(), 1, particle.getRotation(), vboData, pointer);
 		vboData[pointer++] = particle.getTextureCoords().x();	// Tex offset 1 x
 		vboData[pointer++] = particle.getTextureCoords().y();	// Tex offset 1 y
 		vboData[pointer++] = particle.getTextureCoords().z();	// Tex offset 2 x
 		vboData[pointer++] = particle.getTextureCoords().w();	// Tex offset 2 y
 		vboData[pointer++] = particle.getColor().w();		// Alpha
+		return pointer;
 	}
 
 	private void prepare() {
 		shader.start();
-		glBindVertexArray(quad.vaoID());
-		for (int i = 0; i <= 6; ++i) {
-			glEnableVertexAttribArray(i);
-		}
-		glEnable(GL_BLEND);
-		glBlendFunc(GL_SRC_ALPHA, GL_ONE);
-		glDepthMask(false);
-	}
-
-	private void finishRendering() {
-		glDepthMask(true);
-		glDisable(GL_BLEND);
-		for (int i = 0; i <= 6; ++i) {
-			glDisableVertexAttribArray(i);
-		}
-		glBindVertexArray(0);
-		shader.stop();
+		GLStateManager.bindVertexArray(quad.vaoID());
+		GLStateManager.enable(GL_BLEND);
+		GLStateManager.blendFunc(GL_SRC_ALPHA, GL_ONE);
+		GLStateManager.enable(GL_DEPTH_TEST);
+		GLStateManager.depthMask(false);
 	}
 
 	public void cleanUp() {
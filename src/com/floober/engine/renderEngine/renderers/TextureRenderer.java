@@ -1,52 +1,93 @@
 package com.floober.engine.renderEngine.renderers;
 
 import com.floober.engine.display.Display;
-import com.floober.engine.display.DisplayManager;
 import com.floober.engine.loaders.ImageLoader;
+import com.floober.engine.renderEngine.GLStateManager;
+import com.floober.engine.renderEngine.RenderCommandBuffer;
+import com.floober.engine.renderEngine.RenderQueue;
+import com.floober.engine.renderEngine.RenderStats;
 import com.floober.engine.renderEngine.elements.TextureElement;
 import com.floober.engine.renderEngine.framebuffers.FrameBuffer;
-import com.floober.engine.renderEngine.lights.LightMaster;
+import com.floober.engine.renderEngine.models.InstanceLayout;
 import com.floober.engine.renderEngine.models.ModelLoader;
+import com.floober.engine.renderEngine.models.ParallelFill;
 import com.floober.engine.renderEngine.models.QuadModel;
 import com.floober.engine.renderEngine.shaders.ShaderProgram;
 import com.floober.engine.renderEngine.shaders.blur.HorizontalBlurShader;
 import com.floober.engine.renderEngine.shaders.blur.VerticalBlurShader;
+import com.floober.engine.renderEngine.shaders.textures.TextureInstancedShader;
 import com.floober.engine.renderEngine.shaders.textures.TextureOutlineGrowShader;
 import com.floober.engine.renderEngine.shaders.textures.TextureOutlineShader;
 import com.floober.engine.renderEngine.shaders.textures.TextureShader;
+import com.floober.engine.renderEngine.textures.AtlasRegion;
 import com.floober.engine.renderEngine.textures.Texture;
 import com.floober.engine.util.math.MathUtil;
+import com.floober.engine.util.math.MatrixUtils;
 import org.joml.Matrix4f;
 import org.joml.Vector2f;
 import org.joml.Vector3f;
-
-import java.util.List;
+import org.joml.Vector4f;
 
 import static org.lwjgl.opengl.GL11.*;
-import static org.lwjgl.opengl.GL13.*;
-import static org.lwjgl.opengl.GL20.glDisableVertexAttribArray;
-import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
-import static org.lwjgl.opengl.GL30.glBindVertexArray;
+import static org.lwjgl.opengl.GL31.glDrawArraysInstanced;
 
 public class TextureRenderer {
 
 	private static final float[] positions = {-1, 1, -1, -1, 1, 1, 1, -1};
 
+	// instanced rendering
+	public static final int MAX_INSTANCES = 10000;
+	public static final int INSTANCE_DATA_LENGTH = 50; // TRNSFM_MTRX (16), TEX_OFF (4), CHANNELS (16), COLOR (4), PARAMS (4), GLITCH (2), FADE (4)
+
+	// effect flags packed into each instance; must match textureInstancedFragment.glsl
+	private static final int FLAG_COLOR_SWAP = 1;
+	private static final int FLAG_COLOR = 2;
+	private static final int FLAG_LIGHTING = 4;
+	private static final int FLAG_GLITCH = 8;
+	private static final int FLAG_FADE = 16;
+
 	// shaders
 	private final TextureShader shader;
+	private final TextureInstancedShader instancedShader;
 	private final TextureOutlineShader outlineShader;
 	private final TextureOutlineGrowShader outlineGrowShader;
 
 	// assets to provide to shaders
 	private final QuadModel quad;
+	private final QuadModel instancedQuad;
+	private final InstanceLayout instanceLayout;
 	private final Texture glitchNoise;
 
-	// debug
-	public static int ELEMENT_COUNT = 0;
+	// scratch
+	private final Matrix4f matrix = new Matrix4f();
+	private final Vector4f textureBounds = new Vector4f();
+	private final Vector2f vector = new Vector2f();
+
+	// the run being recorded, and the writer that fills in its instance data
+	private RenderQueue fillQueue;
+	private int fillStart;
+	private final ParallelFill.InstanceWriter writer = (i, data, pointer) -> storeInstanceData((TextureElement) fillQueue.get(fillStart + i), data, pointer);
 
 	public TextureRenderer() {
 		quad = ModelLoader.loadToVAO(positions);
+		instancedQuad = ModelLoader.loadToVAO(positions);
+		int vaoID = instancedQuad.vaoID();
+		instanceLayout = new InstanceLayout(vaoID, INSTANCE_DATA_LENGTH);
+		instanceLayout.add(1, 4, 0);   // Transformation col 1
+		instanceLayout.add(2, 4, 4);   // Transformation col 2
+		instanceLayout.add(3, 4, 8);   // Transformation col 3
+		instanceLayout.add(4, 4, 12);  // Transformation col 4
+		instanceLayout.add(5, 4, 16);  // Texture offset
+		instanceLayout.add(6, 4, 20);  // Red channel color
+		instanceLayout.add(7, 4, 24);  // Green channel color
+		instanceLayout.add(8, 4, 28);  // Blue channel color
+		instanceLayout.add(9, 4, 32);  // Alpha channel color
+		instanceLayout.add(10, 4, 36); // Color
+		instanceLayout.add(11, 4, 40); // Alpha, mix, flags, fade direction
+		instanceLayout.add(12, 2, 44); // Glitch amplitude, speed
+		instanceLayout.add(13, 4, 46); // Fade min, max, start, end
 		shader = new TextureShader();
+		instancedShader = new TextureInstancedShader();
 		outlineShader = new TextureOutlineShader();
 		outlineGrowShader = new TextureOutlineGrowShader();
 		initShader();
@@ -57,52 +98,157 @@ public class TextureRenderer {
 		shader.start();
 		shader.connectTextureUnits();
 		shader.stop();
+		instancedShader.start();
+		instancedShader.connectTextureUnits();
+		instancedShader.stop();
 	}
 
 	/**
-	 * Render all TextureElements to the scene.
-	 * @param textureElements A list containing lists of texture elements that all use one texture per list.
+	 * Record the draws for the texture elements in {@code [start, end)} of the queue.
+	 * Consecutive elements that share a texture become one instanced draw; elements
+	 * with an outline become a draw of their own, since their outline texture has to
+	 * be drawn beneath them. Submission order is preserved, so batching the queue by
+	 * texture beforehand (or packing its textures into one atlas page) is what keeps
+	 * the number of draw calls down.
+	 * <br><br>
+	 * Nothing here touches OpenGL, so it can run on a recording thread.
+	 * @param queue The sorted render queue.
+	 * @param start The first element to record.
+	 * @param end The position just past the last element to record.
+	 * @param depth The depth step of the elements, or -1 if they're opaque.
+	 * @param depthWritingEnabled Whether these elements should write to the depth buffer.
+	 * @param commands The buffer to record into.
 	 */
-	public void render(List<TextureElement> textureElements, boolean depthWritingEnabled) {
-
-		ELEMENT_COUNT += textureElements.size();
+	public void record(RenderQueue queue, int start, int end, int depth, boolean depthWritingEnabled, RenderCommandBuffer commands) {
 
-		prepare(depthWritingEnabled);
+		int i = start;
 
-		for (TextureElement element : textureElements) {
+		while (i < end) {
 
-			// bind this element's data
-			loadTextureUniforms(element);
+			TextureElement first = (TextureElement) queue.get(i);
 
-			Matrix4f mat = MathUtil.createTransformationMatrix(element.getPosition(), element.getScale(), element.getRotation());
+			// outlined elements use the old one-at-a-time path
+			if (first.doOutline()) {
+				commands.add(RenderCommandBuffer.DRAW_TEXTURE, depth, depthWritingEnabled, i, 0, 1);
+				i++;
+				continue;
+			}
 
-			// if outline is on, render it under the element
-			if (element.doOutline()) {
-				bindTexture(element.getOutlineTexture());
-				Matrix4f matrix = MathUtil.createTransformationMatrix(element.getPosition(), element.getOutlineScale(), element.getRotation());
-				shader.loadTransformationMatrix(matrix);
-				glDrawArrays(GL_TRIANGLE_STRIP, 0, quad.vertexCount());
+			// find the end of this run of elements sharing a texture
+			int textureID = first.getRawTexture().id();
+			int runEnd = i + 1;
+			while (runEnd < end && runEnd - i < MAX_INSTANCES) {
+				TextureElement next = (TextureElement) queue.get(runEnd);
+				if (next.doOutline() || next.getRawTexture().id() != textureID) break;
+				runEnd++;
 			}
 
-			shader.loadTransformationMatrix(mat);
+			// write the whole run's instance data into the command buffer
+			int count = runEnd - i;
+			int offset = commands.reserve(count * INSTANCE_DATA_LENGTH);
+			fillQueue = queue;
+			fillStart = i;
+			ParallelFill.fill(count, INSTANCE_DATA_LENGTH, commands.getRecordingData(), offset, writer);
+			fillQueue = null;
+			commands.add(RenderCommandBuffer.DRAW_TEXTURES, depth, depthWritingEnabled, textureID, offset, count);
+			i = runEnd;
 
-			// bind the current texture
-			bindTexture(element.getRawTexture());
+		}
 
-			// draw the element
-			glDrawArrays(GL_TRIANGLE_STRIP, 0, quad.vertexCount());
+	}
+
+	/**
+	 * Issue a recorded texture command.
+	 * @param commands The buffer holding the command.
+	 * @param command The command's index.
+	 * @param queue The render queue it was recorded from.
+	 */
+	public void execute(RenderCommandBuffer commands, int command, RenderQueue queue) {
 
-			// if outline is on, do another call
-//			if (element.doOutline()) {
-//				bindTexture(element.getOutlineTexture());
-//				Matrix4f matrix = MathUtil.createTransformationMatrix(element.getPosition(), element.getOutlineScale(), element.getRotation());
-//				shader.loadTransformationMatrix(matrix);
-//				glDrawArrays(GL_TRIANGLE_STRIP, 0, quad.getVertexCount());
-//			}
+		boolean depthWritingEnabled = commands.isDepthWrite(command);
+		int count = commands.getCount(command);
 
+		if (commands.getType(command) == RenderCommandBuffer.DRAW_TEXTURE) {
+			prepare(depthWritingEnabled);
+			renderElement((TextureElement) queue.get(commands.getArg(command)));
+			return;
 		}
 
-		finish();
+		prepareInstanced(depthWritingEnabled);
+		bindTexture(commands.getArg(command));
+
+		// send the run's data to the GPU, and draw it in one go
+		instanceLayout.stream(commands.getData(), commands.getDataOffset(command), count);
+		glDrawArraysInstanced(GL_TRIANGLE_STRIP, 0, instancedQuad.vertexCount(), count);
+		RenderStats.countDraw(GL_TRIANGLE_STRIP, instancedQuad.vertexCount(), count);
+
+	}
+
+	// called from the fill threads, so this mustn't touch anything shared
+	private static int storeInstanceData(TextureElement element, float[] vboData, int pointer) {
+		pointer = MatrixUtils.storeTransformation(element.getPosition(), element.getScale(), 1, element.getRotation(), vboData, pointer);
+		pointer = element.storeTextureUVs(vboData, pointer);
+		pointer = storeVector(element.getrChannelColor(), vboData, pointer);
+		pointer = storeVector(element.getgChannelColor(), vboData, pointer);
+		pointer = storeVector(element.getbChannelColor(), vboData, pointer);
+		pointer = storeVector(element.getaChannelColor(), vboData, pointer);
+		pointer = storeVector(element.getColor(), vboData, pointer);
+		vboData[pointer++] = element.getTextureComponentAlpha();
+		vboData[pointer++] = element.getMix();
+		vboData[pointer++] = getEffectFlags(element);
+		vboData[pointer++] = element.getFadeDirection();
+		vboData[pointer++] = element.getGlitchAmplitude();
+		vboData[pointer++] = element.getGlitchSpeed();
+		vboData[pointer++] = element.getFadeMin();
+		vboData[pointer++] = element.getFadeMax();
+		vboData[pointer++] = element.getFadeStart();
+		vboData[pointer++] = element.getFadeEnd();
+		return pointer;
+	}
+
+	private static int storeVector(Vector4f vector, float[] data, int pointer) {
+		data[pointer++] = vector.x;
+		data[pointer++] = vector.y;
+		data[pointer++] = vector.z;
+		data[pointer++] = vector.w;
+		return pointer;
+	}
+
+	private static int getEffectFlags(TextureElement element) {
+		int flags = 0;
+		if (element.doColorSwap()) flags |= FLAG_COLOR_SWAP;
+		if (element.doColor()) flags |= FLAG_COLOR;
+		if (element.doLighting()) flags |= FLAG_LIGHTING;
+		if (element.doGlitch()) flags |= FLAG_GLITCH;
+		if (element.doFade()) flags |= FLAG_FADE;
+		return flags;
+	}
+
+	/**
+	 * Draw a single element with the non-instanced shader, including its outline.
+	 * The TextureShader must already be prepared.
+	 */
+	private void renderElement(TextureElement element) {
+
+		// bind this element's data
+		loadTextureUniforms(element);
+
+		// if outline is on, render it under the element
+		if (element.doOutline()) {
+			bindTexture(element.getOutlineTexture());
+			shader.loadTransformationMatrix(MathUtil.createTransformationMatrix(element.getPosition(), element.getOutlineScale(), element.getRotation(), matrix));
+			glDrawArrays(GL_TRIANGLE_STRIP, 0, quad.vertexCount());
+			RenderStats.countDraw(GL_TRIANGLE_STRIP, quad.vertexCount(), 1);
+		}
+
+		shader.loadTransformationMatrix(MathUtil.createTransformationMatrix(element.getPosition(), element.getScale(), element.getRotation(), matrix));
+
+		// bind the current texture
+		bindTexture(element.getRawTexture());
+
+		// draw the element
+		glDrawArrays(GL_TRIANGLE_STRIP, 0, quad.vertexCount());
+		RenderStats.countDraw(GL_TRIANGLE_STRIP, quad.vertexCount(), 1);
 
 	}
 
@@ -116,7 +262,7 @@ public class TextureRenderer {
 			bindTexture(element.getTextureComponent().texture());
 			loadOutlineUniforms(element);
 			glDrawArrays(GL_TRIANGLE_STRIP, 0, quad.vertexCount());
-			finishOutline(outlineShader);
+			RenderStats.countDraw(GL_TRIANGLE_STRIP, quad.vertexCount(), 1);
 		}
 	}
 
@@ -133,8 +279,8 @@ public class TextureRenderer {
 				}
 				currentBuffer.bindFrameBuffer();
 				glDrawArrays(GL_TRIANGLE_STRIP, 0, quad.vertexCount());
+				RenderStats.countDraw(GL_TRIANGLE_STRIP, quad.vertexCount(), 1);
 			}
-			finishOutline(outlineGrowShader);
 			return currentBuffer;
 		}
 		else return null; // maybe return a 1x1 buffer to be safe?
@@ -149,47 +295,39 @@ public class TextureRenderer {
 	public void rawRender(Texture texture, Vector3f position, Vector2f scale) {
 		prepare(false);
 		bindTexture(texture);
-		shader.loadTransformationMatrix(MathUtil.createTransformationMatrix(position, scale));
+		shader.loadTransformationMatrix(MathUtil.createTransformationMatrix(position, scale, matrix));
 		shader.loadTextureAlpha(1);
 		glDrawArrays(GL_TRIANGLE_STRIP, 0, quad.vertexCount());
-		finish();
+		RenderStats.countDraw(GL_TRIANGLE_STRIP, quad.vertexCount(), 1);
 	}
 
 	public void blurRender(int texture, FrameBuffer horizontalBlurBuffer, HorizontalBlurShader horizontalShader, FrameBuffer verticalBlurBuffer, VerticalBlurShader verticalShader) {
 		prepare(false);
-		shader.stop();
 		bindTexture(texture);
 		horizontalBlurBuffer.bindFrameBuffer();
 		horizontalShader.start();
 		horizontalShader.loadTargetWidth(horizontalBlurBuffer.getWidth());
 		glDrawArrays(GL_TRIANGLE_STRIP, 0, quad.vertexCount());
-		horizontalShader.stop();
+		RenderStats.countDraw(GL_TRIANGLE_STRIP, quad.vertexCount(), 1);
 		bindTexture(horizontalBlurBuffer.getColorTexture());
 		verticalBlurBuffer.bindFrameBuffer();
 		verticalShader.start();
 		verticalShader.loadTargetHeight(verticalBlurBuffer.getHeight());
 		glDrawArrays(GL_TRIANGLE_STRIP, 0, quad.vertexCount());
-		verticalShader.stop();
-		finish();
+		RenderStats.countDraw(GL_TRIANGLE_STRIP, quad.vertexCount(), 1);
 	}
 
 	private void bindTexture(Texture texture) {
-		glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
-		glActiveTexture(GL_TEXTURE0);
-		glBindTexture(GL_TEXTURE_2D, texture.id());
+		GLStateManager.bindTexture(0, texture.id());
 	}
 
 	private void bindTexture(int texture) {
-		glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
-		glActiveTexture(GL_TEXTURE0);
-		glBindTexture(GL_TEXTURE_2D, texture);
+		GLStateManager.bindTexture(0, texture);
 	}
 	
 	private void loadTextureUniforms(TextureElement element) {
-		// standard texture data
-		Matrix4f matrix = MathUtil.createTransformationMatrix(element.getPosition(), element.getScale(), element.getRotation());
-		shader.loadTransformationMatrix(matrix);
-		shader.loadTextureOffset(element.getTextureComponentOffset());
+		// standard texture data (the transformation is loaded when drawing)
+		shader.loadTextureOffset(element.getTextureUVs());
 		shader.loadTextureAlpha(element.getTextureComponent().getAlpha());
 		// color swap
 		shader.loadDoColorSwap(element.doColorSwap());
@@ -205,82 +343,85 @@ public class TextureRenderer {
 		shader.loadMix(element.getMix());
 		// glitch effect
 		shader.loadDoGlitch(element.doGlitch());
-		shader.loadTime(DisplayManager.getGameTime());
 		shader.loadAmplitude(element.getGlitchAmplitude());
 		shader.loadSpeed(element.getGlitchSpeed());
 		// fade effect
 		shader.loadDoFade(element.doFade());
-		shader.loadFadeValues(element.getFadeValues());
-		shader.loadFadeOffsets(element.getFadeOffsets());
+		shader.loadFadeValues(element.getFadeValues(vector));
+		shader.loadFadeOffsets(element.getFadeOffsets(vector));
 		shader.loadFadeDirection(element.getFadeDirection());
 	}
 
 	private void loadOutlineUniforms(TextureElement element) {
-		Matrix4f matrix = MathUtil.createTransformationMatrix(element.getPosition(), element.getScale(), element.getRotation());
-		outlineShader.loadTransformationMatrix(matrix);
-		outlineShader.loadTextureOffset(element.getTextureComponentOffset());
-		outlineShader.loadStepSize(element.stepSize());
+		outlineShader.loadTransformationMatrix(MathUtil.createTransformationMatrix(element.getPosition(), element.getScale(), element.getRotation(), matrix));
+		outlineShader.loadTextureOffset(element.getTextureUVs());
+		outlineShader.loadTextureBounds(getTextureBounds(element, textureBounds));
+		outlineShader.loadStepSize(element.stepSize(vector));
 		outlineShader.loadOutlineColor(element.outlineColor());
 	}
 
+	/**
+	 * Get the edges of the area the element's image occupies in its texture,
+	 * as (min x, min y, max x, max y). This is the whole texture unless the
+	 * image was packed into an atlas page.
+	 */
+	private static Vector4f getTextureBounds(TextureElement element, Vector4f dest) {
+		AtlasRegion region = element.getTextureComponent().getAtlasRegion();
+		if (region == null) return dest.set(0, 0, 1, 1);
+		return dest.set(region.u(), region.v(), region.u() + region.uWidth(), region.v() + region.vHeight());
+	}
+
 	private void loadOutlineGrowUniforms(TextureElement element) {
 		outlineGrowShader.loadTextureOffset(element.getTextureComponentOffset());
-		outlineGrowShader.loadStepSize(element.stepUnit());
+		outlineGrowShader.loadStepSize(element.stepUnit(vector));
 		outlineGrowShader.loadOutlineColor(element.outlineColor());
 	}
 
 	/**
 	 * Prepare the TextureRenderer for rendering. Activates the Texture Shader,
-	 * then enables the VBOs for vertex positions and transformation matrices.
+	 * binds the quad and sets the blend and depth state it needs. Nothing is
+	 * reset afterward; the next renderer sets whatever state it needs itself.
 	 */
 	private void prepare(boolean depthWritingEnabled) {
 		shader.start();
-		glBindVertexArray(quad.vaoID());
-		glEnableVertexAttribArray(0);
-		glEnable(GL_BLEND);
-		glDepthMask(depthWritingEnabled);
-		glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
-		glEnable(GL_DEPTH_TEST);
-		// send the light information to the shaders
-		shader.loadScreenRatio(Display.SCREEN_RATIO);
-		shader.loadAmbientLight(LightMaster.getAmbientLight());
-		shader.loadLights(LightMaster.getSceneLights());
-		// bind the glitch texture
-		glActiveTexture(GL_TEXTURE1);
-		glBindTexture(GL_TEXTURE_2D, glitchNoise.id());
+		GLStateManager.bindVertexArray(quad.vaoID());
+		GLStateManager.enable(GL_BLEND);
+		GLStateManager.depthMask(depthWritingEnabled);
+		GLStateManager.blendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+		GLStateManager.enable(GL_DEPTH_TEST);
+		// bind the glitch texture and the lights
+		GLStateManager.bindTexture(1, glitchNoise.id());
+		MasterRenderer.bindLights();
 	}
 
 	/**
-	 * Repeat the process of prepare() in reverse to finish this rendering process.
+	 * Prepare the instanced texture shader. Does the same setup as prepare(),
+	 * but with the instanced quad, whose per-instance attributes are part of its VAO.
 	 */
-	private void finish() {
-		glDisable(GL_DEPTH_TEST);
-		glDisable(GL_BLEND);
-		glDisableVertexAttribArray(0);
-		glBindVertexArray(0);
-		shader.stop();
+	private void prepareInstanced(boolean depthWritingEnabled) {
+		instancedShader.start();
+		GLStateManager.bindVertexArray(instancedQuad.vaoID());
+		GLStateManager.enable(GL_BLEND);
+		GLStateManager.depthMask(depthWritingEnabled);
+		GLStateManager.blendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+		GLStateManager.enable(GL_DEPTH_TEST);
+		// bind the glitch texture and the lights
+		GLStateManager.bindTexture(1, glitchNoise.id());
+		MasterRenderer.bindLights();
 	}
 
 	private void prepareOutline(ShaderProgram shader) {
 		shader.start();
-		glBindVertexArray(quad.vaoID());
-		glEnableVertexAttribArray(0);
-		glEnable(GL_BLEND);
-		glDepthMask(false);
-		glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
-		glEnable(GL_DEPTH_TEST);
-	}
-
-	private void finishOutline(ShaderProgram shader) {
-		glDisable(GL_DEPTH_TEST);
-		glDisable(GL_BLEND);
-		glDisableVertexAttribArray(0);
-		glBindVertexArray(0);
-		shader.stop();
+		GLStateManager.bindVertexArray(quad.vaoID());
+		GLStateManager.enable(GL_BLEND);
+		GLStateManager.depthMask(false);
+		GLStateManager.blendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+		GLStateManager.enable(GL_DEPTH_TEST);
 	}
 
 	public void cleanUp() {
 		shader.cleanUp();
+		instancedShader.cleanUp();
 		outlineShader.cleanUp();
 	}
 
@@ -0,0 +1,84 @@
+package com.floober.engine.renderEngine.renderers;
+
+import com.floober.engine.renderEngine.GLStateManager;
+import com.floober.engine.renderEngine.RenderStats;
+import com.floober.engine.renderEngine.shaders.textures.TileShader;
+import com.floober.engine.tilemap.TileChunk;
+import com.floober.engine.tilemap.TileMap;
+import com.floober.engine.util.configuration.Config;
+import org.joml.Vector2f;
+import org.joml.Vector4f;
+
+import static org.lwjgl.opengl.GL11.*;
+
+/**
+ * Draws tile maps, one chunk at a time. Only the chunks that overlap the
+ * camera's view are drawn, each with a single call from its static vertex
+ * buffer; a chunk whose tiles have changed is rebuilt just before it's drawn.
+ * <br><br>
+ * Tiles are either there or not, so they're drawn in the opaque pass with
+ * depth writes on, and anything see-through in the tileset is cut out.
+ */
+public class TileRenderer {
+
+	private final TileShader shader;
+	private final Vector2f cameraOffset = new Vector2f();
+
+	public TileRenderer() {
+		shader = new TileShader();
+		shader.start();
+		shader.connectTextureUnits();
+		shader.loadInternalSize(new Vector2f(Config.INTERNAL_WIDTH, Config.INTERNAL_HEIGHT));
+		shader.loadTextureAlpha(1);
+		shader.stop();
+	}
+
+	/**
+	 * Draw the visible chunks of a tile map.
+	 * @param map The map to draw.
+	 */
+	public void render(TileMap map) {
+
+		// find the chunks the camera can see
+		Vector4f view = map.getViewBounds();
+		int chunkPixels = map.getChunkSize() * map.getTileSize();
+		int firstCol = Math.max(0, (int) Math.floor(view.x / chunkPixels));
+		int firstRow = Math.max(0, (int) Math.floor(view.y / chunkPixels));
+		int lastCol = Math.min(map.getChunkCols() - 1, (int) Math.floor((view.x + view.z) / chunkPixels));
+		int lastRow = Math.min(map.getChunkRows() - 1, (int) Math.floor((view.y + view.w) / chunkPixels));
+		if (firstCol > lastCol || firstRow > lastRow) return;
+
+		prepare(map);
+		for (int row = firstRow; row <= lastRow; ++row) {
+			for (int col = firstCol; col <= lastCol; ++col) {
+				TileChunk chunk = map.getChunk(row, col);
+				if (chunk.isDirty()) chunk.build(map);
+				if (chunk.getVertexCount() == 0) continue;
+				GLStateManager.bindVertexArray(chunk.getVaoID());
+				glDrawArrays(GL_TRIANGLES, 0, chunk.getVertexCount());
+				RenderStats.countDraw(GL_TRIANGLES, chunk.getVertexCount(), 1);
+			}
+		}
+
+	}
+
+	private void prepare(TileMap map) {
+		shader.start();
+		GLStateManager.disable(GL_BLEND);
+		GLStateManager.enable(GL_DEPTH_TEST);
+		GLStateManager.depthMask(true);
+		// bind the tileset and the lights
+		GLStateManager.bindTexture(0, map.getTileset().textureID());
+		MasterRenderer.bindLights();
+		// the map's position and depth
+		Vector4f view = map.getViewBounds();
+		shader.loadCameraOffset(cameraOffset.set(-view.x, -view.y));
+		shader.loadDepth(MasterRenderer.getScreenZ(map.getLayer()));
+		shader.loadDoLighting(map.doLighting());
+	}
+
+	public void cleanUp() {
+		shader.cleanUp();
+	}
+
+}
@@ -0,0 +1,96 @@
+package com.floober.engine.renderEngine.shaders;
+
+import com.floober.engine.display.Display;
+import com.floober.engine.display.DisplayManager;
+import com.floober.engine.renderEngine.DynamicResolution;
+import com.floober.engine.renderEngine.RenderStats;
+import com.floober.engine.renderEngine.lights.LightMaster;
+import com.floober.engine.util.configuration.Config;
+import org.lwjgl.BufferUtils;
+
+import java.nio.FloatBuffer;
+
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL30.glBindBufferBase;
+import static org.lwjgl.opengl.GL31.GL_UNIFORM_BUFFER;
+
+/**
+ * The per-frame data every shader shares: the screen ratio, ambient light,
+ * game time, and how lit elements find the scene's lights. It's written to
+ * one std140 uniform buffer once per frame, instead of being loaded into
+ * each shader as uniforms.
+ * <br><br>
+ * Shaders declare it as:
+ * <pre>
+ * layout(std140) uniform SceneData {
+ *     vec2 screenRatio;
+ *     float ambientLight;
+ *     float time;
+ *     vec4 lighting; // x = 1 if lights are read from the light buffer, 0 if from the light grid; yz = the internal resolution; w = the light grid's tile size
+ * };
+ * </pre>
+ * and connect it by calling {@code bindUniformBlock(SceneData.BLOCK_NAME, SceneData.BINDING_POINT)}.
+ */
+public class SceneData {
+
+	public static final String BLOCK_NAME = "SceneData";
+	public static final int BINDING_POINT = 0;
+
+	// two vec4s
+	private static final int SIZE = 8;
+
+	private static final FloatBuffer buffer = BufferUtils.createFloatBuffer(SIZE);
+	private static int ubo = 0;
+
+	/**
+	 * Create the uniform buffer and attach it to its binding point.
+	 */
+	public static void init() {
+		ubo = glGenBuffers();
+		glBindBuffer(GL_UNIFORM_BUFFER, ubo);
+		glBufferData(GL_UNIFORM_BUFFER, SIZE * 4L, GL_DYNAMIC_DRAW);
+		glBindBuffer(GL_UNIFORM_BUFFER, 0);
+		update();
+	}
+
+	/**
+	 * Write this frame's scene data to the uniform buffer. Called once
+	 * at the start of every frame.
+	 */
+	public static void update() {
+		update(DynamicResolution.getScale());
+	}
+
+	/**
+	 * Write this frame's scene data to the uniform buffer, for drawing
+	 * into a target at the given fraction of the internal resolution.
+	 * @param scale The scale of the target being drawn into; 1 for full size.
+	 */
+	public static void update(float scale) {
+
+		buffer.clear();
+
+		// header
+		// the scene buffer may be smaller than the internal resolution, which shrinks gl_FragCoord with it
+		buffer.put(Display.SCREEN_RATIO.x / scale).put(Display.SCREEN_RATIO.y / scale);
+		buffer.put(LightMaster.getAmbientLight());
+		buffer.put(DisplayManager.getGameTime());
+
+		// lighting
+		buffer.put(Config.DEFERRED_LIGHTING ? 1 : 0).put(Config.INTERNAL_WIDTH).put(Config.INTERNAL_HEIGHT).put(Config.LIGHT_TILE_SIZE);
+
+		buffer.flip();
+
+		glBindBuffer(GL_UNIFORM_BUFFER, ubo);
+		glBufferSubData(GL_UNIFORM_BUFFER, 0, buffer);
+		RenderStats.countUpload(SIZE * 4L);
+		glBindBuffer(GL_UNIFORM_BUFFER, 0);
+		glBindBufferBase(GL_UNIFORM_BUFFER, BINDING_POINT, ubo);
+
+	}
+
+	public static void cleanUp() {
+		glDeleteBuffers(ubo);
+	}
+
+}
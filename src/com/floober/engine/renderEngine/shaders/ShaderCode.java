@@ -1,3 +1,22 @@
 package com.floober.engine.renderEngine.shaders;
 
-public record ShaderCode(String shaderFile, int shaderType) {}
\ No newline at end of file
+/**
+ * One shader stage to compile into a program: either a file of shader
+ * code, or (for generated shaders) the source itself.
+ */
+public record ShaderCode(String shaderFile, String source, int shaderType) {
+
+	public ShaderCode(String shaderFile, int shaderType) {
+		this(shaderFile, null, shaderType);
+	}
+
+	/**
+	 * A shader stage whose source was generated at runtime rather than loaded from a file.
+	 * @param source The GLSL source.
+	 * @param shaderType The stage's type, such as {@code GL_FRAGMENT_SHADER}.
+	 */
+	public static ShaderCode generated(String source, int shaderType) {
+		return new ShaderCode(null, source, shaderType);
+	}
+
+}
@@ -1,5 +1,7 @@
 package com.floober.engine.renderEngine.shaders;
 
+import com.floober.engine.renderEngine.GLStateManager;
+import com.floober.engine.renderEngine.RenderStats;
 import com.floober.engine.util.Logger;
 import com.floober.engine.util.file.FileUtil;
 import org.joml.Matrix4f;
@@ -12,9 +14,13 @@ import org.lwjgl.opengl.GL20;
 
 import java.nio.FloatBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.lwjgl.opengl.GL20.*;
+import static org.lwjgl.opengl.GL31.GL_INVALID_INDEX;
+import static org.lwjgl.opengl.GL31.glGetUniformBlockIndex;
+import static org.lwjgl.opengl.GL31.glUniformBlockBinding;
 
 public abstract class ShaderProgram {
 	
@@ -23,6 +29,13 @@ public abstract class ShaderProgram {
 	private final Integer[] fragmentShaderIDs;
 
 	private static FloatBuffer matrixBuffer = BufferUtils.createFloatBuffer(16);
+	private static final float[] matrixScratch = new float[16];
+
+	// shadow copies of the last value uploaded to each uniform location,
+	// so that loading a value the uniform already holds can be skipped
+	private int[] uniformValues = new int[0]; // raw bits, 4 per location
+	private boolean[] uniformLoaded = new boolean[0];
+	private float[][] matrixValues = new float[0][];
 
 	public ShaderProgram(String vertexFile, String fragmentFile) {
 		vertexShaderIDs = new Integer[1];
@@ -44,7 +57,9 @@ public abstract class ShaderProgram {
 		List<Integer> fragmentShaders = new ArrayList<>();
 		for (ShaderCode shaderCode : shaders) {
 			List<Integer> targetList = shaderCode.shaderType() == GL_VERTEX_SHADER ? vertexShaders : fragmentShaders;
-			int shaderID = loadShader(shaderCode.shaderFile(), shaderCode.shaderType());
+			int shaderID = shaderCode.source() != null ?
+					compileShader(shaderCode.source(), shaderCode.shaderType()) :
+					loadShader(shaderCode.shaderFile(), shaderCode.shaderType());
 			glAttachShader(programID, shaderID);
 			targetList.add(shaderID);
 		}
@@ -65,15 +80,33 @@ public abstract class ShaderProgram {
 	protected abstract void getAllUniformLocations();
 
 	protected int getUniformLocation(String uniformName) {
-		return glGetUniformLocation(programID, uniformName);
+		int location = glGetUniformLocation(programID, uniformName);
+		if (location >= uniformLoaded.length) {
+			int length = location + 1;
+			uniformValues = Arrays.copyOf(uniformValues, length * 4);
+			uniformLoaded = Arrays.copyOf(uniformLoaded, length);
+			matrixValues = Arrays.copyOf(matrixValues, length);
+		}
+		return location;
+	}
+
+	/**
+	 * Connect a uniform block in this shader to a uniform buffer binding point.
+	 * Blocks the shader doesn't declare (or that the compiler optimized out) are ignored.
+	 * @param blockName the name of the block in the shader code
+	 * @param bindingPoint the binding point the buffer is bound to
+	 */
+	protected void bindUniformBlock(String blockName, int bindingPoint) {
+		int index = glGetUniformBlockIndex(programID, blockName);
+		if (index != GL_INVALID_INDEX) glUniformBlockBinding(programID, index, bindingPoint);
 	}
 	
 	public void start() {
-		glUseProgram(programID);
+		GLStateManager.useProgram(programID);
 	}
 	
 	public void stop() {
-		glUseProgram(0);
+		GLStateManager.useProgram(0);
 	}
 	
 	public void cleanUp() {
@@ -86,7 +119,7 @@ public abstract class ShaderProgram {
 			glDetachShader(programID, fragmentShaderID);
 			glDeleteShader(fragmentShaderID);
 		}
-		glDeleteProgram(programID);
+		GLStateManager.deleteProgram(programID);
 	}
 	
 	protected abstract void bindAttributes();
@@ -96,32 +129,73 @@ public abstract class ShaderProgram {
 	}
 
 	protected void loadFloat(int location, float value) {
-		glUniform1f(location, value);
+		if (changed(location, value, 0, 0, 0)) glUniform1f(location, value);
 	}
 
-	protected void loadInt(int location, int value) { glUniform1i(location, value); }
+	protected void loadInt(int location, int value) {
+		if (changed(location, value, 0, 0, 0)) glUniform1i(location, value);
+	}
 
-	protected void loadVector(int location, Vector4f vector) { glUniform4f(location, vector.x, vector.y, vector.z, vector.w); }
+	protected void loadVector(int location, Vector4f vector) {
+		if (changed(location, vector.x, vector.y, vector.z, vector.w)) glUniform4f(location, vector.x, vector.y, vector.z, vector.w);
+	}
 
 	protected void loadVector(int location, Vector3f vector) {
-		glUniform3f(location, vector.x, vector.y, vector.z);
+		if (changed(location, vector.x, vector.y, vector.z, 0)) glUniform3f(location, vector.x, vector.y, vector.z);
 	}
 
 	protected void loadVector(int location, Vector2f vector) {
-		glUniform2f(location, vector.x, vector.y);
+		if (changed(location, vector.x, vector.y, 0, 0)) glUniform2f(location, vector.x, vector.y);
 	}
 
 	protected void loadFloat2(int location, float f1, float f2) {
-		glUniform2f(location, f1, f2);
+		if (changed(location, f1, f2, 0, 0)) glUniform2f(location, f1, f2);
 	}
 
 	protected void loadBoolean(int location, boolean value) {
-		glUniform1i(location, value ? 1 : 0);
+		loadInt(location, value ? 1 : 0);
 	}
 
 	protected void loadMatrix(int location, Matrix4f matrix) {
+		if (location < 0) return;
+		if (location < matrixValues.length) {
+			matrix.get(matrixScratch);
+			float[] cached = matrixValues[location];
+			if (cached == null) matrixValues[location] = matrixScratch.clone();
+			else if (Arrays.equals(cached, matrixScratch)) return;
+			else System.arraycopy(matrixScratch, 0, cached, 0, 16);
+		}
 		matrixBuffer = matrix.get(matrixBuffer);
 		glUniformMatrix4fv(location, false, matrixBuffer);
+		RenderStats.countUniformUpload();
+	}
+
+	private boolean changed(int location, float x, float y, float z, float w) {
+		return changed(location, Float.floatToRawIntBits(x), Float.floatToRawIntBits(y), Float.floatToRawIntBits(z), Float.floatToRawIntBits(w));
+	}
+
+	/**
+	 * Compare a value against the one last uploaded to a uniform location,
+	 * and record it if it differs.
+	 * @return true if the value needs to be uploaded
+	 */
+	private boolean changed(int location, int x, int y, int z, int w) {
+		if (location < 0) return false; // the uniform doesn't exist, so there's nothing to load
+		if (location >= uniformLoaded.length) {
+			RenderStats.countUniformUpload();
+			return true;
+		}
+		int i = location * 4;
+		if (uniformLoaded[location] &&
+				uniformValues[i] == x && uniformValues[i + 1] == y &&
+				uniformValues[i + 2] == z && uniformValues[i + 3] == w) return false;
+		uniformValues[i] = x;
+		uniformValues[i + 1] = y;
+		uniformValues[i + 2] = z;
+		uniformValues[i + 3] = w;
+		uniformLoaded[location] = true;
+		RenderStats.countUniformUpload();
+		return true;
 	}
 
 	private static int loadShader(String file, int type) {
@@ -130,6 +204,10 @@ public abstract class ShaderProgram {
 		for (String line : lines) {
 			shaderSource.append(line).append("//\n");
 		}
+		return compileShader(shaderSource, type);
+	}
+
+	private static int compileShader(CharSequence shaderSource, int type) {
 		int shaderID = GL20.glCreateShader(type);
 		GL20.glShaderSource(shaderID, shaderSource);
 		GL20.glCompileShader(shaderID);
@@ -0,0 +1,31 @@
+package com.floober.engine.renderEngine.shaders.geometry;
+
+import com.floober.engine.renderEngine.shaders.ShaderProgram;
+
+/**
+ * Draws circles with per-instance transform, color, inner and
+ * outer radius, smoothness and portion.
+ */
+public class CircleInstancedShader extends ShaderProgram {
+
+	private static final String VERTEX_FILE = "/com/floober/engine/renderEngine/shaders/shadercode/geometry/circleInstancedVertex.glsl";
+	private static final String FRAGMENT_FILE = "/com/floober/engine/renderEngine/shaders/shadercode/geometry/circleInstancedFragment.glsl";
+
+	public CircleInstancedShader() {
+		super(VERTEX_FILE, FRAGMENT_FILE);
+	}
+
+	@Override
+	protected void getAllUniformLocations() {
+	}
+
+	@Override
+	protected void bindAttributes() {
+		super.bindAttribute(0, "position");
+		super.bindAttribute(1, "transformationMatrix");
+		super.bindAttribute(5, "color");
+		super.bindAttribute(6, "radii");
+		super.bindAttribute(7, "portion");
+	}
+
+}
@@ -0,0 +1,30 @@
+package com.floober.engine.renderEngine.shaders.geometry;
+
+import com.floober.engine.renderEngine.shaders.ShaderProgram;
+
+/**
+ * Draws rectangles, lines and outlines with per-instance transform,
+ * color, round radius and dimensions.
+ */
+public class RectInstancedShader extends ShaderProgram {
+
+	private static final String VERTEX_FILE = "/com/floober/engine/renderEngine/shaders/shadercode/geometry/rectInstancedVertex.glsl";
+	private static final String FRAGMENT_FILE = "/com/floober/engine/renderEngine/shaders/shadercode/geometry/rectInstancedFragment.glsl";
+
+	public RectInstancedShader() {
+		super(VERTEX_FILE, FRAGMENT_FILE);
+	}
+
+	@Override
+	protected void getAllUniformLocations() {
+	}
+
+	@Override
+	protected void bindAttributes() {
+		super.bindAttribute(0, "position");
+		super.bindAttribute(1, "transformationMatrix");
+		super.bindAttribute(5, "color");
+		super.bindAttribute(6, "params");
+	}
+
+}
@@ -0,0 +1,37 @@
+package com.floober.engine.renderEngine.shaders.lights;
+
+import com.floober.engine.renderEngine.shaders.ShaderProgram;
+import org.joml.Vector2f;
+
+/**
+ * Draws lights into the light buffer. Every light is an instance,
+ * with its position, color and falloff as per-instance attributes.
+ */
+public class LightShader extends ShaderProgram {
+
+	private static final String VERTEX_FILE = "/com/floober/engine/renderEngine/shaders/shadercode/light/lightVertex.glsl";
+	private static final String FRAGMENT_FILE = "/com/floober/engine/renderEngine/shaders/shadercode/light/lightFragment.glsl";
+
+	private int location_internalSize;
+
+	public LightShader() {
+		super(VERTEX_FILE, FRAGMENT_FILE);
+	}
+
+	@Override
+	protected void getAllUniformLocations() {
+		location_internalSize = super.getUniformLocation("internalSize");
+	}
+
+	@Override
+	protected void bindAttributes() {
+		super.bindAttribute(0, "position");
+		super.bindAttribute(1, "center");
+		super.bindAttribute(2, "color");
+		super.bindAttribute(3, "params");
+		super.bindAttribute(4, "falloff");
+	}
+
+	public void loadInternalSize(Vector2f internalSize) { super.loadVector(location_internalSize, internalSize); }
+
+}
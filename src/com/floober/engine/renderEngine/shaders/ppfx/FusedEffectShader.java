@@ -0,0 +1,92 @@
+package com.floober.engine.renderEngine.shaders.ppfx;
+
+import com.floober.engine.renderEngine.ppfx.ColorEffect;
+import com.floober.engine.renderEngine.shaders.ShaderCode;
+import com.floober.engine.renderEngine.shaders.ShaderProgram;
+import com.floober.engine.util.file.FileUtil;
+
+import java.util.List;
+
+import static org.lwjgl.opengl.GL20.GL_FRAGMENT_SHADER;
+import static org.lwjgl.opengl.GL20.GL_VERTEX_SHADER;
+
+/**
+ * A full-screen shader that applies a chain of color effects in one pass.
+ * Its fragment shader is generated from a template: each effect's parameters
+ * become uniforms, and each effect's transform is pasted in after the last,
+ * so they all work on the same color. Every effect's names are given their
+ * own prefix ({@code fx0_}, {@code fx1_}, ...) so effects can't clash.
+ * An empty chain just copies its input.
+ */
+public class FusedEffectShader extends ShaderProgram {
+
+	private static final String VERTEX_FILE = "/com/floober/engine/renderEngine/shaders/shadercode/ppfx/vertexGeneric.glsl";
+	private static final String FRAGMENT_TEMPLATE = "/com/floober/engine/renderEngine/shaders/shadercode/ppfx/fusedFragment.glsl";
+
+	private final List<ColorEffect> effects;
+	private final int[][] parameterLocations;
+
+	public FusedEffectShader(List<ColorEffect> effects) {
+		super(new ShaderCode(VERTEX_FILE, GL_VERTEX_SHADER),
+				ShaderCode.generated(generateFragmentSource(effects), GL_FRAGMENT_SHADER));
+		this.effects = List.copyOf(effects);
+		// find every effect's parameters
+		parameterLocations = new int[effects.size()][];
+		for (int i = 0; i < effects.size(); ++i) {
+			String[] names = effects.get(i).getParameterNames();
+			parameterLocations[i] = new int[names.length];
+			for (int p = 0; p < names.length; ++p) {
+				parameterLocations[i][p] = super.getUniformLocation(prefix(i) + names[p]);
+			}
+		}
+	}
+
+	private static String prefix(int effect) {
+		return "fx" + effect + "_";
+	}
+
+	private static String generateFragmentSource(List<ColorEffect> effects) {
+		StringBuilder uniforms = new StringBuilder();
+		StringBuilder transforms = new StringBuilder();
+		for (int i = 0; i < effects.size(); ++i) {
+			ColorEffect effect = effects.get(i);
+			String prefix = prefix(i);
+			for (String name : effect.getParameterNames()) {
+				uniforms.append("uniform float ").append(prefix).append(name).append(";\n");
+			}
+			transforms.append("\t// ").append(effect.getClass().getSimpleName()).append('\n');
+			transforms.append('\t').append(effect.getTransform().replace("$", prefix)).append('\n');
+		}
+		StringBuilder source = new StringBuilder();
+		for (String line : FileUtil.getFileData(FRAGMENT_TEMPLATE)) {
+			if (line.trim().equals("// EFFECT UNIFORMS")) source.append(uniforms);
+			else if (line.trim().equals("// EFFECT TRANSFORMS")) source.append(transforms);
+			else source.append(line).append('\n');
+		}
+		return source.toString();
+	}
+
+	@Override
+	protected void bindAttributes() {
+		super.bindAttribute(0, "position");
+	}
+
+	@Override
+	protected void getAllUniformLocations() {
+		// the effects' parameters are found once the effects are known
+	}
+
+	/**
+	 * Load the current value of every effect's parameters.
+	 */
+	public void loadParameters() {
+		for (int i = 0; i < effects.size(); ++i) {
+			ColorEffect effect = effects.get(i);
+			int[] locations = parameterLocations[i];
+			for (int p = 0; p < locations.length; ++p) {
+				super.loadFloat(locations[p], effect.getParameter(p));
+			}
+		}
+	}
+
+}
@@ -2,16 +2,11 @@
 
 out vec4 out_color;
 
-uniform vec4 color;
-uniform vec2 center;
-uniform float innerRadius;
-uniform float outerRadius;
-uniform vec2 portion;
-uniform float smoothness;
+in vec2 pos;
+flat in vec4 pass_color;
+flat in vec4 pass_radii;
+flat in vec2 pass_portion;
 
-varying vec2 pos;
-
-// function declaration! yay!
 void radiusTest(float);
 
 void main(void) {
@@ -19,17 +14,17 @@ void main(void) {
 	float dist = sqrt(dot(pos, pos));
 
 	// if it's 100% don't even bother checking the angles
-	if (portion.x >= 1) {
+	if (pass_portion.x >= 1) {
 		radiusTest(dist);
 		return;
 	}
 
-	float offset = -portion.y + 270;
+	float offset = -pass_portion.y + 270;
 
 	float angle = degrees( atan( pos.y, pos.x ) ) + 180; // add 180 to get range [0 ... 360], then adjust with offset
 
 	float start = offset;
-	float end = mod(portion.x * 360 + offset, 360);
+	float end = mod(pass_portion.x * 360 + offset, 360);
 
 	if (start > end) {
 		if (!(angle > start || angle < end)) discard;
@@ -38,31 +33,30 @@ void main(void) {
 		if (!(angle > start && angle < end)) discard;
 	}
 
-	// discard fragments outside outer radius or inside inner radius;
-	// ones that are close to the edges should be smoothed according the
-	// current smoothness value
 	radiusTest(dist);
 
 }
 
 void radiusTest(float dist) {
+	float innerRadius = pass_radii.x;
+	float outerRadius = pass_radii.y;
+	float smoothness = pass_radii.z;
 	if (dist < innerRadius) {
 		if (dist > innerRadius - smoothness) {
 			float a = smoothstep(innerRadius - smoothness, innerRadius, dist);
-			out_color = color;
+			out_color = pass_color;
 			out_color.a *= a;
 		}
 		else discard;
 	}
-
 	else if (dist > outerRadius) {
 		if (dist < outerRadius + smoothness) {
 			float a = 1.0 - smoothstep(outerRadius, outerRadius + smoothness, dist);
-			out_color = color;
+			out_color = pass_color;
 			out_color.a *= a;
 		}
 		else discard;
 	}
 	else
-		out_color = color;
-}
\ No newline at end of file
+		out_color = pass_color;
+}
@@ -0,0 +1,27 @@
+#version 150
+
+// per-vertex data
+in vec2 position;
+
+// per-instance data
+in mat4 transformationMatrix;
+in vec4 color;
+in vec4 radii; // x = inner radius, y = outer radius, z = smoothness
+in vec2 portion; // x = portion, y = offset
+
+out vec2 pos;
+flat out vec4 pass_color;
+flat out vec4 pass_radii;
+flat out vec2 pass_portion;
+
+void main(void) {
+
+	pos = position;
+
+	pass_color = color;
+	pass_radii = radii;
+	pass_portion = portion;
+
+	gl_Position = transformationMatrix * vec4(position, 0.0, 1.0);
+
+}
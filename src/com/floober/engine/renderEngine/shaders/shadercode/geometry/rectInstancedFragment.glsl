@@ -0,0 +1,27 @@
+#version 150
+
+out vec4 out_color;
+
+in vec2 pos;
+flat in vec4 pass_color;
+flat in float pass_r;
+flat in vec2 pass_dimensions;
+
+float udRoundBox(vec2 pos, vec2 ext) {
+	return length(max(abs(pos) + vec2(pass_r) - ext, 0.0)) - pass_r;
+}
+
+void main(void) {
+
+	vec2 aspectRatio = vec2(1, pass_dimensions.x / pass_dimensions.y);
+
+	vec2 pos2 = pos * aspectRatio;
+	vec2 halfRes = vec2(0.5) * aspectRatio;
+
+	// compute box
+	float b = udRoundBox(pos2 - halfRes, halfRes);
+
+	// colorize
+	out_color = pass_color * step(b, 0.0);
+
+}
@@ -0,0 +1,26 @@
+#version 150
+
+// per-vertex data
+in vec2 position;
+
+// per-instance data
+in mat4 transformationMatrix;
+in vec4 color;
+in vec4 params; // x = round radius, yz = dimensions (height, width)
+
+out vec2 pos;
+flat out vec4 pass_color;
+flat out float pass_r;
+flat out vec2 pass_dimensions;
+
+void main(void) {
+
+	pos = vec2((position.x+1.0)/2.0, 1 - (position.y+1.0)/2.0);
+
+	pass_color = color;
+	pass_r = params.x;
+	pass_dimensions = params.yz;
+
+	gl_Position = transformationMatrix * vec4(position, 0.0, 1.0);
+
+}
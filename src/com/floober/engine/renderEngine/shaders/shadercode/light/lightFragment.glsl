@@ -0,0 +1,47 @@
+#version 150
+
+// parameters
+in vec2 offset;
+
+flat in vec4 pass_color;
+flat in vec4 pass_params;
+flat in float pass_falloff;
+
+// output
+out vec4 out_color;
+
+// lighting constants; must match textureLight.glsl
+const float a = 0.5;
+const float b = 0.0;
+
+void main(void) {
+
+	float intensity = pass_params.x;
+	float innerRadius = pass_params.y;
+	float outerRadius = pass_params.z;
+	float maxRadius = pass_params.w;
+	float distance = length(offset);
+
+	float att = 0.0;
+	// light-emitting particles fade out smoothly to the edge of their glow
+	if (pass_falloff > 0.5) {
+		att = 1.0 - smoothstep(innerRadius, maxRadius, distance);
+	}
+	// scene lights fall off the same way they do when sprites add them up themselves
+	else {
+		float radius = outerRadius - innerRadius;
+		if (distance <= innerRadius) {
+			att = radius / (radius + a * distance + b * distance * distance);
+			att = max(att, 1.0);
+		}
+		else if (distance < maxRadius) {
+			distance -= innerRadius;
+			att = radius / (radius + a * distance + b * distance * distance);
+			if (att < 0.02) att = 0; // lower bound 0.02; anything lower gets ignored
+		}
+	}
+
+	if (att == 0.0) discard;
+	out_color = pass_color * intensity * att;
+
+}
@@ -0,0 +1,36 @@
+#version 150
+
+// per-vertex data
+in vec2 position;
+
+// per-instance data
+in vec2 center; // in pixels, from the top left
+in vec4 color;
+in vec4 params; // intensity, inner radius, outer radius, max radius
+in float falloff; // 0 = scene light, 1 = smooth (light-emitting particles)
+
+// the size of the scene, in pixels
+uniform vec2 internalSize;
+
+// outputs
+out vec2 offset;
+
+flat out vec4 pass_color;
+flat out vec4 pass_params;
+flat out float pass_falloff;
+
+void main(void) {
+
+	// cover everything the light can reach; inside the inner radius, it reaches regardless of the max radius
+	float reach = max(params.y, params.w);
+	offset = position * reach;
+
+	// convert pixel coordinates to OpenGL coordinates
+	vec2 pixel = center + offset;
+	gl_Position = vec4(pixel.x / internalSize.x * 2.0 - 1.0, 1.0 - pixel.y / internalSize.y * 2.0, 0.0, 1.0);
+
+	pass_color = color;
+	pass_params = params;
+	pass_falloff = falloff;
+
+}
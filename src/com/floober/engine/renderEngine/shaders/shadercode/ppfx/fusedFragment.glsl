@@ -0,0 +1,18 @@
+#version 140
+
+in vec2 textureCoords;
+out vec4 out_Color;
+
+uniform sampler2D colourTexture;
+
+// EFFECT UNIFORMS
+
+void main() {
+
+	vec4 color = texture(colourTexture, textureCoords);
+
+	// EFFECT TRANSFORMS
+
+	out_Color = color;
+
+}
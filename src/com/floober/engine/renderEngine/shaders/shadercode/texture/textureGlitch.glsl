@@ -30,16 +30,18 @@ layout(origin_upper_left) in vec4 gl_FragCoord;
 // position in texture
 varying vec2 pos;
 
-// adjust coordinates based on screen size
-uniform vec2 screenRatio;
+// per-frame scene data, shared by every shader (see SceneData.java)
+layout(std140) uniform SceneData {
+    vec2 screenRatio;
+    float ambientLight;
+    float time;
+    vec4 lighting; // x = 1 if lights are read from the light buffer, 0 if from the light grid; yz = the internal resolution; w = the light grid's tile size
+};
 
 // the noise texture
 uniform sampler2D textureSampler;
 uniform sampler2D noiseSampler;
 
-// the game time
-uniform float time;
-
 uniform float AMPLITUDE = 0.5;
 uniform float SPEED = 0.1;
 
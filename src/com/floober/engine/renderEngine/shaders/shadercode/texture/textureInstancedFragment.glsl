@@ -0,0 +1,143 @@
+#version 150
+
+// parameters
+in vec2 textureCoords;
+in vec2 fragPos;
+layout(origin_upper_left) in vec4 gl_FragCoord;
+
+flat in vec4 pass_rChannelColor;
+flat in vec4 pass_gChannelColor;
+flat in vec4 pass_bChannelColor;
+flat in vec4 pass_aChannelColor;
+flat in vec4 pass_color;
+flat in float pass_alpha;
+flat in float pass_mix;
+flat in int pass_flags;
+flat in int pass_fadeDirection;
+flat in vec2 pass_glitchParams;
+flat in vec4 pass_fadeParams;
+
+// output
+out vec4 out_color;
+
+// the textures to sample
+uniform sampler2D textureSampler;
+uniform sampler2D noiseSampler;
+
+// per-frame scene data, shared by every shader (see SceneData.java)
+layout(std140) uniform SceneData {
+    vec2 screenRatio;
+    float ambientLight;
+    float time;
+    vec4 lighting; // x = 1 if lights are read from the light buffer, 0 if from the light grid; yz = the internal resolution; w = the light grid's tile size
+};
+
+// effect flags; must match the values in TextureRenderer
+const int FLAG_COLOR_SWAP = 1;
+const int FLAG_COLOR = 2;
+const int FLAG_LIGHTING = 4;
+const int FLAG_GLITCH = 8;
+const int FLAG_FADE = 16;
+
+// other shader functions
+void light(inout vec4, float);
+
+void colorSwap(inout vec4 color, vec4 texColor) {
+	color = pass_rChannelColor * texColor.r +
+			pass_gChannelColor * texColor.g +
+			pass_bChannelColor * texColor.b +
+			pass_aChannelColor * texColor.a;
+}
+
+vec4 rgbShift(in vec2 p, in vec4 shift) {
+
+	shift *= 2.0 * shift.w - 1.0;
+
+	vec2 rs = vec2(shift.x, -shift.y);
+	vec2 gs = vec2(shift.y, -shift.z);
+	vec2 bs = vec2(shift.z, -shift.x);
+
+	float r = texture(textureSampler, p + rs).x;
+	float g = texture(textureSampler, p + gs).y;
+	float b = texture(textureSampler, p + bs, 1).z;
+
+	return vec4(r, g, b, 1.0);
+
+}
+
+vec4 vec4pow(in vec4 v, in float p) {
+	return vec4(pow(v.x,p),pow(v.y,p),pow(v.z,p),v.w);
+}
+
+void glitch(inout vec4 color) {
+	float amplitude = pass_glitchParams.x;
+	float speed = pass_glitchParams.y;
+	vec4 noise = texture(noiseSampler, vec2(speed * time, 2.0 * speed * time / 25.0), 0.0);
+	vec4 shift = vec4pow(noise, 8.0) * vec4(amplitude, amplitude, amplitude, 1.0);
+	vec4 c = vec4(0.0, 0.0, 0.0, 1.0) + rgbShift(textureCoords, shift);
+	float ignore = 1 - float(length(color) == 0 && length(vec3(c.xyz)) == 0);
+	color = c * ignore;
+}
+
+void fade(inout vec4 color) {
+
+	vec2 position = fragPos + vec2(0.5);
+
+	float value;
+	switch (pass_fadeDirection) {
+		case 0:
+			value = 1.0 - position.x;
+			break;
+		case 1:
+			value = position.x;
+			break;
+		case 2:
+			value = position.y;
+			break;
+		case 3:
+			value = 1.0 - position.y;
+			break;
+		default:
+			value = 0;
+	}
+
+	float a;
+	if (value < pass_fadeParams.z) a = pass_fadeParams.x;
+	else if (value > pass_fadeParams.w) a = pass_fadeParams.y;
+	else a = smoothstep(pass_fadeParams.z, pass_fadeParams.w, value);
+
+	color.a *= a;
+
+}
+
+void main(void) {
+
+	vec4 textureColor = texture(textureSampler, textureCoords);
+	out_color = textureColor;
+	out_color.a *= pass_alpha;
+
+	if ((pass_flags & FLAG_COLOR_SWAP) != 0) {
+		colorSwap(out_color, textureColor);
+	}
+
+	if ((pass_flags & FLAG_COLOR) != 0) {
+		float a = out_color.a;
+		out_color = mix(out_color, pass_color, pass_mix);
+		out_color.a = a;
+	}
+
+	if ((pass_flags & FLAG_LIGHTING) != 0) {
+		light(out_color, pass_alpha);
+	}
+
+	if ((pass_flags & FLAG_GLITCH) != 0) {
+		float a = out_color.a;
+		glitch(out_color);
+		out_color.a = a;
+	}
+
+	if ((pass_flags & FLAG_FADE) != 0) {
+		fade(out_color);
+	}
+
+}
@@ -0,0 +1,82 @@
+#version 150
+
+// parameters
+in vec2 textureCoords;
+layout(origin_upper_left) in vec4 gl_FragCoord;
+
+// the texture to sample
+uniform sampler2D textureSampler;
+// the light buffer, with deferred lighting on
+uniform sampler2D lightSampler;
+// the light grid, with it off (see LightGrid.java)
+uniform samplerBuffer lightData;
+uniform isamplerBuffer lightTiles;
+
+// lighting constants
+const float a = 0.5;
+const float b = 0.0;
+
+// per-frame scene data, shared by every shader (see SceneData.java)
+layout(std140) uniform SceneData {
+    vec2 screenRatio;
+    float ambientLight;
+    float time;
+    vec4 lighting; // x = 1 if lights are read from the light buffer, 0 if from the light grid; yz = the internal resolution; w = the light grid's tile size
+};
+
+// same as light() in textureLight.glsl, but with the alpha passed per instance
+void light(inout vec4 pass_color, float textureAlpha) {
+
+    // fix screen coordinates
+    vec2 frag_position = gl_FragCoord.xy * screenRatio;
+
+    // light calculations
+    vec4 totalLight = vec4(0.0);
+
+    // with deferred lighting, every light has already been added up in the light buffer
+    if (lighting.x > 0.5) {
+        vec2 lightCoords = vec2(frag_position.x / lighting.y, 1.0 - frag_position.y / lighting.z);
+        totalLight = texture(lightSampler, lightCoords);
+    }
+    // otherwise, add up the lights that reach this fragment's tile
+    else {
+        int columns = int(ceil(lighting.y / lighting.w));
+        int rows = int(ceil(lighting.z / lighting.w));
+        ivec2 tile = clamp(ivec2(frag_position / lighting.w), ivec2(0), ivec2(columns - 1, rows - 1));
+        int tileIndex = tile.y * columns + tile.x;
+        int start = texelFetch(lightTiles, tileIndex * 2).r;
+        int count = texelFetch(lightTiles, tileIndex * 2 + 1).r;
+        for (int j = 0; j < count; j++) {
+            int i = texelFetch(lightTiles, start + j).r;
+            vec2 lightPosition = texelFetch(lightData, i * 3).xy;
+            vec4 lightColor = texelFetch(lightData, i * 3 + 1);
+            vec4 lightParams = texelFetch(lightData, i * 3 + 2);
+            float intensity = lightParams.x;
+            float innerRadius = lightParams.y;
+            float outerRadius = lightParams.z;
+            float maxRadius = lightParams.w;
+            vec2 lightVector = frag_position - lightPosition;
+            float distance = length(lightVector);
+            float radius = outerRadius - innerRadius;
+            if (distance <= innerRadius) {
+                float att = radius / (radius + a * distance + b * distance * distance);
+                att = max(att, 1.0);
+                totalLight += lightColor * intensity * att;
+            }
+            else {
+                if (distance < maxRadius) {
+                    distance -= innerRadius;
+                    float att = radius / (radius + a * distance + b * distance * distance);
+                    if (att < 0.02) att = 0; // lower bound 0.02; anything lower gets ignored
+                    totalLight += lightColor * intensity * att;
+                }
+            }
+        }
+    }
+
+    totalLight = max(totalLight, ambientLight);
+    vec4 textureColor = texture(textureSampler, textureCoords);
+    textureColor.w *= textureAlpha;
+    pass_color = textureColor * totalLight;
+
+}
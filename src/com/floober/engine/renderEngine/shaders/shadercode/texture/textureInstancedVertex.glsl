@@ -0,0 +1,56 @@
+#version 150
+
+// per-vertex data
+in vec2 position;
+
+// per-instance data
+in mat4 transformationMatrix;
+in vec4 textureOffset;
+in vec4 rChannelColor;
+in vec4 gChannelColor;
+in vec4 bChannelColor;
+in vec4 aChannelColor;
+in vec4 color;
+in vec4 params; // x = alpha, y = mix, z = effect flags, w = fade direction
+in vec2 glitchParams; // x = amplitude, y = speed
+in vec4 fadeParams; // x = min, y = max, z = start offset, w = end offset
+
+// outputs
+out vec2 textureCoords;
+out vec2 fragPos;
+
+flat out vec4 pass_rChannelColor;
+flat out vec4 pass_gChannelColor;
+flat out vec4 pass_bChannelColor;
+flat out vec4 pass_aChannelColor;
+flat out vec4 pass_color;
+flat out float pass_alpha;
+flat out float pass_mix;
+flat out int pass_flags;
+flat out int pass_fadeDirection;
+flat out vec2 pass_glitchParams;
+flat out vec4 pass_fadeParams;
+
+void main(void) {
+
+	fragPos = position;
+
+	textureCoords = vec2((position.x+1.0)/2.0, 1 - (position.y+1.0)/2.0);
+	textureCoords *= textureOffset.zw; // scale down size [0 -> 1] to [0 -> size]
+	textureCoords += textureOffset.xy; // translate to starting offset
+
+	pass_rChannelColor = rChannelColor;
+	pass_gChannelColor = gChannelColor;
+	pass_bChannelColor = bChannelColor;
+	pass_aChannelColor = aChannelColor;
+	pass_color = color;
+	pass_alpha = params.x;
+	pass_mix = params.y;
+	pass_flags = int(params.z + 0.5);
+	pass_fadeDirection = int(params.w + 0.5);
+	pass_glitchParams = glitchParams;
+	pass_fadeParams = fadeParams;
+
+	gl_Position = transformationMatrix * vec4(position, 0.0, 1.0);
+
+}
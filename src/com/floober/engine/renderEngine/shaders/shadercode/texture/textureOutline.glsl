@@ -7,6 +7,9 @@ out vec4 out_color;
 // the texture to sample
 uniform sampler2D textureSampler;
 
+// the area of the texture the image occupies (min x, min y, max x, max y)
+uniform vec4 textureBounds = vec4(0, 0, 1, 1);
+
 // step size
 uniform vec2 stepSize;
 
@@ -19,8 +22,8 @@ void main(void) {
 	float alpha = texture(textureSampler, textureCoords).a;
 
 	// if it's at the border and alpha == 1, pre-rig for outline to work
-	if ((textureCoords.x + stepSize.x > 1 || textureCoords.y + stepSize.y > 1 ||
-		textureCoords.x - stepSize.x < 0 || textureCoords.y - stepSize.y < 0)
+	if ((textureCoords.x + stepSize.x > textureBounds.z || textureCoords.y + stepSize.y > textureBounds.w ||
+		textureCoords.x - stepSize.x < textureBounds.x || textureCoords.y - stepSize.y < textureBounds.y)
 		&& alpha == 1)
 		alpha += .25;
 
@@ -0,0 +1,28 @@
+#version 150
+
+// parameters
+in vec2 textureCoords;
+
+// output
+out vec4 out_color;
+
+// the tileset
+uniform sampler2D textureSampler;
+
+// turn lighting calculations on or off
+uniform bool doLighting;
+
+// other shader functions
+void light(inout vec4);
+
+void main(void) {
+
+	// tiles are drawn in the opaque pass, so anything see-through is cut out
+	out_color = texture(textureSampler, textureCoords);
+	if (out_color.a < 0.5) discard;
+
+	if (doLighting) {
+		light(out_color);
+	}
+
+}
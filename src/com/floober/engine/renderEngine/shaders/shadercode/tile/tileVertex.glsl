@@ -0,0 +1,25 @@
+#version 150
+
+// per-vertex data
+in vec2 position; // in world pixels, from the top left of the map
+in vec2 texCoords;
+
+// where the camera has moved the world to, in pixels
+uniform vec2 cameraOffset;
+// the size of the scene, in pixels
+uniform vec2 internalSize;
+// the map's depth, in clip space
+uniform float depth;
+
+// outputs
+out vec2 textureCoords;
+
+void main(void) {
+
+	// convert pixel coordinates to OpenGL coordinates
+	vec2 pixel = position + cameraOffset;
+	gl_Position = vec4(pixel.x / internalSize.x * 2.0 - 1.0, 1.0 - pixel.y / internalSize.y * 2.0, depth, 1.0);
+
+	textureCoords = texCoords;
+
+}
@@ -0,0 +1,74 @@
+package com.floober.engine.renderEngine.shaders.textures;
+
+import com.floober.engine.renderEngine.lights.LightGrid;
+import com.floober.engine.renderEngine.renderers.LightRenderer;
+import com.floober.engine.renderEngine.shaders.SceneData;
+import com.floober.engine.renderEngine.shaders.ShaderCode;
+import com.floober.engine.renderEngine.shaders.ShaderProgram;
+
+import static org.lwjgl.opengl.GL20.GL_FRAGMENT_SHADER;
+import static org.lwjgl.opengl.GL20.GL_VERTEX_SHADER;
+
+/**
+ * The instanced counterpart to the TextureShader. Everything that the
+ * TextureShader receives per element as a uniform is instead read from
+ * per-instance vertex attributes, so that a whole run of elements sharing
+ * one texture can be drawn with a single call.
+ */
+public class TextureInstancedShader extends ShaderProgram {
+
+	private static final String VERTEX_FILE = "/com/floober/engine/renderEngine/shaders/shadercode/texture/textureInstancedVertex.glsl";
+	private static final String FRAGMENT_FILE = "/com/floober/engine/renderEngine/shaders/shadercode/texture/textureInstancedFragment.glsl";
+	private static final String LIGHT_FRAGMENT_FILE = "/com/floober/engine/renderEngine/shaders/shadercode/texture/textureInstancedLight.glsl";
+
+	// texture units
+	private int location_textureSampler;
+	private int location_noiseSampler;
+	private int location_lightSampler;
+	private int location_lightData;
+	private int location_lightTiles;
+
+	public TextureInstancedShader() {
+		super(
+				new ShaderCode(VERTEX_FILE, GL_VERTEX_SHADER),
+				new ShaderCode(FRAGMENT_FILE, GL_FRAGMENT_SHADER),
+				new ShaderCode(LIGHT_FRAGMENT_FILE, GL_FRAGMENT_SHADER)
+		);
+	}
+
+	@Override
+	protected void getAllUniformLocations() {
+		// texture units
+		location_textureSampler = super.getUniformLocation("textureSampler");
+		location_noiseSampler = super.getUniformLocation("noiseSampler");
+		location_lightSampler = super.getUniformLocation("lightSampler");
+		location_lightData = super.getUniformLocation("lightData");
+		location_lightTiles = super.getUniformLocation("lightTiles");
+		// per-frame scene data
+		super.bindUniformBlock(SceneData.BLOCK_NAME, SceneData.BINDING_POINT);
+	}
+
+	@Override
+	protected void bindAttributes() {
+		super.bindAttribute(0, "position");
+		super.bindAttribute(1, "transformationMatrix");
+		super.bindAttribute(5, "textureOffset");
+		super.bindAttribute(6, "rChannelColor");
+		super.bindAttribute(7, "gChannelColor");
+		super.bindAttribute(8, "bChannelColor");
+		super.bindAttribute(9, "aChannelColor");
+		super.bindAttribute(10, "color");
+		super.bindAttribute(11, "params");
+		super.bindAttribute(12, "glitchParams");
+		super.bindAttribute(13, "fadeParams");
+	}
+
+	public void connectTextureUnits() {
+		super.loadInt(location_textureSampler, 0);
+		super.loadInt(location_noiseSampler, 1);
+		super.loadInt(location_lightSampler, LightRenderer.LIGHT_TEXTURE_UNIT);
+		super.loadInt(location_lightData, LightGrid.LIGHT_DATA_UNIT);
+		super.loadInt(location_lightTiles, LightGrid.LIGHT_TILES_UNIT);
+	}
+
+}
@@ -12,6 +12,7 @@ public class TextureOutlineShader extends ShaderProgram {
 
 	private int location_transformationMatrix;
 	private int location_textureOffset;
+	private int location_textureBounds;
 	private int location_stepSize;
 	private int location_outlineColor;
 
@@ -23,6 +24,7 @@ public class TextureOutlineShader extends ShaderProgram {
 	protected void getAllUniformLocations() {
 		location_transformationMatrix = super.getUniformLocation("transformationMatrix");
 		location_textureOffset = super.getUniformLocation("textureOffset");
+		location_textureBounds = super.getUniformLocation("textureBounds");
 		location_stepSize = super.getUniformLocation("stepSize");
 		location_outlineColor = super.getUniformLocation("outlineColor");
 	}
@@ -40,6 +42,10 @@ public class TextureOutlineShader extends ShaderProgram {
 		super.loadVector(location_textureOffset, textureOffset);
 	}
 
+	public void loadTextureBounds(Vector4f textureBounds) {
+		super.loadVector(location_textureBounds, textureBounds);
+	}
+
 	public void loadStepSize(Vector2f stepSize) { super.loadVector(location_stepSize, stepSize); }
 	public void loadOutlineColor(Vector4f outlineColor) { super.loadVector(location_outlineColor, outlineColor); }
 
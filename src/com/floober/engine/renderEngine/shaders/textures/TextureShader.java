@@ -1,15 +1,14 @@
 package com.floober.engine.renderEngine.shaders.textures;
 
-import com.floober.engine.renderEngine.lights.Light;
-import com.floober.engine.renderEngine.lights.LightMaster;
+import com.floober.engine.renderEngine.lights.LightGrid;
+import com.floober.engine.renderEngine.renderers.LightRenderer;
+import com.floober.engine.renderEngine.shaders.SceneData;
 import com.floober.engine.renderEngine.shaders.ShaderCode;
 import com.floober.engine.renderEngine.shaders.ShaderProgram;
 import org.joml.Matrix4f;
 import org.joml.Vector2f;
 import org.joml.Vector4f;
 
-import java.util.List;
-
 import static org.lwjgl.opengl.GL20.GL_FRAGMENT_SHADER;
 import static org.lwjgl.opengl.GL20.GL_VERTEX_SHADER;
 
@@ -30,6 +29,9 @@ public class TextureShader extends ShaderProgram {
 
 	private int location_textureSampler;
 	private int location_noiseSampler;
+	private int location_lightSampler;
+	private int location_lightData;
+	private int location_lightTiles;
 
 	// color swap channels
 	private int location_doColorSwap;
@@ -38,16 +40,6 @@ public class TextureShader extends ShaderProgram {
 	private int location_bChannelColor;
 	private int location_aChannelColor;
 
-	// lights!
-	private int location_screenRatio;
-	private int location_ambientLight;
-	private int[] location_lightPositions;
-	private int[] location_lightColors;
-	private int[] location_lightIntensities;
-	private int[] location_lightInnerRadii;
-	private int[] location_lightOuterRadii;
-	private int[] location_lightMaxRadii;
-
 	// color effect
 	private int location_doColor;
 	private int location_color;
@@ -55,7 +47,6 @@ public class TextureShader extends ShaderProgram {
 
 	// glitch shader
 	private int location_doGlitch;
-	private int location_time;
 	private int location_amplitude;
 	private int location_speed;
 
@@ -85,37 +76,23 @@ public class TextureShader extends ShaderProgram {
 		// texture units
 		location_textureSampler = super.getUniformLocation("textureSampler");
 		location_noiseSampler = super.getUniformLocation("noiseSampler");
+		location_lightSampler = super.getUniformLocation("lightSampler");
+		location_lightData = super.getUniformLocation("lightData");
+		location_lightTiles = super.getUniformLocation("lightTiles");
 		// color swap uniforms
 		location_doColorSwap = super.getUniformLocation("doColorSwap");
 		location_rChannelColor = super.getUniformLocation("rChannelColor");
 		location_gChannelColor = super.getUniformLocation("gChannelColor");
 		location_bChannelColor = super.getUniformLocation("bChannelColor");
 		location_aChannelColor = super.getUniformLocation("aChannelColor");
-		// lighting uniforms
-		location_screenRatio = super.getUniformLocation("screenRatio");
-		location_ambientLight = super.getUniformLocation("ambientLight");
-		// light properties uniforms
-		location_lightPositions = new int[LightMaster.MAX_LIGHTS];
-		location_lightColors = new int[LightMaster.MAX_LIGHTS];
-		location_lightIntensities = new int[LightMaster.MAX_LIGHTS];
-		location_lightInnerRadii = new int[LightMaster.MAX_LIGHTS];
-		location_lightOuterRadii = new int[LightMaster.MAX_LIGHTS];
-		location_lightMaxRadii = new int[LightMaster.MAX_LIGHTS];
-		for (int i = 0; i < LightMaster.MAX_LIGHTS; ++i) {
-			location_lightPositions[i] = super.getUniformLocation("lightPositions[" + i + "]");
-			location_lightColors[i] = super.getUniformLocation("lightColors[" + i + "]");
-			location_lightIntensities[i] = super.getUniformLocation("lightIntensities[" + i + "]");
-			location_lightInnerRadii[i] = super.getUniformLocation("lightInnerRadii[" + i + "]");
-			location_lightOuterRadii[i] = super.getUniformLocation("lightOuterRadii[" + i + "]");
-			location_lightMaxRadii[i] = super.getUniformLocation("lightMaxRadii[" + i + "]");
-		}
+		// per-frame scene data
+		super.bindUniformBlock(SceneData.BLOCK_NAME, SceneData.BINDING_POINT);
 		// color uniforms
 		location_doColor = super.getUniformLocation("doColor");
 		location_color = super.getUniformLocation("color");
 		location_mix = super.getUniformLocation("mixVal");
 		// glitch uniforms
 		location_doGlitch = super.getUniformLocation("doGlitch");
-		location_time = super.getUniformLocation("time");
 		location_amplitude = super.getUniformLocation("AMPLITUDE");
 		location_speed = super.getUniformLocation("SPEED");
 		// fade uniforms
@@ -133,6 +110,9 @@ public class TextureShader extends ShaderProgram {
 	public void connectTextureUnits() {
 		super.loadInt(location_textureSampler, 0);
 		super.loadInt(location_noiseSampler, 1);
+		super.loadInt(location_lightSampler, LightRenderer.LIGHT_TEXTURE_UNIT);
+		super.loadInt(location_lightData, LightGrid.LIGHT_DATA_UNIT);
+		super.loadInt(location_lightTiles, LightGrid.LIGHT_TILES_UNIT);
 	}
 
 	// uniforms
@@ -159,40 +139,11 @@ public class TextureShader extends ShaderProgram {
 	public void loadbChannelColor(Vector4f bChannelColor) { super.loadVector(location_bChannelColor, bChannelColor); }
 	public void loadaChannelColor(Vector4f aChannelColor) { super.loadVector(location_aChannelColor, aChannelColor); }
 
-	// light
-	public void loadScreenRatio(Vector2f ratio) { super.loadVector(location_screenRatio, ratio); }
-	public void loadAmbientLight(float ambientLight) { super.loadFloat(location_ambientLight, ambientLight); }
-
-	public void loadLights(List<Light> lights) {
-		int size = lights.size();
-		for (int i = 0; i < LightMaster.MAX_LIGHTS; ++i) {
-			if (i < size) {
-				super.loadVector(location_lightPositions[i], lights.get(i).position());
-				super.loadVector(location_lightColors[i], lights.get(i).color());
-				super.loadFloat(location_lightIntensities[i], lights.get(i).intensity());
-				super.loadFloat(location_lightInnerRadii[i], lights.get(i).innerRadius());
-				super.loadFloat(location_lightOuterRadii[i], lights.get(i).outerRadius());
-				super.loadFloat(location_lightMaxRadii[i], lights.get(i).maxRadius());
-			}
-			else {
-				super.loadVector(location_lightPositions[i], new Vector2f(0));
-				super.loadVector(location_lightColors[i], new Vector4f(0));
-				super.loadFloat(location_lightIntensities[i], 0);
-				super.loadFloat(location_lightInnerRadii[i], 0);
-				super.loadFloat(location_lightOuterRadii[i], -1); // loading -1 tells the shader to skip this light, since it doesn't exist
-				super.loadFloat(location_lightMaxRadii[i], -1);
-			}
-		}
-	}
-
 	// color
 	public void loadColor(Vector4f color) { super.loadVector(location_color, color); }
 	public void loadMix(float mix) { super.loadFloat(location_mix, mix); }
 
 	// glitch
-	public void loadTime(float time) {
-		super.loadFloat(location_time, time);
-	}
 	public void loadAmplitude(float amplitude) { super.loadFloat(location_amplitude, amplitude); }
 	public void loadSpeed(float speed) { super.loadFloat(location_speed, speed); }
 
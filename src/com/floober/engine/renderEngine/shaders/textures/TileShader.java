@@ -1,96 +1,78 @@
 package com.floober.engine.renderEngine.shaders.textures;
 
-import com.floober.engine.renderEngine.lights.Light;
-import com.floober.engine.renderEngine.lights.LightMaster;
+import com.floober.engine.renderEngine.lights.LightGrid;
+import com.floober.engine.renderEngine.renderers.LightRenderer;
+import com.floober.engine.renderEngine.shaders.SceneData;
+import com.floober.engine.renderEngine.shaders.ShaderCode;
 import com.floober.engine.renderEngine.shaders.ShaderProgram;
 import org.joml.Vector2f;
-import org.joml.Vector4f;
 
-import java.util.List;
+import static org.lwjgl.opengl.GL20.GL_FRAGMENT_SHADER;
+import static org.lwjgl.opengl.GL20.GL_VERTEX_SHADER;
 
+/**
+ * Draws the chunks of a tile map. Each vertex carries its position in world
+ * pixels and its atlas coordinates, so a whole chunk is drawn with one call.
+ */
 public class TileShader extends ShaderProgram {
 
-	private static final String VERTEX_FILE = "/com/floober/engine/renderEngine/shaders/shadercode/tileVertex.glsl";
-	private static final String FRAGMENT_FILE = "/com/floober/engine/renderEngine/shaders/shadercode/tileFragment.glsl";
+	private static final String VERTEX_FILE = "/com/floober/engine/renderEngine/shaders/shadercode/tile/tileVertex.glsl";
+	private static final String FRAGMENT_FILE = "/com/floober/engine/renderEngine/shaders/shadercode/tile/tileFragment.glsl";
+	private static final String LIGHT_FRAGMENT_FILE = "/com/floober/engine/renderEngine/shaders/shadercode/texture/textureLight.glsl";
 
-	private int location_numRows;
+	private int location_cameraOffset;
+	private int location_internalSize;
+	private int location_depth;
+	private int location_doLighting;
+	private int location_textureAlpha;
 
-	// lights!
-	private int location_screenRatio;
-	private int location_ambientLight;
-	private int[] location_lightPositions;
-	private int[] location_lightColors;
-	private int[] location_lightIntensities;
-	private int[] location_lightInnerRadii;
-	private int[] location_lightOuterRadii;
-	private int[] location_lightMaxRadii;
+	private int location_textureSampler;
+	private int location_lightSampler;
+	private int location_lightData;
+	private int location_lightTiles;
 
 	public TileShader() {
-		super(VERTEX_FILE, FRAGMENT_FILE);
+		super(
+				new ShaderCode(VERTEX_FILE, GL_VERTEX_SHADER),
+				new ShaderCode(FRAGMENT_FILE, GL_FRAGMENT_SHADER),
+				new ShaderCode(LIGHT_FRAGMENT_FILE, GL_FRAGMENT_SHADER)
+		);
 	}
 
 	@Override
 	protected void getAllUniformLocations() {
-		location_numRows = super.getUniformLocation("numRows");
-		location_screenRatio = super.getUniformLocation("screenRatio");
-		location_ambientLight = super.getUniformLocation("ambientLight");
-		// light properties
-		location_lightPositions = new int[LightMaster.MAX_LIGHTS];
-		location_lightColors = new int[LightMaster.MAX_LIGHTS];
-		location_lightIntensities = new int[LightMaster.MAX_LIGHTS];
-		location_lightInnerRadii = new int[LightMaster.MAX_LIGHTS];
-		location_lightOuterRadii = new int[LightMaster.MAX_LIGHTS];
-		location_lightMaxRadii = new int[LightMaster.MAX_LIGHTS];
-		for (int i = 0; i < LightMaster.MAX_LIGHTS; ++i) {
-			location_lightPositions[i] = super.getUniformLocation("lightPositions[" + i + "]");
-			location_lightColors[i] = super.getUniformLocation("lightColors[" + i + "]");
-			location_lightIntensities[i] = super.getUniformLocation("lightIntensities[" + i + "]");
-			location_lightInnerRadii[i] = super.getUniformLocation("lightInnerRadii[" + i + "]");
-			location_lightOuterRadii[i] = super.getUniformLocation("lightOuterRadii[" + i + "]");
-			location_lightMaxRadii[i] = super.getUniformLocation("lightMaxRadii[" + i + "]");
-		}
+		location_cameraOffset = super.getUniformLocation("cameraOffset");
+		location_internalSize = super.getUniformLocation("internalSize");
+		location_depth = super.getUniformLocation("depth");
+		location_doLighting = super.getUniformLocation("doLighting");
+		location_textureAlpha = super.getUniformLocation("textureAlpha");
+		// texture units
+		location_textureSampler = super.getUniformLocation("textureSampler");
+		location_lightSampler = super.getUniformLocation("lightSampler");
+		location_lightData = super.getUniformLocation("lightData");
+		location_lightTiles = super.getUniformLocation("lightTiles");
+		// per-frame scene data
+		super.bindUniformBlock(SceneData.BLOCK_NAME, SceneData.BINDING_POINT);
 	}
 
 	@Override
 	protected void bindAttributes() {
 		super.bindAttribute(0, "position");
-		super.bindAttribute(1, "transformationMatrix");
-		super.bindAttribute(5, "texOffsets");
-		super.bindAttribute(6, "overlayTransformationMatrix");
-		super.bindAttribute(10, "in_modifiers");
-		super.bindAttribute(11, "in_rChannelColor");
-		super.bindAttribute(12, "in_gChannelColor");
-		super.bindAttribute(13, "in_bChannelColor");
-		super.bindAttribute(14, "in_aChannelColor");
-		super.bindAttribute(15, "in_doOverlay");
-//		super.bindAttribute(16, "in_overlayAlpha");
+		super.bindAttribute(1, "texCoords");
 	}
 
-	// load uniforms
-	public void loadNumRows(float numRows) { super.loadFloat(location_numRows, numRows); }
-	public void loadScreenRatio(Vector2f ratio) { super.loadVector(location_screenRatio, ratio); }
-	public void loadAmbientLight(float ambientLight) { super.loadFloat(location_ambientLight, ambientLight); }
-
-	public void loadLights(List<Light> lights) {
-		int size = lights.size();
-		for (int i = 0; i < LightMaster.MAX_LIGHTS; ++i) {
-			if (i < size) {
-				super.loadVector(location_lightPositions[i], lights.get(i).position());
-				super.loadVector(location_lightColors[i], lights.get(i).color());
-				super.loadFloat(location_lightIntensities[i], lights.get(i).intensity());
-				super.loadFloat(location_lightInnerRadii[i], lights.get(i).innerRadius());
-				super.loadFloat(location_lightOuterRadii[i], lights.get(i).outerRadius());
-				super.loadFloat(location_lightMaxRadii[i], lights.get(i).maxRadius());
-			}
-			else {
-				super.loadVector(location_lightPositions[i], new Vector2f(0));
-				super.loadVector(location_lightColors[i], new Vector4f(0));
-				super.loadFloat(location_lightIntensities[i], 0);
-				super.loadFloat(location_lightInnerRadii[i], 0);
-				super.loadFloat(location_lightOuterRadii[i], -1); // loading -1 tells the shader to skip this light, since it doesn't exist
-				super.loadFloat(location_lightMaxRadii[i], -1);
-			}
-		}
+	public void connectTextureUnits() {
+		super.loadInt(location_textureSampler, 0);
+		super.loadInt(location_lightSampler, LightRenderer.LIGHT_TEXTURE_UNIT);
+		super.loadInt(location_lightData, LightGrid.LIGHT_DATA_UNIT);
+		super.loadInt(location_lightTiles, LightGrid.LIGHT_TILES_UNIT);
 	}
 
+	// load uniforms
+	public void loadCameraOffset(Vector2f cameraOffset) { super.loadVector(location_cameraOffset, cameraOffset); }
+	public void loadInternalSize(Vector2f internalSize) { super.loadVector(location_internalSize, internalSize); }
+	public void loadDepth(float depth) { super.loadFloat(location_depth, depth); }
+	public void loadDoLighting(boolean doLighting) { super.loadBoolean(location_doLighting, doLighting); }
+	public void loadTextureAlpha(float textureAlpha) { super.loadFloat(location_textureAlpha, textureAlpha); }
+
 }
@@ -0,0 +1,51 @@
+package com.floober.engine.renderEngine.textures;
+
+import org.joml.Vector4f;
+
+/**
+ * The location of an image inside a GL texture. The texture's ID is the
+ * texture (or atlas page) to bind, and its width and height are the size
+ * of the image itself rather than of the whole page. The UV rectangle is
+ * given as (u, v, width, height) in the page's texture coordinates, the
+ * same layout used for texture offsets elsewhere in the engine.
+ */
+public record AtlasRegion(Texture texture, float u, float v, float uWidth, float vHeight) {
+
+	/**
+	 * Create a region covering an entire standalone texture.
+	 */
+	public static AtlasRegion whole(Texture texture) {
+		return new AtlasRegion(texture, 0, 0, 1, 1);
+	}
+
+	/**
+	 * Map a texture offset relative to this image into the page's coordinates.
+	 * @param offset The offset (x, y, width, height) relative to the image.
+	 * @param dest The vector to store the result in.
+	 * @return {@code dest}
+	 */
+	public Vector4f map(Vector4f offset, Vector4f dest) {
+		return dest.set(
+				u + offset.x * uWidth,
+				v + offset.y * vHeight,
+				offset.z * uWidth,
+				offset.w * vHeight);
+	}
+
+	/**
+	 * Map a texture offset into the page's coordinates, as {@link #map(Vector4f, Vector4f)}
+	 * does, writing the result straight into an array.
+	 * @param offset The offset (x, y, width, height) relative to the image.
+	 * @param dest The array to store the result in.
+	 * @param pointer The index to start storing at.
+	 * @return The index just past the stored values.
+	 */
+	public int map(Vector4f offset, float[] dest, int pointer) {
+		dest[pointer++] = u + offset.x * uWidth;
+		dest[pointer++] = v + offset.y * vHeight;
+		dest[pointer++] = offset.z * uWidth;
+		dest[pointer++] = offset.w * vHeight;
+		return pointer;
+	}
+
+}
@@ -0,0 +1,108 @@
+package com.floober.engine.renderEngine.textures;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A rectangle packer using the skyline bottom-left heuristic. The packer
+ * keeps track of the "skyline" formed by the top edges of everything placed
+ * so far, and puts each new rectangle wherever its top edge ends up lowest.
+ * It only deals in integer pixel rectangles; uploading the pixels is up to
+ * the caller.
+ */
+public class SkylinePacker {
+
+	private final int width, height;
+
+	// each node is {x, y, width}: a horizontal segment of the skyline
+	private final List<int[]> skyline = new ArrayList<>();
+
+	public SkylinePacker(int width, int height) {
+		this.width = width;
+		this.height = height;
+		skyline.add(new int[] {0, 0, width});
+	}
+
+	/**
+	 * Find a place for a rectangle of the given size, and reserve it.
+	 * @param rectWidth The width of the rectangle.
+	 * @param rectHeight The height of the rectangle.
+	 * @return The {x, y} position of the rectangle's top left corner,
+	 * or {@code null} if it does not fit anywhere.
+	 */
+	public int[] insert(int rectWidth, int rectHeight) {
+		int bestIndex = -1;
+		int bestX = 0, bestY = 0;
+		int bestTop = Integer.MAX_VALUE;
+		int bestNodeWidth = Integer.MAX_VALUE;
+		for (int i = 0; i < skyline.size(); ++i) {
+			int y = fit(i, rectWidth, rectHeight);
+			if (y < 0) continue;
+			int[] node = skyline.get(i);
+			int top = y + rectHeight;
+			if (top < bestTop || (top == bestTop && node[2] < bestNodeWidth)) {
+				bestIndex = i;
+				bestX = node[0];
+				bestY = y;
+				bestTop = top;
+				bestNodeWidth = node[2];
+			}
+		}
+		if (bestIndex == -1) return null;
+		addLevel(bestIndex, bestX, bestY, rectWidth, rectHeight);
+		return new int[] {bestX, bestY};
+	}
+
+	/**
+	 * Check whether a rectangle fits with its left edge on the given skyline node.
+	 * @return The y position it would be placed at, or -1 if it doesn't fit.
+	 */
+	private int fit(int index, int rectWidth, int rectHeight) {
+		int x = skyline.get(index)[0];
+		if (x + rectWidth > width) return -1;
+		int widthLeft = rectWidth;
+		int y = 0;
+		int i = index;
+		while (widthLeft > 0) {
+			if (i >= skyline.size()) return -1;
+			int[] node = skyline.get(i);
+			y = Math.max(y, node[1]);
+			if (y + rectHeight > height) return -1;
+			widthLeft -= node[2];
+			i++;
+		}
+		return y;
+	}
+
+	private void addLevel(int index, int x, int y, int rectWidth, int rectHeight) {
+		skyline.add(index, new int[] {x, y + rectHeight, rectWidth});
+		// shrink or remove the nodes now covered by the new one
+		for (int i = index + 1; i < skyline.size(); ++i) {
+			int[] node = skyline.get(i);
+			int[] prev = skyline.get(i - 1);
+			int prevRight = prev[0] + prev[2];
+			if (node[0] < prevRight) {
+				int shrink = prevRight - node[0];
+				node[0] += shrink;
+				node[2] -= shrink;
+				if (node[2] <= 0) {
+					skyline.remove(i);
+					i--;
+				}
+				else break;
+			}
+			else break;
+		}
+		// merge neighboring nodes at the same height
+		for (int i = 0; i < skyline.size() - 1; ++i) {
+			int[] node = skyline.get(i);
+			int[] next = skyline.get(i + 1);
+			if (node[1] == next[1]) {
+				node[2] += next[2];
+				skyline.remove(i + 1);
+				i--;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,134 @@
+package com.floober.engine.renderEngine.textures;
+
+import com.floober.engine.renderEngine.GLStateManager;
+import com.floober.engine.util.Logger;
+import com.floober.engine.util.configuration.Config;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL12.GL_CLAMP_TO_EDGE;
+
+/**
+ * Packs individual images into a few large atlas pages as they are loaded,
+ * so that sprites from different source files can share one texture bind
+ * and be drawn together in one batch. Each page is a fixed-size GL texture
+ * with a SkylinePacker tracking its free space; an image is copied into the
+ * first page with room for it, and a new page is opened when none has any.
+ * <p>
+ * Identical images are only stored once: every packed image is hashed, and
+ * packing an image whose contents match one already in an atlas page
+ * returns the existing region.
+ */
+public class TextureAtlasPacker {
+
+	private static final List<AtlasPage> pages = new ArrayList<>();
+	private static final Map<String, AtlasRegion> packedImages = new HashMap<>();
+
+	/**
+	 * Pack an image into an atlas page.
+	 * @param data The image to pack, in RGBA8 format.
+	 * @return The region of the atlas page the image was placed in, or
+	 * {@code null} if the image is too large to share a page.
+	 */
+	public static AtlasRegion pack(RawTextureData data) {
+		// check if this image has been packed already
+		String hash = hash(data);
+		AtlasRegion existing = packedImages.get(hash);
+		if (existing != null) return existing;
+		// images too big to share a page get their own texture
+		int padding = Config.ATLAS_PADDING;
+		int paddedWidth = data.width + padding * 2;
+		int paddedHeight = data.height + padding * 2;
+		if (paddedWidth > Config.ATLAS_PAGE_SIZE || paddedHeight > Config.ATLAS_PAGE_SIZE) return null;
+		// find a page with room for it
+		for (AtlasPage page : pages) {
+			AtlasRegion region = page.insert(data, paddedWidth, paddedHeight, padding);
+			if (region != null) {
+				packedImages.put(hash, region);
+				return region;
+			}
+		}
+		// no room anywhere; open a new page
+		AtlasPage page = new AtlasPage(Config.ATLAS_PAGE_SIZE);
+		pages.add(page);
+		Logger.logLoad("Opened texture atlas page " + pages.size());
+		AtlasRegion region = page.insert(data, paddedWidth, paddedHeight, padding);
+		packedImages.put(hash, region);
+		return region;
+	}
+
+	public static int getPageCount() {
+		return pages.size();
+	}
+
+	private static String hash(RawTextureData data) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			digest.update(data.buffer.duplicate());
+			StringBuilder builder = new StringBuilder();
+			for (byte b : digest.digest()) {
+				builder.append(String.format("%02x", b));
+			}
+			return builder.append('_').append(data.width).append('x').append(data.height).toString();
+		} catch (NoSuchAlgorithmException e) {
+			// every Java platform is required to support SHA-1
+			throw new RuntimeException(e);
+		}
+	}
+
+	public static void cleanUp() {
+		for (AtlasPage page : pages) {
+			GLStateManager.deleteTexture(page.textureID);
+		}
+		pages.clear();
+		packedImages.clear();
+	}
+
+	/**
+	 * One GL texture in the atlas, along with the packer that tracks its free space.
+	 */
+	private static class AtlasPage {
+
+		private final int textureID;
+		private final int size;
+		private final SkylinePacker packer;
+
+		private AtlasPage(int size) {
+			this.size = size;
+			this.packer = new SkylinePacker(size, size);
+			textureID = glGenTextures();
+			GLStateManager.bindTexture(textureID);
+			glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_NEAREST);
+			glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
+			glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
+			glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
+			// start fully transparent, so the padding between images is empty
+			ByteBuffer empty = MemoryUtil.memCalloc(size * size * 4);
+			glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA8, size, size, 0, GL_RGBA, GL_UNSIGNED_BYTE, empty);
+			MemoryUtil.memFree(empty);
+			GLStateManager.bindTexture(0);
+		}
+
+		private AtlasRegion insert(RawTextureData data, int paddedWidth, int paddedHeight, int padding) {
+			int[] position = packer.insert(paddedWidth, paddedHeight);
+			if (position == null) return null;
+			int x = position[0] + padding;
+			int y = position[1] + padding;
+			GLStateManager.bindTexture(textureID);
+			glTexSubImage2D(GL_TEXTURE_2D, 0, x, y, data.width, data.height, GL_RGBA, GL_UNSIGNED_BYTE, data.buffer);
+			GLStateManager.bindTexture(0);
+			Texture texture = new Texture(textureID, data.width, data.height);
+			return new AtlasRegion(texture, (float) x / size, (float) y / size, (float) data.width / size, (float) data.height / size);
+		}
+
+	}
+
+}
@@ -10,16 +10,28 @@ public class TextureComponent {
 	private boolean hasTransparency;
 	private float alpha = 1;
 
+	// where the texture lives in its atlas page, if it was packed into one
+	private final AtlasRegion atlasRegion;
+	private final Vector4f textureUVs = new Vector4f();
+
 	public TextureComponent(Texture texture) {
 		this.texture = texture;
+		this.atlasRegion = null;
 		hasTransparency = false;
 	}
 
 	public TextureComponent(Texture texture, boolean hasTransparency) {
 		this.texture = texture;
+		this.atlasRegion = null;
 		this.hasTransparency = hasTransparency;
 	}
 
+	public TextureComponent(AtlasRegion atlasRegion) {
+		this.texture = atlasRegion.texture();
+		this.atlasRegion = atlasRegion;
+		hasTransparency = false;
+	}
+
 	// GETTERS
 	public Texture texture() { return texture; }
 
@@ -37,6 +49,39 @@ public class TextureComponent {
 		return textureOffset;
 	}
 
+	public AtlasRegion getAtlasRegion() {
+		return atlasRegion;
+	}
+
+	/**
+	 * Get the texture coordinates to actually sample from the bound texture.
+	 * For a standalone texture this is just the texture offset; for a packed
+	 * texture, the offset is mapped into the packed region of its atlas page.
+	 * @return The (x, y, width, height) UV rectangle. The returned vector is
+	 * reused by later calls.
+	 */
+	public Vector4f getTextureUVs() {
+		if (atlasRegion == null) return textureUVs.set(textureOffset);
+		return atlasRegion.map(textureOffset, textureUVs);
+	}
+
+	/**
+	 * Store the texture coordinates to sample, as given by {@link #getTextureUVs()},
+	 * straight into an array. Safe to call from several threads at once, since
+	 * nothing shared is written.
+	 * @param dest The array to store the UV rectangle in.
+	 * @param pointer The index to start storing at.
+	 * @return The index just past the stored values.
+	 */
+	public int storeTextureUVs(float[] dest, int pointer) {
+		if (atlasRegion != null) return atlasRegion.map(textureOffset, dest, pointer);
+		dest[pointer++] = textureOffset.x;
+		dest[pointer++] = textureOffset.y;
+		dest[pointer++] = textureOffset.z;
+		dest[pointer++] = textureOffset.w;
+		return pointer;
+	}
+
 	public boolean hasTransparency() {
 		return hasTransparency;
 	}
@@ -1,62 +1,217 @@
 package com.floober.engine.renderEngine.textures;
 
+import com.floober.engine.display.Display;
+import com.floober.engine.renderEngine.GLStateManager;
 import com.floober.engine.renderEngine.elements.TextureElement;
 import com.floober.engine.renderEngine.framebuffers.FrameBuffer;
-import com.floober.engine.renderEngine.framebuffers.FrameBuffers;
+import com.floober.engine.renderEngine.framebuffers.RenderTargetPool;
 import com.floober.engine.renderEngine.renderers.TextureRenderer;
 import com.floober.engine.renderEngine.shaders.blur.HorizontalBlurShader;
 import com.floober.engine.renderEngine.shaders.blur.VerticalBlurShader;
 import com.floober.engine.util.Logger;
+import org.joml.Vector4f;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL30.GL_FRAMEBUFFER;
+import static org.lwjgl.opengl.GL30.glBindFramebuffer;
+
+/**
+ * Generates the glowing outline textures drawn beneath outlined TextureElements.
+ * <br><br>
+ * Outlines are cached by everything that affects how they look (the image,
+ * the part of it being drawn, the outline color and the outline width), so
+ * elements that look the same share one outline texture. Each cached outline
+ * counts the elements using it, and is deleted once they've all released it.
+ * One renderer is kept and reused, and scratch frame buffers come from the
+ * RenderTargetPool, so generating an outline only creates the texture it returns.
+ */
 public class TextureOutliner {
 
-	private static final HorizontalBlurShader horizontalBlurShader = new HorizontalBlurShader();
-	private static final VerticalBlurShader verticalBlurShader = new VerticalBlurShader();
+	private static final int PADDING = 24;
+	private static final int GROW_PASSES = 6;
+
+	// everything that makes one outline look different from another
+	private record OutlineKey(int texture, int width, int height, float u, float v, float uWidth, float vHeight,
+							  float r, float g, float b, float a, float outlineWidth) {}
+
+	private static class CachedOutline {
+		final OutlineKey key;
+		final Texture texture;
+		int references;
+		CachedOutline(OutlineKey key, Texture texture) {
+			this.key = key;
+			this.texture = texture;
+		}
+	}
+
+	private static final Map<OutlineKey, CachedOutline> cache = new HashMap<>();
+	private static final Map<Integer, CachedOutline> cacheByTexture = new HashMap<>();
+
+	// created on first use, since they need the GL context
+	private static TextureRenderer renderer;
+	private static HorizontalBlurShader horizontalBlurShader;
+	private static VerticalBlurShader verticalBlurShader;
+
+	private static boolean rendered;
+
+	// the element being outlined, re-centered in the scratch buffers
+	private static final TextureElement copy = new TextureElement();
 
+	/**
+	 * Give an element an outline texture matching its current outline settings,
+	 * generating it only if no matching outline has been generated already.
+	 * If the element already had an outline texture (say, from before its outline
+	 * settings changed), it's released. Call {@link #releaseOutlineTexture(TextureElement)}
+	 * once the element no longer needs it.
+	 * @param element The element to outline.
+	 */
 	public static void generateOutlineTexture(TextureElement element) {
-		// create a framebuffers to use
+		replaceOutlineTexture(element);
+		finish();
+	}
+
+	/**
+	 * Give every element in a collection an outline texture, as
+	 * {@link #generateOutlineTexture(TextureElement)} does, in one pass.
+	 * @param elements The elements to outline.
+	 */
+	public static void generateOutlineTextures(Collection<TextureElement> elements) {
+		for (TextureElement element : elements) {
+			replaceOutlineTexture(element);
+		}
+		finish();
+		Logger.log("Outlined " + elements.size() + " elements; " + cache.size() + " distinct outlines cached");
+	}
+
+	/**
+	 * Release an element's outline texture. The texture is deleted once
+	 * every element that was given it has released it.
+	 * @param element The outlined element.
+	 */
+	public static void releaseOutlineTexture(TextureElement element) {
+		Texture texture = element.getOutlineTexture();
+		if (texture == null) return;
+		CachedOutline outline = cacheByTexture.get(texture.id());
+		if (outline == null) {
+			Logger.logError("Tried to release an outline texture that the TextureOutliner didn't generate (texture " + texture.id() + ")");
+			return;
+		}
+		if (--outline.references > 0) return;
+		cache.remove(outline.key);
+		cacheByTexture.remove(texture.id());
+		GLStateManager.deleteTexture(texture.id());
+	}
+
+	// acquire the new outline before releasing the old one, so an unchanged outline isn't deleted and drawn again
+	private static void replaceOutlineTexture(TextureElement element) {
+		Texture texture = acquire(element);
+		releaseOutlineTexture(element);
+		element.setOutlineTexture(texture);
+	}
+
+	// go back to drawing to the screen, if any outlines were drawn
+	private static void finish() {
+		if (!rendered) return;
+		glBindFramebuffer(GL_FRAMEBUFFER, 0);
+		Display.setViewport();
+		rendered = false;
+	}
+
+	private static Texture acquire(TextureElement element) {
+		OutlineKey key = createKey(element);
+		CachedOutline outline = cache.get(key);
+		if (outline == null) {
+			outline = new CachedOutline(key, render(element));
+			cache.put(key, outline);
+			cacheByTexture.put(outline.texture.id(), outline);
+		}
+		outline.references++;
+		return outline.texture;
+	}
+
+	private static OutlineKey createKey(TextureElement element) {
+		TextureComponent texture = element.getTextureComponent();
+		Vector4f uvs = texture.getTextureUVs();
+		Vector4f color = element.outlineColor();
+		return new OutlineKey(texture.texture().id(), texture.width(), texture.height(), uvs.x, uvs.y, uvs.z, uvs.w,
+				color.x, color.y, color.z, color.w, element.getOutlineWidth());
+	}
+
+	/**
+	 * Render a new outline texture for an element.
+	 */
+	private static Texture render(TextureElement element) {
+
+		if (renderer == null) {
+			renderer = new TextureRenderer();
+			horizontalBlurShader = new HorizontalBlurShader();
+			verticalBlurShader = new VerticalBlurShader();
+		}
+
+		// get scratch buffers (outline, grow x2, horizontal blur) from the pool, and a buffer for the result
 		TextureComponent texture = element.getTextureComponent();
-		int padding = 24;
-		FrameBuffer outlineBuffer = FrameBuffers.createFrameBuffer(texture.width() + padding,
-																	texture.height() + padding);
-		FrameBuffer growBuffer1 = FrameBuffers.createFrameBuffer(texture.width() + padding,
-																texture.height() + padding);
-		FrameBuffer growBuffer2 = FrameBuffers.createFrameBuffer(texture.width() + padding,
-																texture.height() + padding);
-		FrameBuffer horizontalBlurBuffer = FrameBuffers.createFrameBuffer(texture.width() + padding,
-																texture.height() + padding);
-		FrameBuffer verticalBlurBuffer = FrameBuffers.createFrameBuffer(texture.width() + padding,
-																texture.height() + padding);
-		TextureRenderer renderer = new TextureRenderer();
-		// make a copy of this element, and center its position in the new buffer
-		TextureElement copy = new TextureElement(element);
-		copy.setPosition(outlineBuffer.getWidth() / 2f, outlineBuffer.getHeight() / 2f, 0);
+		int width = texture.width() + PADDING;
+		int height = texture.height() + PADDING;
+		FrameBuffer[] scratch = {
+				RenderTargetPool.acquire(width, height),
+				RenderTargetPool.acquire(width, height),
+				RenderTargetPool.acquire(width, height),
+				RenderTargetPool.acquire(width, height)
+		};
+		FrameBuffer outlineBuffer = scratch[0];
+		FrameBuffer horizontalBlurBuffer = scratch[3];
+		FrameBuffer resultBuffer = new FrameBuffer(width, height, FrameBuffer.NONE);
+
+		// copy the element, and center it in the scratch buffers
+		copy.copyFrom(element);
+		copy.setPosition(width / 2f, height / 2f, 0);
 		copy.setSize(texture.width(), texture.height());
 		copy.setCentered(true);
 		copy.transform(outlineBuffer);
-		Logger.log("Copy element transformed. Location: " + copy.getPosition() + "; Size: " + copy.getScale());
-		// bind the outline buffer
-		outlineBuffer.bindFrameBuffer();
+
+		// the scratch buffers still hold the last outline of this size, and everything
+		// below is blended onto them, so start them all off transparent
+		glClearColor(0, 0, 0, 0);
+		for (FrameBuffer buffer : scratch) {
+			buffer.bindFrameBuffer();
+			glClear(GL_COLOR_BUFFER_BIT);
+		}
+		resultBuffer.bindFrameBuffer();
+		glClear(GL_COLOR_BUFFER_BIT);
+		glClearColor(0, 0, 0, 1);
+		rendered = true;
+
 		// render the outline
+		outlineBuffer.bindFrameBuffer();
 		renderer.renderTextureOutline(copy);
 		// expand the outline
-		FrameBuffer next = renderer.growTextureOutline(copy, outlineBuffer.getColorTexture(), 6, new FrameBuffer[] {growBuffer1, growBuffer2});
-		// render the blurred outline
-		renderer.blurRender(next.getColorTexture(), horizontalBlurBuffer, horizontalBlurShader, verticalBlurBuffer, verticalBlurShader);
-		// unbind buffers
-		next.unbindFrameBuffer();
-		// delete the buffers but keep the blur texture
-		element.setOutlineTexture(verticalBlurBuffer.getColorBufferAsTexture());
-		outlineBuffer.delete(); // delete unnecessary buffers, keep the texture generated
-		growBuffer1.delete();
-		growBuffer2.delete();
-		horizontalBlurBuffer.delete();
-		verticalBlurBuffer.deleteButPreserveTextures();
+		FrameBuffer next = renderer.growTextureOutline(copy, outlineBuffer.getColorTexture(), GROW_PASSES, new FrameBuffer[] {scratch[1], scratch[2]});
+		// render the blurred outline into the result
+		renderer.blurRender(next.getColorTexture(), horizontalBlurBuffer, horizontalBlurShader, resultBuffer, verticalBlurShader);
+
+		// keep the result's texture, but not the buffer
+		Texture result = resultBuffer.getColorBufferAsTexture();
+		resultBuffer.deleteButPreserveTextures();
+		for (FrameBuffer buffer : scratch) RenderTargetPool.release(buffer);
+		return result;
+
 	}
 
 	public static void cleanUp() {
-		horizontalBlurShader.cleanUp();
-		verticalBlurShader.cleanUp();
+		for (CachedOutline outline : cache.values()) {
+			GLStateManager.deleteTexture(outline.texture.id());
+		}
+		cache.clear();
+		cacheByTexture.clear();
+		if (renderer != null) {
+			renderer.cleanUp();
+			horizontalBlurShader.cleanUp();
+			verticalBlurShader.cleanUp();
+		}
 	}
 
-}
\ No newline at end of file
+}
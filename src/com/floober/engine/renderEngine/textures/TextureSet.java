@@ -4,7 +4,15 @@ import org.joml.Vector4f;
 
 import java.util.NoSuchElementException;
 
-public record TextureSet(Texture baseTex, int texWidth, int texHeight) {
+public record TextureSet(Texture baseTex, int texWidth, int texHeight, AtlasRegion atlasRegion) {
+
+	public TextureSet(Texture baseTex, int texWidth, int texHeight) {
+		this(baseTex, texWidth, texHeight, null);
+	}
+
+	public TextureSet(AtlasRegion atlasRegion, int texWidth, int texHeight) {
+		this(atlasRegion.texture(), texWidth, texHeight, atlasRegion);
+	}
 
 	public int getNumTextures() { return (baseTex().width() / texWidth) * (baseTex().height() / texHeight); }
 
@@ -22,9 +30,8 @@ public record TextureSet(Texture baseTex, int texWidth, int texHeight) {
 	}
 
 	public TextureComponent getFrame(int index) {
-		Texture texCopy = baseTex.copy();
 		Vector4f offsets = getTextureOffset(index);
-		TextureComponent frame = new TextureComponent(texCopy);
+		TextureComponent frame = atlasRegion != null ? new TextureComponent(atlasRegion) : new TextureComponent(baseTex.copy());
 		frame.setTextureOffset(offsets);
 		return frame;
 	}
@@ -0,0 +1,118 @@
+package com.floober.engine.tilemap;
+
+import com.floober.engine.renderEngine.GLStateManager;
+import com.floober.engine.renderEngine.RenderStats;
+import com.floober.engine.renderEngine.textures.TextureAtlas;
+import org.lwjgl.BufferUtils;
+
+import java.nio.FloatBuffer;
+
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
+import static org.lwjgl.opengl.GL20.glVertexAttribPointer;
+import static org.lwjgl.opengl.GL30.glGenVertexArrays;
+
+/**
+ * One square chunk of a {@link TileMap}, and the static vertex buffer it's drawn
+ * from. Every non-empty tile is two triangles, with each vertex's position (in
+ * world pixels) and atlas coordinates stored together. The buffers are created
+ * the first time the chunk is drawn, and rebuilt whenever one of its tiles changes.
+ */
+public class TileChunk {
+
+	private static final int FLOATS_PER_VERTEX = 4; // POSITION (2), TEXTURE COORDS (2)
+	private static final int VERTICES_PER_TILE = 6;
+
+	// scratch for building chunks, shared since they're only built on the render thread
+	private static FloatBuffer scratch = BufferUtils.createFloatBuffer(0);
+
+	// the first tile in the chunk
+	private final int firstRow, firstCol;
+
+	private int vao, vbo;
+	private int vertexCount;
+	private boolean dirty = true;
+
+	TileChunk(int firstRow, int firstCol) {
+		this.firstRow = firstRow;
+		this.firstCol = firstCol;
+	}
+
+	public int getVaoID() { return vao; }
+	public int getVertexCount() { return vertexCount; }
+	public boolean isDirty() { return dirty; }
+
+	void markDirty() {
+		dirty = true;
+	}
+
+	/**
+	 * Rebuild the chunk's vertices from the map's tiles, and upload them.
+	 * @param map The map this chunk belongs to.
+	 */
+	public void build(TileMap map) {
+
+		int size = map.getChunkSize();
+		int lastRow = Math.min(firstRow + size, map.getRows());
+		int lastCol = Math.min(firstCol + size, map.getCols());
+		int maxFloats = size * size * VERTICES_PER_TILE * FLOATS_PER_VERTEX;
+		if (scratch.capacity() < maxFloats) scratch = BufferUtils.createFloatBuffer(maxFloats);
+		scratch.clear();
+
+		TextureAtlas tileset = map.getTileset();
+		int numRows = tileset.numRows();
+		float uvSize = 1f / numRows;
+		int tileSize = map.getTileSize();
+
+		for (int row = firstRow; row < lastRow; ++row) {
+			for (int col = firstCol; col < lastCol; ++col) {
+				int tile = map.getTile(row, col);
+				if (tile <= 0) continue; // empty
+				float left = col * tileSize, top = row * tileSize;
+				float right = left + tileSize, bottom = top + tileSize;
+				float u0 = (tile % numRows) * uvSize, v0 = (tile / numRows) * uvSize;
+				float u1 = u0 + uvSize, v1 = v0 + uvSize;
+				scratch.put(left).put(top).put(u0).put(v0);
+				scratch.put(left).put(bottom).put(u0).put(v1);
+				scratch.put(right).put(top).put(u1).put(v0);
+				scratch.put(right).put(top).put(u1).put(v0);
+				scratch.put(left).put(bottom).put(u0).put(v1);
+				scratch.put(right).put(bottom).put(u1).put(v1);
+			}
+		}
+		scratch.flip();
+		vertexCount = scratch.limit() / FLOATS_PER_VERTEX;
+
+		if (vao == 0) create();
+		glBindBuffer(GL_ARRAY_BUFFER, vbo);
+		glBufferData(GL_ARRAY_BUFFER, scratch, GL_STATIC_DRAW);
+		glBindBuffer(GL_ARRAY_BUFFER, 0);
+		RenderStats.countUpload(scratch.limit() * 4L);
+
+		dirty = false;
+
+	}
+
+	private void create() {
+		vao = glGenVertexArrays();
+		GLStateManager.bindVertexArray(vao);
+		vbo = glGenBuffers();
+		glBindBuffer(GL_ARRAY_BUFFER, vbo);
+		int stride = FLOATS_PER_VERTEX * 4;
+		glVertexAttribPointer(0, 2, GL_FLOAT, false, stride, 0);
+		glVertexAttribPointer(1, 2, GL_FLOAT, false, stride, 2 * 4);
+		glEnableVertexAttribArray(0);
+		glEnableVertexAttribArray(1);
+		glBindBuffer(GL_ARRAY_BUFFER, 0);
+	}
+
+	void cleanUp() {
+		if (vao == 0) return;
+		GLStateManager.deleteVertexArray(vao);
+		glDeleteBuffers(vbo);
+		vao = vbo = 0;
+		vertexCount = 0;
+		dirty = true;
+	}
+
+}
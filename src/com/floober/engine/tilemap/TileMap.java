@@ -0,0 +1,127 @@
+package com.floober.engine.tilemap;
+
+import com.floober.engine.entity.core.Camera;
+import com.floober.engine.renderEngine.renderers.MasterRenderer;
+import com.floober.engine.renderEngine.textures.TextureAtlas;
+import com.floober.engine.util.configuration.Config;
+import org.joml.Vector4f;
+
+/**
+ * A grid of tiles, each drawn with one image from a {@link TextureAtlas}.
+ * Tile 0 is empty; tiles at or past the map's blocked index are solid.
+ * <br><br>
+ * For drawing, the map is split into square chunks of {@code Config.TILE_CHUNK_SIZE}
+ * tiles. Each chunk keeps its tiles' vertices, with their atlas coordinates baked
+ * in, in a static buffer on the GPU, and is drawn with one call; only the chunks
+ * the camera can see are drawn, and a chunk's buffer is only rebuilt when one of
+ * its tiles changes.
+ */
+public class TileMap {
+
+	// the tiles
+	private final TextureAtlas tileset;
+	private final int blocked;
+	private final int rows, cols;
+	private final int[] tiles;
+	private final int tileSize;
+
+	// the chunks the tiles are drawn in
+	private final int chunkSize;
+	private final int chunkRows, chunkCols;
+	private final TileChunk[] chunks;
+
+	// drawing
+	private float layer;
+	private boolean doLighting;
+	private final Vector4f viewBounds = new Vector4f();
+
+	/**
+	 * Create a tile map.
+	 * @param tileset The atlas holding the tile images.
+	 * @param blocked The first tile index that's solid.
+	 * @param rows The number of rows of tiles.
+	 * @param cols The number of columns of tiles.
+	 * @param tiles The tile indices, row by row from the top left.
+	 */
+	public TileMap(TextureAtlas tileset, int blocked, int rows, int cols, int[] tiles) {
+		if (tiles.length != rows * cols) throw new IllegalArgumentException("Expected " + rows * cols + " tiles, got " + tiles.length);
+		this.tileset = tileset;
+		this.blocked = blocked;
+		this.rows = rows;
+		this.cols = cols;
+		this.tiles = tiles;
+		this.tileSize = tileset.width() / tileset.numRows();
+		chunkSize = Config.TILE_CHUNK_SIZE;
+		chunkRows = (rows + chunkSize - 1) / chunkSize;
+		chunkCols = (cols + chunkSize - 1) / chunkSize;
+		chunks = new TileChunk[chunkRows * chunkCols];
+		for (int i = 0; i < chunks.length; ++i) {
+			chunks[i] = new TileChunk(i / chunkCols * chunkSize, i % chunkCols * chunkSize);
+		}
+	}
+
+	// GETTERS
+	public TextureAtlas getTileset() { return tileset; }
+	public int getRows() { return rows; }
+	public int getCols() { return cols; }
+	public int getTileSize() { return tileSize; }
+	public int getWidth() { return cols * tileSize; }
+	public int getHeight() { return rows * tileSize; }
+	public int getChunkSize() { return chunkSize; }
+	public int getChunkRows() { return chunkRows; }
+	public int getChunkCols() { return chunkCols; }
+	public float getLayer() { return layer; }
+	public boolean doLighting() { return doLighting; }
+
+	public int getTile(int row, int col) {
+		return tiles[row * cols + col];
+	}
+
+	public boolean isBlocked(int row, int col) {
+		return getTile(row, col) >= blocked;
+	}
+
+	/**
+	 * @return The chunk at the given chunk row and column.
+	 */
+	public TileChunk getChunk(int chunkRow, int chunkCol) {
+		return chunks[chunkRow * chunkCols + chunkCol];
+	}
+
+	/**
+	 * @return The area of the map the camera could see when the map was last submitted for
+	 * rendering, as (left, top, width, height) in world pixels.
+	 */
+	public Vector4f getViewBounds() { return viewBounds; }
+
+	// SETTERS
+	/**
+	 * Change a tile. The chunk it's in is rebuilt the next time it's drawn.
+	 */
+	public void setTile(int row, int col, int tile) {
+		int index = row * cols + col;
+		if (tiles[index] == tile) return;
+		tiles[index] = tile;
+		getChunk(row / chunkSize, col / chunkSize).markDirty();
+	}
+
+	public void setLayer(float layer) { this.layer = layer; }
+	public void setDoLighting(boolean doLighting) { this.doLighting = doLighting; }
+
+	// RENDERING
+	/**
+	 * Submit the map to be drawn this frame, as the given camera sees it.
+	 */
+	public void render(Camera camera) {
+		camera.getViewBounds(viewBounds);
+		MasterRenderer.addTileMap(this);
+	}
+
+	/**
+	 * Delete every chunk's buffers.
+	 */
+	public void cleanUp() {
+		for (TileChunk chunk : chunks) chunk.cleanUp();
+	}
+
+}
@@ -0,0 +1,98 @@
+package com.floober.engine.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * Counts the bytes allocated on the heap while rendering a frame, to check
+ * that the render loop stays (close to) allocation free. The render thread
+ * is always counted; threads that do rendering work for it, like the render
+ * recorder and the parallel fill workers, are counted too once they've been
+ * registered. Relies on the HotSpot ThreadMXBean extension; on JVMs without
+ * it, or with allocation tracking turned off, every count reads -1.
+ */
+public class AllocationCounter {
+
+	private static final com.sun.management.ThreadMXBean threadBean = findThreadBean();
+
+	private static long frameStart = -1;
+	private static long lastFrameBytes = -1;
+
+	// the other threads counted, and what each had allocated when the frame began (-1 if not yet known)
+	private static long[] threadIDs = new long[0];
+	private static long[] threadStarts = new long[0];
+
+	private static com.sun.management.ThreadMXBean findThreadBean() {
+		try {
+			if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean &&
+					bean.isThreadAllocatedMemorySupported()) {
+				bean.setThreadAllocatedMemoryEnabled(true);
+				return bean;
+			}
+		} catch (UnsupportedOperationException | SecurityException e) {
+			Logger.logError("Allocation counting unavailable: " + e.getMessage());
+		}
+		return null;
+	}
+
+	/**
+	 * Count a thread's allocations along with the render thread's, from the next frame on.
+	 * @param thread A thread that does rendering work, usually registering itself as it starts.
+	 */
+	public static synchronized void registerThread(Thread thread) {
+		threadIDs = Arrays.copyOf(threadIDs, threadIDs.length + 1);
+		threadStarts = Arrays.copyOf(threadStarts, threadStarts.length + 1);
+		threadIDs[threadIDs.length - 1] = thread.getId();
+		threadStarts[threadStarts.length - 1] = -1;
+	}
+
+	/**
+	 * Stop counting a thread's allocations, before it ends.
+	 */
+	public static synchronized void unregisterThread(Thread thread) {
+		long id = thread.getId();
+		for (int i = 0; i < threadIDs.length; ++i) {
+			if (threadIDs[i] != id) continue;
+			int last = threadIDs.length - 1;
+			threadIDs[i] = threadIDs[last];
+			threadStarts[i] = threadStarts[last];
+			threadIDs = Arrays.copyOf(threadIDs, last);
+			threadStarts = Arrays.copyOf(threadStarts, last);
+			return;
+		}
+	}
+
+	/**
+	 * Start counting a frame's allocations.
+	 */
+	public static synchronized void beginFrame() {
+		if (threadBean == null) return;
+		frameStart = threadBean.getCurrentThreadAllocatedBytes();
+		for (int i = 0; i < threadIDs.length; ++i) {
+			threadStarts[i] = threadBean.getThreadAllocatedBytes(threadIDs[i]);
+		}
+	}
+
+	/**
+	 * Stop counting the current frame's allocations.
+	 */
+	public static synchronized void endFrame() {
+		if (threadBean == null || frameStart < 0) return;
+		long bytes = threadBean.getCurrentThreadAllocatedBytes() - frameStart;
+		// threads registered mid-frame, or that have since ended, are left out
+		for (int i = 0; i < threadIDs.length; ++i) {
+			if (threadStarts[i] < 0) continue;
+			long end = threadBean.getThreadAllocatedBytes(threadIDs[i]);
+			if (end >= 0) bytes += end - threadStarts[i];
+		}
+		lastFrameBytes = bytes;
+	}
+
+	/**
+	 * @return The number of bytes allocated while rendering the last frame, or -1 if unknown.
+	 */
+	public static long getLastFrameBytes() {
+		return lastFrameBytes;
+	}
+
+}
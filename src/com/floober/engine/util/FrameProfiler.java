@@ -0,0 +1,221 @@
+package com.floober.engine.util;
+
+import com.floober.engine.renderEngine.GPUTimer;
+import com.floober.engine.util.configuration.Settings;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Times each phase of a frame, on the CPU with nanoTime and, for the phases
+ * that draw, on the GPU with a {@link GPUTimer}. Phases are bracketed with
+ * {@link #begin(int)} and {@link #end(int)}; a phase can be entered more than
+ * once a frame (particles and text are drawn a bucket at a time), and its CPU
+ * time adds up. GPU results are read back a few frames late, without waiting
+ * on the GPU, and recorded against the frame they were measured in; the
+ * newest frames have no GPU times until their results arrive.
+ * <br><br>
+ * The last {@code HISTORY} frames are kept, to show rolling averages and
+ * maxima in the debug overlay, or to export as CSV. Profiling only runs in
+ * debug mode (or when turned on for good, as for headless runs); otherwise
+ * every call returns straight away.
+ */
+public class FrameProfiler {
+
+	// phases
+	public static final int INPUT = 0;
+	public static final int UPDATE = 1;
+	public static final int PARTICLE_UPDATE = 2;
+	public static final int SUBMIT = 3;
+	public static final int LIGHTS = 4;
+	public static final int OPAQUE = 5;
+	public static final int TRANSPARENT = 6; // includes particles and text
+	public static final int PARTICLES = 7;
+	public static final int TEXT = 8;
+	public static final int OVERLAY = 9;
+	public static final int POST_PROCESSING = 10;
+	public static final int SWAP = 11;
+	public static final int PHASE_COUNT = 12;
+
+	private static final String[] NAMES = {
+			"Input", "Game update", "Particle update", "Submit", "Light pass", "Opaque pass", "Transparent pass",
+			"  Particles", "  Text", "Overlay", "Post-processing", "Swap"
+	};
+	// particles and text are drawn many times a frame, in among the transparent pass, so
+	// they're only timed on the CPU; the GPU time they take is part of the transparent pass
+	private static final boolean[] GPU_TIMED = {
+			false, false, false, false, true, true, true,
+			false, false, true, true, false
+	};
+
+	public static final int HISTORY = 240;
+
+	private static final long[] started = new long[PHASE_COUNT];
+	private static final boolean[] running = new boolean[PHASE_COUNT];
+	private static final long[] cpuNanos = new long[PHASE_COUNT];
+	private static final GPUTimer[] gpuTimers = new GPUTimer[PHASE_COUNT];
+
+	// the last HISTORY frames, in milliseconds; GPU times not read back for a frame are NaN
+	private static final float[][] cpuHistory = new float[PHASE_COUNT][HISTORY];
+	private static final float[][] gpuHistory = new float[PHASE_COUNT][HISTORY];
+	private static int frame; // frames recorded so far
+
+	private static boolean alwaysOn;
+
+	private static boolean isActive() {
+		return alwaysOn || Settings.debugMode;
+	}
+
+	/**
+	 * Keep profiling whether or not debug mode is on, as headless runs do.
+	 */
+	public static void setAlwaysOn(boolean alwaysOn) {
+		FrameProfiler.alwaysOn = alwaysOn;
+	}
+
+	/**
+	 * Start timing a phase.
+	 * @param phase One of the phase constants.
+	 */
+	public static void begin(int phase) {
+		if (!isActive()) return;
+		if (GPU_TIMED[phase]) {
+			if (gpuTimers[phase] == null) gpuTimers[phase] = new GPUTimer(3);
+			gpuTimers[phase].begin(frame);
+		}
+		started[phase] = System.nanoTime();
+		running[phase] = true;
+	}
+
+	/**
+	 * Stop timing a phase.
+	 * @param phase One of the phase constants.
+	 */
+	public static void end(int phase) {
+		if (!isActive() || !running[phase]) return;
+		cpuNanos[phase] += System.nanoTime() - started[phase];
+		running[phase] = false;
+		if (GPU_TIMED[phase]) gpuTimers[phase].end();
+	}
+
+	/**
+	 * Record this frame's times and read back any GPU times that are ready.
+	 * Called once at the very end of each frame.
+	 */
+	public static void endFrame() {
+		if (!isActive()) return;
+		int slot = frame % HISTORY;
+		for (int phase = 0; phase < PHASE_COUNT; ++phase) {
+			cpuHistory[phase][slot] = cpuNanos[phase] / 1_000_000f;
+			cpuNanos[phase] = 0;
+			gpuHistory[phase][slot] = Float.NaN;
+			// each GPU result belongs to the frame its span was in, usually a few frames back
+			GPUTimer timer = gpuTimers[phase];
+			if (timer == null) continue;
+			while (timer.pollNext()) {
+				long resultFrame = timer.getLastTag();
+				if (resultFrame < 0 || frame - resultFrame >= HISTORY) continue;
+				gpuHistory[phase][(int) (resultFrame % HISTORY)] = timer.getLastMillis();
+			}
+		}
+		frame++;
+	}
+
+	private static int recordedFrames() {
+		return Math.min(frame, HISTORY);
+	}
+
+	/**
+	 * @return The average time a phase took over the recorded frames, in milliseconds, or NaN if unknown.
+	 */
+	public static float getAverage(int phase, boolean gpu) {
+		float[] history = gpu ? gpuHistory[phase] : cpuHistory[phase];
+		float total = 0;
+		int count = 0;
+		for (int i = 0; i < recordedFrames(); ++i) {
+			if (Float.isNaN(history[i])) continue;
+			total += history[i];
+			count++;
+		}
+		return count == 0 ? Float.NaN : total / count;
+	}
+
+	/**
+	 * @return The longest time a phase took over the recorded frames, in milliseconds, or NaN if unknown.
+	 */
+	public static float getMax(int phase, boolean gpu) {
+		float[] history = gpu ? gpuHistory[phase] : cpuHistory[phase];
+		float max = Float.NaN;
+		for (int i = 0; i < recordedFrames(); ++i) {
+			if (Float.isNaN(history[i])) continue;
+			if (Float.isNaN(max) || history[i] > max) max = history[i];
+		}
+		return max;
+	}
+
+	/**
+	 * @return A table of every phase's average and max times, for the debug overlay.
+	 */
+	public static String getReport() {
+		StringBuilder report = new StringBuilder("Phase: CPU avg/max, GPU avg/max (ms, last ").append(recordedFrames()).append(" frames)");
+		for (int phase = 0; phase < PHASE_COUNT; ++phase) {
+			report.append('\n').append(NAMES[phase]).append(": ")
+					.append(format(getAverage(phase, false))).append('/').append(format(getMax(phase, false)));
+			if (GPU_TIMED[phase]) {
+				report.append(", ").append(format(getAverage(phase, true))).append('/').append(format(getMax(phase, true)));
+			}
+		}
+		return report.toString();
+	}
+
+	private static String format(float millis) {
+		return Float.isNaN(millis) ? "-" : String.format("%.2f", millis);
+	}
+
+	/**
+	 * Write the recorded frames to a CSV file, oldest first, with a CPU
+	 * column for every phase and a GPU column for every phase timed on the GPU.
+	 * @param targetPath The file to write.
+	 */
+	public static void exportCSV(String targetPath) {
+		File file = new File(targetPath);
+		if (file.getParentFile() != null && !file.getParentFile().exists() && !file.getParentFile().mkdirs()) {
+			Logger.logError("Could not create folder for profile: " + targetPath);
+			return;
+		}
+		try (PrintWriter out = new PrintWriter(file)) {
+			// header
+			StringBuilder line = new StringBuilder("frame");
+			for (int phase = 0; phase < PHASE_COUNT; ++phase) line.append(",").append(NAMES[phase].trim()).append(" CPU");
+			for (int phase = 0; phase < PHASE_COUNT; ++phase) {
+				if (GPU_TIMED[phase]) line.append(",").append(NAMES[phase].trim()).append(" GPU");
+			}
+			out.println(line);
+			// frames
+			for (int f = frame - recordedFrames(); f < frame; ++f) {
+				int slot = f % HISTORY;
+				line.setLength(0);
+				line.append(f);
+				for (int phase = 0; phase < PHASE_COUNT; ++phase) line.append(',').append(cpuHistory[phase][slot]);
+				for (int phase = 0; phase < PHASE_COUNT; ++phase) {
+					if (!GPU_TIMED[phase]) continue;
+					line.append(',');
+					if (!Float.isNaN(gpuHistory[phase][slot])) line.append(gpuHistory[phase][slot]);
+				}
+				out.println(line);
+			}
+			Logger.log("Frame profile saved to " + targetPath);
+		} catch (IOException e) {
+			Logger.logError("Failed to save frame profile: " + e.getMessage());
+		}
+	}
+
+	public static void cleanUp() {
+		for (int phase = 0; phase < PHASE_COUNT; ++phase) {
+			if (gpuTimers[phase] != null) gpuTimers[phase].cleanUp();
+			gpuTimers[phase] = null;
+		}
+	}
+
+}
@@ -1,5 +1,6 @@
 package com.floober.engine.util;
 
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 
@@ -24,4 +25,66 @@ public class Sorting {
 
 	}
 
+	/**
+	 * Sort the first {@code count} keys in ascending order, looking only at
+	 * bits {@code lowBit} and up. The sort is a stable LSD radix sort, so keys
+	 * that tie on those bits stay in the order they were in; any bits below
+	 * {@code lowBit} are carried along but not sorted on. Keys must not be negative.
+	 * @param keys The keys to sort.
+	 * @param scratch An array at least {@code count} long, used as the sort's second buffer.
+	 * @param count The number of keys to sort.
+	 * @param lowBit The lowest bit to sort on.
+	 */
+	public static void radixSort(long[] keys, long[] scratch, int count, int lowBit) {
+		radixSort(keys, scratch, new int[256], count, lowBit);
+	}
+
+	/**
+	 * Radix sort as above, using the given histogram array rather than allocating one.
+	 * @param histogram An array of 256 ints, used to count keys per digit.
+	 * @see #radixSort(long[], long[], int, int)
+	 */
+	public static void radixSort(long[] keys, long[] scratch, int[] histogram, int count, int lowBit) {
+
+		if (count < 2) return;
+
+		long[] source = keys;
+		long[] dest = scratch;
+
+		for (int shift = lowBit; shift < 63; shift += 8) {
+
+			// count how many keys fall in each bucket
+			Arrays.fill(histogram, 0);
+			for (int i = 0; i < count; ++i) {
+				histogram[(int) ((source[i] >>> shift) & 0xFF)]++;
+			}
+
+			// if every key is in the same bucket, this digit doesn't change anything
+			if (histogram[(int) ((source[0] >>> shift) & 0xFF)] == count) continue;
+
+			// turn the counts into starting positions
+			int total = 0;
+			for (int b = 0; b < 256; ++b) {
+				int bucketSize = histogram[b];
+				histogram[b] = total;
+				total += bucketSize;
+			}
+
+			// scatter
+			for (int i = 0; i < count; ++i) {
+				long key = source[i];
+				dest[histogram[(int) ((key >>> shift) & 0xFF)]++] = key;
+			}
+
+			long[] swap = source;
+			source = dest;
+			dest = swap;
+
+		}
+
+		// make sure the result ends up in the array the caller gave us
+		if (source != keys) System.arraycopy(source, 0, keys, 0, count);
+
+	}
+
 }
\ No newline at end of file
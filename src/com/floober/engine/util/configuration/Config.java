@@ -26,6 +26,62 @@ public class Config {
 	public static final int DEFAULT_WIDTH = 1600;
 	public static final int DEFAULT_HEIGHT = 900;
 
+	// Textures loaded from the texture directory are packed into atlas
+	// pages of this size at load time, so that sprites from different
+	// images can be drawn together. Padding is left around each image.
+	public static final boolean PACK_TEXTURES = true;
+	public static final int ATLAS_PAGE_SIZE = 2048;
+	public static final int ATLAS_PADDING = 2;
+
+	// Instance data for every instanced draw is streamed through one ring
+	// buffer, split into sections so the CPU can write one section while
+	// the GPU still reads the others. A section must hold the largest
+	// single batch (25,000 particles at 100 bytes each).
+	public static final int STREAM_BUFFER_SECTION_SIZE = 8 * 1024 * 1024;
+	public static final int STREAM_BUFFER_SECTIONS = 3;
+
+	// Elements and particles entirely outside the screen are dropped
+	// before they're batched. Turn this off to draw everything anyway.
+	public static final boolean VIEW_CULLING = true;
+
+	// Each frame's draws are recorded (sorted, with their instance data
+	// written out) on a separate thread, while the render thread issues
+	// them as they're finished. Turn this off to record on the render thread.
+	public static final boolean PIPELINED_RENDERING = true;
+
+	// Instance data for large batches (particles, sprites, circles) is
+	// written by several threads at once, each filling its own slice.
+	// Batches smaller than the minimum are filled on one thread, and a
+	// thread count of 1 turns parallel filling off entirely.
+	public static final int PARALLEL_FILL_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+	public static final int PARALLEL_FILL_MIN_INSTANCES = 2048;
+
+	// The scene can be rendered at a fraction of the internal resolution,
+	// chosen each frame to keep the GPU's frame time under the target, and
+	// stretched back over the screen by post-processing. With the native
+	// overlay on, transparent elements, particles and text at or above the
+	// overlay depth (GUI, dialogue) are drawn after stretching, at full resolution.
+	public static final boolean DYNAMIC_RESOLUTION = false;
+	public static final float DYNAMIC_RESOLUTION_MIN_SCALE = 0.5f;
+	public static final float DYNAMIC_RESOLUTION_MAX_SCALE = 1.0f;
+	public static final float DYNAMIC_RESOLUTION_TARGET_MS = 14f;
+	public static final boolean NATIVE_RESOLUTION_OVERLAY = true;
+	public static final float OVERLAY_DEPTH = 8;
+
+	// With deferred lighting on, every light (scene lights and light-emitting
+	// particles) is drawn into a light buffer at a fraction of the scene's
+	// resolution each frame, and lit sprites read their light from it in one
+	// lookup. With it off, lit sprites add up each scene light's falloff
+	// themselves, but only for the lights that reach their tile of a grid of
+	// screen tiles, sorted on the CPU each frame. Neither limits the number of lights.
+	public static final boolean DEFERRED_LIGHTING = true;
+	public static final float LIGHT_BUFFER_SCALE = 0.5f;
+	public static final int LIGHT_TILE_SIZE = 64;
+
+	// Tile maps are drawn in square chunks of this many tiles a side, each
+	// kept in its own static vertex buffer and drawn with one call.
+	public static final int TILE_CHUNK_SIZE = 16;
+
 	public static Vector4f getScreenBounds() {
 		return new Vector4f(0, 0, INTERNAL_WIDTH, INTERNAL_HEIGHT);
 	}
@@ -77,6 +77,7 @@ public class KeyInput {
 
 	public static void update() {
 		System.arraycopy(keyState, 0, prevKeyState, 0, NUM_KEYS);
+		if (GameWindow.HEADLESS) return; // no window, so no keys are ever pressed
 		keyState[A]        = glfwGetKey(GameWindow.windowID, GLFW_KEY_A) == GLFW_PRESS;
 		keyState[B]        = glfwGetKey(GameWindow.windowID, GLFW_KEY_B) == GLFW_PRESS;
 		keyState[C]        = glfwGetKey(GameWindow.windowID, GLFW_KEY_C) == GLFW_PRESS;
@@ -36,6 +36,7 @@ public class MouseInput {
 	
 	public static void update() {
 		System.arraycopy(buttonState, 0, prevButtonState, 0, NUM_BUTTONS);
+		if (GameWindow.HEADLESS) return; // no window, so the mouse never moves or clicks
 		buttonState[LEFT] = glfwGetMouseButton(GameWindow.windowID, GLFW_MOUSE_BUTTON_LEFT) == GLFW_PRESS;
 		buttonState[RIGHT] = glfwGetMouseButton(GameWindow.windowID, GLFW_MOUSE_BUTTON_RIGHT) == GLFW_PRESS;
 		DoubleBuffer xBuffer = BufferUtils.createDoubleBuffer(1);
@@ -13,32 +13,41 @@ public class MathUtil {
 
 	public static Matrix4f createTransformationMatrix(Vector2f translation, Vector2f scale) {
 		Matrix4f matrix = new Matrix4f();
-		matrix.translate(new Vector3f(translation, 0));
-		matrix.scale(new Vector3f(scale, 0));
+		matrix.translate(translation.x, translation.y, 0);
+		matrix.scale(scale.x, scale.y, 0);
 		return matrix;
 	}
 
 	public static Matrix4f createTransformationMatrix(Vector3f translation, Vector2f scale) {
-		Matrix4f matrix = new Matrix4f();
-		matrix.translate(translation);
-		matrix.scale(new Vector3f(scale, 0));
-		return matrix;
+		return createTransformationMatrix(translation, scale, new Matrix4f());
+	}
+
+	/**
+	 * Build a transformation matrix in {@code dest}, without allocating.
+	 * @return {@code dest}
+	 */
+	public static Matrix4f createTransformationMatrix(Vector3f translation, Vector2f scale, Matrix4f dest) {
+		return dest.translation(translation).scale(scale.x, scale.y, 0);
 	}
 
 	public static Matrix4f createTransformationMatrix(Vector2f translation, Vector2f scale, float rz) {
 		Matrix4f matrix = new Matrix4f();
-		matrix.translate(new Vector3f(translation, 0));
-		matrix.scale(new Vector3f(scale, 0));
-		matrix.rotate((float) Math.toRadians(rz), new Vector3f(0,0,1));
+		matrix.translate(translation.x, translation.y, 0);
+		matrix.scale(scale.x, scale.y, 0);
+		matrix.rotateZ((float) Math.toRadians(rz));
 		return matrix;
 	}
 
 	public static Matrix4f createTransformationMatrix(Vector3f translation, Vector2f scale, float rz) {
-		Matrix4f matrix = new Matrix4f();
-		matrix.translate(translation);
-		matrix.scale(new Vector3f(scale, 1));
-		matrix.rotate((float) Math.toRadians(rz), new Vector3f(0,0,1));
-		return matrix;
+		return createTransformationMatrix(translation, scale, rz, new Matrix4f());
+	}
+
+	/**
+	 * Build a rotated transformation matrix in {@code dest}, without allocating.
+	 * @return {@code dest}
+	 */
+	public static Matrix4f createTransformationMatrix(Vector3f translation, Vector2f scale, float rz, Matrix4f dest) {
+		return dest.translation(translation).scale(scale.x, scale.y, 1).rotateZ((float) Math.toRadians(rz));
 	}
 
 	public static Matrix4f createTransformationMatrix(Vector3f translation, float rx, float ry, float rz, float scale) {
@@ -161,6 +170,17 @@ public class MathUtil {
 	 * @return A polar vector representation of the Cartesian vector.
 	 */
 	public static Vector2f getPolar(float dx, float dy) {
+		return getPolar(dx, dy, new Vector2f());
+	}
+
+	/**
+	 * Store the polar representation of the given Cartesian vector in a Vector2f.
+	 * @param dx The x-component.
+	 * @param dy The y-component.
+	 * @param dest The vector to store the (length, angle in degrees) in.
+	 * @return {@code dest}
+	 */
+	public static Vector2f getPolar(float dx, float dy, Vector2f dest) {
 		// get rotation (range -pi to pi)
 		float angleRad = (float) Math.atan2(dy, dx);
 		// convert to degrees
@@ -174,7 +194,7 @@ public class MathUtil {
 		// get length
 		float length = length(dx, dy);
 		// return the vector
-		return new Vector2f(length, angleDeg);
+		return dest.set(length, angleDeg);
 	}
 
 	/**
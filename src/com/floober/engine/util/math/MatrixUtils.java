@@ -1,6 +1,8 @@
 package com.floober.engine.util.math;
 
 import org.joml.Matrix4f;
+import org.joml.Vector2f;
+import org.joml.Vector3f;
 
 public class MatrixUtils {
 
@@ -24,4 +26,47 @@ public class MatrixUtils {
 		return pointer;
 	}
 
+	/**
+	 * Store a 2D transformation (translate, then scale, then rotate about Z)
+	 * straight into instance data, in the same column-major layout as
+	 * {@link #storeMatrixData}, without building a Matrix4f first. The result
+	 * matches {@code MathUtil.createTransformationMatrix} for the same inputs.
+	 * @param translation The translation.
+	 * @param scale The X and Y scale.
+	 * @param scaleZ The Z scale.
+	 * @param rotation The rotation about Z, in degrees.
+	 * @param vboData The array to store the matrix in.
+	 * @param pointer The index to start storing at.
+	 * @return The index just past the stored matrix.
+	 */
+	public static int storeTransformation(Vector3f translation, Vector2f scale, float scaleZ, float rotation, float[] vboData, int pointer) {
+		float sin = 0, cos = 1;
+		if (rotation != 0) {
+			double radians = Math.toRadians(rotation);
+			sin = (float) Math.sin(radians);
+			cos = (float) Math.cos(radians);
+		}
+		// column 0
+		vboData[pointer++] = scale.x * cos;
+		vboData[pointer++] = scale.y * sin;
+		vboData[pointer++] = 0;
+		vboData[pointer++] = 0;
+		// column 1
+		vboData[pointer++] = -scale.x * sin;
+		vboData[pointer++] = scale.y * cos;
+		vboData[pointer++] = 0;
+		vboData[pointer++] = 0;
+		// column 2
+		vboData[pointer++] = 0;
+		vboData[pointer++] = 0;
+		vboData[pointer++] = scaleZ;
+		vboData[pointer++] = 0;
+		// column 3
+		vboData[pointer++] = translation.x;
+		vboData[pointer++] = translation.y;
+		vboData[pointer++] = translation.z;
+		vboData[pointer++] = 1;
+		return pointer;
+	}
+
 }
\ No newline at end of file